@@ -2,6 +2,8 @@ package de.tudortmund.cs.iltis.folalib.automata;
 
 import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
 import de.tudortmund.cs.iltis.folalib.languages.Word;
+import de.tudortmund.cs.iltis.folalib.util.Cache;
+import de.tudortmund.cs.iltis.folalib.util.Caches;
 import de.tudortmund.cs.iltis.utils.function.SerializableFunction;
 import de.tudortmund.cs.iltis.utils.graph.Graph;
 import de.tudortmund.cs.iltis.utils.graph.hashgraph.HashGraph;
@@ -121,25 +123,56 @@ public abstract class Automaton<
         return true;
     }
 
-    private final HashMap<Config, Set<Trans>> cachedApplicableTransitions = new HashMap<>();
+    private final Cache<Object, Set<Trans>> cachedApplicableTransitions =
+            Caches.create("Automaton.applicableTransitions");
 
     /**
      * Computes the set of transitions that are applicable for the given configuration.
      *
-     * <p>Calls {@link ITransition#isApplicable(Configuration)} for each transition of the
-     * automaton.
+     * <p>The transitions are computed by {@link #computeApplicableTransitions(Configuration)}. The
+     * result is cached under the key returned by {@link
+     * #getApplicableTransitionsCacheKey(Configuration)}.
      *
      * @param config The configuration
      * @return A set of transitions applicable to the automaton state stored in the given
      *     configuratoin
      */
     public Set<Trans> getApplicableTransitions(Config config) {
-        Function<Config, Set<Trans>> computeApplicableTransitions =
-                c ->
-                        transitions.in(c.state).stream()
-                                .filter(trans -> trans.isApplicable(c))
-                                .collect(Collectors.toSet());
-        return cachedApplicableTransitions.computeIfAbsent(config, computeApplicableTransitions);
+        return cachedApplicableTransitions.computeIfAbsent(
+                getApplicableTransitionsCacheKey(config),
+                key -> computeApplicableTransitions(config));
+    }
+
+    /**
+     * Computes the set of transitions that are applicable for the given configuration, without
+     * caching.
+     *
+     * <p>By default, calls {@link ITransition#isApplicable(Configuration)} for each transition of
+     * the state of the configuration. Subclasses which index their transitions may override this.
+     *
+     * @param config The configuration
+     * @return A set of transitions applicable to the given configuration
+     */
+    protected Set<Trans> computeApplicableTransitions(Config config) {
+        return transitions.in(config.state).stream()
+                .filter(trans -> trans.isApplicable(config))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Returns the key under which the transitions applicable to the given configuration are cached
+     * by {@link #getApplicableTransitions(Configuration)}. Configurations with equal keys need to
+     * have the same applicable transitions.
+     *
+     * <p>Subclasses should only use the parts of the configuration which {@link
+     * ITransition#isApplicable(Configuration)} depends on, so that the size of the cache does not
+     * grow with the number of processed words. By default, the whole configuration is used.
+     *
+     * @param config The configuration
+     * @return The cache key of {@code config}
+     */
+    protected Object getApplicableTransitionsCacheKey(Config config) {
+        return config;
     }
 
     @SafeVarargs
@@ -2,8 +2,19 @@ package de.tudortmund.cs.iltis.folalib.automata;
 
 import de.tudortmund.cs.iltis.folalib.languages.Word;
 import java.io.Serializable;
-import java.util.Objects;
 
+/**
+ * A configuration of an automaton, consisting of its current state and the input word together
+ * with the position of the next symbol to read.
+ *
+ * <p>All configurations of a single run of an {@link Executor} share the same {@link Word}
+ * instance, as transitions only advance the position. Therefore, words are compared by identity
+ * first and the hash code only depends on the state and the position, so that the word is never
+ * hashed and only compared as a whole if two configurations do not belong to the same run.
+ *
+ * @param <T> The type of the states
+ * @param <S> The type of the input symbols
+ */
 public class Configuration<T extends Serializable, S extends Serializable> {
     protected T state;
     protected Word<S> word;
@@ -50,12 +61,12 @@ public class Configuration<T extends Serializable, S extends Serializable> {
         if (!(o instanceof Configuration)) return false;
         Configuration<?, ?> other = (Configuration<?, ?>) o;
         return this.position == other.position
-                && this.word.equals(other.word)
-                && this.state.equals(other.state);
+                && this.state.equals(other.state)
+                && (this.word == other.word || this.word.equals(other.word));
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(state, word, position);
+        return 31 * state.hashCode() + position;
     }
 }
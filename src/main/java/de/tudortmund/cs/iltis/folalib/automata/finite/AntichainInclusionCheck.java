@@ -0,0 +1,173 @@
+package de.tudortmund.cs.iltis.folalib.automata.finite;
+
+import static de.tudortmund.cs.iltis.folalib.automata.finite.BitsetNFA.isSubsetOf;
+import static de.tudortmund.cs.iltis.folalib.automata.finite.BitsetNFA.nextSetBit;
+
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Language inclusion and universality checks for (epsilon-)NFAs which do not determinize the
+ * automata, following the antichain algorithms of De Wulf, Doyen, Henzinger and Raskin.
+ *
+ * <p>To check {@code L(A) ⊆ L(B)}, pairs {@code (p, P)} of a state {@code p} of {@code A} and an
+ * epsilon-closed set of states {@code P} of {@code B}, which are both reached by the same word, are
+ * explored in breadth-first order. A pair is a counter example if {@code p} is accepting and {@code
+ * P} is not. A pair {@code (p, Q)} with {@code Q ⊆ P} subsumes {@code (p, P)}: every word leading
+ * from {@code (p, P)} to a counter example also does so from {@code (p, Q)}. Therefore, only the
+ * pairs which are minimal with respect to subsumption (an antichain) need to be explored. Due to
+ * the breadth-first order, the returned counter examples are shortest words.
+ *
+ * <p>Universality is checked as inclusion of the universal language in the given language.
+ */
+public final class AntichainInclusionCheck {
+
+    private AntichainInclusionCheck() {}
+
+    /**
+     * Checks whether {@code L(lhs) ⊆ L(rhs)}.
+     *
+     * @param lhs The automaton of the potential subset
+     * @param rhs The automaton of the potential superset
+     * @param <T> The type of states of {@code lhs}
+     * @param <U> The type of states of {@code rhs}
+     * @param <S> The type of the alphabet
+     * @return {@code true} iff every word accepted by {@code lhs} is accepted by {@code rhs}
+     */
+    public static <T extends Serializable, U extends Serializable, S extends Serializable>
+            boolean isSubset(NFA<T, S> lhs, NFA<U, S> rhs) {
+        return !findInclusionCounterExample(lhs, rhs).isPresent();
+    }
+
+    /**
+     * Computes a shortest word which is accepted by {@code lhs} but not by {@code rhs}.
+     *
+     * @param lhs The automaton of the potential subset
+     * @param rhs The automaton of the potential superset
+     * @param <T> The type of states of {@code lhs}
+     * @param <U> The type of states of {@code rhs}
+     * @param <S> The type of the alphabet
+     * @return A shortest word of {@code L(lhs) \ L(rhs)} or {@link Optional#empty()} if {@code
+     *     L(lhs) ⊆ L(rhs)}
+     * @throws NullPointerException if either automaton is {@code null}
+     */
+    public static <T extends Serializable, U extends Serializable, S extends Serializable>
+            Optional<Word<S>> findInclusionCounterExample(NFA<T, S> lhs, NFA<U, S> rhs) {
+        Objects.requireNonNull(lhs);
+        Objects.requireNonNull(rhs);
+
+        List<S> symbols = new ArrayList<>(lhs.getAlphabet().toUnmodifiableSet());
+        return new Search<>(new BitsetNFA<>(lhs, symbols), new BitsetNFA<>(rhs, symbols)).run();
+    }
+
+    /**
+     * Checks whether the given automaton accepts all words over its alphabet.
+     *
+     * @param nfa The automaton
+     * @param <T> The type of states of {@code nfa}
+     * @param <S> The type of the alphabet
+     * @return {@code true} iff {@code nfa} accepts every word over its alphabet
+     */
+    public static <T extends Serializable, S extends Serializable> boolean isUniversal(
+            NFA<T, S> nfa) {
+        return !findUniversalityCounterExample(nfa).isPresent();
+    }
+
+    /**
+     * Computes a shortest word over the alphabet of the given automaton which is not accepted.
+     *
+     * @param nfa The automaton
+     * @param <T> The type of states of {@code nfa}
+     * @param <S> The type of the alphabet
+     * @return A shortest word which is rejected by {@code nfa} or {@link Optional#empty()} if
+     *     {@code nfa} is universal
+     * @throws NullPointerException if {@code nfa} is {@code null}
+     */
+    public static <T extends Serializable, S extends Serializable>
+            Optional<Word<S>> findUniversalityCounterExample(NFA<T, S> nfa) {
+        Objects.requireNonNull(nfa);
+
+        NFABuilder<Integer, S> universal =
+                new NFABuilder<Integer, S>(nfa.getAlphabet()).withInitial(0).withAccepting(0);
+        for (S symbol : nfa.getAlphabet()) universal.withTransition(0, symbol, 0);
+
+        return findInclusionCounterExample(universal.build().unwrap(), nfa);
+    }
+
+    /** The breadth-first exploration of the pairs of states */
+    private static class Search<
+            T extends Serializable, U extends Serializable, S extends Serializable> {
+        private final BitsetNFA<T, S> lhs;
+        private final BitsetNFA<U, S> rhs;
+
+        /* The explored pairs in the order of their discovery, together with the pair and the
+         * symbol they were discovered from */
+        private final List<Integer> states = new ArrayList<>();
+        private final List<long[]> sets = new ArrayList<>();
+        private final List<Integer> predecessors = new ArrayList<>();
+        private final List<Integer> symbols = new ArrayList<>();
+
+        /* For every state of lhs, the explored pairs which have not been subsumed yet */
+        private final List<List<Integer>> antichains = new ArrayList<>();
+
+        private Search(BitsetNFA<T, S> lhs, BitsetNFA<U, S> rhs) {
+            this.lhs = lhs;
+            this.rhs = rhs;
+            for (int p = 0; p < lhs.getNumberOfStates(); p++) antichains.add(new ArrayList<>());
+        }
+
+        private Optional<Word<S>> run() {
+            long[] lhsInitial = lhs.getInitialSet();
+            long[] rhsInitial = rhs.getInitialSet();
+            for (int p = nextSetBit(lhsInitial, 0); p >= 0; p = nextSetBit(lhsInitial, p + 1))
+                insert(p, rhsInitial, -1, -1);
+
+            for (int current = 0; current < states.size(); current++) {
+                int p = states.get(current);
+                long[] set = sets.get(current);
+                if (lhs.isAccepting(p) && !rhs.containsAccepting(set))
+                    return Optional.of(wordTo(current));
+
+                for (int a = 0; a < lhs.getNumberOfSymbols(); a++) {
+                    int[] targets = lhs.getTargets(p, a);
+                    if (targets.length == 0) continue;
+
+                    long[] successorSet = rhs.post(set, a);
+                    for (int target : targets) {
+                        long[] closure = lhs.getClosure(target);
+                        for (int q = nextSetBit(closure, 0);
+                                q >= 0;
+                                q = nextSetBit(closure, q + 1)) {
+                            insert(q, successorSet, current, a);
+                        }
+                    }
+                }
+            }
+
+            return Optional.empty();
+        }
+
+        /** Adds the given pair, unless it is subsumed by an explored pair */
+        private void insert(int state, long[] set, int predecessor, int symbol) {
+            List<Integer> antichain = antichains.get(state);
+            for (int pair : antichain) if (isSubsetOf(sets.get(pair), set)) return;
+
+            // pairs subsumed by the new one are kept in the queue, but no longer used for pruning
+            antichain.removeIf(pair -> isSubsetOf(set, sets.get(pair)));
+
+            antichain.add(states.size());
+            states.add(state);
+            sets.add(set);
+            predecessors.add(predecessor);
+            symbols.add(symbol);
+        }
+
+        private Word<S> wordTo(int pair) {
+            LinkedList<S> word = new LinkedList<>();
+            for (int i = pair; predecessors.get(i) != -1; i = predecessors.get(i))
+                word.addFirst(lhs.getSymbol(symbols.get(i)));
+            return new Word<>(word);
+        }
+    }
+}
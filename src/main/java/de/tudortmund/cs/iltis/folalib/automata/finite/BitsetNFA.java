@@ -0,0 +1,209 @@
+package de.tudortmund.cs.iltis.folalib.automata.finite;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * An int-indexed representation of an {@link NFA} for algorithms working on sets of states.
+ *
+ * <p>The states of the NFA are numbered densely, so that each set of states can be stored as a
+ * {@code long[]} bitset. The epsilon closure of every state and the targets of all transitions by
+ * state and symbol are precomputed once.
+ *
+ * @param <T> The type of states of the NFA
+ * @param <S> The type of the alphabet
+ */
+final class BitsetNFA<T extends Serializable, S extends Serializable> {
+    private final NFA<T, S> nfa;
+
+    private final List<T> states;
+    private final HashMap<T, Integer> stateIndices = new HashMap<>();
+    private final List<S> symbols;
+    private final int words;
+
+    /** The epsilon closure of every state as a bitset */
+    private final long[][] closures;
+
+    /** The targets of all transitions by state and symbol index */
+    private final int[][][] targets;
+
+    private final long[] accepting;
+
+    /**
+     * Creates the representation of the given NFA, with the symbols indexed in the order of its
+     * alphabet.
+     *
+     * @param nfa The NFA
+     */
+    BitsetNFA(NFA<T, S> nfa) {
+        this(nfa, new ArrayList<>(nfa.getAlphabet().toUnmodifiableSet()));
+    }
+
+    /**
+     * Creates the representation of the given NFA, with the symbols indexed in the given order.
+     * Transitions reading symbols which are not in {@code symbols} are ignored.
+     *
+     * @param nfa The NFA
+     * @param symbols The symbols, which are indexed by their position in this list
+     */
+    BitsetNFA(NFA<T, S> nfa, List<S> symbols) {
+        this.nfa = nfa;
+        this.states = new ArrayList<>(nfa.getStates());
+        this.symbols = symbols;
+        this.words = (states.size() + 63) >>> 6;
+
+        for (T state : states) stateIndices.put(state, stateIndices.size());
+
+        HashMap<S, Integer> symbolIndices = new HashMap<>();
+        for (S symbol : symbols) symbolIndices.put(symbol, symbolIndices.size());
+
+        int[][] epsilonTargets = new int[states.size()][];
+        targets = new int[states.size()][symbols.size()][];
+        accepting = new long[words];
+
+        NFATransitions<T, S> transitions = nfa.getTransitionsView();
+        for (int i = 0; i < states.size(); i++) {
+            T state = states.get(i);
+            if (nfa.getAcceptingStates().contains(state)) set(accepting, i);
+
+            List<Integer> epsilon = new ArrayList<>();
+            List<List<Integer>> bySymbol = new ArrayList<>();
+            for (int a = 0; a < symbols.size(); a++) bySymbol.add(new ArrayList<>());
+
+            for (NFATransition<T, S> transition : transitions.in(state)) {
+                int target = stateIndices.get(transition.getState());
+                if (transition.isEpsilon()) {
+                    epsilon.add(target);
+                } else {
+                    Integer a = symbolIndices.get(transition.getSymbol());
+                    if (a != null) bySymbol.get(a).add(target);
+                }
+            }
+
+            epsilonTargets[i] = toArray(epsilon);
+            for (int a = 0; a < symbols.size(); a++) targets[i][a] = toArray(bySymbol.get(a));
+        }
+
+        closures = new long[states.size()][];
+        for (int i = 0; i < states.size(); i++) closures[i] = computeClosure(i, epsilonTargets);
+    }
+
+    T getState(int index) {
+        return states.get(index);
+    }
+
+    int getNumberOfStates() {
+        return states.size();
+    }
+
+    S getSymbol(int index) {
+        return symbols.get(index);
+    }
+
+    int getNumberOfSymbols() {
+        return symbols.size();
+    }
+
+    /** The number of {@code long}s needed for a bitset of states */
+    int getWords() {
+        return words;
+    }
+
+    /** The epsilon closure of the state with the given index */
+    long[] getClosure(int state) {
+        return closures[state];
+    }
+
+    /** The targets of the transitions from the state with the given index under a symbol */
+    int[] getTargets(int state, int symbol) {
+        return targets[state][symbol];
+    }
+
+    boolean isAccepting(int state) {
+        return get(accepting, state);
+    }
+
+    /** Whether the given set contains an accepting state */
+    boolean containsAccepting(long[] set) {
+        return intersects(set, accepting);
+    }
+
+    /** The epsilon closure of the initial states */
+    long[] getInitialSet() {
+        long[] initial = new long[words];
+        for (T start : nfa.getInitialStates()) or(initial, closures[stateIndices.get(start)]);
+        return initial;
+    }
+
+    /**
+     * Computes the epsilon closure of all states reachable from the given set by reading the
+     * symbol with the given index.
+     */
+    long[] post(long[] set, int symbol) {
+        long[] successor = new long[words];
+        for (int i = nextSetBit(set, 0); i >= 0; i = nextSetBit(set, i + 1)) {
+            for (int target : targets[i][symbol]) or(successor, closures[target]);
+        }
+        return successor;
+    }
+
+    private long[] computeClosure(int state, int[][] epsilonTargets) {
+        long[] closure = new long[words];
+        Deque<Integer> stack = new ArrayDeque<>();
+        set(closure, state);
+        stack.push(state);
+
+        while (!stack.isEmpty()) {
+            int current = stack.pop();
+            for (int target : epsilonTargets[current]) {
+                if (!get(closure, target)) {
+                    set(closure, target);
+                    stack.push(target);
+                }
+            }
+        }
+
+        return closure;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) array[i] = list.get(i);
+        return array;
+    }
+
+    static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << (index & 63);
+    }
+
+    static boolean get(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << (index & 63))) != 0;
+    }
+
+    static void or(long[] into, long[] other) {
+        for (int i = 0; i < into.length; i++) into[i] |= other[i];
+    }
+
+    static boolean intersects(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) if ((a[i] & b[i]) != 0) return true;
+        return false;
+    }
+
+    /** Whether {@code a} is a subset of {@code b} */
+    static boolean isSubsetOf(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) if ((a[i] & ~b[i]) != 0) return false;
+        return true;
+    }
+
+    static int nextSetBit(long[] bits, int from) {
+        int word = from >>> 6;
+        if (word >= bits.length) return -1;
+
+        long current = bits[word] & (-1L << (from & 63));
+        while (true) {
+            if (current != 0) return (word << 6) + Long.numberOfTrailingZeros(current);
+            if (++word == bits.length) return -1;
+            current = bits[word];
+        }
+    }
+}
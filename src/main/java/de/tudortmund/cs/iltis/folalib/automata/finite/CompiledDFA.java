@@ -0,0 +1,241 @@
+package de.tudortmund.cs.iltis.folalib.automata.finite;
+
+import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * A compact, immutable representation of a deterministic finite automaton which is optimized for
+ * fast membership tests.
+ *
+ * <p>The states of the automaton are numbered densely from {@code 0} to {@code
+ * getNumberOfStates() - 1}, the symbols of the alphabet are mapped to integers in the order of
+ * iteration of the {@link Alphabet}. The transition function is stored in a flat {@code int[]}
+ * table, such that the successor of state {@code q} under symbol {@code a} is located at index
+ * {@code q * getNumberOfSymbols() + a}. Missing transitions point to {@link #DEAD_STATE}.
+ *
+ * <p>Membership tests via {@link #accepts(Word)} do not allocate any objects.
+ *
+ * @param <S> The type of the alphabet
+ */
+public final class CompiledDFA<S extends Serializable> implements Serializable {
+
+    /** The successor used for missing transitions. No word is accepted from the dead state. */
+    public static final int DEAD_STATE = -1;
+
+    private Alphabet<S> alphabet;
+    private HashMap<S, Integer> symbolIndices;
+    private int numberOfSymbols;
+    private int initialState;
+    private int[] transitionTable;
+    private boolean[] accepting;
+
+    /* For serialization */
+    @SuppressWarnings("unused")
+    private CompiledDFA() {}
+
+    private CompiledDFA(
+            Alphabet<S> alphabet,
+            HashMap<S, Integer> symbolIndices,
+            int initialState,
+            int[] transitionTable,
+            boolean[] accepting) {
+        this.alphabet = alphabet;
+        this.symbolIndices = symbolIndices;
+        this.numberOfSymbols = symbolIndices.size();
+        this.initialState = initialState;
+        this.transitionTable = transitionTable;
+        this.accepting = accepting;
+    }
+
+    /**
+     * Compiles the given automaton. If the automaton is not deterministic, it is determinized
+     * (using {@link NFA#determinize()}) beforehand. Partial automata are supported: missing
+     * transitions lead to {@link #DEAD_STATE}.
+     *
+     * @param automaton The automaton to compile
+     * @param <T> The type of states of {@code automaton}
+     * @param <S> The type of the alphabet of {@code automaton}
+     * @return The compiled automaton, accepting the same language as {@code automaton}
+     */
+    public static <T extends Serializable, S extends Serializable> CompiledDFA<S> compile(
+            NFA<T, S> automaton) {
+        Objects.requireNonNull(automaton);
+
+        // epsilon transitions are reported as determinism faults as well
+        if (automaton.checkDeterminacy().hasDeterminismFaults())
+            return compileDeterministic(automaton.determinize());
+
+        return compileDeterministic(automaton);
+    }
+
+    private static <T extends Serializable, S extends Serializable>
+            CompiledDFA<S> compileDeterministic(NFA<T, S> dfa) {
+        Alphabet<S> alphabet = dfa.getAlphabet();
+
+        HashMap<S, Integer> symbolIndices = new HashMap<>();
+        for (S symbol : alphabet) symbolIndices.put(symbol, symbolIndices.size());
+        int numberOfSymbols = symbolIndices.size();
+
+        HashMap<T, Integer> stateIndices = new HashMap<>();
+        for (T state : dfa.getStates()) stateIndices.put(state, stateIndices.size());
+        int numberOfStates = stateIndices.size();
+
+        int[] transitionTable = new int[numberOfStates * numberOfSymbols];
+        Arrays.fill(transitionTable, DEAD_STATE);
+        boolean[] accepting = new boolean[numberOfStates];
+
+        NFATransitions<T, S> transitions = dfa.getTransitionsView();
+        for (Map.Entry<T, Integer> entry : stateIndices.entrySet()) {
+            int from = entry.getValue();
+            accepting[from] = dfa.getAcceptingStates().contains(entry.getKey());
+
+            for (NFATransition<T, S> transition : transitions.in(entry.getKey())) {
+                Integer symbol = symbolIndices.get(transition.getSymbol());
+                if (symbol == null) continue; // symbol is not part of the alphabet
+                transitionTable[from * numberOfSymbols + symbol] =
+                        stateIndices.get(transition.getState());
+            }
+        }
+
+        Iterator<T> initialStates = dfa.getInitialStates().iterator();
+        int initialState =
+                initialStates.hasNext() ? stateIndices.get(initialStates.next()) : DEAD_STATE;
+
+        return new CompiledDFA<>(alphabet, symbolIndices, initialState, transitionTable, accepting);
+    }
+
+    /**
+     * Checks whether the given word is accepted by this automaton. Words containing symbols which
+     * are not part of the alphabet are rejected.
+     *
+     * @param word The word to check
+     * @return {@code true} iff {@code word} is accepted
+     */
+    public boolean accepts(Word<S> word) {
+        int state = initialState;
+        for (int i = 0; i < word.size() && state != DEAD_STATE; i++) {
+            state = step(state, word.get(i));
+        }
+        return state != DEAD_STATE && accepting[state];
+    }
+
+    /**
+     * Checks for each of the given words whether it is accepted by this automaton.
+     *
+     * <p>The words are processed in iteration order. The states reached after each prefix of the
+     * previous word are kept, such that a word only reads the symbols after its longest common
+     * prefix with the previous word.
+     *
+     * @param words The words to check
+     * @return A bitmap in which the {@code i}-th bit is set iff the {@code i}-th word (in iteration
+     *     order of {@code words}) is accepted
+     */
+    public BitSet acceptsAll(Collection<Word<S>> words) {
+        BitSet result = new BitSet(words.size());
+
+        // states[i] is the state reached after the first i symbols of the previous word
+        int[] states = new int[16];
+        states[0] = initialState;
+        Word<S> previous = new Word<>();
+        int index = 0;
+        for (Word<S> word : words) {
+            int common = 0;
+            int limit = Math.min(word.size(), previous.size());
+            while (common < limit && Objects.equals(word.get(common), previous.get(common)))
+                common++;
+
+            if (states.length <= word.size())
+                states = Arrays.copyOf(states, Math.max(2 * states.length, word.size() + 1));
+            int state = states[common];
+            for (int i = common; i < word.size(); i++) {
+                state = step(state, word.get(i));
+                states[i + 1] = state;
+            }
+            if (isAccepting(state)) result.set(index);
+
+            previous = word;
+            index++;
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes the successor of the given state under the given symbol.
+     *
+     * @param state A state index or {@link #DEAD_STATE}
+     * @param symbol Some symbol, not necessarily from the alphabet
+     * @return The index of the successor state or {@link #DEAD_STATE}
+     */
+    public int step(int state, S symbol) {
+        if (state == DEAD_STATE) return DEAD_STATE;
+        Integer index = symbolIndices.get(symbol);
+        if (index == null) return DEAD_STATE;
+        return transitionTable[state * numberOfSymbols + index];
+    }
+
+    /**
+     * Computes the successor of the given state under the symbol with the given index.
+     *
+     * @param state A state index or {@link #DEAD_STATE}
+     * @param symbolIndex The index of a symbol as returned by {@link #getSymbolIndex(Serializable)}
+     * @return The index of the successor state or {@link #DEAD_STATE}
+     */
+    public int step(int state, int symbolIndex) {
+        if (state == DEAD_STATE || symbolIndex < 0) return DEAD_STATE;
+        return transitionTable[state * numberOfSymbols + symbolIndex];
+    }
+
+    /**
+     * Returns the index of the given symbol.
+     *
+     * @param symbol The symbol
+     * @return The index of {@code symbol} or {@code -1} if it is not part of the alphabet
+     */
+    public int getSymbolIndex(S symbol) {
+        Integer index = symbolIndices.get(symbol);
+        return index == null ? -1 : index;
+    }
+
+    public boolean isAccepting(int state) {
+        return state != DEAD_STATE && accepting[state];
+    }
+
+    public int getInitialState() {
+        return initialState;
+    }
+
+    public int getNumberOfStates() {
+        return accepting.length;
+    }
+
+    public int getNumberOfSymbols() {
+        return numberOfSymbols;
+    }
+
+    public Alphabet<S> getAlphabet() {
+        return alphabet;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CompiledDFA<?> that = (CompiledDFA<?>) o;
+        return initialState == that.initialState
+                && alphabet.equals(that.alphabet)
+                && symbolIndices.equals(that.symbolIndices)
+                && Arrays.equals(transitionTable, that.transitionTable)
+                && Arrays.equals(accepting, that.accepting);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(alphabet, symbolIndices, initialState);
+        result = 31 * result + Arrays.hashCode(transitionTable);
+        result = 31 * result + Arrays.hashCode(accepting);
+        return result;
+    }
+}
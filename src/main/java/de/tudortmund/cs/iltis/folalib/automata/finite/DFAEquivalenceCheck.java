@@ -0,0 +1,154 @@
+package de.tudortmund.cs.iltis.folalib.automata.finite;
+
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Checks two deterministic automata for equivalence using the algorithm of Hopcroft and Karp.
+ *
+ * <p>Starting with the pair of initial states, all pairs of states which are reached by the same
+ * word are explored in breadth-first order. Every explored pair is merged in a union-find structure
+ * over the states of both automata, and a pair is only explored if its states have not been merged
+ * (directly or transitively) before. The check stops at the first pair in which exactly one state
+ * is accepting, so the product automaton is never constructed. Due to the breadth-first order, the
+ * word leading to this pair is a shortest word accepted by exactly one of the automata.
+ *
+ * <p>The automata may be partial and may have different alphabets: missing transitions and symbols
+ * lead to a rejecting sink state.
+ */
+public final class DFAEquivalenceCheck {
+
+    private DFAEquivalenceCheck() {}
+
+    /**
+     * Checks whether the given automata accept the same language.
+     *
+     * @param lhs The first automaton
+     * @param rhs The second automaton
+     * @param <S> The type of the alphabet
+     * @return {@code true} iff both automata accept the same language
+     */
+    public static <S extends Serializable> boolean areEquivalent(
+            CompiledDFA<S> lhs, CompiledDFA<S> rhs) {
+        return !findCounterExample(lhs, rhs).isPresent();
+    }
+
+    /**
+     * Computes a shortest word which is accepted by exactly one of the given automata.
+     *
+     * @param lhs The first automaton
+     * @param rhs The second automaton
+     * @param <S> The type of the alphabet
+     * @return A shortest word in the symmetric difference of both languages or {@link
+     *     Optional#empty()} if both automata accept the same language
+     * @throws NullPointerException if either automaton is {@code null}
+     */
+    public static <S extends Serializable> Optional<Word<S>> findCounterExample(
+            CompiledDFA<S> lhs, CompiledDFA<S> rhs) {
+        Objects.requireNonNull(lhs);
+        Objects.requireNonNull(rhs);
+
+        LinkedHashSet<S> symbolSet = new LinkedHashSet<>(lhs.getAlphabet().toUnmodifiableSet());
+        symbolSet.addAll(rhs.getAlphabet().toUnmodifiableSet());
+        List<S> symbols = new ArrayList<>(symbolSet);
+
+        int numberOfSymbols = symbols.size();
+        int[] lhsSymbols = new int[numberOfSymbols];
+        int[] rhsSymbols = new int[numberOfSymbols];
+        for (int a = 0; a < numberOfSymbols; a++) {
+            lhsSymbols[a] = lhs.getSymbolIndex(symbols.get(a));
+            rhsSymbols[a] = rhs.getSymbolIndex(symbols.get(a));
+        }
+
+        // The states of both automata (including the dead states) in one union-find structure:
+        // lhs states first, then the dead state of lhs, the rhs states and the dead state of rhs
+        int rhsOffset = lhs.getNumberOfStates() + 1;
+        int[] parent = new int[rhsOffset + rhs.getNumberOfStates() + 1];
+        for (int i = 0; i < parent.length; i++) parent[i] = i;
+
+        PairQueue queue = new PairQueue();
+        int lhsInitial = lhs.getInitialState();
+        int rhsInitial = rhs.getInitialState();
+        union(parent, id(lhs, lhsInitial, 0), id(rhs, rhsInitial, rhsOffset));
+        queue.add(lhsInitial, rhsInitial, -1, -1);
+
+        for (int current = 0; current < queue.size; current++) {
+            int p = queue.lhs[current];
+            int q = queue.rhs[current];
+            if (lhs.isAccepting(p) != rhs.isAccepting(q))
+                return Optional.of(queue.wordTo(current, symbols));
+
+            for (int a = 0; a < numberOfSymbols; a++) {
+                int pSuccessor = lhs.step(p, lhsSymbols[a]);
+                int qSuccessor = rhs.step(q, rhsSymbols[a]);
+                if (union(
+                        parent,
+                        id(lhs, pSuccessor, 0),
+                        id(rhs, qSuccessor, rhsOffset))) {
+                    queue.add(pSuccessor, qSuccessor, current, a);
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private static int id(CompiledDFA<?> dfa, int state, int offset) {
+        return offset + (state == CompiledDFA.DEAD_STATE ? dfa.getNumberOfStates() : state);
+    }
+
+    private static int find(int[] parent, int element) {
+        while (parent[element] != element) {
+            parent[element] = parent[parent[element]]; // path halving
+            element = parent[element];
+        }
+        return element;
+    }
+
+    /**
+     * Merges the classes of both elements.
+     *
+     * @return {@code false} iff both elements have already been in the same class
+     */
+    private static boolean union(int[] parent, int first, int second) {
+        int firstRoot = find(parent, first);
+        int secondRoot = find(parent, second);
+        if (firstRoot == secondRoot) return false;
+        parent[firstRoot] = secondRoot;
+        return true;
+    }
+
+    /**
+     * The explored pairs in the order of their discovery, together with the pair and the symbol
+     * they were discovered from
+     */
+    private static class PairQueue {
+        private int[] lhs = new int[16];
+        private int[] rhs = new int[16];
+        private int[] predecessor = new int[16];
+        private int[] symbol = new int[16];
+        private int size = 0;
+
+        private void add(int p, int q, int predecessorIndex, int symbolIndex) {
+            if (size == lhs.length) {
+                lhs = Arrays.copyOf(lhs, 2 * size);
+                rhs = Arrays.copyOf(rhs, 2 * size);
+                predecessor = Arrays.copyOf(predecessor, 2 * size);
+                symbol = Arrays.copyOf(symbol, 2 * size);
+            }
+            lhs[size] = p;
+            rhs[size] = q;
+            predecessor[size] = predecessorIndex;
+            symbol[size] = symbolIndex;
+            size++;
+        }
+
+        private <S extends Serializable> Word<S> wordTo(int index, List<S> symbols) {
+            LinkedList<S> word = new LinkedList<>();
+            for (int i = index; predecessor[i] != -1; i = predecessor[i])
+                word.addFirst(symbols.get(symbol[i]));
+            return new Word<>(word);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package de.tudortmund.cs.iltis.folalib.automata.finite;
+
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * A deterministic view of an {@link NFA} whose states are constructed on demand.
+ *
+ * <p>In contrast to {@link NFA#determinize()}, the subset states and their transitions are only
+ * computed when the input reaches them, and in contrast to {@link NFAExecutor}, a step on an
+ * already known subset state and symbol is a single array lookup. This makes it suitable for
+ * membership tests on long words, which can be fed symbol by symbol using {@link #accept(Object)}
+ * and {@link #isAccepting()}.
+ *
+ * <p>The number of cached subset states is bounded. Once the bound is reached, the whole cache is
+ * discarded (except for the initial and the current state) and rebuilt as needed, so that NFAs with
+ * an exponential number of reachable subsets cannot exhaust the memory.
+ *
+ * <p>Instances are not thread-safe, as they store the state of the current run.
+ *
+ * @param <T> The type of states of the NFA
+ * @param <S> The type of the alphabet
+ */
+public class LazyDFA<T extends Serializable, S extends Serializable> {
+
+    /** The maximum number of cached subset states used by {@link #LazyDFA(NFA)} */
+    public static final int DEFAULT_MAXIMUM_CACHE_SIZE = 10000;
+
+    private final BitsetNFA<T, S> nfa;
+    private final HashMap<S, Integer> symbolIndices = new HashMap<>();
+    private final int maximumCacheSize;
+
+    private final HashMap<SubsetState, SubsetState> cache = new HashMap<>();
+    private final SubsetState initialState;
+    private SubsetState currentState;
+    private int numberOfFlushes = 0;
+
+    /**
+     * Creates a lazy DFA for the given NFA with a cache of at most {@link
+     * #DEFAULT_MAXIMUM_CACHE_SIZE} subset states.
+     *
+     * @param nfa The NFA to determinize lazily
+     */
+    public LazyDFA(NFA<T, S> nfa) {
+        this(nfa, DEFAULT_MAXIMUM_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a lazy DFA for the given NFA.
+     *
+     * @param nfa The NFA to determinize lazily
+     * @param maximumCacheSize The maximum number of cached subset states, at least {@code 2}
+     * @throws IllegalArgumentException if {@code maximumCacheSize} is smaller than {@code 2}
+     */
+    public LazyDFA(NFA<T, S> nfa, int maximumCacheSize) {
+        Objects.requireNonNull(nfa);
+        if (maximumCacheSize < 2)
+            throw new IllegalArgumentException("The cache has to hold at least two states");
+
+        this.nfa = new BitsetNFA<>(nfa);
+        this.maximumCacheSize = maximumCacheSize;
+        for (S symbol : nfa.getAlphabet()) symbolIndices.put(symbol, symbolIndices.size());
+
+        this.initialState = intern(this.nfa.getInitialSet());
+        this.currentState = initialState;
+    }
+
+    /** Resets the run to the initial state, i.e. to the empty word. */
+    public void reset() {
+        currentState = initialState;
+    }
+
+    /**
+     * Reads the given symbol. Symbols which are not part of the alphabet lead to a state from which
+     * no word is accepted.
+     *
+     * @param symbol The next symbol of the input
+     */
+    public void accept(S symbol) {
+        Integer index = symbolIndices.get(symbol);
+        if (index == null) {
+            currentState = intern(new long[nfa.getWords()]);
+            return;
+        }
+
+        SubsetState successor = currentState.successors[index];
+        if (successor == null) {
+            successor = intern(nfa.post(currentState.set, index));
+            currentState.successors[index] = successor;
+        }
+        currentState = successor;
+    }
+
+    /**
+     * Checks whether the word read since the last {@link #reset()} is accepted.
+     *
+     * @return {@code true} iff the NFA accepts the input read so far
+     */
+    public boolean isAccepting() {
+        return currentState.accepting;
+    }
+
+    /**
+     * Checks whether no state of the NFA is reachable by the input read so far. In that case, no
+     * continuation of the input is accepted, so reading the remaining input may be skipped.
+     *
+     * @return {@code true} iff the current subset state is empty
+     */
+    public boolean isDead() {
+        return currentState.empty;
+    }
+
+    /**
+     * Resets this object and checks whether the given word is accepted.
+     *
+     * @param word The word to check
+     * @return {@code true} iff the NFA accepts {@code word}
+     */
+    public boolean accepts(Word<S> word) {
+        reset();
+        for (int i = 0; i < word.size() && !isDead(); i++) accept(word.get(i));
+        return isAccepting();
+    }
+
+    /** The number of subset states which are currently cached */
+    public int getNumberOfCachedStates() {
+        return cache.size();
+    }
+
+    /** How often the cache has been discarded because it was full */
+    public int getNumberOfFlushes() {
+        return numberOfFlushes;
+    }
+
+    private SubsetState intern(long[] set) {
+        SubsetState state =
+                new SubsetState(set, nfa.containsAccepting(set), symbolIndices.size());
+        SubsetState cached = cache.get(state);
+        if (cached != null) return cached;
+
+        if (cache.size() >= maximumCacheSize) flush();
+
+        cache.put(state, state);
+        return state;
+    }
+
+    private void flush() {
+        numberOfFlushes++;
+        cache.clear();
+
+        // the retained states must not reference discarded states
+        for (SubsetState retained : new SubsetState[] {initialState, currentState}) {
+            if (retained == null) continue;
+            Arrays.fill(retained.successors, null);
+            cache.put(retained, retained);
+        }
+    }
+
+    private static class SubsetState {
+        private final long[] set;
+        private final int hash;
+        private final boolean accepting;
+        private final boolean empty;
+        private final SubsetState[] successors;
+
+        private SubsetState(long[] set, boolean accepting, int numberOfSymbols) {
+            this.set = set;
+            this.hash = Arrays.hashCode(set);
+            this.accepting = accepting;
+            this.empty = BitsetNFA.nextSetBit(set, 0) == -1;
+            this.successors = new SubsetState[numberOfSymbols];
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return Arrays.equals(set, ((SubsetState) o).set);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
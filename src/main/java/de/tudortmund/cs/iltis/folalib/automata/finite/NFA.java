@@ -7,7 +7,9 @@ import de.tudortmund.cs.iltis.folalib.automata.finite.fault.NFADeterminacyFault;
 import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
 import de.tudortmund.cs.iltis.folalib.languages.Word;
 import de.tudortmund.cs.iltis.folalib.transform.MaybeGenerated;
+import de.tudortmund.cs.iltis.folalib.util.Cache;
 import de.tudortmund.cs.iltis.folalib.util.CachedSerializableFunction;
+import de.tudortmund.cs.iltis.folalib.util.Caches;
 import de.tudortmund.cs.iltis.utils.collections.SerializablePair;
 import de.tudortmund.cs.iltis.utils.function.SerializableFunction;
 import java.io.Serializable;
@@ -16,6 +18,17 @@ import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * A nondeterministic finite automaton with epsilon transitions.
+ *
+ * <p>Once constructed, an NFA may be queried by multiple threads concurrently: the data derived
+ * on demand, like epsilon closures and applicable transitions, is stored in thread-safe and
+ * bounded {@link Cache}s created by {@link Caches}. This does not extend to the deprecated
+ * methods modifying the automaton, which must not be called while the NFA is shared.
+ *
+ * @param <T> The type of states
+ * @param <S> The type of the alphabet
+ */
 public class NFA<T extends Serializable, S extends Serializable>
         extends Automaton<T, S, Configuration<T, S>, NFATransition<T, S>> implements Serializable {
     /* package-private */ DeterminacyFaultCollection<
@@ -195,7 +208,7 @@ public class NFA<T extends Serializable, S extends Serializable>
             checkDeterminacy() {
         if (determinacy == null) {
             determinacy =
-                    getTransitions()
+                    getTransitionsView()
                             .checkDeterminacy(states, initialStates, alphabet.toUnmodifiableSet());
         }
 
@@ -207,17 +220,19 @@ public class NFA<T extends Serializable, S extends Serializable>
         return !config.hasSymbol();
     }
 
-    private final HashSet<Configuration<T, S>> cachedAcceptingConfigurations = new HashSet<>();
-
     @Override
     public boolean isAcceptingConfiguration(Configuration<T, S> config) {
-        if (cachedAcceptingConfigurations.contains(config)) {
-            return true;
-        } else if (!config.hasSymbol() && acceptingStates.contains(config.getState())) {
-            cachedAcceptingConfigurations.add(config);
-            return true;
-        }
-        return false;
+        return !config.hasSymbol() && acceptingStates.contains(config.getState());
+    }
+
+    /**
+     * The applicable transitions of an NFA only depend on the state and the current symbol of a
+     * configuration.
+     */
+    @Override
+    protected Object getApplicableTransitionsCacheKey(Configuration<T, S> config) {
+        return Arrays.asList(
+                config.getState(), config.hasSymbol() ? config.getCurrentSymbol() : null);
     }
 
     @Override
@@ -225,12 +240,27 @@ public class NFA<T extends Serializable, S extends Serializable>
         return new NFATransitions<>(transitions);
     }
 
+    private transient volatile NFATransitions<T, S> transitionsView;
+
+    /**
+     * Gets a read-only view of this automaton's {@link NFATransitions} object. Unlike {@link
+     * #getTransitions()}, the transitions are not copied. Trying to modify the view throws an
+     * {@link UnsupportedOperationException}.
+     *
+     * @return A read-only view of the automaton's transitions
+     */
+    public NFATransitions<T, S> getTransitionsView() {
+        if (transitionsView == null)
+            transitionsView = ((NFATransitions<T, S>) transitions).readOnlyView();
+        return transitionsView;
+    }
+
     public Set<NFATransition<T, S>> getTransitions(T state, S symbol) {
-        return getTransitions().getTransitions(state, symbol);
+        return getTransitionsView().getTransitions(state, symbol);
     }
 
     public Set<NFATransition<T, S>> getEpsilonTransitions(T state) {
-        return getTransitions().getEpsilonTransitions(state);
+        return getTransitionsView().getEpsilonTransitions(state);
     }
 
     @Deprecated
@@ -246,7 +276,7 @@ public class NFA<T extends Serializable, S extends Serializable>
         return getReachableStates().stream().noneMatch(acceptingStates::contains);
     }
 
-    private final HashMap<T, Set<T>> cachedClosure = new HashMap<>();
+    private final Cache<T, Set<T>> cachedClosure = Caches.create("NFA.epsilonClosure");
 
     /**
      * Computes the set of states reachable from the given state via epsilon transitions,
@@ -423,45 +453,7 @@ public class NFA<T extends Serializable, S extends Serializable>
      * @return A deterministic and total version of this automaton.
      */
     public NFA<LinkedHashSet<T>, S> determinize() {
-        DFABuilder<LinkedHashSet<T>, S> dfaBuilder = new DFABuilder<>(alphabet);
-
-        LinkedHashSet<T> initial = new LinkedHashSet<>();
-
-        // Add all with epsilon transition reachable states from all initial states (including
-        // themselves)
-        for (T start : initialStates) {
-            initial.addAll(epsilonClosureOf(start));
-        }
-
-        dfaBuilder.withInitial(initial);
-
-        if (initial.stream().anyMatch(acceptingStates::contains)) dfaBuilder.withAccepting(initial);
-
-        Queue<LinkedHashSet<T>> toProcess = new LinkedList<>();
-        toProcess.offer(initial);
-
-        while (!toProcess.isEmpty()) {
-            LinkedHashSet<T> current = toProcess.poll();
-
-            for (S symbol : alphabet) {
-                LinkedHashSet<T> successor = new LinkedHashSet<>();
-
-                for (T state : current) {
-                    for (NFATransition<T, S> transition : getTransitions(state, symbol)) {
-                        successor.addAll(epsilonClosureOf(transition.getState()));
-                    }
-                }
-
-                if (!dfaBuilder.hasState(successor)) toProcess.offer(successor);
-
-                dfaBuilder.withStates(successor).withTransition(current, symbol, successor);
-
-                if (successor.stream().anyMatch(acceptingStates::contains))
-                    dfaBuilder.withAccepting(successor);
-            }
-        }
-
-        return dfaBuilder.buildAndReset().unwrap();
+        return new SubsetConstruction<>(this).determinize();
     }
 
     public NFA<T, S> clone() {
@@ -8,7 +8,6 @@ import de.tudortmund.cs.iltis.folalib.util.Result;
 import de.tudortmund.cs.iltis.utils.collections.Fault;
 import java.io.Serializable;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Builder class for constructing an (eps-){@link NFA}.
@@ -93,7 +92,7 @@ public class NFABuilder<State extends Serializable, Symbol extends Serializable>
             }
             for (Map.Entry<State, Set<NFATransition<State, Symbol>>> entry :
                     other.transitions.getTransitions().entrySet())
-                transitions.in(entry.getKey()).addAll(entry.getValue());
+                transitions.addTransitions(entry.getKey(), entry.getValue());
         }
 
         return this;
@@ -408,7 +407,7 @@ public class NFABuilder<State extends Serializable, Symbol extends Serializable>
      */
     public NFABuilder<State, Symbol> removeTransitions(State from) {
         Objects.requireNonNull(from);
-        transitions.in(from).clear();
+        transitions.clearTransitions(from);
         return this;
     }
 
@@ -425,13 +424,7 @@ public class NFABuilder<State extends Serializable, Symbol extends Serializable>
         Objects.requireNonNull(from);
         Objects.requireNonNull(symbol);
 
-        Set<NFATransition<State, Symbol>> outgoing = transitions.in(from);
-
-        outgoing.removeAll(
-                outgoing.stream()
-                        .filter(t -> symbol.equals(t.getSymbol()))
-                        .collect(Collectors.toSet()));
-
+        transitions.clearTransitions(from, symbol);
         return this;
     }
 
@@ -10,6 +10,8 @@ import java.util.stream.Collectors;
 /**
  * The NFAExecutor is a specialization of the basic Executor. It offers a constructor for an
  * automaton together with some word, which defines the start configuration.
+ *
+ * <p>For membership tests on long words, {@link LazyDFA} offers a faster streaming alternative.
  */
 public class NFAExecutor<T extends Serializable, S extends Serializable>
         extends Executor<NFA<T, S>, T, S, Configuration<T, S>, NFATransition<T, S>> {
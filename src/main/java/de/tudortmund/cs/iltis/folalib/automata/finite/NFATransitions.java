@@ -10,29 +10,109 @@ import java.io.Serializable;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * The transitions of an {@link NFA}, grouped by their origin state.
+ *
+ * <p>In addition to the transitions by state, two secondary indices are kept: one mapping each
+ * state and symbol to the matching transitions and one containing the epsilon transitions of each
+ * state. Both are maintained by all methods which modify this object, such that {@link
+ * #getTransitions(Serializable, Serializable)} and {@link #getEpsilonTransitions(Serializable)}
+ * are simple lookups. All sets returned by this class are read-only views which are not copied.
+ * {@link #getTransitions()} returns a detached copy of the map from states to their transitions,
+ * such that the indices cannot be bypassed; this object is only modified by {@link
+ * #addTransition}, {@link #addTransitions} and the removal methods.
+ *
+ * @param <State> The type of states
+ * @param <Sym> The type of symbols
+ */
 public class NFATransitions<State extends Serializable, Sym extends Serializable>
         extends Transitions<State, NFATransition<State, Sym>> implements Serializable {
+
+    private HashMap<State, HashMap<Sym, TransitionSet<State, Sym>>> transitionsBySymbol =
+            new HashMap<>();
+    private HashMap<State, TransitionSet<State, Sym>> epsilonTransitions = new HashMap<>();
+
+    /* The sets of transitionsByState together with their read-only views, added as soon as a state
+     * gets its first transition */
+    private HashMap<State, TransitionSet<State, Sym>> transitionsOfState = new HashMap<>();
+
+    private boolean readOnly = false;
+
     // Copy-Constructor
     public NFATransitions(Transitions<State, NFATransition<State, Sym>> toClone) {
         super(toClone);
+
+        for (Map.Entry<State, Set<NFATransition<State, Sym>>> entry :
+                transitionsByState.entrySet())
+            for (NFATransition<State, Sym> transition : entry.getValue())
+                index(entry.getKey(), transition);
     }
 
     public NFATransitions() {
         super();
     }
 
+    /* View sharing all data with the given object */
+    private NFATransitions(NFATransitions<State, Sym> backing, boolean readOnly) {
+        this.transitionsByState = backing.transitionsByState;
+        this.transitionsBySymbol = backing.transitionsBySymbol;
+        this.epsilonTransitions = backing.epsilonTransitions;
+        this.transitionsOfState = backing.transitionsOfState;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Returns a read-only view of this object, which reflects all later changes to this object.
+     *
+     * @return The view
+     */
+    /* package-private */ NFATransitions<State, Sym> readOnlyView() {
+        return readOnly ? this : new NFATransitions<>(this, true);
+    }
+
+    /* The live map must not be exposed, as its get creates missing entries and writing to it would
+     * bypass the indices */
+    @Override
+    public DefaultMap<State, Set<NFATransition<State, Sym>>> getTransitions() {
+        DefaultMap<State, Set<NFATransition<State, Sym>>> copy =
+                new DefaultMap<>(new SetSupplier<>());
+        for (State state : transitionsByState.keySet()) copy.put(state, in(state));
+        return copy;
+    }
+
+    @Override
+    public Set<NFATransition<State, Sym>> in(State state) {
+        TransitionSet<State, Sym> transitions = transitionsOfState.get(state);
+        return transitions == null ? Collections.emptySet() : transitions.view();
+    }
+
+    @Override
+    public void addTransition(State from, NFATransition<State, Sym> trans) {
+        requireModifiable();
+        if (transitionsByState.get(from).add(trans)) index(from, trans);
+    }
+
+    /**
+     * Adds all given transitions starting in {@code from}.
+     *
+     * @param from The origin state of the transitions
+     * @param transitions The transitions to add
+     */
+    public void addTransitions(State from, Collection<NFATransition<State, Sym>> transitions) {
+        for (NFATransition<State, Sym> transition : transitions) addTransition(from, transition);
+    }
+
     public Set<NFATransition<State, Sym>> getTransitions(State state, Sym symbol) {
-        return Collections.unmodifiableSet(
-                transitionsByState.get(state).stream()
-                        .filter(t -> symbol.equals(t.getSymbol()))
-                        .collect(Collectors.toSet()));
+        HashMap<Sym, TransitionSet<State, Sym>> bySymbol = transitionsBySymbol.get(state);
+        if (bySymbol == null) return Collections.emptySet();
+
+        TransitionSet<State, Sym> transitions = bySymbol.get(symbol);
+        return transitions == null ? Collections.emptySet() : transitions.view();
     }
 
     public Set<NFATransition<State, Sym>> getEpsilonTransitions(State state) {
-        return Collections.unmodifiableSet(
-                transitionsByState.get(state).stream()
-                        .filter(NFATransition::isEpsilon)
-                        .collect(Collectors.toSet()));
+        TransitionSet<State, Sym> transitions = epsilonTransitions.get(state);
+        return transitions == null ? Collections.emptySet() : transitions.view();
     }
 
     public DeterminacyFaultCollection<
@@ -90,8 +170,7 @@ public class NFATransitions<State extends Serializable, Sym extends Serializable
         Objects.requireNonNull(transition);
 
         NFATransitions<State, Sym> clone = new NFATransitions<State, Sym>(this);
-        removeAndCheckEmptyMapEntry(
-                clone.getTransitions(), state, Collections.singleton(transition));
+        clone.remove(state, Collections.singleton(transition));
         return clone;
     }
 
@@ -109,15 +188,107 @@ public class NFATransitions<State extends Serializable, Sym extends Serializable
         NullCheck.requireAllNonNull(transitions);
 
         NFATransitions<State, Sym> clone = new NFATransitions<State, Sym>(this);
-        removeAndCheckEmptyMapEntry(clone.getTransitions(), state, transitions);
+        clone.remove(state, transitions);
         return clone;
     }
 
-    private void removeAndCheckEmptyMapEntry(
-            DefaultMap<State, Set<NFATransition<State, Sym>>> map,
-            State state,
-            Set<NFATransition<State, Sym>> transitions) {
-        map.get(state).removeAll(transitions);
-        if (map.get(state).isEmpty()) map.remove(state);
+    /**
+     * Removes all transitions starting in {@code from} from this object.
+     *
+     * @param from The origin state of the transitions
+     */
+    /* package-private */ void clearTransitions(State from) {
+        if (transitionsByState.containsKey(from))
+            remove(from, new ArrayList<>(transitionsByState.get(from)));
+    }
+
+    /**
+     * Removes all transitions starting in {@code from} and reading {@code symbol} from this object.
+     *
+     * @param from The origin state of the transitions
+     * @param symbol The symbol of the transitions
+     */
+    /* package-private */ void clearTransitions(State from, Sym symbol) {
+        remove(from, new ArrayList<>(getTransitions(from, symbol)));
+    }
+
+    private void remove(State state, Collection<NFATransition<State, Sym>> transitions) {
+        requireModifiable();
+        if (!transitionsByState.containsKey(state)) return;
+
+        Set<NFATransition<State, Sym>> outgoing = transitionsByState.get(state);
+        for (NFATransition<State, Sym> transition : transitions)
+            if (outgoing.remove(transition)) unindex(state, transition);
+
+        if (outgoing.isEmpty()) {
+            transitionsByState.remove(state);
+            transitionsOfState.remove(state);
+        }
+    }
+
+    private void index(State state, NFATransition<State, Sym> transition) {
+        if (!transitionsOfState.containsKey(state))
+            transitionsOfState.put(state, new TransitionSet<>(transitionsByState.get(state)));
+
+        TransitionSet<State, Sym> transitions;
+        if (transition.isEpsilon()) {
+            transitions = epsilonTransitions.get(state);
+            if (transitions == null) {
+                transitions = new TransitionSet<>();
+                epsilonTransitions.put(state, transitions);
+            }
+        } else {
+            HashMap<Sym, TransitionSet<State, Sym>> bySymbol = transitionsBySymbol.get(state);
+            if (bySymbol == null) {
+                bySymbol = new HashMap<>();
+                transitionsBySymbol.put(state, bySymbol);
+            }
+            transitions = bySymbol.get(transition.getSymbol());
+            if (transitions == null) {
+                transitions = new TransitionSet<>();
+                bySymbol.put(transition.getSymbol(), transitions);
+            }
+        }
+        transitions.elements.add(transition);
+    }
+
+    private void unindex(State state, NFATransition<State, Sym> transition) {
+        if (transition.isEpsilon()) {
+            TransitionSet<State, Sym> transitions = epsilonTransitions.get(state);
+            transitions.elements.remove(transition);
+            if (transitions.elements.isEmpty()) epsilonTransitions.remove(state);
+        } else {
+            HashMap<Sym, TransitionSet<State, Sym>> bySymbol = transitionsBySymbol.get(state);
+            TransitionSet<State, Sym> transitions = bySymbol.get(transition.getSymbol());
+            transitions.elements.remove(transition);
+            if (transitions.elements.isEmpty()) bySymbol.remove(transition.getSymbol());
+            if (bySymbol.isEmpty()) transitionsBySymbol.remove(state);
+        }
+    }
+
+    private void requireModifiable() {
+        if (readOnly) throw new UnsupportedOperationException("The transitions are read-only");
+    }
+
+    /** A set of transitions together with a read-only view of it, which is created only once */
+    private static class TransitionSet<State extends Serializable, Sym extends Serializable>
+            implements Serializable {
+        private Set<NFATransition<State, Sym>> elements;
+        private transient Set<NFATransition<State, Sym>> view;
+
+        private TransitionSet() {
+            this(new LinkedHashSet<>());
+        }
+
+        private TransitionSet(Set<NFATransition<State, Sym>> elements) {
+            this.elements = elements;
+            this.view = Collections.unmodifiableSet(elements);
+        }
+
+        /* The view is transient, so it is created again after deserialization */
+        private Set<NFATransition<State, Sym>> view() {
+            if (view == null) view = Collections.unmodifiableSet(elements);
+            return view;
+        }
     }
 }
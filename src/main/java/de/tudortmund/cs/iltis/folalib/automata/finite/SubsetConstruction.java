@@ -0,0 +1,142 @@
+package de.tudortmund.cs.iltis.folalib.automata.finite;
+
+import static de.tudortmund.cs.iltis.folalib.automata.finite.BitsetNFA.nextSetBit;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Implementation of the subset construction used by {@link NFA#determinize()}.
+ *
+ * <p>The subsets of states are stored as {@code long[]} bitsets (see {@link BitsetNFA}) and the
+ * subsets which are discovered during the construction are interned in an open-addressing hash
+ * table. The {@link LinkedHashSet} labels of the resulting DFA are only materialized once the
+ * construction is finished.
+ *
+ * @param <T> The type of states of the NFA
+ * @param <S> The type of the alphabet
+ */
+final class SubsetConstruction<T extends Serializable, S extends Serializable> {
+    private final NFA<T, S> nfa;
+    private final BitsetNFA<T, S> bitsetNFA;
+
+    /** All discovered subsets, indexed by their id */
+    private final List<long[]> subsets = new ArrayList<>();
+
+    /** The DFA transition function, the successor of subset i under symbol a is at i * |S| + a */
+    private int[] successors = new int[16];
+
+    /* Open-addressing table which maps subsets to their ids. Empty slots are marked by -1 */
+    private int[] table = new int[16];
+    private int[] tableHashes = new int[16];
+
+    SubsetConstruction(NFA<T, S> nfa) {
+        this.nfa = nfa;
+        this.bitsetNFA = new BitsetNFA<>(nfa);
+
+        Arrays.fill(table, -1);
+    }
+
+    /**
+     * Performs the subset construction.
+     *
+     * @return A deterministic and total automaton which only contains reachable states
+     */
+    NFA<LinkedHashSet<T>, S> determinize() {
+        intern(bitsetNFA.getInitialSet());
+
+        int numberOfSymbols = bitsetNFA.getNumberOfSymbols();
+        for (int current = 0; current < subsets.size(); current++) {
+            ensureSuccessorCapacity((current + 1) * numberOfSymbols);
+
+            long[] subset = subsets.get(current);
+            for (int a = 0; a < numberOfSymbols; a++) {
+                successors[current * numberOfSymbols + a] = intern(bitsetNFA.post(subset, a));
+            }
+        }
+
+        return materialize();
+    }
+
+    private NFA<LinkedHashSet<T>, S> materialize() {
+        List<LinkedHashSet<T>> labels = new ArrayList<>(subsets.size());
+        for (long[] subset : subsets) {
+            LinkedHashSet<T> label = new LinkedHashSet<>();
+            for (int i = nextSetBit(subset, 0); i >= 0; i = nextSetBit(subset, i + 1))
+                label.add(bitsetNFA.getState(i));
+            labels.add(label);
+        }
+
+        DFABuilder<LinkedHashSet<T>, S> dfaBuilder = new DFABuilder<>(nfa.getAlphabet());
+        dfaBuilder.withInitial(labels.get(0));
+
+        int numberOfSymbols = bitsetNFA.getNumberOfSymbols();
+        for (int id = 0; id < subsets.size(); id++) {
+            dfaBuilder.withStates(labels.get(id));
+            if (bitsetNFA.containsAccepting(subsets.get(id)))
+                dfaBuilder.withAccepting(labels.get(id));
+
+            for (int a = 0; a < numberOfSymbols; a++) {
+                dfaBuilder.withTransition(
+                        labels.get(id),
+                        bitsetNFA.getSymbol(a),
+                        labels.get(successors[id * numberOfSymbols + a]));
+            }
+        }
+
+        return dfaBuilder.buildAndReset().unwrap();
+    }
+
+    /**
+     * Returns the id of the given subset, assigning a new one if the subset is not yet known.
+     *
+     * @param subset The subset to intern
+     * @return The id of {@code subset}
+     */
+    private int intern(long[] subset) {
+        int hash = hash(subset);
+        int mask = table.length - 1;
+
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int id = table[slot];
+            if (id == -1) {
+                id = subsets.size();
+                subsets.add(subset);
+                table[slot] = id;
+                tableHashes[slot] = hash;
+                if (2 * subsets.size() > table.length) growTable();
+                return id;
+            }
+            if (tableHashes[slot] == hash && Arrays.equals(subsets.get(id), subset)) return id;
+        }
+    }
+
+    private void growTable() {
+        int[] oldTable = table;
+        int[] oldHashes = tableHashes;
+
+        table = new int[oldTable.length * 2];
+        tableHashes = new int[oldTable.length * 2];
+        Arrays.fill(table, -1);
+        int mask = table.length - 1;
+
+        for (int i = 0; i < oldTable.length; i++) {
+            if (oldTable[i] == -1) continue;
+            int slot = oldHashes[i] & mask;
+            while (table[slot] != -1) slot = (slot + 1) & mask;
+            table[slot] = oldTable[i];
+            tableHashes[slot] = oldHashes[i];
+        }
+    }
+
+    private void ensureSuccessorCapacity(int capacity) {
+        if (successors.length < capacity)
+            successors = Arrays.copyOf(successors, Math.max(capacity, 2 * successors.length));
+    }
+
+    private static int hash(long[] subset) {
+        int hash = Arrays.hashCode(subset);
+        // spread the bits, as the slot is selected by the lower bits only
+        return hash ^ (hash >>> 16);
+    }
+}
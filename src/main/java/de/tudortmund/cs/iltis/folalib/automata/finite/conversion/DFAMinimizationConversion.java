@@ -3,20 +3,19 @@ package de.tudortmund.cs.iltis.folalib.automata.finite.conversion;
 import de.tudortmund.cs.iltis.folalib.automata.finite.NFA;
 import de.tudortmund.cs.iltis.folalib.automata.finite.NFABuilder;
 import de.tudortmund.cs.iltis.folalib.automata.finite.NFATransition;
-import de.tudortmund.cs.iltis.utils.collections.Tuple;
-import de.tudortmund.cs.iltis.utils.collections.relations.FiniteBinaryRelation;
-import de.tudortmund.cs.iltis.utils.graph.Edge;
-import de.tudortmund.cs.iltis.utils.graph.bisimulation.IntersectionBisimulation;
-import de.tudortmund.cs.iltis.utils.graph.hashgraph.HashGraph;
+import de.tudortmund.cs.iltis.folalib.automata.finite.NFATransitions;
 import java.io.Serializable;
 import java.util.*;
-import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 /**
  * Converts the given DFA to its minimal DFA. Can only be applied to NFAs that are total and
  * deterministic.
  *
+ * <p>The equivalence classes of the states are computed by Hopcroft's partition refinement
+ * algorithm (see {@link HopcroftPartitionRefinement}). The result for the most recently given
+ * automaton is cached, such that {@link #apply(NFA)} only computes it once.
+ *
  * @param <V> The type of the states of the NFA
  * @param <E> The type of the input symbols
  */
@@ -25,10 +24,15 @@ public class DFAMinimizationConversion<V extends Serializable, E extends Seriali
 
     private NFA<V, E> dfa;
 
+    /* The automaton for which the equivalence classes below have been computed */
+    private NFA<V, E> partitionedNFA;
+    private Map<V, LinkedHashSet<V>> stateToSetState;
+    private int numberOfEquivalenceClasses;
+
     @Override
     protected NFA<LinkedHashSet<V>, E> convert(NFA<V, E> nfa) {
-        setDFA(nfa);
-        return buildMinimizedDFA(makeStateSetMap(calculateStateBisimulation()));
+        computeEquivalenceClasses(nfa);
+        return buildMinimizedDFA(stateToSetState);
     }
 
     @Override
@@ -38,43 +42,57 @@ public class DFAMinimizationConversion<V extends Serializable, E extends Seriali
 
     @Override
     protected boolean isRedundant(NFA<V, E> nfa) {
-        setDFA(nfa);
-        return calculateStateBisimulation().isEmpty();
+        computeEquivalenceClasses(nfa);
+        return numberOfEquivalenceClasses == dfa.getStates().size();
     }
 
     /**
-     * Calculates a map of old states to new set states according to the given bisimulation. All
-     * bisimilar states are combined into one set.
+     * Computes the equivalence classes of the states of the given DFA, unless they have already
+     * been computed for this very automaton. All equivalent states are combined into one set.
      *
-     * @param bisimulation the bisimulation
-     * @return states of the minimized NFA
+     * @param nfa the DFA to minimize
      */
-    private Map<V, LinkedHashSet<V>> makeStateSetMap(FiniteBinaryRelation<V> bisimulation) {
-        Map<V, LinkedHashSet<V>> stateToSetState = makeSingletonStateSetMap();
-
-        for (Tuple<V> tuple : bisimulation) {
-            Set<V> leftStates = stateToSetState.get(tuple.first());
-            Set<V> rightStates = stateToSetState.get(tuple.second());
-            LinkedHashSet<V> unionState = new LinkedHashSet<>(leftStates);
-            unionState.addAll(rightStates);
-            stateToSetState.put(tuple.first(), unionState);
-            stateToSetState.put(tuple.second(), unionState);
+    private void computeEquivalenceClasses(NFA<V, E> nfa) {
+        if (nfa == partitionedNFA) return;
+
+        setDFA(nfa);
+
+        List<V> states = new ArrayList<>(dfa.getStates());
+        List<E> symbols = new ArrayList<>(dfa.getAlphabet().toUnmodifiableSet());
+
+        Map<V, Integer> stateIndices = new HashMap<>();
+        for (V state : states) stateIndices.put(state, stateIndices.size());
+        Map<E, Integer> symbolIndices = new HashMap<>();
+        for (E symbol : symbols) symbolIndices.put(symbol, symbolIndices.size());
+
+        int[] transitionTable = new int[states.size() * symbols.size()];
+        boolean[] accepting = new boolean[states.size()];
+        NFATransitions<V, E> transitions = dfa.getTransitionsView();
+        for (int q = 0; q < states.size(); q++) {
+            accepting[q] = dfa.getAcceptingStates().contains(states.get(q));
+            for (NFATransition<V, E> transition : transitions.in(states.get(q))) {
+                Integer symbol = symbolIndices.get(transition.getSymbol());
+                if (symbol == null) continue; // symbol is not part of the alphabet
+                transitionTable[q * symbols.size() + symbol] =
+                        stateIndices.get(transition.getState());
+            }
         }
 
-        return stateToSetState;
-    }
+        int[] classes =
+                HopcroftPartitionRefinement.computeEquivalenceClasses(
+                        states.size(), symbols.size(), transitionTable, accepting);
+
+        List<LinkedHashSet<V>> setStates = new ArrayList<>();
+        stateToSetState = new LinkedHashMap<>();
+        for (int q = 0; q < states.size(); q++) {
+            if (classes[q] == setStates.size()) setStates.add(new LinkedHashSet<>());
+            LinkedHashSet<V> setState = setStates.get(classes[q]);
+            setState.add(states.get(q));
+            stateToSetState.put(states.get(q), setState);
+        }
 
-    /**
-     * Calculates a map of old states to new set states where each set is a singleton only
-     * containing the old state.
-     *
-     * @return the map of old states to new setStates
-     */
-    private Map<V, LinkedHashSet<V>> makeSingletonStateSetMap() {
-        return dfa.getStates().stream()
-                .collect(
-                        Collectors.toMap(
-                                s -> s, s -> new LinkedHashSet<>(Collections.singletonList(s))));
+        numberOfEquivalenceClasses = setStates.size();
+        partitionedNFA = nfa;
     }
 
     /**
@@ -86,7 +104,7 @@ public class DFAMinimizationConversion<V extends Serializable, E extends Seriali
     private NFA<LinkedHashSet<V>, E> buildMinimizedDFA(Map<V, LinkedHashSet<V>> stateToSetState) {
         NFABuilder<LinkedHashSet<V>, E> builder =
                 new NFABuilder<LinkedHashSet<V>, E>(dfa.getAlphabet())
-                        .withStates(stateToSetState.values())
+                        .withStates(new LinkedHashSet<>(stateToSetState.values()))
                         .withAccepting(getMinimizedAcceptingStates(stateToSetState))
                         .withInitial(getMinimizedInitialStates(stateToSetState));
         addTransitionsOfMinimizedDFA(builder, stateToSetState);
@@ -135,7 +153,7 @@ public class DFAMinimizationConversion<V extends Serializable, E extends Seriali
     @SuppressWarnings("all")
     private void addTransitionsOfMinimizedDFA(
             NFABuilder<LinkedHashSet<V>, E> builder, Map<V, LinkedHashSet<V>> stateToSetState) {
-        for (LinkedHashSet<V> sourceSetState : stateToSetState.values()) {
+        for (LinkedHashSet<V> sourceSetState : new LinkedHashSet<>(stateToSetState.values())) {
             for (E symbol : dfa.getAlphabet()) {
                 V sourceRepresentative = sourceSetState.stream().findAny().get(); // cannot be empty
                 V targetRepresentative =
@@ -161,27 +179,4 @@ public class DFAMinimizationConversion<V extends Serializable, E extends Seriali
         if (!nfa.isTotal()) throw new IllegalArgumentException("NFA has to be total");
         dfa = new NFAOnlyReachableStatesConversion<V, E>().apply(nfa);
     }
-
-    /**
-     * Computes tuples of states which can be combined.
-     *
-     * @return the bisimulation relation
-     */
-    private FiniteBinaryRelation<V> calculateStateBisimulation() {
-        HashGraph<V, NFATransition<V, E>> graph = dfa.asGraph();
-
-        // vertex comparison: same accepting behavior
-        BiFunction<V, V, Boolean> vertexComparator =
-                (p, q) ->
-                        dfa.getAcceptingStates().contains(p)
-                                == dfa.getAcceptingStates().contains(q);
-        // edge comparison: same symbol
-        BiFunction<Edge<V, NFATransition<V, E>>, Edge<V, NFATransition<V, E>>, Boolean>
-                edgeComparator = (s, t) -> (s.get().getSymbol().equals(t.get().getSymbol()));
-
-        IntersectionBisimulation<V, NFATransition<V, E>> calculator =
-                new IntersectionBisimulation<>(graph, graph, vertexComparator, edgeComparator);
-
-        return calculator.compute();
-    }
 }
@@ -91,7 +91,7 @@ public class EpsilonNFARemoveEpsilonTransitionsConversion<
 
     @Override
     protected boolean isRedundant(NFA<State, Sym> nfa) {
-        return nfa.getTransitions().getTransitions().values().stream()
+        return nfa.getTransitionsView().getTransitions().values().stream()
                 .flatMap(Collection::stream)
                 .noneMatch(NFATransition::isEpsilon);
     }
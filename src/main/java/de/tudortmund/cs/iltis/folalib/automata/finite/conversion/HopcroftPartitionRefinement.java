@@ -0,0 +1,192 @@
+package de.tudortmund.cs.iltis.folalib.automata.finite.conversion;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Hopcroft's partition refinement algorithm, which computes the Myhill-Nerode equivalence classes
+ * of the states of a total DFA in {@code O(n * k * log n)} for {@code n} states and {@code k}
+ * symbols.
+ *
+ * <p>The DFA is given as an int-indexed transition table: the successor of state {@code q} under
+ * the symbol {@code a} is {@code transitions[q * k + a]}.
+ */
+final class HopcroftPartitionRefinement {
+    private final int numberOfStates;
+    private final int numberOfSymbols;
+
+    /* Inverse transition function in compressed form: the predecessors of state t under symbol a
+     * are stored in predecessors[predecessorStart[a * n + t] .. predecessorStart[a * n + t + 1]) */
+    private final int[] predecessorStart;
+    private final int[] predecessors;
+
+    /* The partition: the members of block b are elements[blockStart[b] .. blockEnd[b]) */
+    private final int[] elements;
+    private final int[] positionOf;
+    private final int[] blockOf;
+    private final int[] blockStart;
+    private final int[] blockEnd;
+    private final int[] markedCount;
+    private final boolean[] inWorklist;
+    private int numberOfBlocks;
+
+    private HopcroftPartitionRefinement(
+            int numberOfStates, int numberOfSymbols, int[] transitions, boolean[] accepting) {
+        this.numberOfStates = numberOfStates;
+        this.numberOfSymbols = numberOfSymbols;
+
+        predecessorStart = new int[numberOfStates * numberOfSymbols + 1];
+        predecessors = new int[numberOfStates * numberOfSymbols];
+        for (int q = 0; q < numberOfStates; q++)
+            for (int a = 0; a < numberOfSymbols; a++)
+                predecessorStart[a * numberOfStates + transitions[q * numberOfSymbols + a] + 1]++;
+        for (int i = 1; i < predecessorStart.length; i++)
+            predecessorStart[i] += predecessorStart[i - 1];
+        int[] fill = Arrays.copyOf(predecessorStart, predecessorStart.length - 1);
+        for (int q = 0; q < numberOfStates; q++)
+            for (int a = 0; a < numberOfSymbols; a++)
+                predecessors[fill[a * numberOfStates + transitions[q * numberOfSymbols + a]]++] = q;
+
+        elements = new int[numberOfStates];
+        positionOf = new int[numberOfStates];
+        blockOf = new int[numberOfStates];
+        blockStart = new int[numberOfStates];
+        blockEnd = new int[numberOfStates];
+        markedCount = new int[numberOfStates];
+        inWorklist = new boolean[numberOfStates];
+
+        // initial partition: accepting states first, then all other states
+        int next = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            int start = next;
+            for (int q = 0; q < numberOfStates; q++) {
+                if (accepting[q] == (pass == 0)) {
+                    elements[next] = q;
+                    positionOf[q] = next;
+                    blockOf[q] = numberOfBlocks;
+                    next++;
+                }
+            }
+            if (next > start) {
+                blockStart[numberOfBlocks] = start;
+                blockEnd[numberOfBlocks] = next;
+                numberOfBlocks++;
+            }
+        }
+    }
+
+    /**
+     * Computes the equivalence classes of the states of the given total DFA.
+     *
+     * @param numberOfStates The number of states, which are numbered from {@code 0}
+     * @param numberOfSymbols The number of symbols, which are numbered from {@code 0}
+     * @param transitions The transition table, see {@link HopcroftPartitionRefinement}
+     * @param accepting The accepting states
+     * @return An array mapping each state to the index of its equivalence class. The classes are
+     *     numbered densely from {@code 0}, in the order of their smallest states.
+     */
+    static int[] computeEquivalenceClasses(
+            int numberOfStates, int numberOfSymbols, int[] transitions, boolean[] accepting) {
+        HopcroftPartitionRefinement refinement =
+                new HopcroftPartitionRefinement(
+                        numberOfStates, numberOfSymbols, transitions, accepting);
+        refinement.refine();
+        return refinement.normalizedBlocks();
+    }
+
+    private void refine() {
+        Deque<Integer> worklist = new ArrayDeque<>();
+        if (numberOfBlocks == 2) {
+            // it suffices to split by the smaller one of both initial blocks
+            worklist.add(size(0) <= size(1) ? 0 : 1);
+        } else if (numberOfBlocks == 1) {
+            return; // all states are equivalent
+        }
+        for (int b : worklist) inWorklist[b] = true;
+
+        int[] splitter = new int[numberOfStates];
+        int[] touched = new int[numberOfStates];
+
+        while (!worklist.isEmpty()) {
+            int block = worklist.poll();
+            inWorklist[block] = false;
+
+            int splitterSize = size(block);
+            System.arraycopy(elements, blockStart[block], splitter, 0, splitterSize);
+
+            for (int a = 0; a < numberOfSymbols; a++) {
+                int touchedCount = 0;
+
+                for (int i = 0; i < splitterSize; i++) {
+                    int index = a * numberOfStates + splitter[i];
+                    for (int p = predecessorStart[index]; p < predecessorStart[index + 1]; p++) {
+                        int q = predecessors[p];
+                        int b = blockOf[q];
+                        if (markedCount[b] == 0) touched[touchedCount++] = b;
+                        mark(q, b);
+                    }
+                }
+
+                for (int t = 0; t < touchedCount; t++) {
+                    int b = touched[t];
+                    if (markedCount[b] < size(b)) {
+                        int split = split(b);
+                        if (inWorklist[b] || size(split) <= size(b)) {
+                            worklist.add(split);
+                            inWorklist[split] = true;
+                        } else {
+                            worklist.add(b);
+                            inWorklist[b] = true;
+                        }
+                    }
+                    markedCount[b] = 0;
+                }
+            }
+        }
+    }
+
+    /** Moves {@code q} to the marked prefix of its block {@code b} */
+    private void mark(int q, int b) {
+        int target = blockStart[b] + markedCount[b];
+        int position = positionOf[q];
+        if (position < target) return; // already marked
+
+        int other = elements[target];
+        elements[target] = q;
+        positionOf[q] = target;
+        elements[position] = other;
+        positionOf[other] = position;
+        markedCount[b]++;
+    }
+
+    /** Splits the marked prefix off block {@code b} and returns the index of the new block */
+    private int split(int b) {
+        int newBlock = numberOfBlocks++;
+        blockStart[newBlock] = blockStart[b];
+        blockEnd[newBlock] = blockStart[b] + markedCount[b];
+        blockStart[b] = blockEnd[newBlock];
+
+        for (int i = blockStart[newBlock]; i < blockEnd[newBlock]; i++)
+            blockOf[elements[i]] = newBlock;
+
+        return newBlock;
+    }
+
+    private int size(int b) {
+        return blockEnd[b] - blockStart[b];
+    }
+
+    private int[] normalizedBlocks() {
+        int[] renumbering = new int[numberOfBlocks];
+        Arrays.fill(renumbering, -1);
+        int next = 0;
+
+        int[] result = new int[numberOfStates];
+        for (int q = 0; q < numberOfStates; q++) {
+            if (renumbering[blockOf[q]] == -1) renumbering[blockOf[q]] = next++;
+            result[q] = renumbering[blockOf[q]];
+        }
+        return result;
+    }
+}
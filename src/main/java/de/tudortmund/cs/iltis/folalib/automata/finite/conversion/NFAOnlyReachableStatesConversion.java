@@ -30,7 +30,7 @@ public class NFAOnlyReachableStatesConversion<V extends Serializable, E extends
                                         .filter(reachableStates::contains)
                                         .collect(Collectors.toSet()));
 
-        nfa.getTransitions()
+        nfa.getTransitionsView()
                 .getTransitions()
                 .forEach(
                         (origin, transitions) -> {
@@ -110,7 +110,7 @@ public class EpsilonNFAToRegularExpressionTransformation<S extends Serializable>
         builder.withStates(nfa.getStates());
         nfa.getAcceptingStates().forEach(builder::withAccepting);
         for (Map.Entry<K, Set<NFATransition<K, S>>> entry :
-                nfa.getTransitions().getTransitions().entrySet()) {
+                nfa.getTransitionsView().getTransitions().entrySet()) {
             K sourceState = entry.getKey();
             for (NFATransition<K, S> transition : entry.getValue()) {
                 K targetState = transition.getState();
@@ -155,9 +155,56 @@ public class PDA<T extends Serializable, S extends Serializable, K extends Seria
         return bimap(t -> t, homomorphism);
     }
 
+    /**
+     * The applicable transitions of a PDA only depend on the state, the current symbol and the top
+     * of the stack of a configuration.
+     */
+    @Override
+    protected Object getApplicableTransitionsCacheKey(PDAConfiguration<T, S, K> configuration) {
+        return Arrays.asList(
+                configuration.getState(),
+                configuration.hasSymbol() ? configuration.getCurrentSymbol() : null,
+                configuration.getTopOfStack().orElse(null));
+    }
+
+    private transient volatile PDASaturation<T, S, K> saturation;
+
+    /**
+     * Checks whether this PDA accepts the given word. Unlike running an {@link Executor} or a
+     * {@link PDAStepper}, this always terminates, see {@link PDASaturation}. The saturation is
+     * prepared on the first call only.
+     *
+     * @param word The word to check
+     * @return {@code true} iff some run of this PDA on {@code word} is accepting
+     */
+    public boolean accepts(Word<S> word) {
+        if (saturation == null) saturation = PDASaturation.of(this);
+        return saturation.accepts(word);
+    }
+
+    /** Looks up the applicable transitions in the index of {@link PDATransitions}. */
+    @Override
+    protected Set<PDATransition<T, S, K>> computeApplicableTransitions(
+            PDAConfiguration<T, S, K> configuration) {
+        return indexedTransitions()
+                .applicable(
+                        configuration.getState(),
+                        configuration.hasSymbol() ? configuration.getCurrentSymbol() : null,
+                        configuration.getTopOfStack().orElse(null));
+    }
+
     @Override
     public boolean isHaltingConfiguration(PDAConfiguration<T, S, K> configuration) {
-        return !transitions.exists((s, trans) -> trans.isApplicable(configuration));
+        return !indexedTransitions()
+                .anyApplicable(
+                        configuration.getState(),
+                        configuration.hasSymbol() ? configuration.getCurrentSymbol() : null,
+                        configuration.getTopOfStack().orElse(null));
+    }
+
+    /* The constructor only accepts PDATransitions, so the cast always succeeds */
+    PDATransitions<T, S, K> indexedTransitions() {
+        return (PDATransitions<T, S, K>) transitions;
     }
 
     @Override
@@ -223,7 +270,13 @@ public class PDA<T extends Serializable, S extends Serializable, K extends Seria
     @Override
     public Set<PDAConfiguration<T, S, K>> getAllStartConfigurations(Word<S> word) {
         return getInitialStates().stream()
-                .map(start -> new PDAConfiguration<>(start, word, getInitialStack()))
+                .map(
+                        start ->
+                                new PDAConfiguration<>(
+                                        start,
+                                        word,
+                                        PDAStack.<K>empty().push(initialStackSymbol),
+                                        0))
                 .collect(Collectors.toSet());
     }
 
@@ -411,7 +411,7 @@ public class PDABuilder<T extends Serializable, S extends Serializable, K extend
      */
     public PDABuilder<T, S, K> removeTransitions(T from) {
         Objects.requireNonNull(from);
-        transitions.in(from).clear();
+        transitions.removeTransitions(from);
         return this;
     }
 
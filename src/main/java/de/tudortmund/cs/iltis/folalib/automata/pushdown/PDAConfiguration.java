@@ -15,13 +15,17 @@ import java.util.*;
  */
 public class PDAConfiguration<T extends Serializable, S extends Serializable, K>
         extends Configuration<T, S> {
-    private final Deque<K> stack;
+    private final PDAStack<K> stack;
 
     public PDAConfiguration(T state, Word<S> word, Deque<K> stack) {
         this(state, word, stack, 0);
     }
 
     public PDAConfiguration(T state, Word<S> word, Deque<K> stack, int position) {
+        this(state, word, PDAStack.of(stack), position);
+    }
+
+    public PDAConfiguration(T state, Word<S> word, PDAStack<K> stack, int position) {
         super(state, word, position);
         this.stack = stack;
     }
@@ -43,16 +47,29 @@ public class PDAConfiguration<T extends Serializable, S extends Serializable, K>
      * @return the topmost stack symbol
      */
     public Optional<K> getTopOfStack() {
-        return Optional.ofNullable(stack.peek());
+        return stack.peek();
     }
 
     /**
-     * Return the stack in this configuration
+     * Return a copy of the stack in this configuration
+     *
+     * <p>This takes time linear in the size of the stack, use {@link #getPDAStack()} to inspect
+     * the stack without copying it.
      *
      * @return the stack of this configuration
      */
     public Deque<K> getStack() {
-        return new LinkedList<>(stack);
+        return stack.toDeque();
+    }
+
+    /**
+     * Return the immutable stack in this configuration, which may be shared with other
+     * configurations
+     *
+     * @return the stack of this configuration
+     */
+    public PDAStack<K> getPDAStack() {
+        return stack;
     }
 
     @Override
@@ -71,6 +88,6 @@ public class PDAConfiguration<T extends Serializable, S extends Serializable, K>
 
     @Override
     public int hashCode() {
-        return Objects.hash(stack);
+        return 31 * super.hashCode() + stack.hashCode();
     }
 }
@@ -7,7 +7,6 @@ import de.tudortmund.cs.iltis.utils.collections.Pair;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -43,18 +42,15 @@ public class PDADeterminacyCheck<
                             null, null, null, DeterminacyFaultReason.MULTIPLE_INITIAL_STATES));
         }
 
-        for (T state : pda.getStates()) {
-            Set<PDATransition<T, S, K>> outgoingTransitions = pda.getTransitions().in(state);
-            checkDeterminacy(state, outgoingTransitions);
-        }
+        for (T state : pda.getStates()) checkDeterminacy(state);
         return new DeterminacyFaultCollection<>(faults);
     }
 
-    private void checkDeterminacy(T state, Set<PDATransition<T, S, K>> transitions) {
+    private void checkDeterminacy(T state) {
         for (S symbol : pda.getAlphabet()) {
             for (K stackSymbol : pda.getStackAlphabet()) {
                 int possibleNextConfigurations =
-                        countPossibleNextConfigurations(transitions, symbol, stackSymbol);
+                        countPossibleNextConfigurations(state, symbol, stackSymbol);
                 if (possibleNextConfigurations > 1) {
                     faults.add(
                             new PDADeterminacyFault<>(
@@ -68,10 +64,8 @@ public class PDADeterminacyCheck<
         }
     }
 
-    private int countPossibleNextConfigurations(
-            Set<PDATransition<T, S, K>> transitions, S symbol, K stackSymbol) {
-        return transitions.stream()
-                .filter(trans -> isApplicable(trans, symbol, stackSymbol))
+    private int countPossibleNextConfigurations(T state, S symbol, K stackSymbol) {
+        return pda.indexedTransitions().applicable(state, symbol, stackSymbol).stream()
                 .map(
                         trans ->
                                 new Pair<>(
@@ -80,9 +74,4 @@ public class PDADeterminacyCheck<
                 .collect(Collectors.toSet())
                 .size();
     }
-
-    private boolean isApplicable(PDATransition<T, S, K> transition, S symbol, K stackSymbol) {
-        return (transition.isEpsilon() || transition.getInputSymbol().equals(symbol))
-                && transition.getStackSymbol().matches(stackSymbol);
-    }
 }
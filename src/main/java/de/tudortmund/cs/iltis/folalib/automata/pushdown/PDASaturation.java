@@ -0,0 +1,295 @@
+package de.tudortmund.cs.iltis.folalib.automata.pushdown;
+
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Decides membership for a {@link PDA} by the saturation algorithm for {@code pre*} on
+ * P-automata (Bouajjani, Esparza, Maler: "Reachability Analysis of Pushdown Automata", 1997),
+ * which terminates even if the PDA has epsilon cycles growing the stack.
+ *
+ * <p>For a word {@code w} of length {@code n}, the control states are the pairs of a state and a
+ * position {@code 0 <= i <= n} in {@code w}. A transition reading {@code w[i]} moves from position
+ * {@code i} to {@code i + 1}, an epsilon transition stays at its position. A P-automaton is a
+ * finite automaton over the stack alphabet whose initial states are the control states; it accepts
+ * a configuration {@code (c, k_1 ... k_m)} iff it accepts {@code k_1 ... k_m} starting from
+ * {@code c}. Starting from the P-automaton of the accepting configurations at position {@code n},
+ * which depend on the {@link PDAAcceptanceStrategy}, saturation adds a transition {@code c --k-->
+ * s} whenever some transition of the PDA rewrites {@code (c, k)} to {@code (c', u)} and {@code c'
+ * --u--> s} is a path already. Afterwards, the P-automaton accepts exactly the configurations from
+ * which an accepting one is reachable.
+ *
+ * <p>Paths {@code c' --u--> s} are followed incrementally: an item is a transition of the PDA
+ * together with a prefix of {@code u} which has been read up to some state of the P-automaton.
+ * Every item and every transition of the P-automaton is handled only once, so that membership is
+ * decided in time polynomial in the size of the PDA and linear in the number of transitions of the
+ * P-automaton, which is at most quadratic in {@code n}.
+ *
+ * @param <T> The type of the states
+ * @param <S> The type of the input symbols
+ * @param <K> The type of the stack symbols
+ */
+public final class PDASaturation<
+        T extends Serializable, S extends Serializable, K extends Serializable> {
+
+    private static final int EPSILON = -1;
+
+    private final PDAAcceptanceStrategy acceptanceStrategy;
+    private final HashMap<S, Integer> inputIndices = new HashMap<>();
+    private final int numberOfStates;
+    private final int numberOfStackSymbols;
+    private final int initialStackSymbol;
+    private final int[] initialStates;
+    private final boolean[] accepting;
+
+    /* The transitions of the PDA with all wildcards substituted: the source state, the input
+     * symbol or EPSILON, the stack symbol, the target state and the pushed word */
+    private final int[] sources;
+    private final int[] inputs;
+    private final int[] stackSymbols;
+    private final int[] targets;
+    private final int[][] pushed;
+
+    /* The items of the transitions: the item read(r, j) of transition r has index
+     * firstItems[r] + j, and needs the symbol pushed[r][j] next, or is complete */
+    private final int[] firstItems;
+    private final int[] itemTransitions;
+    private final int numberOfItems;
+
+    private PDASaturation(PDA<T, S, K> pda) {
+        acceptanceStrategy = pda.getAcceptanceStrategy();
+        for (S symbol : pda.getAlphabet()) inputIndices.put(symbol, inputIndices.size());
+
+        List<T> states = new ArrayList<>(pda.getStates());
+        HashMap<T, Integer> stateIndices = new HashMap<>();
+        for (T state : states) stateIndices.put(state, stateIndices.size());
+        List<K> stackAlphabet = new ArrayList<>(pda.getStackAlphabet().toUnmodifiableSet());
+        HashMap<K, Integer> stackIndices = new HashMap<>();
+        for (K symbol : stackAlphabet) stackIndices.put(symbol, stackIndices.size());
+
+        numberOfStates = states.size();
+        numberOfStackSymbols = stackAlphabet.size();
+        initialStackSymbol = stackIndices.get(pda.getInitialStackSymbol());
+        initialStates = new int[pda.getInitialStates().size()];
+        int i = 0;
+        for (T state : pda.getInitialStates()) initialStates[i++] = stateIndices.get(state);
+        accepting = new boolean[numberOfStates];
+        for (T state : pda.getAcceptingStates()) accepting[stateIndices.get(state)] = true;
+
+        List<int[]> rules = new ArrayList<>();
+        List<int[]> words = new ArrayList<>();
+        for (T state : states) {
+            for (PDATransition<T, S, K> transition : pda.getTransitions().in(state)) {
+                PDAStackWord<K> newTopOfStack = transition.getNewTopOfStack();
+                for (K symbol : stackAlphabet) {
+                    if (!transition.getStackSymbol().matches(symbol)) continue;
+
+                    int[] word = new int[newTopOfStack.size()];
+                    for (int j = 0; j < word.length; j++) {
+                        K pushedSymbol = newTopOfStack.get(j);
+                        word[j] = stackIndices.get(pushedSymbol == null ? symbol : pushedSymbol);
+                    }
+                    rules.add(
+                            new int[] {
+                                stateIndices.get(state),
+                                transition.isEpsilon()
+                                        ? EPSILON
+                                        : inputIndices.get(transition.getInputSymbol()),
+                                stackIndices.get(symbol),
+                                stateIndices.get(transition.getState())
+                            });
+                    words.add(word);
+                }
+            }
+        }
+
+        int numberOfRules = rules.size();
+        sources = new int[numberOfRules];
+        inputs = new int[numberOfRules];
+        stackSymbols = new int[numberOfRules];
+        targets = new int[numberOfRules];
+        pushed = words.toArray(new int[0][]);
+        firstItems = new int[numberOfRules];
+        int items = 0;
+        for (int r = 0; r < numberOfRules; r++) {
+            int[] rule = rules.get(r);
+            sources[r] = rule[0];
+            inputs[r] = rule[1];
+            stackSymbols[r] = rule[2];
+            targets[r] = rule[3];
+            firstItems[r] = items;
+            items += pushed[r].length + 1;
+        }
+        numberOfItems = items;
+        itemTransitions = new int[numberOfItems];
+        for (int r = 0; r < numberOfRules; r++)
+            for (int j = 0; j <= pushed[r].length; j++) itemTransitions[firstItems[r] + j] = r;
+    }
+
+    /**
+     * Prepares the membership test for the given PDA. The PDA is copied, so later changes to it are
+     * not taken into account.
+     *
+     * @param pda The PDA
+     * @param <T> The type of the states
+     * @param <S> The type of the input symbols
+     * @param <K> The type of the stack symbols
+     * @return The membership test for {@code pda}
+     */
+    public static <T extends Serializable, S extends Serializable, K extends Serializable>
+            PDASaturation<T, S, K> of(PDA<T, S, K> pda) {
+        return new PDASaturation<>(Objects.requireNonNull(pda));
+    }
+
+    /**
+     * Checks whether the PDA accepts the given word, with respect to its {@link
+     * PDAAcceptanceStrategy}.
+     *
+     * @param word The word to check
+     * @return {@code true} iff some run of the PDA on {@code word} is accepting
+     */
+    public boolean accepts(Word<S> word) {
+        int[] input = new int[word.size()];
+        for (int i = 0; i < input.length; i++) {
+            Integer symbol = inputIndices.get(word.get(i));
+            if (symbol == null) return false;
+            input[i] = symbol;
+        }
+        return new Run(input.length + 1, input).acceptsInitialConfiguration();
+    }
+
+    /**
+     * Checks whether the PDA accepts some word, by treating every transition as an epsilon
+     * transition.
+     *
+     * @return {@code true} iff the language of the PDA is not empty
+     */
+    public boolean acceptsAnyWord() {
+        return new Run(1, null).acceptsInitialConfiguration();
+    }
+
+    /* The saturation for a single word, or for any word if input is null */
+    private final class Run {
+        private final int positions;
+        private final int[] input;
+
+        /* The control state (q, i) is q * positions + i, the additional state FINAL accepts every
+         * stack in the ACCEPTING_STATES mode */
+        private final int numberOfControls;
+        private final int finalState;
+
+        /* For every state and stack symbol of the P-automaton: its targets, and the items waiting
+         * for the symbol at the state */
+        private final BitSet[] successors;
+        private final List<List<Integer>> waiting;
+
+        /* For every item at a position: the states it has reached */
+        private final BitSet[] reached;
+
+        private final Deque<int[]> newTransitions = new ArrayDeque<>();
+        private final Deque<int[]> newItems = new ArrayDeque<>();
+
+        Run(int positions, int[] input) {
+            this.positions = positions;
+            this.input = input;
+            numberOfControls = numberOfStates * positions;
+            finalState = numberOfControls;
+            successors = new BitSet[(numberOfControls + 1) * numberOfStackSymbols];
+            waiting = new ArrayList<>(Collections.nCopies(successors.length, null));
+            reached = new BitSet[numberOfItems * positions];
+        }
+
+        private int control(int state, int position) {
+            return state * positions + position;
+        }
+
+        private boolean isFinal(int s) {
+            boolean acceptingStates = acceptanceStrategy == PDAAcceptanceStrategy.ACCEPTING_STATES;
+            if (s == finalState) return acceptingStates;
+            return s % positions == positions - 1 && (!acceptingStates || accepting[s / positions]);
+        }
+
+        boolean acceptsInitialConfiguration() {
+            if (acceptanceStrategy == PDAAcceptanceStrategy.ACCEPTING_STATES) {
+                for (int q = 0; q < numberOfStates; q++) {
+                    if (!accepting[q]) continue;
+                    for (int k = 0; k < numberOfStackSymbols; k++)
+                        addTransition(control(q, positions - 1), k, finalState);
+                }
+                for (int k = 0; k < numberOfStackSymbols; k++)
+                    addTransition(finalState, k, finalState);
+            }
+
+            for (int r = 0; r < sources.length; r++) {
+                if (inputs[r] == EPSILON || input == null) {
+                    for (int i = 0; i < positions; i++)
+                        reach(i * numberOfItems + firstItems[r], control(targets[r], i));
+                } else {
+                    for (int i = 0; i < input.length; i++)
+                        if (input[i] == inputs[r])
+                            reach(i * numberOfItems + firstItems[r], control(targets[r], i + 1));
+                }
+            }
+            saturate();
+
+            for (int q : initialStates) {
+                BitSet next = successors[control(q, 0) * numberOfStackSymbols + initialStackSymbol];
+                if (next == null) continue;
+                for (int s = next.nextSetBit(0); s >= 0; s = next.nextSetBit(s + 1))
+                    if (isFinal(s)) return true;
+            }
+            return false;
+        }
+
+        private void addTransition(int from, int symbol, int to) {
+            int key = from * numberOfStackSymbols + symbol;
+            if (successors[key] == null) successors[key] = new BitSet();
+            if (successors[key].get(to)) return;
+            successors[key].set(to);
+            newTransitions.push(new int[] {from, symbol, to});
+        }
+
+        /* The item with the given index has read its prefix from its control state to state */
+        private void reach(int item, int state) {
+            if (reached[item] == null) reached[item] = new BitSet();
+            if (reached[item].get(state)) return;
+            reached[item].set(state);
+            newItems.push(new int[] {item, state});
+        }
+
+        private void saturate() {
+            while (!newTransitions.isEmpty() || !newItems.isEmpty()) {
+                if (!newItems.isEmpty()) {
+                    int[] entry = newItems.pop();
+                    handleItem(entry[0], entry[1]);
+                    continue;
+                }
+
+                int[] transition = newTransitions.pop();
+                List<Integer> items =
+                        waiting.get(transition[0] * numberOfStackSymbols + transition[1]);
+                if (items == null) continue;
+                for (int item : items) reach(item + 1, transition[2]);
+            }
+        }
+
+        private void handleItem(int item, int state) {
+            int position = item / numberOfItems;
+            int r = itemTransitions[item % numberOfItems];
+            int j = item % numberOfItems - firstItems[r];
+
+            if (j == pushed[r].length) {
+                addTransition(control(sources[r], position), stackSymbols[r], state);
+                return;
+            }
+
+            int key = state * numberOfStackSymbols + pushed[r][j];
+            if (waiting.get(key) == null) waiting.set(key, new ArrayList<>());
+            waiting.get(key).add(item);
+            BitSet next = successors[key];
+            if (next == null) return;
+            for (int s = next.nextSetBit(0); s >= 0; s = next.nextSetBit(s + 1)) reach(item + 1, s);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package de.tudortmund.cs.iltis.folalib.automata.pushdown;
+
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Runs a {@link PDA} on a word by a breadth-first search over its configurations. Unlike a {@link
+ * PDAStepper}, every configuration is expanded at most once, and the search is bounded by a
+ * maximum number of configurations, a maximum stack height and a time limit. If the search is cut
+ * short by one of these budgets, the result is {@link PDASearchOutcome#BUDGET_EXHAUSTED} instead of
+ * {@link PDASearchOutcome#REJECTED}. Use {@link PDA#accepts(Word)} to decide membership without
+ * any budgets.
+ *
+ * <p>If the PDA accepts by {@link PDAAcceptanceStrategy#EMPTY_STACK}, configurations which cannot
+ * empty their stack on the remaining input are pruned: a stack symbol is erasable if some epsilon
+ * transition replaces it by erasable symbols only, and every other symbol on the stack needs at
+ * least one input symbol to be removed. A configuration whose stack holds more non-erasable symbols
+ * than there are symbols left to read is not expanded. As this never discards an accepting run, it
+ * does not count as exhausting a budget.
+ *
+ * @param <T> The type of the states
+ * @param <S> The type of the input symbols
+ * @param <K> The type of the stack symbols
+ */
+public final class PDASearch<
+        T extends Serializable, S extends Serializable, K extends Serializable> {
+
+    public static final int DEFAULT_MAXIMUM_CONFIGURATIONS = 100000;
+
+    /* The deadline is checked once per this many expanded configurations */
+    private static final int DEADLINE_CHECK_INTERVAL = 256;
+
+    private final PDA<T, S, K> pda;
+    private final Set<K> erasable;
+    private int maximumConfigurations = DEFAULT_MAXIMUM_CONFIGURATIONS;
+    private int maximumStackHeight = Integer.MAX_VALUE;
+    private long timeLimit = -1;
+
+    /**
+     * Prepares a search on the given PDA. The PDA must not be changed while the search is in use.
+     *
+     * @param pda The PDA to run
+     */
+    public PDASearch(PDA<T, S, K> pda) {
+        this.pda = Objects.requireNonNull(pda);
+        this.erasable = computeErasableStackSymbols(pda);
+    }
+
+    /**
+     * Limits the number of distinct configurations visited by a single run, including the start
+     * configurations. Defaults to {@value #DEFAULT_MAXIMUM_CONFIGURATIONS}.
+     *
+     * @param maximumConfigurations The maximum number of configurations
+     * @return this search
+     */
+    public PDASearch<T, S, K> withMaximumConfigurations(int maximumConfigurations) {
+        if (maximumConfigurations < 1)
+            throw new IllegalArgumentException(
+                    "The maximum number of configurations must be positive");
+        this.maximumConfigurations = maximumConfigurations;
+        return this;
+    }
+
+    /**
+     * Limits the height of the stack of the visited configurations. Unlimited by default.
+     *
+     * @param maximumStackHeight The maximum stack height
+     * @return this search
+     */
+    public PDASearch<T, S, K> withMaximumStackHeight(int maximumStackHeight) {
+        if (maximumStackHeight < 0)
+            throw new IllegalArgumentException("The maximum stack height must not be negative");
+        this.maximumStackHeight = maximumStackHeight;
+        return this;
+    }
+
+    /**
+     * Limits the wall-clock time of a single run. Unlimited by default.
+     *
+     * @param milliseconds The time limit in milliseconds
+     * @return this search
+     */
+    public PDASearch<T, S, K> withTimeLimit(long milliseconds) {
+        if (milliseconds < 0)
+            throw new IllegalArgumentException("The time limit must not be negative");
+        this.timeLimit = milliseconds;
+        return this;
+    }
+
+    /**
+     * Runs the PDA on the given word until an accepting configuration is found, all relevant
+     * configurations have been visited, or a budget is exhausted.
+     *
+     * @param word The input word
+     * @return The outcome of the search, with a shortest accepting run if the word was accepted
+     */
+    public PDASearchResult<T, S, K> run(Word<S> word) {
+        long deadline = timeLimit < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + timeLimit;
+        Set<PDAConfiguration<T, S, K>> visited = new HashSet<>();
+        Deque<Node> queue = new ArrayDeque<>();
+        boolean exhausted = false;
+
+        for (PDAConfiguration<T, S, K> start : pda.getAllStartConfigurations(word)) {
+            Node node = new Node(start, null, null, countNonErasable(start.getPDAStack()));
+            switch (visit(visited, node)) {
+                case ACCEPTED:
+                    return accepted(node, visited.size());
+                case BUDGET_EXHAUSTED:
+                    exhausted = true;
+                    break;
+                case REJECTED:
+                    if (node.isNew) queue.add(node);
+                    break;
+            }
+        }
+
+        int expanded = 0;
+        while (!queue.isEmpty()) {
+            if (++expanded % DEADLINE_CHECK_INTERVAL == 0
+                    && System.currentTimeMillis() > deadline)
+                return new PDASearchResult<>(
+                        PDASearchOutcome.BUDGET_EXHAUSTED, null, null, visited.size());
+
+            Node node = queue.poll();
+            PDAConfiguration<T, S, K> configuration = node.configuration;
+            Optional<K> top = configuration.getTopOfStack();
+            int popped = top.isPresent() && !erasable.contains(top.get()) ? 1 : 0;
+            for (PDATransition<T, S, K> transition : pda.getApplicableTransitions(configuration)) {
+                PDAConfiguration<T, S, K> next = transition.fire(configuration);
+                int nonErasable = node.nonErasable - popped;
+                for (K symbol : transition.getNewTopOfStack())
+                    if (!erasable.contains(symbol == null ? top.get() : symbol)) nonErasable++;
+
+                Node child = new Node(next, node, transition, nonErasable);
+                switch (visit(visited, child)) {
+                    case ACCEPTED:
+                        return accepted(child, visited.size());
+                    case BUDGET_EXHAUSTED:
+                        exhausted = true;
+                        break;
+                    case REJECTED:
+                        if (child.isNew) queue.add(child);
+                        break;
+                }
+            }
+        }
+
+        return new PDASearchResult<>(
+                exhausted ? PDASearchOutcome.BUDGET_EXHAUSTED : PDASearchOutcome.REJECTED,
+                null,
+                null,
+                visited.size());
+    }
+
+    /* Marks the configuration of node as visited, unless it has been visited before, exceeds a
+     * budget or can be pruned. Returns BUDGET_EXHAUSTED if a budget was exceeded, ACCEPTED if the
+     * configuration is new and accepting, and REJECTED otherwise. */
+    private PDASearchOutcome visit(Set<PDAConfiguration<T, S, K>> visited, Node node) {
+        PDAConfiguration<T, S, K> configuration = node.configuration;
+        if (visited.contains(configuration)) return PDASearchOutcome.REJECTED;
+        if (configuration.getPDAStack().size() > maximumStackHeight
+                || visited.size() >= maximumConfigurations)
+            return PDASearchOutcome.BUDGET_EXHAUSTED;
+        if (pda.getAcceptanceStrategy() == PDAAcceptanceStrategy.EMPTY_STACK
+                && node.nonErasable
+                        > configuration.getWord().size() - configuration.getPosition())
+            return PDASearchOutcome.REJECTED;
+
+        visited.add(configuration);
+        node.isNew = true;
+        return pda.isAcceptingConfiguration(configuration)
+                ? PDASearchOutcome.ACCEPTED
+                : PDASearchOutcome.REJECTED;
+    }
+
+    private PDASearchResult<T, S, K> accepted(Node node, int numberOfConfigurations) {
+        LinkedList<PDAConfiguration<T, S, K>> run = new LinkedList<>();
+        LinkedList<PDATransition<T, S, K>> transitions = new LinkedList<>();
+        for (Node n = node; n != null; n = n.predecessor) {
+            run.addFirst(n.configuration);
+            if (n.transition != null) transitions.addFirst(n.transition);
+        }
+        return new PDASearchResult<>(
+                PDASearchOutcome.ACCEPTED,
+                new ArrayList<>(run),
+                new ArrayList<>(transitions),
+                numberOfConfigurations);
+    }
+
+    private int countNonErasable(PDAStack<K> stack) {
+        int count = 0;
+        for (K symbol : stack) if (!erasable.contains(symbol)) count++;
+        return count;
+    }
+
+    /* The least set of stack symbols k such that some epsilon transition applicable to k replaces
+     * it by symbols of the set only, regardless of the states */
+    private static <T extends Serializable, S extends Serializable, K extends Serializable>
+            Set<K> computeErasableStackSymbols(PDA<T, S, K> pda) {
+        List<PDATransition<T, S, K>> epsilonTransitions = new ArrayList<>();
+        for (T state : pda.getStates())
+            for (PDATransition<T, S, K> transition : pda.getTransitions().in(state))
+                if (transition.isEpsilon()) epsilonTransitions.add(transition);
+
+        Set<K> erasable = new HashSet<>();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (K symbol : pda.getStackAlphabet().toUnmodifiableSet()) {
+                if (erasable.contains(symbol)) continue;
+                for (PDATransition<T, S, K> transition : epsilonTransitions) {
+                    if (!transition.getStackSymbol().matches(symbol)) continue;
+                    boolean allErasable = true;
+                    for (K pushed : transition.getNewTopOfStack())
+                        allErasable &= erasable.contains(pushed == null ? symbol : pushed);
+                    if (allErasable) {
+                        erasable.add(symbol);
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return erasable;
+    }
+
+    /* A visited configuration, together with the way it was reached and the number of
+     * non-erasable symbols on its stack */
+    private final class Node {
+        private final PDAConfiguration<T, S, K> configuration;
+        private final Node predecessor;
+        private final PDATransition<T, S, K> transition;
+        private final int nonErasable;
+        private boolean isNew;
+
+        Node(
+                PDAConfiguration<T, S, K> configuration,
+                Node predecessor,
+                PDATransition<T, S, K> transition,
+                int nonErasable) {
+            this.configuration = configuration;
+            this.predecessor = predecessor;
+            this.transition = transition;
+            this.nonErasable = nonErasable;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package de.tudortmund.cs.iltis.folalib.automata.pushdown;
+
+/** The outcome of a {@link PDASearch} */
+public enum PDASearchOutcome {
+
+    /** An accepting configuration was reached */
+    ACCEPTED,
+
+    /** All reachable configurations which could still lead to acceptance were explored */
+    REJECTED,
+
+    /**
+     * Some configurations were not explored because a budget of the search was exhausted, and
+     * none of the explored configurations is accepting
+     */
+    BUDGET_EXHAUSTED,
+}
@@ -0,0 +1,75 @@
+package de.tudortmund.cs.iltis.folalib.automata.pushdown;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The result of a {@link PDASearch}: its outcome and, if the word was accepted, a shortest
+ * accepting run
+ *
+ * @param <T> The type of the states
+ * @param <S> The type of the input symbols
+ * @param <K> The type of the stack symbols
+ */
+public final class PDASearchResult<
+        T extends Serializable, S extends Serializable, K extends Serializable> {
+
+    private final PDASearchOutcome outcome;
+    private final List<PDAConfiguration<T, S, K>> run;
+    private final List<PDATransition<T, S, K>> transitions;
+    private final int numberOfConfigurations;
+
+    PDASearchResult(
+            PDASearchOutcome outcome,
+            List<PDAConfiguration<T, S, K>> run,
+            List<PDATransition<T, S, K>> transitions,
+            int numberOfConfigurations) {
+        this.outcome = outcome;
+        this.run = run;
+        this.transitions = transitions;
+        this.numberOfConfigurations = numberOfConfigurations;
+    }
+
+    public PDASearchOutcome getOutcome() {
+        return outcome;
+    }
+
+    public boolean isAccepted() {
+        return outcome == PDASearchOutcome.ACCEPTED;
+    }
+
+    /**
+     * Returns the configurations of a shortest accepting run, from a start configuration to an
+     * accepting one
+     *
+     * @return the accepting run, or {@link Optional#empty()} if the word was not accepted
+     */
+    public Optional<List<PDAConfiguration<T, S, K>>> getAcceptingRun() {
+        return run == null ? Optional.empty() : Optional.of(Collections.unmodifiableList(run));
+    }
+
+    /**
+     * Returns the transitions fired in the accepting run, the i-th one leading from the i-th
+     * configuration of {@link #getAcceptingRun()} to the next one
+     *
+     * @return the transitions of the accepting run, or {@link Optional#empty()} if the word was not
+     *     accepted
+     */
+    public Optional<List<PDATransition<T, S, K>>> getAcceptingTransitions() {
+        return transitions == null
+                ? Optional.empty()
+                : Optional.of(Collections.unmodifiableList(transitions));
+    }
+
+    /** The number of distinct configurations the search has visited */
+    public int getNumberOfConfigurations() {
+        return numberOfConfigurations;
+    }
+
+    @Override
+    public String toString() {
+        return outcome + (run == null ? "" : " " + run);
+    }
+}
@@ -0,0 +1,176 @@
+package de.tudortmund.cs.iltis.folalib.automata.pushdown;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * An immutable stack of a {@link PDAConfiguration}, represented as a list of cells each holding a
+ * symbol and the stack below it.
+ *
+ * <p>Pushing and popping take constant time and never copy the stack: all stacks derived from the
+ * same stack share the cells below their topmost modified symbol. The size and the hash code of
+ * every stack are computed when it is created, so that hashing a configuration does not traverse
+ * its stack, and comparing two stacks stops as soon as both share the remaining cells.
+ *
+ * @param <K> The type of the stack symbols
+ */
+public final class PDAStack<K> implements Iterable<K>, Serializable {
+
+    private static final PDAStack<?> EMPTY = new PDAStack<>(null, null);
+
+    private K top;
+    private PDAStack<K> rest;
+    private int size;
+    private int hashCode;
+
+    /* For serialization */
+    @SuppressWarnings("unused")
+    private PDAStack() {}
+
+    private PDAStack(K top, PDAStack<K> rest) {
+        this.top = top;
+        this.rest = rest;
+        this.size = rest == null ? 0 : rest.size + 1;
+        this.hashCode = rest == null ? 1 : 31 * rest.hashCode + Objects.hashCode(top);
+    }
+
+    /**
+     * Returns the empty stack
+     *
+     * @param <K> The type of the stack symbols
+     * @return the empty stack
+     */
+    @SuppressWarnings("unchecked")
+    public static <K> PDAStack<K> empty() {
+        return (PDAStack<K>) EMPTY;
+    }
+
+    /**
+     * Returns the stack with the given symbols, the first symbol being the topmost one. This is the
+     * order of iteration of a {@link Deque} which is used as a stack.
+     *
+     * @param symbols The symbols of the stack, from top to bottom
+     * @param <K> The type of the stack symbols
+     * @return the stack with the given symbols
+     */
+    public static <K> PDAStack<K> of(Iterable<? extends K> symbols) {
+        List<K> topToBottom = new ArrayList<>();
+        for (K symbol : symbols) topToBottom.add(symbol);
+        return PDAStack.<K>empty().pushAll(topToBottom);
+    }
+
+    /**
+     * Returns this stack with the given symbol on top of it
+     *
+     * @param symbol The new topmost symbol
+     * @return the new stack
+     */
+    public PDAStack<K> push(K symbol) {
+        return new PDAStack<>(symbol, this);
+    }
+
+    /**
+     * Returns this stack with the given symbols on top of it, such that the first symbol becomes
+     * the topmost one
+     *
+     * @param symbols The new topmost symbols, from top to bottom
+     * @return the new stack
+     */
+    public PDAStack<K> pushAll(List<? extends K> symbols) {
+        PDAStack<K> stack = this;
+        for (int i = symbols.size() - 1; i >= 0; i--) stack = stack.push(symbols.get(i));
+        return stack;
+    }
+
+    /**
+     * Returns this stack without its topmost symbol
+     *
+     * @return the stack below the topmost symbol
+     * @throws NoSuchElementException if this stack is empty
+     */
+    public PDAStack<K> pop() {
+        if (isEmpty()) throw new NoSuchElementException("Cannot pop from an empty stack");
+        return rest;
+    }
+
+    /**
+     * Return the topmost symbol of this stack
+     *
+     * @return the topmost symbol, or {@link Optional#empty()} if this stack is empty
+     */
+    public Optional<K> peek() {
+        return isEmpty() ? Optional.empty() : Optional.ofNullable(top);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copies this stack into a new {@link Deque}, whose first element is the topmost symbol
+     *
+     * @return a mutable copy of this stack
+     */
+    public Deque<K> toDeque() {
+        Deque<K> deque = new LinkedList<>();
+        for (K symbol : this) deque.addLast(symbol);
+        return deque;
+    }
+
+    /** Iterates over the symbols of this stack from top to bottom */
+    @Override
+    public Iterator<K> iterator() {
+        return new Iterator<K>() {
+            private PDAStack<K> current = PDAStack.this;
+
+            @Override
+            public boolean hasNext() {
+                return !current.isEmpty();
+            }
+
+            @Override
+            public K next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                K symbol = current.top;
+                current = current.rest;
+                return symbol;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("[");
+        for (PDAStack<K> stack = this; !stack.isEmpty(); stack = stack.rest) {
+            result.append(stack.top);
+            if (!stack.rest.isEmpty()) result.append(", ");
+        }
+        return result.append("]").toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PDAStack<?> that = (PDAStack<?>) o;
+        if (size != that.size || hashCode != that.hashCode) return false;
+
+        PDAStack<?> left = this;
+        PDAStack<?> right = that;
+        while (left != right && !left.isEmpty()) {
+            if (!Objects.equals(left.top, right.top)) return false;
+            left = left.rest;
+            right = right.rest;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
@@ -55,28 +55,28 @@ public class PDATransition<T extends Serializable, S extends Serializable, K ext
 
     @Override
     public PDAConfiguration<T, S, K> fire(PDAConfiguration<T, S, K> configuration) {
-        Deque<K> stack = getNextStack(configuration);
+        PDAStack<K> stack = getNextStack(configuration);
         return getNextConfiguration(configuration, configuration.getWord(), stack);
     }
 
     private PDAConfiguration<T, S, K> getNextConfiguration(
-            PDAConfiguration<T, S, K> configuration, Word<S> word, Deque<K> stack) {
+            PDAConfiguration<T, S, K> configuration, Word<S> word, PDAStack<K> stack) {
         if (isEpsilon())
             return new PDAConfiguration<>(state, word, stack, configuration.getPosition());
         else return new PDAConfiguration<>(state, word, stack, configuration.getPosition() + 1);
     }
 
-    private Deque<K> getNextStack(PDAConfiguration<T, S, K> configuration) {
+    private PDAStack<K> getNextStack(PDAConfiguration<T, S, K> configuration) {
         if (!configuration.getTopOfStack().isPresent()) {
             throw new RuntimeException(
                     "Cannot compute new stack after transition for a configuration with empty stack.");
         }
-        Deque<K> stack = new LinkedList<>(configuration.getStack());
-        stack.pop(); /* remove old topmost symbol because newTopOfStack contains it again */
-        PDAStackWord<K> concreteNewTopOfStack =
-                newTopOfStack.substituteWildcards(configuration.getTopOfStack().get());
-        for (K k : concreteNewTopOfStack.reverse()) {
-            stack.push(k);
+        /* remove old topmost symbol because newTopOfStack contains it again */
+        PDAStack<K> stack = configuration.getPDAStack().pop();
+        K matchedSymbol = configuration.getTopOfStack().get();
+        for (int i = newTopOfStack.size() - 1; i >= 0; i--) {
+            K symbol = newTopOfStack.get(i);
+            stack = stack.push(symbol == null ? matchedSymbol : symbol); // null is a wildcard
         }
         return stack;
     }
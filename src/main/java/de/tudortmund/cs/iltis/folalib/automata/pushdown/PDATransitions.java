@@ -1,11 +1,22 @@
 package de.tudortmund.cs.iltis.folalib.automata.pushdown;
 
 import de.tudortmund.cs.iltis.folalib.automata.Transitions;
+import de.tudortmund.cs.iltis.utils.collections.DefaultMap;
 import java.io.Serializable;
+import java.util.*;
 
 /**
  * A collection of all transitions in a PDA
  *
+ * <p>The transitions are indexed by their state, the next input symbol and the stack symbol they
+ * pop, so that the transitions applicable to a configuration are found by hash lookups instead of
+ * scanning all transitions. For every state and input symbol, the index holds the read-only set of
+ * applicable transitions per stack symbol named by some transition, which includes the epsilon
+ * transitions and the wildcards, and one set for all other stack symbols. The index is built by
+ * the constructors and kept up to date by {@link #addTransition} and {@link #removeTransitions},
+ * which are the only methods modifying this object: {@link #in} returns read-only views and {@link
+ * #getTransitions()} a detached copy.
+ *
  * @param <T> The type of states
  * @param <S> The type of input symbols
  * @param <K> The type of the stack symbols
@@ -13,10 +24,188 @@ import java.io.Serializable;
 public class PDATransitions<T extends Serializable, S extends Serializable, K extends Serializable>
         extends Transitions<T, PDATransition<T, S, K>> {
 
+    private final HashMap<T, StateIndex<T, S, K>> index = new HashMap<>();
+
     public PDATransitions(Transitions<T, PDATransition<T, S, K>> toClone) {
         super(toClone);
+
+        for (Map.Entry<T, Set<PDATransition<T, S, K>>> entry : transitionsByState.entrySet()) {
+            for (PDATransition<T, S, K> transition : entry.getValue())
+                index(entry.getKey(), transition);
+        }
     }
 
     /* For serialization */
     public PDATransitions() {}
+
+    @Override
+    public void addTransition(T from, PDATransition<T, S, K> trans) {
+        if (transitionsByState.get(from).add(trans)) index(from, trans);
+    }
+
+    /**
+     * Removes all transitions from the given state
+     *
+     * @param from The state
+     */
+    public void removeTransitions(T from) {
+        transitionsByState.remove(from);
+        index.remove(from);
+    }
+
+    @Override
+    public Set<PDATransition<T, S, K>> in(T state) {
+        return Collections.unmodifiableSet(transitionsByState.get(state));
+    }
+
+    /* The live map must not be exposed, as writing to it would bypass the index */
+    @Override
+    public DefaultMap<T, Set<PDATransition<T, S, K>>> getTransitions() {
+        DefaultMap<T, Set<PDATransition<T, S, K>>> copy = new DefaultMap<>(new SetSupplier<>());
+        for (T state : transitionsByState.keySet()) copy.put(state, in(state));
+        return copy;
+    }
+
+    /**
+     * Returns the transitions from the given state which are applicable if {@code symbol} is the
+     * next input symbol and {@code topOfStack} is on top of the stack. The returned set is a
+     * read-only set of the index, which is not copied.
+     *
+     * @param state The state
+     * @param symbol The next input symbol, or {@code null} if the whole input has been read
+     * @param topOfStack The top of the stack, or {@code null} if the stack is empty
+     * @return The applicable transitions
+     */
+    public Set<PDATransition<T, S, K>> applicable(T state, S symbol, K topOfStack) {
+        StateIndex<T, S, K> stateIndex = index.get(state);
+        if (stateIndex == null || topOfStack == null) return Collections.emptySet();
+
+        SymbolIndex<T, S, K> symbolIndex =
+                symbol == null ? null : stateIndex.bySymbol.get(symbol);
+        if (symbolIndex == null) symbolIndex = stateIndex.epsilon;
+        return symbolIndex.applicable(topOfStack);
+    }
+
+    /**
+     * Checks whether some transition from the given state is applicable if {@code symbol} is the
+     * next input symbol and {@code topOfStack} is on top of the stack.
+     *
+     * @param state The state
+     * @param symbol The next input symbol, or {@code null} if the whole input has been read
+     * @param topOfStack The top of the stack, or {@code null} if the stack is empty
+     * @return {@code true} iff {@link #applicable} is not empty
+     */
+    public boolean anyApplicable(T state, S symbol, K topOfStack) {
+        return !applicable(state, symbol, topOfStack).isEmpty();
+    }
+
+    private void index(T from, PDATransition<T, S, K> transition) {
+        StateIndex<T, S, K> stateIndex = index.get(from);
+        if (stateIndex == null) {
+            stateIndex = new StateIndex<>();
+            index.put(from, stateIndex);
+        }
+        stateIndex.add(transition);
+    }
+
+    /* The transitions of a state, by the next input symbol. As the epsilon transitions are
+     * applicable for every input symbol, they are added to all symbol indices, and the epsilon
+     * index alone is used for symbols which no transition reads. */
+    private static final class StateIndex<
+                    T extends Serializable, S extends Serializable, K extends Serializable>
+            implements Serializable {
+        private SymbolIndex<T, S, K> epsilon = new SymbolIndex<>();
+        private HashMap<S, SymbolIndex<T, S, K>> bySymbol = new HashMap<>();
+
+        void add(PDATransition<T, S, K> transition) {
+            if (transition.isEpsilon()) {
+                epsilon.add(transition);
+                for (SymbolIndex<T, S, K> symbolIndex : bySymbol.values())
+                    symbolIndex.add(transition);
+                return;
+            }
+            SymbolIndex<T, S, K> symbolIndex = bySymbol.get(transition.getInputSymbol());
+            if (symbolIndex == null) {
+                symbolIndex = new SymbolIndex<>(epsilon);
+                bySymbol.put(transition.getInputSymbol(), symbolIndex);
+            }
+            symbolIndex.add(transition);
+        }
+    }
+
+    /* The transitions applicable for an input symbol, by the stack symbol on top of the stack.
+     * The only variable stack symbol, the wildcard, is applicable for every stack symbol, so it is
+     * added to all named stack symbols as well as to the set for all other stack symbols. */
+    private static final class SymbolIndex<
+                    T extends Serializable, S extends Serializable, K extends Serializable>
+            implements Serializable {
+        private HashMap<K, TransitionSet<T, S, K>> byStackSymbol = new HashMap<>();
+        private TransitionSet<T, S, K> others = new TransitionSet<>();
+
+        SymbolIndex() {}
+
+        /* A copy of the given index */
+        SymbolIndex(SymbolIndex<T, S, K> toClone) {
+            for (Map.Entry<K, TransitionSet<T, S, K>> entry : toClone.byStackSymbol.entrySet())
+                byStackSymbol.put(entry.getKey(), TransitionSet.copyOf(entry.getValue()));
+            others = TransitionSet.copyOf(toClone.others);
+        }
+
+        Set<PDATransition<T, S, K>> applicable(K topOfStack) {
+            TransitionSet<T, S, K> transitions = byStackSymbol.get(topOfStack);
+            return (transitions == null ? others : transitions).view();
+        }
+
+        void add(PDATransition<T, S, K> transition) {
+            PDAStackSymbol<K> stackSymbol = transition.getStackSymbol();
+            if (stackSymbol instanceof PDAStackSymbol.Exactly) {
+                add(((PDAStackSymbol.Exactly<K>) stackSymbol).getSymbol(), transition);
+            } else if (stackSymbol instanceof PDAStackSymbol.AnyOf) {
+                for (K symbol : ((PDAStackSymbol.AnyOf<K>) stackSymbol).getPossibleKs())
+                    add(symbol, transition);
+            } else {
+                others.elements.add(transition);
+                for (TransitionSet<T, S, K> transitions : byStackSymbol.values())
+                    transitions.elements.add(transition);
+            }
+        }
+
+        private void add(K symbol, PDATransition<T, S, K> transition) {
+            TransitionSet<T, S, K> transitions = byStackSymbol.get(symbol);
+            if (transitions == null) {
+                transitions = TransitionSet.copyOf(others);
+                byStackSymbol.put(symbol, transitions);
+            }
+            transitions.elements.add(transition);
+        }
+    }
+
+    /** A set of transitions together with a read-only view of it, which is created only once */
+    private static class TransitionSet<
+                    T extends Serializable, S extends Serializable, K extends Serializable>
+            implements Serializable {
+        private Set<PDATransition<T, S, K>> elements;
+        private transient Set<PDATransition<T, S, K>> view;
+
+        private TransitionSet() {
+            this(new LinkedHashSet<>());
+        }
+
+        private TransitionSet(Set<PDATransition<T, S, K>> elements) {
+            this.elements = elements;
+            this.view = Collections.unmodifiableSet(elements);
+        }
+
+        /* A copy of the given set */
+        private static <T extends Serializable, S extends Serializable, K extends Serializable>
+                TransitionSet<T, S, K> copyOf(TransitionSet<T, S, K> toClone) {
+            return new TransitionSet<>(new LinkedHashSet<>(toClone.elements));
+        }
+
+        /* The view is transient, so it is created again after deserialization */
+        private Set<PDATransition<T, S, K>> view() {
+            if (view == null) view = Collections.unmodifiableSet(elements);
+            return view;
+        }
+    }
 }
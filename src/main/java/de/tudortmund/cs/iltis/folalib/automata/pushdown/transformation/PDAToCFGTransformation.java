@@ -3,18 +3,26 @@ package de.tudortmund.cs.iltis.folalib.automata.pushdown.transformation;
 import de.tudortmund.cs.iltis.folalib.automata.pushdown.*;
 import de.tudortmund.cs.iltis.folalib.automata.pushdown.conversion.*;
 import de.tudortmund.cs.iltis.folalib.grammar.construction.builder.ContextFreeGrammarBuilder;
+import de.tudortmund.cs.iltis.folalib.grammar.construction.builder.IntegratedSententialFormBuilder;
 import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
 import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
 import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
 import de.tudortmund.cs.iltis.folalib.transform.MaybeGenerated;
 import de.tudortmund.cs.iltis.folalib.transform.MaybeGeneratedDeepFold;
 import java.io.Serializable;
+import java.util.*;
 
 /**
  * This class encapsulates the transformation from a PDA to a CFG
  *
  * <p>The algorithm is taken from GTI lectures, SS 18, slide 359
  *
+ * <p>Instead of emitting the productions for every transition and every combination of
+ * intermediate states, only the triples [p, k, q] which derive some terminal word and are reachable
+ * from the start symbol get productions. The resulting grammar has no useless non-terminals. While
+ * computing these triples, they are represented by integers, and names are only built for the
+ * emitted non-terminals.
+ *
  * @param <T> The type of the states of the PDA
  * @param <S> The type of the input alphabet of the PDA and the resulting CFG
  * @param <K> The type of the stack alphabet of the PDA
@@ -27,6 +35,29 @@ public class PDAToCFGTransformation<
     private PDA<MaybeGenerated<T, String>, S, MaybeGenerated<K, String>> pda;
     private ContextFreeGrammarBuilder<S, String> builder;
 
+    /* The prepared PDA with its states and stack symbols replaced by their indices */
+    private List<MaybeGenerated<T, String>> states;
+    private List<MaybeGenerated<K, String>> stackSymbols;
+    private int numberOfStates;
+    private int numberOfStackSymbols;
+    private int[] sources;
+    private List<S> inputs;
+    private int[] tops;
+    private int[] targets;
+    private int[][] pushed;
+
+    /* The transitions by source state and popped symbol, by target state and first pushed symbol,
+     * and by second pushed symbol */
+    private List<List<Integer>> bySource;
+    private List<List<Integer>> byFirstPushed;
+    private List<List<Integer>> bySecondPushed;
+
+    /* The productive triples, and for every state p and stack symbol k the states q such that
+     * [p, k, q] is productive */
+    private BitSet productive;
+    private List<List<Integer>> productiveTargets;
+    private HashMap<Integer, String> names;
+
     /**
      * Transform a PDA into an equivalent CFG.
      *
@@ -37,8 +68,9 @@ public class PDAToCFGTransformation<
             PDA<T, S, K> pda) {
 
         preparePDA(pda);
+        indexTransitions();
         setupBuilder();
-        addStartProduction();
+        computeProductiveTriples();
         addProductions();
         return builder.build().unwrap();
     }
@@ -113,140 +145,216 @@ public class PDAToCFGTransformation<
         }
     }
 
+    /* Assigns indices to the states and stack symbols of the prepared PDA, and stores its
+     * transitions as arrays of these indices */
+    private void indexTransitions() {
+        states = new ArrayList<>(pda.getStates());
+        HashMap<MaybeGenerated<T, String>, Integer> stateIndices = new HashMap<>();
+        for (MaybeGenerated<T, String> state : states) stateIndices.put(state, stateIndices.size());
+        stackSymbols = new ArrayList<>(pda.getStackAlphabet().toUnmodifiableSet());
+        HashMap<MaybeGenerated<K, String>, Integer> stackIndices = new HashMap<>();
+        for (MaybeGenerated<K, String> symbol : stackSymbols)
+            stackIndices.put(symbol, stackIndices.size());
+        numberOfStates = states.size();
+        numberOfStackSymbols = stackSymbols.size();
+
+        List<PDATransition<MaybeGenerated<T, String>, S, MaybeGenerated<K, String>>> transitions =
+                new ArrayList<>();
+        List<Integer> transitionSources = new ArrayList<>();
+        for (MaybeGenerated<T, String> p : states) {
+            for (PDATransition<MaybeGenerated<T, String>, S, MaybeGenerated<K, String>> transition :
+                    pda.getTransitions().in(p)) {
+                transitions.add(transition);
+                transitionSources.add(stateIndices.get(p));
+            }
+        }
+
+        int n = transitions.size();
+        sources = new int[n];
+        inputs = new ArrayList<>(n);
+        tops = new int[n];
+        targets = new int[n];
+        pushed = new int[n][];
+        bySource = emptyLists(numberOfStates * numberOfStackSymbols);
+        byFirstPushed = emptyLists(numberOfStates * numberOfStackSymbols);
+        bySecondPushed = emptyLists(numberOfStackSymbols);
+
+        for (int t = 0; t < n; t++) {
+            PDATransition<MaybeGenerated<T, String>, S, MaybeGenerated<K, String>> transition =
+                    transitions.get(t);
+            PDAStackWord<MaybeGenerated<K, String>> word = transition.getNewTopOfStack();
+            if (word.size() > 2) {
+                /* This must never be executed, otherwise `preparePDA` is broken */
+                throw new RuntimeException(
+                        "Unreachable: |newTopOfStack| <= 2 must be satisfied by all transitions");
+            }
+
+            /* The cast must always succeed, otherwise `preparePDA` is broken */
+            MaybeGenerated<K, String> tau =
+                    ((PDAStackSymbol.Exactly<MaybeGenerated<K, String>>)
+                                    transition.getStackSymbol())
+                            .getSymbol();
+            sources[t] = transitionSources.get(t);
+            inputs.add(transition.getInputSymbol());
+            tops[t] = stackIndices.get(tau);
+            targets[t] = stateIndices.get(transition.getState());
+            pushed[t] = new int[word.size()];
+            for (int i = 0; i < word.size(); i++) pushed[t][i] = stackIndices.get(word.get(i));
+
+            bySource.get(sources[t] * numberOfStackSymbols + tops[t]).add(t);
+            if (word.size() >= 1)
+                byFirstPushed.get(targets[t] * numberOfStackSymbols + pushed[t][0]).add(t);
+            if (word.size() == 2) bySecondPushed.get(pushed[t][1]).add(t);
+        }
+    }
+
+    private static List<List<Integer>> emptyLists(int size) {
+        List<List<Integer>> lists = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) lists.add(new ArrayList<>());
+        return lists;
+    }
+
+    /* The triple [p, k, q] has index (p * |K| + k) * |Q| + q */
+    private int triple(int p, int k, int q) {
+        return (p * numberOfStackSymbols + k) * numberOfStates + q;
+    }
+
     private void setupBuilder() {
         Alphabet<S> terminals = pda.getAlphabet();
         Alphabet<String> nonTerminals = new Alphabet<>(startSymbol);
 
         builder = new ContextFreeGrammarBuilder<>(terminals, nonTerminals);
+        names = new HashMap<>();
     }
 
-    private void addStartProduction() {
-        builder.withStartSymbol(startSymbol);
-        for (MaybeGenerated<T, String> state : pda.getStates()) {
-            String nonTerminal =
-                    productionName(
-                            pda.getInitialStates().stream().findFirst().get(),
-                            pda.getInitialStackSymbol(),
-                            state); // The input PDA does not have multiple initial states, so this
-            // is fine.
-            builder.withNonTerminal(nonTerminal);
-            builder.withProduction(startSymbol).nt(nonTerminal).finish();
+    /**
+     * Computes the triples [p, k, q] which derive some terminal word, i.e. those for which the PDA
+     * can get from state p to state q while removing k from its stack. A transition from p popping
+     * k to q and pushing u makes [p, k, r] productive if u is empty and r = q, if u = k1 and [q,
+     * k1, r] is productive, or if u = k1 k2 and [q, k1, r1] and [r1, k2, r] are productive for some
+     * r1. Every productive triple is processed once, so that only transitions whose pushed symbols
+     * can actually be removed are ever combined with intermediate states.
+     */
+    private void computeProductiveTriples() {
+        productive = new BitSet();
+        productiveTargets = emptyLists(numberOfStates * numberOfStackSymbols);
+        Deque<Integer> queue = new ArrayDeque<>();
+
+        for (int t = 0; t < sources.length; t++)
+            if (pushed[t].length == 0) markProductive(sources[t], tops[t], targets[t], queue);
+
+        while (!queue.isEmpty()) {
+            int x = queue.poll();
+            int r = x % numberOfStates;
+            int k = x / numberOfStates % numberOfStackSymbols;
+            int p = x / numberOfStates / numberOfStackSymbols;
+
+            /* [p, k, r] is the first part of the body */
+            for (int t : byFirstPushed.get(p * numberOfStackSymbols + k)) {
+                if (pushed[t].length == 1) {
+                    markProductive(sources[t], tops[t], r, queue);
+                } else {
+                    for (int r2 : productiveTargets.get(r * numberOfStackSymbols + pushed[t][1]))
+                        markProductive(sources[t], tops[t], r2, queue);
+                }
+            }
+
+            /* [p, k, r] is the second part of the body */
+            for (int t : bySecondPushed.get(k))
+                if (productive.get(triple(targets[t], pushed[t][0], p)))
+                    markProductive(sources[t], tops[t], r, queue);
         }
     }
 
+    private void markProductive(int p, int k, int q, Deque<Integer> queue) {
+        int x = triple(p, k, q);
+        if (productive.get(x)) return;
+        productive.set(x);
+        productiveTargets.get(p * numberOfStackSymbols + k).add(q);
+        queue.add(x);
+    }
+
+    /**
+     * Adds the productions of the GTI lectures, SS 18, slide 360 for the productive triples which
+     * are reachable from the start symbol, starting with S -> [q0, Z, q] for every productive
+     * triple [q0, Z, q]. Productions with an unproductive triple in their body are skipped.
+     */
     private void addProductions() {
-        MaybeGenerated<T, String> q;
-        S alpha;
-        MaybeGenerated<K, String> tau;
-        PDAStackWord<MaybeGenerated<K, String>> word;
-        PDAStackSymbol<MaybeGenerated<K, String>> tmp;
+        builder.withStartSymbol(startSymbol);
+        BitSet reachable = new BitSet();
+        Deque<Integer> queue = new ArrayDeque<>();
 
-        for (MaybeGenerated<T, String> p : pda.getStates()) {
-            for (PDATransition<MaybeGenerated<T, String>, S, MaybeGenerated<K, String>> transition :
-                    pda.getTransitions().in(p)) {
-                q = transition.getState();
-                alpha = transition.getInputSymbol();
-                tmp = transition.getStackSymbol();
-                /* The cast must always succeed, otherwise `preparePDA` is broken */
-                tau = ((PDAStackSymbol.Exactly<MaybeGenerated<K, String>>) tmp).getSymbol();
-                word = transition.getNewTopOfStack();
-
-                addProduction(p, alpha, tau, q, word);
+        /* The input PDA does not have multiple initial states, so this is fine. */
+        int q0 = states.indexOf(pda.getInitialStates().stream().findFirst().get());
+        int z = stackSymbols.indexOf(pda.getInitialStackSymbol());
+        for (int q : productiveTargets.get(q0 * numberOfStackSymbols + z)) {
+            builder.withProduction(startSymbol).nt(nonTerminal(triple(q0, z, q))).finish();
+            markReachable(triple(q0, z, q), reachable, queue);
+        }
+
+        while (!queue.isEmpty()) {
+            int x = queue.poll();
+            int r = x % numberOfStates;
+            int k = x / numberOfStates % numberOfStackSymbols;
+            int p = x / numberOfStates / numberOfStackSymbols;
+
+            for (int t : bySource.get(p * numberOfStackSymbols + k)) {
+                int q = targets[t];
+                if (pushed[t].length == 0) {
+                    if (q == r) addProduction(x, inputs.get(t));
+                } else if (pushed[t].length == 1) {
+                    int y = triple(q, pushed[t][0], r);
+                    if (!productive.get(y)) continue;
+                    addProduction(x, inputs.get(t), y);
+                    markReachable(y, reachable, queue);
+                } else {
+                    for (int r1 : productiveTargets.get(q * numberOfStackSymbols + pushed[t][0])) {
+                        int y1 = triple(q, pushed[t][0], r1);
+                        int y2 = triple(r1, pushed[t][1], r);
+                        if (!productive.get(y2)) continue;
+                        addProduction(x, inputs.get(t), y1, y2);
+                        markReachable(y1, reachable, queue);
+                        markReachable(y2, reachable, queue);
+                    }
+                }
             }
         }
     }
 
-    private void addProduction(
-            MaybeGenerated<T, String> p,
-            S alpha,
-            MaybeGenerated<K, String> tau,
-            MaybeGenerated<T, String> q,
-            PDAStackWord<MaybeGenerated<K, String>> taus) {
-
-        if (taus.isEmpty()) {
-            addProductionCase0(p, alpha, tau, q, taus);
-        } else if (taus.size() == 1) {
-            addProductionCase1(p, alpha, tau, q, taus);
-        } else if (taus.size() == 2) {
-            addProductionCase2(p, alpha, tau, q, taus);
-        } else {
-            /* This must never be executed, otherwise `preparePDA` is broken */
-            throw new RuntimeException(
-                    "Unreachable: |newTopOfStack| <= 2 must be satisfied by all transitions");
-        }
+    private void markReachable(int x, BitSet reachable, Deque<Integer> queue) {
+        if (reachable.get(x)) return;
+        reachable.set(x);
+        queue.add(x);
     }
 
-    /** Implementation of the first row in the table in slide 360 of GTI SS 18 lecture slides */
-    private void addProductionCase0(
-            MaybeGenerated<T, String> p,
-            S alpha,
-            MaybeGenerated<K, String> tau,
-            MaybeGenerated<T, String> q,
-            PDAStackWord<MaybeGenerated<K, String>> taus) {
-        String nonTerminal = productionName(p, tau, q);
-        builder.withNonTerminal(nonTerminal);
-        if (alpha == null) {
-            /* transition is an epsilon transition */
+    /* Adds the production head -> alpha body, where alpha is null for epsilon transitions */
+    private void addProduction(int head, S alpha, int... body) {
+        String nonTerminal = nonTerminal(head);
+        if (alpha == null && body.length == 0) {
             builder.withEpsProduction(nonTerminal);
-        } else {
-            builder.withProduction(nonTerminal).t(alpha).finish();
+            return;
         }
-    }
 
-    /** Implementation of the middle row in the table in slide 360 of GTI SS 18 lecture slides */
-    private void addProductionCase1(
-            MaybeGenerated<T, String> p,
-            S alpha,
-            MaybeGenerated<K, String> tau,
-            MaybeGenerated<T, String> q,
-            PDAStackWord<MaybeGenerated<K, String>> taus) {
-        for (MaybeGenerated<T, String> p1 : pda.getStates()) {
-            String nonTerminal = productionName(p, tau, p1);
-            builder.withNonTerminal(nonTerminal);
-            if (alpha == null) {
-                /* transition is an epsilon transition */
-                builder.withNonTerminal(productionName(q, taus.get(0), p1));
-                builder.withProduction(nonTerminal).nt(productionName(q, taus.get(0), p1)).finish();
-            } else {
-                builder.withNonTerminal(productionName(q, taus.get(0), p1));
-                builder.withProduction(nonTerminal)
-                        .t(alpha)
-                        .nt(productionName(q, taus.get(0), p1))
-                        .finish();
-            }
-        }
+        String[] nonTerminals = new String[body.length];
+        for (int i = 0; i < body.length; i++) nonTerminals[i] = nonTerminal(body[i]);
+        IntegratedSententialFormBuilder<S, String, ContextFreeGrammarBuilder<S, String>> rhs =
+                builder.withProduction(nonTerminal);
+        if (alpha != null) rhs.t(alpha);
+        rhs.nt(nonTerminals).finish();
     }
 
-    /** Implementation of the last row in the table in slide 360 of GTI SS 18 lecture slides */
-    private void addProductionCase2(
-            MaybeGenerated<T, String> p,
-            S alpha,
-            MaybeGenerated<K, String> tau,
-            MaybeGenerated<T, String> q,
-            PDAStackWord<MaybeGenerated<K, String>> taus) {
-        for (MaybeGenerated<T, String> p1 : pda.getStates()) {
-            for (MaybeGenerated<T, String> p2 : pda.getStates()) {
-                String nonTerminal = productionName(p, tau, p2);
-                builder.withNonTerminal(nonTerminal);
-                if (alpha == null) {
-                    /* transition is an epsilon transition */
-                    builder.withNonTerminal(productionName(q, taus.get(0), p1));
-                    builder.withNonTerminal(productionName(p1, taus.get(1), p2));
-                    builder.withProduction(nonTerminal)
-                            .nt(productionName(q, taus.get(0), p1))
-                            .nt(productionName(p1, taus.get(1), p2))
-                            .finish();
-                } else {
-                    builder.withNonTerminal(productionName(q, taus.get(0), p1));
-                    builder.withNonTerminal(productionName(p1, taus.get(1), p2));
-                    builder.withProduction(nonTerminal)
-                            .t(alpha)
-                            .nt(productionName(q, taus.get(0), p1))
-                            .nt(productionName(p1, taus.get(1), p2))
-                            .finish();
-                }
-            }
+    /* The name of a triple is only built once it occurs in a production */
+    private String nonTerminal(int x) {
+        String name = names.get(x);
+        if (name == null) {
+            int q = x % numberOfStates;
+            int k = x / numberOfStates % numberOfStackSymbols;
+            int p = x / numberOfStates / numberOfStackSymbols;
+            name = productionName(states.get(p), stackSymbols.get(k), states.get(q));
+            names.put(x, name);
+            builder.withNonTerminal(name);
         }
+        return name;
     }
 
     private String productionName(
@@ -4,7 +4,6 @@ import de.tudortmund.cs.iltis.folalib.grammar.production.Production;
 import de.tudortmund.cs.iltis.folalib.io.reader.grammar.C0GrammarReader;
 import de.tudortmund.cs.iltis.folalib.io.reader.grammar.GrammarReaderProperties;
 import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
-import de.tudortmund.cs.iltis.folalib.languages.Word;
 import de.tudortmund.cs.iltis.folalib.util.CachedSerializableFunction;
 import de.tudortmund.cs.iltis.utils.IndexedSymbol;
 import de.tudortmund.cs.iltis.utils.collections.Pair;
@@ -23,6 +22,9 @@ public class Grammar<T extends Serializable, N extends Serializable, Prod extend
 
     private Set<Prod> productions;
 
+    /* The index of the left-hand sides, which is immutable, computed on first use */
+    private transient ProductionIndex<T, N, Prod> productionIndex;
+
     public static Grammar<IndexedSymbol, IndexedSymbol, Production<IndexedSymbol, IndexedSymbol>>
             fromString(String s, GrammarReaderProperties props)
                     throws IncorrectParseInputException {
@@ -70,27 +72,23 @@ public class Grammar<T extends Serializable, N extends Serializable, Prod extend
      * </pre>
      *
      * and the sentential form {@code ABABACC}. The call {@code G.getApplicableProductions(ABABACC)}
-     * would return the set {@code {(ABA -> aBA, 0), (ABA -> aBA, 2}, (BA -> C, 1), (BA -> C, 4), (C
+     * would return the set {@code {(ABA -> aBA, 0), (ABA -> aBA, 2}, (BA -> C, 1), (BA -> C, 3), (C
      * -> c, 5), (C -> c, 6)}.
      *
+     * <p>All occurrences are found in a single pass over {@code form} by an Aho-Corasick automaton
+     * over the left-hand sides, which is built on first use.
+     *
      * @param form The {@link SententialForm} to determine all possible derivation steps for
      * @return A set of applicable productions, together with indices into {@code form} indicating
      *     where that production can be applied.
      */
-    // TODO: test case
     public Set<Pair<Prod, Integer>> getApplicableProductions(SententialForm<T, N> form) {
-        Set<Pair<Prod, Integer>> applicableProductions = new HashSet<>();
-
-        for (int i = 0; i < form.size(); ++i) {
-            Word<GrammarSymbol<T, N>> subform = form.drop(i);
-
-            for (Prod production : productions) {
-                if (production.getLhs().isPrefixOf(subform))
-                    applicableProductions.add(new Pair<>(production, i));
-            }
-        }
+        return productionIndex().findAll(form);
+    }
 
-        return applicableProductions;
+    private synchronized ProductionIndex<T, N, Prod> productionIndex() {
+        if (productionIndex == null) productionIndex = new ProductionIndex<>(productions);
+        return productionIndex;
     }
 
     public N getStartSymbol() {
@@ -0,0 +1,106 @@
+package de.tudortmund.cs.iltis.folalib.grammar;
+
+import de.tudortmund.cs.iltis.folalib.grammar.production.Production;
+import de.tudortmund.cs.iltis.utils.collections.Pair;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * An Aho-Corasick automaton over the left-hand sides of the productions of a {@link Grammar},
+ * which finds all occurrences of all left-hand sides in a sentential form in a single pass.
+ *
+ * <p>The states are the nodes of the trie of all left-hand sides. The failure link of a state
+ * points to the state of its longest proper suffix in the trie, and its output link to the nearest
+ * state along the failure links at which some left-hand side ends. For context-free grammars, the
+ * trie has depth 1 and a scan is a single map lookup per symbol.
+ */
+final class ProductionIndex<
+        T extends Serializable, N extends Serializable, Prod extends Production<T, N>> {
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    /* For every state: its successors, the productions whose left-hand side ends at it, and the
+     * length of the path from the root */
+    private final List<HashMap<GrammarSymbol<T, N>, Integer>> successors = new ArrayList<>();
+    private final List<List<Prod>> matches = new ArrayList<>();
+    private final List<Integer> depths = new ArrayList<>();
+
+    private final int[] failures;
+    private final int[] outputs;
+
+    ProductionIndex(Collection<Prod> productions) {
+        addState(0);
+        for (Prod production : productions) {
+            int state = ROOT;
+            for (GrammarSymbol<T, N> symbol : production.getLhs()) {
+                Integer next = successors.get(state).get(symbol);
+                if (next == null) {
+                    next = addState(depths.get(state) + 1);
+                    successors.get(state).put(symbol, next);
+                }
+                state = next;
+            }
+            matches.get(state).add(production);
+        }
+
+        // breadth-first, such that the failure link of a state is computed before its successors
+        failures = new int[successors.size()];
+        outputs = new int[successors.size()];
+        outputs[ROOT] = NONE;
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(ROOT);
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<GrammarSymbol<T, N>, Integer> edge : successors.get(state).entrySet()) {
+                int next = edge.getValue();
+                failures[next] = state == ROOT ? ROOT : step(failures[state], edge.getKey());
+                outputs[next] =
+                        matches.get(failures[next]).isEmpty()
+                                ? outputs[failures[next]]
+                                : failures[next];
+                queue.add(next);
+            }
+        }
+    }
+
+    private int addState(int depth) {
+        successors.add(new HashMap<>());
+        matches.add(new ArrayList<>());
+        depths.add(depth);
+        return successors.size() - 1;
+    }
+
+    private int step(int state, GrammarSymbol<T, N> symbol) {
+        while (true) {
+            Integer next = successors.get(state).get(symbol);
+            if (next != null) return next;
+            if (state == ROOT) return ROOT;
+            state = failures[state];
+        }
+    }
+
+    /**
+     * Finds all occurrences of all left-hand sides in {@code form}, see {@link
+     * Grammar#getApplicableProductions(SententialForm)}.
+     */
+    Set<Pair<Prod, Integer>> findAll(SententialForm<T, N> form) {
+        Set<Pair<Prod, Integer>> occurrences = new HashSet<>();
+
+        // empty left-hand sides end at the root and match at every position
+        for (Prod production : matches.get(ROOT))
+            for (int i = 0; i < form.size(); i++) occurrences.add(new Pair<>(production, i));
+
+        int state = ROOT;
+        for (int end = 0; end < form.size(); end++) {
+            state = step(state, form.get(end));
+            int output = matches.get(state).isEmpty() ? outputs[state] : state;
+            for (; output != NONE && output != ROOT; output = outputs[output]) {
+                int start = end - depths.get(output) + 1;
+                for (Prod production : matches.get(output))
+                    occurrences.add(new Pair<>(production, start));
+            }
+        }
+        return occurrences;
+    }
+}
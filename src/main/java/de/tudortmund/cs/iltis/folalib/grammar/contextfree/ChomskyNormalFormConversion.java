@@ -0,0 +1,597 @@
+package de.tudortmund.cs.iltis.folalib.grammar.contextfree;
+
+import de.tudortmund.cs.iltis.folalib.grammar.GrammarSymbol;
+import de.tudortmund.cs.iltis.folalib.grammar.SententialForm;
+import de.tudortmund.cs.iltis.folalib.grammar.construction.builder.ChomskyNormalFormGrammarBuilder;
+import de.tudortmund.cs.iltis.folalib.grammar.construction.builder.ContextFreeGrammarBuilder;
+import de.tudortmund.cs.iltis.folalib.grammar.production.ChomskyNormalformProduction;
+import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
+import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * The conversion of a {@link ContextFreeGrammar} into Chomsky normal form, computed on an
+ * int-indexed copy of its productions and converted back into a grammar only on demand.
+ *
+ * <p>The phases are the ones of {@link ToChomskyNormalFormTransform#convertToCnf}, in the order
+ * which guarantees a result of at most quadratic size:
+ *
+ * <ol>
+ *   <li>{@link Phase#USELESS}: remove non-generating and unreachable non-terminals.
+ *   <li>{@link Phase#TERM}: replace terminals on right-hand sides of length at least 2 by fresh
+ *       non-terminals.
+ *   <li>{@link Phase#BIN}: split right-hand sides longer than 2 using fresh non-terminals. Hence,
+ *       the next phase adds at most two productions per production, instead of exponentially many
+ *       for the nullable subsets of a long right-hand side.
+ *   <li>{@link Phase#DEL}: remove epsilon productions, then useless non-terminals again.
+ *   <li>{@link Phase#UNIT}: merge the strongly connected components of the unit productions into
+ *       one non-terminal each, and copy the remaining productions along the unit productions in
+ *       reverse topological order. This is the only phase which may grow the grammar
+ *       quadratically.
+ *   <li>{@link Phase#USELESS} again: remove the merged non-terminals and those which were only
+ *       reachable by unit productions.
+ * </ol>
+ *
+ * <p>The conversion of a grammar is obtained by {@link ContextFreeGrammar#cnfConversion()}, which
+ * computes it once per grammar instance. As for {@link ToChomskyNormalFormTransform#convertToCnf},
+ * the result does not derive the empty word.
+ *
+ * @param <T> The type of the terminals
+ * @param <N> The type of the non-terminals
+ */
+public final class ChomskyNormalFormConversion<T extends Serializable, N extends Serializable> {
+
+    /** The phases of the conversion, see {@link ChomskyNormalFormConversion} */
+    public enum Phase {
+        /** Removal of non-generating and unreachable non-terminals */
+        USELESS,
+
+        /** Separation of terminals from non-terminals */
+        TERM,
+
+        /** Shortening of right-hand sides to length at most 2 */
+        BIN,
+
+        /** Removal of epsilon productions */
+        DEL,
+
+        /** Removal of unit productions */
+        UNIT,
+    }
+
+    /** The time taken by a phase and the size of the grammar after it */
+    public static final class PhaseStatistics {
+        private final Phase phase;
+        private final long nanoseconds;
+        private final int numberOfNonTerminals;
+        private final int numberOfProductions;
+        private final int size;
+
+        private PhaseStatistics(
+                Phase phase,
+                long nanoseconds,
+                int numberOfNonTerminals,
+                int numberOfProductions,
+                int size) {
+            this.phase = phase;
+            this.nanoseconds = nanoseconds;
+            this.numberOfNonTerminals = numberOfNonTerminals;
+            this.numberOfProductions = numberOfProductions;
+            this.size = size;
+        }
+
+        public Phase getPhase() {
+            return phase;
+        }
+
+        public long getNanoseconds() {
+            return nanoseconds;
+        }
+
+        public int getNumberOfNonTerminals() {
+            return numberOfNonTerminals;
+        }
+
+        public int getNumberOfProductions() {
+            return numberOfProductions;
+        }
+
+        /** The sum of the lengths of all productions, counting the left-hand sides */
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public String toString() {
+            return phase
+                    + ": "
+                    + numberOfNonTerminals
+                    + " non-terminals, "
+                    + numberOfProductions
+                    + " productions, size "
+                    + size
+                    + ", "
+                    + nanoseconds
+                    + " ns";
+        }
+    }
+
+    private final List<T> terminals = new ArrayList<>();
+    private final List<N> nonTerminals = new ArrayList<>();
+    private final Alphabet<T> terminalAlphabet;
+    private final int startSymbol;
+
+    /* The number of non-terminals, including the fresh ones after nonTerminals.size(), and which of
+     * them are still part of the grammar */
+    private int numberOfNonTerminals;
+    private BitSet alive;
+
+    /* The productions: the lhs followed by the rhs, with a non-terminal n >= 0 and a terminal t
+     * encoded as -(t + 1) */
+    private List<int[]> productions = new ArrayList<>();
+
+    private final List<PhaseStatistics> statistics = new ArrayList<>();
+
+    ChomskyNormalFormConversion(
+            ContextFreeGrammar<T, N, ? extends ContextFreeProduction<T, N>> grammar) {
+        this(
+                grammar,
+                2,
+                Phase.USELESS,
+                Phase.TERM,
+                Phase.BIN,
+                Phase.DEL,
+                Phase.UNIT,
+                Phase.USELESS);
+    }
+
+    /*
+     * Runs only the given phases, which is used by the single steps of
+     * ToChomskyNormalFormTransform. Terminals are separated on right-hand sides of length at least
+     * separationLength.
+     */
+    ChomskyNormalFormConversion(
+            ContextFreeGrammar<T, N, ? extends ContextFreeProduction<T, N>> grammar,
+            int separationLength,
+            Phase... phases) {
+        terminalAlphabet = grammar.getTerminals();
+        HashMap<T, Integer> terminalIndices = new HashMap<>();
+        for (T terminal : grammar.getTerminals()) {
+            terminalIndices.put(terminal, terminals.size());
+            terminals.add(terminal);
+        }
+        HashMap<N, Integer> nonTerminalIndices = new HashMap<>();
+        for (N nonTerminal : grammar.getNonTerminals()) {
+            nonTerminalIndices.put(nonTerminal, nonTerminals.size());
+            nonTerminals.add(nonTerminal);
+        }
+        startSymbol = nonTerminalIndices.get(grammar.getStartSymbol());
+        numberOfNonTerminals = nonTerminals.size();
+        alive = new BitSet();
+        alive.set(0, numberOfNonTerminals);
+
+        for (ContextFreeProduction<T, N> production : grammar.getProductions()) {
+            int[] symbols = new int[production.getRhs().size() + 1];
+            symbols[0] = nonTerminalIndices.get(production.getLhsNonTerminal());
+            for (int i = 1; i < symbols.length; i++) {
+                GrammarSymbol<T, N> symbol = production.getRhs().get(i - 1);
+                symbols[i] =
+                        symbol.match(t -> -(terminalIndices.get(t) + 1), nonTerminalIndices::get);
+            }
+            productions.add(symbols);
+        }
+
+        for (Phase phase : phases) run(phase, separationLength);
+    }
+
+    private void run(Phase phase, int separationLength) {
+        long start = System.nanoTime();
+        switch (phase) {
+            case USELESS:
+                removeUselessNonTerminals();
+                break;
+            case TERM:
+                separateTerminals(separationLength);
+                break;
+            case BIN:
+                shortenRightHandSides();
+                break;
+            case DEL:
+                removeEpsilonProductions();
+                break;
+            case UNIT:
+                removeUnitProductions();
+                break;
+        }
+        long nanoseconds = System.nanoTime() - start;
+
+        int size = 0;
+        for (int[] production : productions) size += production.length;
+        statistics.add(
+                new PhaseStatistics(
+                        phase, nanoseconds, alive.cardinality(), productions.size(), size));
+    }
+
+    private void removeUselessNonTerminals() {
+        // generating non-terminals, by counting the non-generating symbols of every production
+        List<List<Integer>> occurrences = new ArrayList<>();
+        for (int n = 0; n < numberOfNonTerminals; n++) occurrences.add(new ArrayList<>());
+        int[] missing = new int[productions.size()];
+        BitSet generating = new BitSet();
+        Deque<Integer> worklist = new ArrayDeque<>();
+
+        for (int p = 0; p < productions.size(); p++) {
+            int[] production = productions.get(p);
+            for (int i = 1; i < production.length; i++) {
+                if (production[i] < 0) continue;
+                occurrences.get(production[i]).add(p);
+                missing[p]++;
+            }
+            if (missing[p] == 0 && !generating.get(production[0])) {
+                generating.set(production[0]);
+                worklist.push(production[0]);
+            }
+        }
+        while (!worklist.isEmpty()) {
+            for (int p : occurrences.get(worklist.pop())) {
+                int lhs = productions.get(p)[0];
+                if (--missing[p] == 0 && !generating.get(lhs)) {
+                    generating.set(lhs);
+                    worklist.push(lhs);
+                }
+            }
+        }
+
+        // reachable non-terminals, using only productions of generating symbols
+        List<List<int[]>> productionsOf = productionsByLhs();
+        BitSet reachable = new BitSet();
+        reachable.set(startSymbol);
+        worklist.push(startSymbol);
+        List<int[]> result = new ArrayList<>();
+        while (!worklist.isEmpty()) {
+            for (int[] production : productionsOf.get(worklist.pop())) {
+                boolean useful = true;
+                for (int i = 1; i < production.length && useful; i++)
+                    useful = production[i] < 0 || generating.get(production[i]);
+                if (!useful) continue;
+
+                result.add(production);
+                for (int i = 1; i < production.length; i++) {
+                    if (production[i] >= 0 && !reachable.get(production[i])) {
+                        reachable.set(production[i]);
+                        worklist.push(production[i]);
+                    }
+                }
+            }
+        }
+
+        // the start symbol is kept even if it is not generating
+        productions = result;
+        alive = reachable;
+    }
+
+    private void separateTerminals(int separationLength) {
+        // the fresh non-terminals are introduced in the order of the terminals they produce
+        int[] fresh = new int[terminals.size()];
+        Arrays.fill(fresh, -1);
+        for (int[] production : productions) {
+            if (production.length <= separationLength) continue;
+            for (int i = 1; i < production.length; i++)
+                if (production[i] < 0) fresh[-production[i] - 1] = 0;
+        }
+
+        List<int[]> result = new ArrayList<>();
+        for (int t = 0; t < fresh.length; t++) {
+            if (fresh[t] < 0) continue;
+            fresh[t] = newNonTerminal();
+            result.add(new int[] {fresh[t], -(t + 1)});
+        }
+        for (int[] production : productions) {
+            if (production.length > separationLength) {
+                for (int i = 1; i < production.length; i++)
+                    if (production[i] < 0) production[i] = fresh[-production[i] - 1];
+            }
+            result.add(production);
+        }
+        productions = result;
+    }
+
+    private void shortenRightHandSides() {
+        List<int[]> result = new ArrayList<>();
+        for (int[] production : productions) {
+            // A -> B1 ... Bm becomes A -> B1 C1, Ci -> B(i+1) C(i+1), C(m-2) -> B(m-1) Bm
+            int lhs = production[0];
+            int i = 1;
+            for (; production.length - i > 2; i++) {
+                int next = newNonTerminal();
+                result.add(new int[] {lhs, production[i], next});
+                lhs = next;
+            }
+            result.add(
+                    i == 1
+                            ? production
+                            : new int[] {lhs, production[i], production[i + 1]});
+        }
+        productions = result;
+    }
+
+    private void removeEpsilonProductions() {
+        BitSet nullable = new BitSet();
+        List<List<int[]>> occurrences = new ArrayList<>();
+        for (int n = 0; n < numberOfNonTerminals; n++) occurrences.add(new ArrayList<>());
+        Deque<Integer> worklist = new ArrayDeque<>();
+        for (int[] production : productions) {
+            if (production.length == 1 && !nullable.get(production[0])) {
+                nullable.set(production[0]);
+                worklist.push(production[0]);
+            }
+            for (int i = 1; i < production.length; i++)
+                if (production[i] >= 0) occurrences.get(production[i]).add(production);
+        }
+        while (!worklist.isEmpty()) {
+            for (int[] production : occurrences.get(worklist.pop())) {
+                if (nullable.get(production[0])) continue;
+
+                boolean allNullable = true;
+                for (int i = 1; i < production.length; i++)
+                    allNullable &= production[i] >= 0 && nullable.get(production[i]);
+                if (allNullable) {
+                    nullable.set(production[0]);
+                    worklist.push(production[0]);
+                }
+            }
+        }
+
+        // as all right-hand sides have length at most 2, every production has at most two
+        // variants with a nullable symbol left out
+        Set<List<Integer>> seen = new HashSet<>();
+        List<int[]> result = new ArrayList<>();
+        for (int[] production : productions) {
+            if (production.length == 1) continue;
+
+            add(result, seen, production);
+            if (production.length == 3) {
+                int a = production[0];
+                int b = production[1];
+                int c = production[2];
+                if (b >= 0 && nullable.get(b) && a != c) add(result, seen, new int[] {a, c});
+                if (c >= 0 && nullable.get(c) && a != b) add(result, seen, new int[] {a, b});
+            }
+        }
+        productions = result;
+        removeUselessNonTerminals();
+    }
+
+    private void removeUnitProductions() {
+        List<List<Integer>> unitSuccessors = new ArrayList<>();
+        for (int n = 0; n < numberOfNonTerminals; n++) unitSuccessors.add(new ArrayList<>());
+        for (int[] production : productions)
+            if (production.length == 2 && production[1] >= 0)
+                unitSuccessors.get(production[0]).add(production[1]);
+
+        // the components are found sinks first, i.e. in reverse topological order; the merged
+        // non-terminals are left without productions
+        List<List<Integer>> components = stronglyConnectedComponents(unitSuccessors);
+        int[] representative = new int[numberOfNonTerminals];
+        for (List<Integer> component : components) {
+            int chosen = component.contains(startSymbol) ? startSymbol : component.get(0);
+            for (int n : component) representative[n] = chosen;
+        }
+
+        List<Set<List<Integer>>> seen = new ArrayList<>();
+        List<List<int[]>> nonUnit = new ArrayList<>();
+        for (int n = 0; n < numberOfNonTerminals; n++) {
+            seen.add(new HashSet<>());
+            nonUnit.add(new ArrayList<>());
+        }
+        for (int[] production : productions) {
+            if (production.length == 2 && production[1] >= 0) continue;
+
+            int[] renamed = Arrays.copyOf(production, production.length);
+            for (int i = 0; i < renamed.length; i++)
+                if (renamed[i] >= 0) renamed[i] = representative[renamed[i]];
+            add(nonUnit.get(renamed[0]), seen.get(renamed[0]), renamed);
+        }
+
+        for (List<Integer> component : components) {
+            int a = representative[component.get(0)];
+            for (int n : component) {
+                for (int successor : unitSuccessors.get(n)) {
+                    int b = representative[successor];
+                    if (b == a) continue;
+                    for (int[] production : nonUnit.get(b)) {
+                        int[] copy = Arrays.copyOf(production, production.length);
+                        copy[0] = a;
+                        add(nonUnit.get(a), seen.get(a), copy);
+                    }
+                }
+            }
+        }
+
+        List<int[]> result = new ArrayList<>();
+        for (int n = 0; n < numberOfNonTerminals; n++) result.addAll(nonUnit.get(n));
+        productions = result;
+    }
+
+    /* Tarjan's algorithm, iteratively, restricted to the alive non-terminals */
+    private List<List<Integer>> stronglyConnectedComponents(List<List<Integer>> successors) {
+        int[] index = new int[numberOfNonTerminals];
+        int[] low = new int[numberOfNonTerminals];
+        int[] next = new int[numberOfNonTerminals];
+        BitSet onStack = new BitSet();
+        Deque<Integer> stack = new ArrayDeque<>();
+        Deque<Integer> calls = new ArrayDeque<>();
+        List<List<Integer>> components = new ArrayList<>();
+        int counter = 0;
+
+        for (int root = alive.nextSetBit(0); root >= 0; root = alive.nextSetBit(root + 1)) {
+            if (index[root] != 0) continue;
+
+            index[root] = low[root] = ++counter;
+            stack.push(root);
+            onStack.set(root);
+            calls.push(root);
+            while (!calls.isEmpty()) {
+                int v = calls.peek();
+                if (next[v] < successors.get(v).size()) {
+                    int w = successors.get(v).get(next[v]++);
+                    if (index[w] == 0) {
+                        index[w] = low[w] = ++counter;
+                        stack.push(w);
+                        onStack.set(w);
+                        calls.push(w);
+                    } else if (onStack.get(w)) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+
+                calls.pop();
+                if (!calls.isEmpty()) low[calls.peek()] = Math.min(low[calls.peek()], low[v]);
+                if (low[v] != index[v]) continue;
+
+                List<Integer> component = new ArrayList<>();
+                int w;
+                do {
+                    w = stack.pop();
+                    onStack.clear(w);
+                    component.add(w);
+                } while (w != v);
+                Collections.sort(component);
+                components.add(component);
+            }
+        }
+        return components;
+    }
+
+    private static void add(List<int[]> productions, Set<List<Integer>> seen, int[] production) {
+        List<Integer> key = new ArrayList<>(production.length);
+        for (int symbol : production) key.add(symbol);
+        if (seen.add(key)) productions.add(production);
+    }
+
+    private int newNonTerminal() {
+        alive.set(numberOfNonTerminals);
+        return numberOfNonTerminals++;
+    }
+
+    private List<List<int[]>> productionsByLhs() {
+        List<List<int[]>> productionsOf = new ArrayList<>();
+        for (int n = 0; n < numberOfNonTerminals; n++) productionsOf.add(new ArrayList<>());
+        for (int[] production : productions) productionsOf.get(production[0]).add(production);
+        return productionsOf;
+    }
+
+    /**
+     * Returns the time taken by each phase of the conversion and the size of the grammar after it,
+     * in the order the phases were run.
+     *
+     * @return The statistics of the phases
+     */
+    public List<PhaseStatistics> getStatistics() {
+        return Collections.unmodifiableList(statistics);
+    }
+
+    /**
+     * Checks whether the language of the grammar is finite, i.e. whether the graph of the
+     * non-terminals of the CNF reachable from the start symbol is acyclic.
+     *
+     * @return {@code true} iff the grammar derives only finitely many words
+     */
+    public boolean isFinite() {
+        List<List<int[]>> productionsOf = productionsByLhs();
+
+        // iterative depth-first search; a grey non-terminal is on the current path
+        int[] colour = new int[numberOfNonTerminals];
+        int[] next = new int[numberOfNonTerminals];
+        Deque<Integer> path = new ArrayDeque<>();
+        colour[startSymbol] = 1;
+        path.push(startSymbol);
+        while (!path.isEmpty()) {
+            int v = path.peek();
+            List<int[]> vProductions = productionsOf.get(v);
+            int position = next[v]++;
+            int production = position / 2;
+            if (production >= vProductions.size()) {
+                colour[v] = 2;
+                path.pop();
+                continue;
+            }
+
+            int[] symbols = vProductions.get(production);
+            int i = position % 2 + 1;
+            if (i >= symbols.length || symbols[i] < 0) continue;
+            if (colour[symbols[i]] == 1) return false;
+            if (colour[symbols[i]] == 0) {
+                colour[symbols[i]] = 1;
+                path.push(symbols[i]);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Converts the result back into a grammar. The fresh non-terminals are taken from the given
+     * supplier, in the order in which they were introduced.
+     *
+     * @param nonTerminalSupplier A supply of non-terminals which do not occur in the grammar
+     * @return The grammar in Chomsky normal form
+     */
+    public ContextFreeGrammar<T, N, ChomskyNormalformProduction<T, N>> toGrammar(
+            Supplier<N> nonTerminalSupplier) {
+        List<N> names = names(nonTerminalSupplier);
+        ChomskyNormalFormGrammarBuilder<T, N> builder =
+                new ChomskyNormalFormGrammarBuilder<>(terminalAlphabet, aliveNonTerminals(names));
+        builder.withStartSymbol(nonTerminals.get(startSymbol));
+        for (int[] production : productions) {
+            N lhs = names.get(production[0]);
+            if (production.length == 2)
+                builder.withProduction(lhs, terminals.get(-production[1] - 1));
+            else
+                builder.withProduction(lhs, names.get(production[1]), names.get(production[2]));
+        }
+        return builder.build().unwrap();
+    }
+
+    /*
+     * Converts the intermediate result of some phases back into a grammar, whose productions need
+     * not be in Chomsky normal form.
+     */
+    ContextFreeGrammar<T, N, ContextFreeProduction<T, N>> toContextFreeGrammar(
+            Supplier<N> nonTerminalSupplier) {
+        List<N> names = names(nonTerminalSupplier);
+        ContextFreeGrammarBuilder<T, N> builder =
+                new ContextFreeGrammarBuilder<>(terminalAlphabet, aliveNonTerminals(names));
+        builder.withStartSymbol(nonTerminals.get(startSymbol));
+        for (int[] production : productions) {
+            List<GrammarSymbol<T, N>> rhs = new ArrayList<>();
+            for (int i = 1; i < production.length; i++) {
+                rhs.add(
+                        production[i] < 0
+                                ? new GrammarSymbol.Terminal<>(terminals.get(-production[i] - 1))
+                                : new GrammarSymbol.NonTerminal<>(names.get(production[i])));
+            }
+            builder.withProduction(
+                    new ContextFreeProduction<>(
+                            names.get(production[0]), new SententialForm<>(rhs)));
+        }
+        return builder.build().unwrap();
+    }
+
+    /* The names of all non-terminals, taking those of the alive fresh ones from the supplier */
+    private List<N> names(Supplier<N> nonTerminalSupplier) {
+        List<N> names = new ArrayList<>(nonTerminals);
+        for (int n = nonTerminals.size(); n < numberOfNonTerminals; n++)
+            names.add(alive.get(n) ? nonTerminalSupplier.get() : null);
+        return names;
+    }
+
+    private Alphabet<N> aliveNonTerminals(List<N> names) {
+        List<N> aliveNames = new ArrayList<>();
+        for (int n = alive.nextSetBit(0); n >= 0; n = alive.nextSetBit(n + 1))
+            aliveNames.add(names.get(n));
+        return new Alphabet<>(aliveNames);
+    }
+}
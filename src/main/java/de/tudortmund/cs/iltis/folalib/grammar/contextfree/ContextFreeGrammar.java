@@ -2,7 +2,6 @@ package de.tudortmund.cs.iltis.folalib.grammar.contextfree;
 
 import de.tudortmund.cs.iltis.folalib.grammar.Grammar;
 import de.tudortmund.cs.iltis.folalib.grammar.GrammarSymbol;
-import de.tudortmund.cs.iltis.folalib.grammar.SententialForm;
 import de.tudortmund.cs.iltis.folalib.grammar.construction.builder.ChomskyNormalFormGrammarBuilder;
 import de.tudortmund.cs.iltis.folalib.grammar.construction.fault.GrammarConstructionFaultCollection;
 import de.tudortmund.cs.iltis.folalib.grammar.construction.specialization.GrammarToContextFreeGrammarSpecialization;
@@ -10,7 +9,6 @@ import de.tudortmund.cs.iltis.folalib.grammar.production.ChomskyNormalformProduc
 import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
 import de.tudortmund.cs.iltis.folalib.grammar.production.Production;
 import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
-import de.tudortmund.cs.iltis.folalib.transform.ConstrainedSupplier;
 import de.tudortmund.cs.iltis.folalib.util.Result;
 import de.tudortmund.cs.iltis.utils.function.SerializableFunction;
 import de.tudortmund.cs.iltis.utils.graph.EmptyEdgeLabel;
@@ -25,6 +23,10 @@ public class ContextFreeGrammar<
                 Prod extends ContextFreeProduction<T, N>>
         extends Grammar<T, N, Prod> {
 
+    /* The analyses of this grammar, which is immutable, computed on first use */
+    private transient ContextFreeGrammarAnalysis<T, N> analysis;
+    private transient ChomskyNormalFormConversion<T, N> cnfConversion;
+
     public ContextFreeGrammar(
             Alphabet<T> terminals,
             Alphabet<N> nonTerminals,
@@ -56,7 +58,31 @@ public class ContextFreeGrammar<
      * @return {@code true} iff the empty word can be derived.
      */
     public boolean containsEmptyWord() {
-        return firstSets().get(getStartSymbol()).containsEpsilon();
+        return analysis().getNullableNonTerminals().contains(getStartSymbol());
+    }
+
+    /**
+     * Returns the analysis of this grammar, which computes nullable and generating non-terminals
+     * and {@code FIRST} and {@code FOLLOW} sets. It is created once per grammar and caches its
+     * results, such that repeated queries are cheap.
+     *
+     * @return The analysis of this grammar
+     */
+    public synchronized ContextFreeGrammarAnalysis<T, N> analysis() {
+        if (analysis == null) analysis = new ContextFreeGrammarAnalysis<>(this);
+        return analysis;
+    }
+
+    /**
+     * Returns the conversion of this grammar into Chomsky normal form, which is used by {@link
+     * ToChomskyNormalFormTransform#convertToCnf} and {@link #isFinite()}. It is computed on first
+     * use and cached afterwards.
+     *
+     * @return The conversion of this grammar
+     */
+    public synchronized ChomskyNormalFormConversion<T, N> cnfConversion() {
+        if (cnfConversion == null) cnfConversion = new ChomskyNormalFormConversion<>(this);
+        return cnfConversion;
     }
 
     @Override
@@ -174,79 +200,22 @@ public class ContextFreeGrammar<
      * @return The set of generating non-terminals in this {@link Grammar}
      */
     public Set<N> generatingNonTerminals() {
-        Set<N> generating = new LinkedHashSet<>();
-
-        boolean changed;
-
-        // I am fairly certain that this can be implemented more efficiently as a graph algorithm
-        // (think topological ordering) instead of a fixed-point-iteration.
-        do {
-            changed = false;
-
-            for (Prod production : this) {
-                boolean generatingProduction =
-                        production.getRhs().stream()
-                                .allMatch(s -> s.match(t -> true, generating::contains));
-
-                if (generatingProduction) {
-                    changed |= generating.add(production.getLhsNonTerminal());
-                }
-            }
-        } while (changed);
-
-        return generating;
+        return analysis().getGeneratingNonTerminals();
     }
 
     // TODO: Keep track of iteration in which a terminal was added to the first/follow set (via
     // modification to SetWithEpsilon)
-    // TODO: cache these results
 
     /**
      * Computes the {@code FIRST} sets of this {@link Grammar}.
      *
-     * <p>Implemented according to lecture "Übersetzerbau", Chapter "Parsing Top-Down", slide 50
+     * <p>Defined according to lecture "Übersetzerbau", Chapter "Parsing Top-Down", slide 50, and
+     * computed by {@link #analysis()}
      *
      * @return A mapping from non-terminals to their {@code FIRST} set
      */
     public Map<N, SetWithEpsilon<T>> firstSets() {
-        Map<N, SetWithEpsilon<T>> firstSets = new HashMap<>();
-
-        for (N nonTerminal : getNonTerminals()) firstSets.put(nonTerminal, new SetWithEpsilon<>());
-
-        boolean changed;
-
-        do {
-            changed = false;
-
-            for (Prod production : this) {
-                // non-short-circuiting OR to ensure we don't stop this iteration after the first
-                // modification.
-                changed |=
-                        firstSets
-                                .get(production.getLhsNonTerminal())
-                                .addAll(firstOfSententialForm(production.getRhs(), firstSets));
-            }
-        } while (changed);
-
-        return firstSets;
-    }
-
-    private SetWithEpsilon<T> firstOfSententialForm(
-            SententialForm<T, N> form, Map<N, SetWithEpsilon<T>> firstInformation) {
-        SetWithEpsilon<T> firstSet = new SetWithEpsilon<>();
-
-        for (GrammarSymbol<T, N> symbol : form) {
-            symbol.match(firstSet::add, n -> firstSet.addAllTerminals(firstInformation.get(n)));
-
-            if (symbol.match(t -> true, n -> !firstInformation.get(n).containsEpsilon()))
-                return firstSet;
-        }
-
-        // The word only consists of non-terminals, and each of those non-terminals can be derive to
-        // epsilon. That means the entire form can be derived to epsilon too.
-        firstSet.setContainsEpsilon(true);
-
-        return firstSet;
+        return analysis().getFirstSets();
     }
 
     /**
@@ -260,77 +229,18 @@ public class ContextFreeGrammar<
      * @return If this contextFreeGrammar describes a finite language
      */
     public boolean isFinite() {
-        // map nonTerminals to increasing integers
-        ArrayList<N> nts = new ArrayList<>();
-        getNonTerminals().forEach(nts::add);
-        ContextFreeGrammar<T, Integer, ?> integerNonTerminals = this.mapNonTerminals(nts::indexOf);
-
-        ContextFreeGrammar<T, Integer, ChomskyNormalformProduction<T, Integer>> cnf =
-                ToChomskyNormalFormTransform.convertToCnf(
-                        integerNonTerminals,
-                        ConstrainedSupplier.constrainedSupplierFromIntegers(i -> i + nts.size()));
-
-        return cnf.nonTerminalsGraph().isDirectedAcyclic();
+        return cnfConversion().isFinite();
     }
 
     /**
      * Computes the {@code FOLLOW} sets of this {@link Grammar}
      *
-     * <p>Implemented according to lecture "Übersetzerbau", Chapter "Parsing Top-Down", slide 58
+     * <p>Defined according to lecture "Übersetzerbau", Chapter "Parsing Top-Down", slide 58, and
+     * computed by {@link #analysis()}
      *
      * @return A mapping from non-terminals to their {@code FOLLOW} set
      */
     public Map<N, SetWithEpsilon<T>> followSets() {
-        Map<N, SetWithEpsilon<T>> firstSets = firstSets();
-        Map<N, SetWithEpsilon<T>> followSets = new HashMap<>();
-
-        for (N nonTerminal : getNonTerminals()) followSets.put(nonTerminal, new SetWithEpsilon<>());
-
-        followSets.get(getStartSymbol()).setContainsEpsilon(true);
-
-        boolean changed;
-
-        do {
-            changed = false;
-
-            for (Prod production : this) {
-                SententialForm<T, N> rhs = production.getRhs();
-
-                for (int i = 0; i < rhs.size(); ++i) {
-                    final int finalI = i; // java restriction
-
-                    changed =
-                            changed
-                                    | rhs.get(i)
-                                            .match(
-                                                    t -> false,
-                                                    n -> {
-                                                        boolean changedd = false;
-                                                        SetWithEpsilon<T> firstOfRemainder =
-                                                                firstOfSententialForm(
-                                                                        rhs.drop(finalI + 1),
-                                                                        firstSets);
-
-                                                        if (firstOfRemainder.containsEpsilon())
-                                                            changedd =
-                                                                    followSets
-                                                                            .get(n)
-                                                                            .addAll(
-                                                                                    followSets.get(
-                                                                                            production
-                                                                                                    .getLhsNonTerminal()));
-
-                                                        firstOfRemainder.setContainsEpsilon(false);
-
-                                                        return changedd
-                                                                | followSets
-                                                                        .get(n)
-                                                                        .addAll(firstOfRemainder);
-                                                    });
-                }
-            }
-        } while (changed);
-
-        return followSets;
+        return analysis().getFollowSets();
     }
 }
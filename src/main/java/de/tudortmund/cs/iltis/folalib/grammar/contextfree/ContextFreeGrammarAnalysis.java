@@ -0,0 +1,467 @@
+package de.tudortmund.cs.iltis.folalib.grammar.contextfree;
+
+import de.tudortmund.cs.iltis.folalib.grammar.GrammarSymbol;
+import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Computes the nullable and generating non-terminals and the {@code FIRST} and {@code FOLLOW} sets
+ * of a {@link ContextFreeGrammar}.
+ *
+ * <p>Instead of iterating over all productions until nothing changes, each analysis propagates
+ * information along the dependencies between non-terminals using a worklist, such that a
+ * production or a dependency is only looked at again if some of its inputs changed:
+ *
+ * <ul>
+ *   <li>For nullable and generating non-terminals, each production counts its symbols which are
+ *       not known to be nullable (resp. generating) yet. The left-hand side is added once the
+ *       count reaches zero. This takes linear time.
+ *   <li>For {@code FIRST}, {@code B} is a dependency of {@code A} if {@code A -> aBb} with a
+ *       nullable {@code a}, and for {@code FOLLOW}, {@code A} is a dependency of {@code B} if
+ *       {@code A -> aBb} with a nullable {@code b}. The terminals found directly in the
+ *       productions are then propagated along these dependencies as bitsets.
+ *   <li>For {@code FIRST_k} and {@code FOLLOW_k}, the productions (resp. occurrences) depending on
+ *       a non-terminal are evaluated again whenever its set grows.
+ * </ul>
+ *
+ * <p>The analysis of a grammar is obtained by {@link ContextFreeGrammar#analysis()}, which computes
+ * it once per grammar instance. All results are computed on first use and cached.
+ *
+ * @param <T> The type of the terminals
+ * @param <N> The type of the non-terminals
+ */
+public final class ContextFreeGrammarAnalysis<T extends Serializable, N extends Serializable> {
+
+    private final List<T> terminals = new ArrayList<>();
+    private final List<N> nonTerminals = new ArrayList<>();
+    private final int startSymbol;
+
+    /* The productions: a non-terminal n >= 0 or a terminal t encoded as -(t + 1) */
+    private final int[] lhs;
+    private final int[][] rhs;
+
+    /* For every non-terminal: the productions on whose rhs it occurs, once per occurrence */
+    private final int[][] occurrenceProductions;
+
+    private boolean[] nullable;
+    private boolean[] generating;
+    private BitSet[] first;
+    private BitSet[] follow;
+    private boolean[] followedByEnd;
+    private final Map<Integer, List<Set<List<Integer>>>> firstK = new HashMap<>();
+    private final Map<Integer, List<Set<List<Integer>>>> followK = new HashMap<>();
+
+    ContextFreeGrammarAnalysis(
+            ContextFreeGrammar<T, N, ? extends ContextFreeProduction<T, N>> grammar) {
+        HashMap<T, Integer> terminalIndices = new HashMap<>();
+        for (T terminal : grammar.getTerminals()) {
+            terminalIndices.put(terminal, terminals.size());
+            terminals.add(terminal);
+        }
+        HashMap<N, Integer> nonTerminalIndices = new HashMap<>();
+        for (N nonTerminal : grammar.getNonTerminals()) {
+            nonTerminalIndices.put(nonTerminal, nonTerminals.size());
+            nonTerminals.add(nonTerminal);
+        }
+        startSymbol = nonTerminalIndices.get(grammar.getStartSymbol());
+
+        int numberOfProductions = grammar.getProductions().size();
+        lhs = new int[numberOfProductions];
+        rhs = new int[numberOfProductions][];
+        List<List<Integer>> occurrences = new ArrayList<>();
+        for (int n = 0; n < nonTerminals.size(); n++) occurrences.add(new ArrayList<>());
+
+        int p = 0;
+        for (ContextFreeProduction<T, N> production : grammar.getProductions()) {
+            lhs[p] = nonTerminalIndices.get(production.getLhsNonTerminal());
+
+            rhs[p] = new int[production.getRhs().size()];
+            for (int i = 0; i < rhs[p].length; i++) {
+                GrammarSymbol<T, N> symbol = production.getRhs().get(i);
+                rhs[p][i] =
+                        symbol.match(t -> -(terminalIndices.get(t) + 1), nonTerminalIndices::get);
+                if (rhs[p][i] >= 0) occurrences.get(rhs[p][i]).add(p);
+            }
+            p++;
+        }
+
+        occurrenceProductions = new int[nonTerminals.size()][];
+        for (int n = 0; n < nonTerminals.size(); n++) {
+            occurrenceProductions[n] = new int[occurrences.get(n).size()];
+            for (int o = 0; o < occurrenceProductions[n].length; o++)
+                occurrenceProductions[n][o] = occurrences.get(n).get(o);
+        }
+    }
+
+    /**
+     * Computes the non-terminals which derive the empty word.
+     *
+     * @return The set of nullable non-terminals
+     */
+    public synchronized Set<N> getNullableNonTerminals() {
+        return toSet(nullable());
+    }
+
+    /**
+     * Computes the non-terminals which derive some word of terminals.
+     *
+     * @return The set of generating non-terminals
+     */
+    public synchronized Set<N> getGeneratingNonTerminals() {
+        return toSet(generating());
+    }
+
+    /**
+     * Computes the {@code FIRST} sets, see {@link ContextFreeGrammar#firstSets()}.
+     *
+     * @return A new mapping from non-terminals to their {@code FIRST} set
+     */
+    public synchronized Map<N, SetWithEpsilon<T>> getFirstSets() {
+        BitSet[] first = first();
+        boolean[] nullable = nullable();
+
+        Map<N, SetWithEpsilon<T>> result = new HashMap<>();
+        for (int n = 0; n < nonTerminals.size(); n++)
+            result.put(nonTerminals.get(n), toSetWithEpsilon(first[n], nullable[n]));
+        return result;
+    }
+
+    /**
+     * Computes the {@code FOLLOW} sets, see {@link ContextFreeGrammar#followSets()}. The empty
+     * word denotes the end of the input.
+     *
+     * @return A new mapping from non-terminals to their {@code FOLLOW} set
+     */
+    public synchronized Map<N, SetWithEpsilon<T>> getFollowSets() {
+        computeFollow();
+
+        Map<N, SetWithEpsilon<T>> result = new HashMap<>();
+        for (int n = 0; n < nonTerminals.size(); n++)
+            result.put(nonTerminals.get(n), toSetWithEpsilon(follow[n], followedByEnd[n]));
+        return result;
+    }
+
+    /**
+     * Computes the {@code FIRST_k} sets, i.e. for each non-terminal {@code A} the set of all
+     * prefixes of length {@code k} of words derivable from {@code A}, and of all derivable words
+     * shorter than {@code k}.
+     *
+     * <p>In contrast to {@link #getFirstSets()}, which only considers the productions locally,
+     * only words which are actually derivable are taken into account. Hence, the sets of
+     * non-generating non-terminals are empty.
+     *
+     * @param k The length of the prefixes, at least {@code 1}
+     * @return A new mapping from non-terminals to their {@code FIRST_k} set
+     * @throws IllegalArgumentException if {@code k} is smaller than {@code 1}
+     */
+    public synchronized Map<N, Set<Word<T>>> getFirstSets(int k) {
+        if (k < 1) throw new IllegalArgumentException("k has to be at least 1");
+        return toWordSets(firstK(k));
+    }
+
+    /**
+     * Computes the {@code FOLLOW_k} sets, i.e. for each non-terminal {@code A} the set of all
+     * prefixes of length {@code k} of words {@code w} such that {@code S ->* uAw} for a word
+     * {@code u}, and of all such words shorter than {@code k}, which end at the end of the input.
+     * As for {@link #getFirstSets(int)}, only derivable words are taken into account.
+     *
+     * @param k The length of the prefixes, at least {@code 1}
+     * @return A new mapping from non-terminals to their {@code FOLLOW_k} set
+     * @throws IllegalArgumentException if {@code k} is smaller than {@code 1}
+     */
+    public synchronized Map<N, Set<Word<T>>> getFollowSets(int k) {
+        if (k < 1) throw new IllegalArgumentException("k has to be at least 1");
+        return toWordSets(followK(k));
+    }
+
+    private boolean[] nullable() {
+        if (nullable == null) nullable = closure(false);
+        return nullable;
+    }
+
+    private boolean[] generating() {
+        if (generating == null) generating = closure(true);
+        return generating;
+    }
+
+    /* The least set of non-terminals containing the lhs of every production whose rhs consists
+     * of contained non-terminals and, iff terminalsSatisfy, terminals */
+    private boolean[] closure(boolean terminalsSatisfy) {
+        boolean[] contained = new boolean[nonTerminals.size()];
+        int[] missing = new int[lhs.length];
+        Deque<Integer> worklist = new ArrayDeque<>();
+
+        for (int p = 0; p < lhs.length; p++) {
+            for (int symbol : rhs[p]) {
+                if (symbol >= 0) missing[p]++;
+                else if (!terminalsSatisfy) missing[p] = Integer.MAX_VALUE / 2;
+            }
+            if (missing[p] == 0 && !contained[lhs[p]]) {
+                contained[lhs[p]] = true;
+                worklist.add(lhs[p]);
+            }
+        }
+
+        while (!worklist.isEmpty()) {
+            int n = worklist.poll();
+            for (int p : occurrenceProductions[n]) {
+                if (--missing[p] == 0 && !contained[lhs[p]]) {
+                    contained[lhs[p]] = true;
+                    worklist.add(lhs[p]);
+                }
+            }
+        }
+
+        return contained;
+    }
+
+    private BitSet[] first() {
+        if (first != null) return first;
+        boolean[] nullable = nullable();
+
+        first = new BitSet[nonTerminals.size()];
+        List<Set<Integer>> dependents = new ArrayList<>();
+        for (int n = 0; n < nonTerminals.size(); n++) {
+            first[n] = new BitSet();
+            dependents.add(new LinkedHashSet<>());
+        }
+
+        for (int p = 0; p < lhs.length; p++) {
+            for (int symbol : rhs[p]) {
+                if (symbol < 0) {
+                    first[lhs[p]].set(-symbol - 1);
+                    break;
+                }
+                if (symbol != lhs[p]) dependents.get(symbol).add(lhs[p]);
+                if (!nullable[symbol]) break;
+            }
+        }
+
+        propagate(first, null, dependents);
+        return first;
+    }
+
+    private void computeFollow() {
+        if (follow != null) return;
+        boolean[] nullable = nullable();
+        BitSet[] first = first();
+
+        follow = new BitSet[nonTerminals.size()];
+        followedByEnd = new boolean[nonTerminals.size()];
+        List<Set<Integer>> dependents = new ArrayList<>();
+        for (int n = 0; n < nonTerminals.size(); n++) {
+            follow[n] = new BitSet();
+            dependents.add(new LinkedHashSet<>());
+        }
+        followedByEnd[startSymbol] = true;
+
+        for (int p = 0; p < lhs.length; p++) {
+            // FIRST of the suffix after the current position, computed from right to left
+            BitSet suffix = new BitSet();
+            boolean suffixNullable = true;
+
+            for (int i = rhs[p].length - 1; i >= 0; i--) {
+                int symbol = rhs[p][i];
+                if (symbol < 0) {
+                    suffix.clear();
+                    suffix.set(-symbol - 1);
+                    suffixNullable = false;
+                    continue;
+                }
+
+                follow[symbol].or(suffix);
+                if (suffixNullable && symbol != lhs[p]) dependents.get(lhs[p]).add(symbol);
+
+                if (!nullable[symbol]) {
+                    suffix.clear();
+                    suffixNullable = false;
+                }
+                suffix.or(first[symbol]);
+            }
+        }
+
+        propagate(follow, followedByEnd, dependents);
+    }
+
+    /* Adds the sets of each non-terminal to the sets of its dependents until nothing changes */
+    private static void propagate(BitSet[] sets, boolean[] flags, List<Set<Integer>> dependents) {
+        Deque<Integer> worklist = new ArrayDeque<>();
+        boolean[] queued = new boolean[sets.length];
+        for (int n = 0; n < sets.length; n++) {
+            worklist.add(n);
+            queued[n] = true;
+        }
+
+        while (!worklist.isEmpty()) {
+            int n = worklist.poll();
+            queued[n] = false;
+
+            for (int dependent : dependents.get(n)) {
+                BitSet added = (BitSet) sets[n].clone();
+                added.andNot(sets[dependent]);
+                boolean changed = !added.isEmpty();
+                sets[dependent].or(added);
+
+                if (flags != null && flags[n] && !flags[dependent]) {
+                    flags[dependent] = true;
+                    changed = true;
+                }
+
+                if (changed && !queued[dependent]) {
+                    worklist.add(dependent);
+                    queued[dependent] = true;
+                }
+            }
+        }
+    }
+
+    private List<Set<List<Integer>>> firstK(int k) {
+        List<Set<List<Integer>>> cached = firstK.get(k);
+        if (cached != null) return cached;
+
+        List<Set<List<Integer>>> sets = new ArrayList<>();
+        for (int n = 0; n < nonTerminals.size(); n++) sets.add(new HashSet<>());
+
+        Deque<Integer> worklist = new ArrayDeque<>();
+        boolean[] queued = new boolean[lhs.length];
+        for (int p = 0; p < lhs.length; p++) {
+            worklist.add(p);
+            queued[p] = true;
+        }
+
+        while (!worklist.isEmpty()) {
+            int p = worklist.poll();
+            queued[p] = false;
+
+            if (!sets.get(lhs[p]).addAll(firstOfSuffix(rhs[p], 0, sets, k))) continue;
+            for (int dependent : occurrenceProductions[lhs[p]]) {
+                if (!queued[dependent]) {
+                    worklist.add(dependent);
+                    queued[dependent] = true;
+                }
+            }
+        }
+
+        firstK.put(k, sets);
+        return sets;
+    }
+
+    private List<Set<List<Integer>>> followK(int k) {
+        List<Set<List<Integer>>> cached = followK.get(k);
+        if (cached != null) return cached;
+        List<Set<List<Integer>>> first = firstK(k);
+
+        List<Set<List<Integer>>> sets = new ArrayList<>();
+        for (int n = 0; n < nonTerminals.size(); n++) sets.add(new HashSet<>());
+        sets.get(startSymbol).add(new ArrayList<>());
+
+        // the occurrences of non-terminals in the productions of each non-terminal, together with
+        // the FIRST_k sets of the suffixes after them, which do not change
+        List<List<Integer>> occurring = new ArrayList<>();
+        List<List<Set<List<Integer>>>> suffixes = new ArrayList<>();
+        for (int n = 0; n < nonTerminals.size(); n++) {
+            occurring.add(new ArrayList<>());
+            suffixes.add(new ArrayList<>());
+        }
+        for (int p = 0; p < lhs.length; p++) {
+            for (int i = 0; i < rhs[p].length; i++) {
+                if (rhs[p][i] < 0) continue;
+                occurring.get(lhs[p]).add(rhs[p][i]);
+                suffixes.get(lhs[p]).add(firstOfSuffix(rhs[p], i + 1, first, k));
+            }
+        }
+
+        Deque<Integer> worklist = new ArrayDeque<>();
+        boolean[] queued = new boolean[nonTerminals.size()];
+        worklist.add(startSymbol);
+        queued[startSymbol] = true;
+
+        // FOLLOW_k(B) contains FIRST_k(b) FOLLOW_k(A) for every A -> aBb, so the occurrences in the
+        // productions of A are evaluated again whenever FOLLOW_k(A) grows
+        while (!worklist.isEmpty()) {
+            int a = worklist.poll();
+            queued[a] = false;
+
+            for (int o = 0; o < occurring.get(a).size(); o++) {
+                int n = occurring.get(a).get(o);
+                Set<List<Integer>> added = concatenate(suffixes.get(a).get(o), sets.get(a), k);
+                if (sets.get(n).addAll(added) && !queued[n]) {
+                    worklist.add(n);
+                    queued[n] = true;
+                }
+            }
+        }
+
+        followK.put(k, sets);
+        return sets;
+    }
+
+    /* FIRST_k of the symbols from the given position on */
+    private Set<List<Integer>> firstOfSuffix(
+            int[] symbols, int from, List<Set<List<Integer>>> sets, int k) {
+        Set<List<Integer>> result = new HashSet<>();
+        result.add(new ArrayList<>());
+
+        for (int i = from; i < symbols.length && !result.isEmpty(); i++) {
+            int symbol = symbols[i];
+            Set<List<Integer>> next;
+            if (symbol < 0) next = Collections.singleton(Collections.singletonList(-symbol - 1));
+            else next = sets.get(symbol);
+
+            result = concatenate(result, next, k);
+        }
+        return result;
+    }
+
+    /* The prefixes of length k of all concatenations, which is empty if one of the sets is */
+    private static Set<List<Integer>> concatenate(
+            Set<List<Integer>> prefixes, Set<List<Integer>> suffixes, int k) {
+        Set<List<Integer>> result = new HashSet<>();
+        if (suffixes.isEmpty()) return result;
+
+        for (List<Integer> prefix : prefixes) {
+            if (prefix.size() == k) {
+                result.add(prefix);
+                continue;
+            }
+            for (List<Integer> suffix : suffixes) {
+                List<Integer> word = new ArrayList<>(prefix);
+                for (int i = 0; i < suffix.size() && word.size() < k; i++) word.add(suffix.get(i));
+                result.add(word);
+            }
+        }
+        return result;
+    }
+
+    private Set<N> toSet(boolean[] contained) {
+        Set<N> result = new LinkedHashSet<>();
+        for (int n = 0; n < contained.length; n++) {
+            if (contained[n]) result.add(nonTerminals.get(n));
+        }
+        return result;
+    }
+
+    private SetWithEpsilon<T> toSetWithEpsilon(BitSet bits, boolean containsEpsilon) {
+        SetWithEpsilon<T> result = new SetWithEpsilon<>();
+        for (int t = bits.nextSetBit(0); t >= 0; t = bits.nextSetBit(t + 1))
+            result.add(terminals.get(t));
+        result.setContainsEpsilon(containsEpsilon);
+        return result;
+    }
+
+    private Map<N, Set<Word<T>>> toWordSets(List<Set<List<Integer>>> sets) {
+        Map<N, Set<Word<T>>> result = new HashMap<>();
+        for (int n = 0; n < nonTerminals.size(); n++) {
+            Set<Word<T>> words = new LinkedHashSet<>();
+            for (List<Integer> word : sets.get(n)) {
+                List<T> symbols = new ArrayList<>();
+                for (int t : word) symbols.add(terminals.get(t));
+                words.add(new Word<>(symbols));
+            }
+            result.put(nonTerminals.get(n), words);
+        }
+        return result;
+    }
+}
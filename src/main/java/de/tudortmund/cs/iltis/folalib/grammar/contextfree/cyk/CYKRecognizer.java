@@ -0,0 +1,181 @@
+package de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk;
+
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
+import de.tudortmund.cs.iltis.folalib.grammar.production.ChomskyNormalformProduction;
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * A CYK recognizer for grammars in Chomsky normal form which only decides membership.
+ *
+ * <p>In contrast to {@link CorrectCYKTableau}, which records every production used in every cell
+ * for didactic purposes and fault reporting, the non-terminals are numbered densely and each cell
+ * of the tableau is stored as a bitset of non-terminals in one flat {@code long[]} holding the
+ * upper triangle. The binary productions are indexed by their first non-terminal {@code B}: for
+ * each {@code B}, the possible second non-terminals {@code C} are stored together with the bitset
+ * of all left-hand sides {@code A} of productions {@code A -> BC}. Combining two cells therefore
+ * only visits the non-terminals contained in the left cell.
+ *
+ * <p>Like {@link CYKTableau#accepts()}, the empty word is never accepted, as grammars in Chomsky
+ * normal form cannot derive it.
+ *
+ * @param <T> The type of the terminals
+ */
+public final class CYKRecognizer<T extends Serializable> implements Serializable {
+
+    private int numberOfNonTerminals;
+    private int words;
+    private int startSymbol;
+
+    /* For each terminal t, the bitset of all non-terminals A with a production A -> t */
+    private HashMap<T, long[]> terminalProductions;
+
+    /* For each non-terminal B, the non-terminals C of all productions A -> BC ... */
+    private int[][] secondNonTerminals;
+
+    /* ... and, at the same position, the bitset of the corresponding non-terminals A */
+    private long[][][] leftHandSides;
+
+    /* For serialization */
+    @SuppressWarnings("unused")
+    private CYKRecognizer() {}
+
+    private CYKRecognizer(
+            int numberOfNonTerminals,
+            int startSymbol,
+            HashMap<T, long[]> terminalProductions,
+            int[][] secondNonTerminals,
+            long[][][] leftHandSides) {
+        this.numberOfNonTerminals = numberOfNonTerminals;
+        this.words = (numberOfNonTerminals + 63) >>> 6;
+        this.startSymbol = startSymbol;
+        this.terminalProductions = terminalProductions;
+        this.secondNonTerminals = secondNonTerminals;
+        this.leftHandSides = leftHandSides;
+    }
+
+    /**
+     * Creates a recognizer for the given grammar.
+     *
+     * @param grammar The grammar in Chomsky normal form
+     * @param <T> The type of the terminals
+     * @param <N> The type of the non-terminals
+     * @return The recognizer for {@code grammar}
+     * @throws NullPointerException if {@code grammar} is {@code null}
+     */
+    public static <T extends Serializable, N extends Serializable> CYKRecognizer<T> compile(
+            ContextFreeGrammar<T, N, ? extends ChomskyNormalformProduction<T, N>> grammar) {
+        Objects.requireNonNull(grammar);
+
+        HashMap<N, Integer> indices = new HashMap<>();
+        for (N nonTerminal : grammar.getNonTerminals()) indices.put(nonTerminal, indices.size());
+        int numberOfNonTerminals = indices.size();
+        int words = (numberOfNonTerminals + 63) >>> 6;
+
+        HashMap<T, long[]> terminalProductions = new HashMap<>();
+        List<LinkedHashMap<Integer, long[]>> binaryProductions = new ArrayList<>();
+        for (int b = 0; b < numberOfNonTerminals; b++) binaryProductions.add(new LinkedHashMap<>());
+
+        for (ChomskyNormalformProduction<T, N> production : grammar.getProductions()) {
+            int lhs = indices.get(production.getLhsNonTerminal());
+            production.consumeRhs(
+                    t -> set(terminalProductions.computeIfAbsent(t, k -> new long[words]), lhs),
+                    (b, c) ->
+                            set(
+                                    binaryProductions
+                                            .get(indices.get(b))
+                                            .computeIfAbsent(indices.get(c), k -> new long[words]),
+                                    lhs));
+        }
+
+        int[][] secondNonTerminals = new int[numberOfNonTerminals][];
+        long[][][] leftHandSides = new long[numberOfNonTerminals][][];
+        for (int b = 0; b < numberOfNonTerminals; b++) {
+            LinkedHashMap<Integer, long[]> byC = binaryProductions.get(b);
+            secondNonTerminals[b] = new int[byC.size()];
+            leftHandSides[b] = new long[byC.size()][];
+
+            int position = 0;
+            for (Map.Entry<Integer, long[]> entry : byC.entrySet()) {
+                secondNonTerminals[b][position] = entry.getKey();
+                leftHandSides[b][position] = entry.getValue();
+                position++;
+            }
+        }
+
+        return new CYKRecognizer<>(
+                numberOfNonTerminals,
+                indices.get(grammar.getStartSymbol()),
+                terminalProductions,
+                secondNonTerminals,
+                leftHandSides);
+    }
+
+    /**
+     * Checks whether the grammar derives the given word.
+     *
+     * @param word The word to check
+     * @return {@code true} iff {@code word} is non-empty and derivable from the start symbol
+     */
+    public boolean accepts(Word<T> word) {
+        int n = word.size();
+        if (n == 0) return false;
+
+        // the cell of the subword of length l starting at i is located at cell(n, i, l)
+        long[] tableau = new long[cell(n, 0, n + 1)];
+
+        for (int i = 0; i < n; i++) {
+            long[] nonTerminals = terminalProductions.get(word.get(i));
+            if (nonTerminals == null) return false;
+            System.arraycopy(nonTerminals, 0, tableau, cell(n, i, 1), words);
+        }
+
+        for (int length = 2; length <= n; length++) {
+            for (int i = 0; i + length <= n; i++) {
+                int target = cell(n, i, length);
+                for (int split = 1; split < length; split++)
+                    combine(tableau, cell(n, i, split), cell(n, i + split, length - split), target);
+            }
+        }
+
+        int root = cell(n, 0, n);
+        return (tableau[root + (startSymbol >>> 6)] & (1L << (startSymbol & 63))) != 0;
+    }
+
+    /** The number of non-terminals of the grammar */
+    public int getNumberOfNonTerminals() {
+        return numberOfNonTerminals;
+    }
+
+    /** Adds all A with a production A -> BC for some B in the left and C in the right cell */
+    private void combine(long[] tableau, int left, int right, int target) {
+        for (int w = 0; w < words; w++) {
+            long bits = tableau[left + w];
+            while (bits != 0) {
+                int b = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+
+                int[] cs = secondNonTerminals[b];
+                for (int position = 0; position < cs.length; position++) {
+                    int c = cs[position];
+                    if ((tableau[right + (c >>> 6)] & (1L << (c & 63))) == 0) continue;
+
+                    long[] lhs = leftHandSides[b][position];
+                    for (int v = 0; v < words; v++) tableau[target + v] |= lhs[v];
+                }
+            }
+        }
+    }
+
+    /** The offset of the cell of the subword of length {@code length} starting at {@code i} */
+    private int cell(int n, int i, int length) {
+        // the rows of lengths 1, ..., length - 1 contain n, n - 1, ..., n - length + 2 cells
+        int row = (length - 1) * n - (length - 1) * (length - 2) / 2;
+        return (row + i) * words;
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << (index & 63);
+    }
+}
@@ -12,11 +12,21 @@ import java.util.*;
 
 public class CYKTableau<
         T extends Serializable, N extends Serializable, Entry extends ICYKTableauEntry<N>> {
+
     protected final ContextFreeGrammar<T, N, ChomskyNormalformProduction<T, N>> grammar;
     protected final Word<T> toCheck;
 
     private Map<Pair<Integer, Integer>, Set<Entry>> tableau;
 
+    /* The correct tableau validated against, computed on first validation */
+    private CorrectCYKTableau<T, N> correctTableau;
+
+    /* The faults found by the last validation, which are updated by validateAfterChange */
+    private Map<Pair<Integer, Integer>, CYKEntryFaultCollection<T, N, Entry>> lastFaults;
+
+    /* Copies of the cells as they were at the last validation, to detect changed cells */
+    private Map<Pair<Integer, Integer>, Set<Entry>> lastValidated;
+
     public CYKTableau(
             ContextFreeGrammar<T, N, ChomskyNormalformProduction<T, N>> grammar, Word<T> toCheck) {
         this.grammar = grammar;
@@ -54,144 +64,241 @@ public class CYKTableau<
                 .anyMatch(p -> p.getNonTerminal().equals(grammar.getStartSymbol()));
     }
 
+    /**
+     * Validates all cells of this tableau against the tableau computed by a correct CYK
+     * implementation. The faults are remembered, such that subsequent changes of single cells can
+     * be validated by {@link #validateAfterChange(int, int)}.
+     *
+     * @return the correct tableau if there are no faults, and the faults of each faulty cell
+     *     otherwise
+     */
     public Result<
                     CorrectCYKTableau<T, N>,
                     Map<Pair<Integer, Integer>, CYKEntryFaultCollection<T, N, Entry>>>
             validate() {
-        CorrectCYKTableau<T, N> validateAgainst = CorrectCYKTableau.compute(grammar, toCheck);
+        CorrectCYKTableau<T, N> validateAgainst = getCorrectTableau();
         Map<Pair<Integer, Integer>, CYKEntryFaultCollection<T, N, Entry>> faultMap =
                 new HashMap<>();
 
         for (int l = 0; l < toCheck.size(); ++l) {
             for (int i = 0; i < toCheck.size() - l; ++i) {
-                List<CYKEntryFault<T, N, Entry>> iilFaults = new ArrayList<>();
-
-                // What the cell (i, i + l) actually contains
-                Set<Entry> actual = get(i, i + l);
-
-                // What the cell (i, i + l) would contain if the current step was executed
-                // correctly, based on the the other, previously computed, fields in the CYKTableau
-                // (local correctness).
-                Set<InternalCYKTableauEntry<T, N>> expectedLocal = computeCellWithCyk(i, i + l);
-
-                // What the cell (i, i + l) would contain if it was computed by a correct
-                // CYK-implementation (global correctness)
-                Set<InternalCYKTableauEntry<T, N>> expectedGlobal = validateAgainst.get(i, i + l);
-
-                //   i) Symmetric difference of `expectedLocal` and `actual` yields all mistakes
-                // done in the current step.
-                //  ii) Symmetric difference of (`expectedLocal` intersection `actual) and
-                // `expectedGlobal` yields all errors that are aftereffects of errors made in
-                // previous steps
-                // iii) The set ((`expectedLocal` minus `actual`) minus `expectedGlobal`) union
-                // ((`actual` minus `expectedLocal`) intersection `expectedGlobal`) yields all
-                // "ghost errors": Local errors which actually "fix" a previous mistake by
-                // accidentally resulting in an entry (or absence thereof) which is actually part of
-                // the correct global solution. Note that this set is a subset of i).
-
-                // MISSING_ENTRY, MISSING_ENTRY_GHOST and ABUNDANT_ENTRY_AFTEREFFECT detection:
-                outer:
-                for (InternalCYKTableauEntry<T, N> el : expectedLocal) {
-                    boolean isExpectedGlobal =
-                            expectedGlobal.stream()
-                                    .anyMatch(e -> e.getNonTerminal().equals(el.getNonTerminal()));
-
-                    for (Entry entry : actual) {
-                        if (entry.getNonTerminal().equals(el.getNonTerminal())) {
-                            if (!isExpectedGlobal) {
-                                // abundant entry aftereffect!
-                                HashMap<Pair<Integer, Integer>, List<CYKEntryFault<T, N, Entry>>>
-                                        causeMap = new HashMap<>();
-                                // This cast is safe, as on the diagonal of the tableau the sets
-                                // `expectedLocal` and `expectedGlobal` are always the same
-                                ChomskyNormalformProduction.TwoNonTerminalsProduction<T, N>
-                                        production =
-                                                (ChomskyNormalformProduction
-                                                                        .TwoNonTerminalsProduction<
-                                                                T, N>)
-                                                        el.getProduction();
-
-                                List<CYKEntryFault<T, N, Entry>> faults1 =
-                                        faultMap.get(new Pair<>(i, el.getK()))
-                                                .getAbundantFaultsFor(
-                                                        production.getFirstNonTerminal());
-                                List<CYKEntryFault<T, N, Entry>> faults2 =
-                                        faultMap.get(new Pair<>(el.getK() + 1, i + l))
-                                                .getAbundantFaultsFor(
-                                                        production.getSecondNonTerminal());
-
-                                if (!faults1.isEmpty())
-                                    causeMap.put(new Pair<>(i, el.getK()), faults1);
-                                if (!faults2.isEmpty())
-                                    causeMap.put(new Pair<>(el.getK() + 1, i + l), faults2);
-
-                                iilFaults.add(new CYKEntryFault<>(entry, causeMap));
-                            }
+                validateCell(i, i + l, validateAgainst, faultMap);
+            }
+        }
 
-                            continue outer;
-                        }
-                    }
+        lastFaults = faultMap;
+        lastValidated = new HashMap<>();
+        for (Map.Entry<Pair<Integer, Integer>, Set<Entry>> cell : tableau.entrySet())
+            lastValidated.put(cell.getKey(), new LinkedHashSet<>(cell.getValue()));
+        return toResult(validateAgainst, faultMap);
+    }
 
-                    // (local) missing entry detected.
+    /**
+     * Validates this tableau after the cell (i, j) has been changed, yielding the same result as
+     * {@link #validate()}. The faults of a cell only depend on the cells below it, so only the
+     * cells (i', j') with i' &lt;= i and j' &gt;= j are validated again, reusing the faults of the
+     * other cells from the last validation.
+     *
+     * <p>Other cells changed since the last validation are detected by comparing all cells with
+     * their contents at the last validation, and the cells above them are validated again as well.
+     * If this tableau has not been validated before, it is validated completely.
+     *
+     * @param i the start of the changed cell
+     * @param j the end of the changed cell
+     * @return the correct tableau if there are no faults, and the faults of each faulty cell
+     *     otherwise
+     * @throws IndexOutOfBoundsException if (i, j) is not a cell of this tableau
+     */
+    public Result<
+                    CorrectCYKTableau<T, N>,
+                    Map<Pair<Integer, Integer>, CYKEntryFaultCollection<T, N, Entry>>>
+            validateAfterChange(int i, int j) {
+        get(i, j);
+        if (lastFaults == null) return validate();
+
+        CorrectCYKTableau<T, N> validateAgainst = getCorrectTableau();
+        int n = toCheck.size();
+        // dirty[start][l] iff the cell (start, start + l) contains a changed cell
+        boolean[][] dirty = new boolean[n][];
+        for (int l = 0; l < n; ++l) {
+            for (int start = 0; start < n - l; ++start) {
+                if (dirty[start] == null) dirty[start] = new boolean[n - start];
+                boolean changed = hasChanged(start, start + l) || (start == i && start + l == j);
+                if (l > 0) changed |= dirty[start][l - 1] || dirty[start + 1][l - 1];
+                dirty[start][l] = changed;
+                if (changed) validateCell(start, start + l, validateAgainst, lastFaults);
+            }
+        }
 
-                    iilFaults.add(new CYKEntryFault<>(el, !isExpectedGlobal));
-                }
+        return toResult(validateAgainst, lastFaults);
+    }
 
-                // ABUNDANT_ENTRY and ABUNDANT_ENTRY_GHOST detection
-                outer:
-                for (Entry entry : actual) {
-                    for (InternalCYKTableauEntry<T, N> el : expectedLocal) {
-                        if (entry.getNonTerminal().equals(el.getNonTerminal())) continue outer;
-                    }
+    /* Whether the cell (i, j) differs from its contents at the last validation, which is then
+     * updated */
+    private boolean hasChanged(int i, int j) {
+        Pair<Integer, Integer> key = new Pair<>(i, j);
+        Set<Entry> actual = tableau.containsKey(key) ? tableau.get(key) : Collections.emptySet();
+        Set<Entry> validated =
+                lastValidated.containsKey(key) ? lastValidated.get(key) : Collections.emptySet();
+        if (actual.equals(validated)) return false;
 
-                    // abundant (local) entry detected
-                    boolean isExpectedGlobal =
-                            expectedGlobal.stream()
-                                    .anyMatch(
-                                            e -> e.getNonTerminal().equals(entry.getNonTerminal()));
+        lastValidated.put(key, new LinkedHashSet<>(actual));
+        return true;
+    }
 
-                    iilFaults.add(new CYKEntryFault<>(entry, isExpectedGlobal));
-                }
+    private Result<
+                    CorrectCYKTableau<T, N>,
+                    Map<Pair<Integer, Integer>, CYKEntryFaultCollection<T, N, Entry>>>
+            toResult(
+                    CorrectCYKTableau<T, N> validateAgainst,
+                    Map<Pair<Integer, Integer>, CYKEntryFaultCollection<T, N, Entry>> faultMap) {
+        if (faultMap.isEmpty()) return new Result.Ok<>(validateAgainst);
+        else return new Result.Err<>(new HashMap<>(faultMap));
+    }
+
+    private CorrectCYKTableau<T, N> getCorrectTableau() {
+        if (correctTableau == null) correctTableau = CorrectCYKTableau.compute(grammar, toCheck);
+        return correctTableau;
+    }
+
+    /* Computes the faults of the cell (i, j) from the faults of the cells below it */
+    private void validateCell(
+            int i,
+            int j,
+            CorrectCYKTableau<T, N> validateAgainst,
+            Map<Pair<Integer, Integer>, CYKEntryFaultCollection<T, N, Entry>> faultMap) {
+        int l = j - i;
+        List<CYKEntryFault<T, N, Entry>> iilFaults = new ArrayList<>();
+
+        // What the cell (i, i + l) actually contains
+        Set<Entry> actual = get(i, i + l);
+
+        // What the cell (i, i + l) would contain if the current step was executed correctly, based
+        // on the the other, previously computed, fields in the CYKTableau (local correctness).
+        Set<InternalCYKTableauEntry<T, N>> expectedLocal = computeCellWithCyk(i, i + l);
+
+        // What the cell (i, i + l) would contain if it was computed by a correct
+        // CYK-implementation (global correctness)
+        Set<InternalCYKTableauEntry<T, N>> expectedGlobal = validateAgainst.get(i, i + l);
+
+        //   i) Symmetric difference of `expectedLocal` and `actual` yields all mistakes done in
+        // the current step.
+        //  ii) Symmetric difference of (`expectedLocal` intersection `actual) and
+        // `expectedGlobal` yields all errors that are aftereffects of errors made in previous
+        // steps
+        // iii) The set ((`expectedLocal` minus `actual`) minus `expectedGlobal`) union
+        // ((`actual` minus `expectedLocal`) intersection `expectedGlobal`) yields all "ghost
+        // errors": Local errors which actually "fix" a previous mistake by accidentally resulting
+        // in an entry (or absence thereof) which is actually part of the correct global
+        // solution. Note that this set is a subset of i).
+
+        // MISSING_ENTRY, MISSING_ENTRY_GHOST and ABUNDANT_ENTRY_AFTEREFFECT detection:
+        outer:
+        for (InternalCYKTableauEntry<T, N> el : expectedLocal) {
+            boolean isExpectedGlobal =
+                    expectedGlobal.stream()
+                            .anyMatch(e -> e.getNonTerminal().equals(el.getNonTerminal()));
+
+            for (Entry entry : actual) {
+                if (entry.getNonTerminal().equals(el.getNonTerminal())) {
+                    if (!isExpectedGlobal) {
+                        // abundant entry aftereffect!
+                        HashMap<Pair<Integer, Integer>, List<CYKEntryFault<T, N, Entry>>>
+                                causeMap = new HashMap<>();
+                        // This cast is safe, as on the diagonal of the tableau the sets
+                        // `expectedLocal` and `expectedGlobal` are always the same
+                        ChomskyNormalformProduction.TwoNonTerminalsProduction<T, N> production =
+                                (ChomskyNormalformProduction.TwoNonTerminalsProduction<T, N>)
+                                        el.getProduction();
+
+                        List<CYKEntryFault<T, N, Entry>> faults1 =
+                                abundantFaultsFor(
+                                        faultMap,
+                                        new Pair<>(i, el.getK()),
+                                        production.getFirstNonTerminal());
+                        List<CYKEntryFault<T, N, Entry>> faults2 =
+                                abundantFaultsFor(
+                                        faultMap,
+                                        new Pair<>(el.getK() + 1, i + l),
+                                        production.getSecondNonTerminal());
+
+                        if (!faults1.isEmpty()) causeMap.put(new Pair<>(i, el.getK()), faults1);
+                        if (!faults2.isEmpty())
+                            causeMap.put(new Pair<>(el.getK() + 1, i + l), faults2);
+
+                        iilFaults.add(new CYKEntryFault<>(entry, causeMap));
+                    }
 
-                // MISSING_ENTRY_AFTEREFFECT detection
-                for (InternalCYKTableauEntry<T, N> eg : expectedGlobal) {
-                    if (expectedLocal.stream()
-                                    .anyMatch(e -> e.getNonTerminal().equals(eg.getNonTerminal()))
-                            || actual.stream()
-                                    .anyMatch(e -> e.getNonTerminal().equals(eg.getNonTerminal())))
-                        continue;
-
-                    // after effect of missing entry fault detected
-                    HashMap<Pair<Integer, Integer>, List<CYKEntryFault<T, N, Entry>>> causeMap =
-                            new HashMap<>();
-                    // This cast is safe, as on the diagonal of the tableau the sets `expectedLocal`
-                    // and `expectedGlobal` are always the same
-                    ChomskyNormalformProduction.TwoNonTerminalsProduction<T, N> production =
-                            (ChomskyNormalformProduction.TwoNonTerminalsProduction<T, N>)
-                                    eg.getProduction();
-
-                    List<CYKEntryFault<T, N, Entry>> faults1 =
-                            faultMap.get(new Pair<>(i, eg.getK()))
-                                    .getAbundantFaultsFor(production.getFirstNonTerminal());
-                    List<CYKEntryFault<T, N, Entry>> faults2 =
-                            faultMap.get(new Pair<>(eg.getK() + 1, i + l))
-                                    .getAbundantFaultsFor(production.getSecondNonTerminal());
-
-                    if (!faults1.isEmpty()) causeMap.put(new Pair<>(i, eg.getK()), faults1);
-                    if (!faults2.isEmpty()) causeMap.put(new Pair<>(eg.getK() + 1, i + l), faults2);
-
-                    iilFaults.add(new CYKEntryFault<>(eg, causeMap));
+                    continue outer;
                 }
+            }
 
-                // TODO: WRONG_K_VALUE detection
+            // (local) missing entry detected.
 
-                if (!iilFaults.isEmpty())
-                    faultMap.put(new Pair<>(i, i + l), new CYKEntryFaultCollection<>(iilFaults));
+            iilFaults.add(new CYKEntryFault<>(el, !isExpectedGlobal));
+        }
+
+        // ABUNDANT_ENTRY and ABUNDANT_ENTRY_GHOST detection
+        outer:
+        for (Entry entry : actual) {
+            for (InternalCYKTableauEntry<T, N> el : expectedLocal) {
+                if (entry.getNonTerminal().equals(el.getNonTerminal())) continue outer;
             }
+
+            // abundant (local) entry detected
+            boolean isExpectedGlobal =
+                    expectedGlobal.stream()
+                            .anyMatch(e -> e.getNonTerminal().equals(entry.getNonTerminal()));
+
+            iilFaults.add(new CYKEntryFault<>(entry, isExpectedGlobal));
         }
 
-        if (faultMap.isEmpty()) return new Result.Ok<>(validateAgainst);
-        else return new Result.Err<>(faultMap);
+        // MISSING_ENTRY_AFTEREFFECT detection
+        for (InternalCYKTableauEntry<T, N> eg : expectedGlobal) {
+            if (expectedLocal.stream()
+                            .anyMatch(e -> e.getNonTerminal().equals(eg.getNonTerminal()))
+                    || actual.stream()
+                            .anyMatch(e -> e.getNonTerminal().equals(eg.getNonTerminal())))
+                continue;
+
+            // after effect of missing entry fault detected
+            HashMap<Pair<Integer, Integer>, List<CYKEntryFault<T, N, Entry>>> causeMap =
+                    new HashMap<>();
+            // This cast is safe, as on the diagonal of the tableau the sets `expectedLocal` and
+            // `expectedGlobal` are always the same
+            ChomskyNormalformProduction.TwoNonTerminalsProduction<T, N> production =
+                    (ChomskyNormalformProduction.TwoNonTerminalsProduction<T, N>)
+                            eg.getProduction();
+
+            List<CYKEntryFault<T, N, Entry>> faults1 =
+                    abundantFaultsFor(
+                            faultMap, new Pair<>(i, eg.getK()), production.getFirstNonTerminal());
+            List<CYKEntryFault<T, N, Entry>> faults2 =
+                    abundantFaultsFor(
+                            faultMap,
+                            new Pair<>(eg.getK() + 1, i + l),
+                            production.getSecondNonTerminal());
+
+            if (!faults1.isEmpty()) causeMap.put(new Pair<>(i, eg.getK()), faults1);
+            if (!faults2.isEmpty()) causeMap.put(new Pair<>(eg.getK() + 1, i + l), faults2);
+
+            iilFaults.add(new CYKEntryFault<>(eg, causeMap));
+        }
+
+        // TODO: WRONG_K_VALUE detection
+
+        if (!iilFaults.isEmpty())
+            faultMap.put(new Pair<>(i, i + l), new CYKEntryFaultCollection<>(iilFaults));
+        else faultMap.remove(new Pair<>(i, i + l));
+    }
+
+    /* The abundant faults for the non-terminal in the cell, which may have no faults at all */
+    private List<CYKEntryFault<T, N, Entry>> abundantFaultsFor(
+            Map<Pair<Integer, Integer>, CYKEntryFaultCollection<T, N, Entry>> faultMap,
+            Pair<Integer, Integer> cell,
+            N nonTerminal) {
+        CYKEntryFaultCollection<T, N, Entry> faults = faultMap.get(cell);
+        return faults == null ? new ArrayList<>() : faults.getAbundantFaultsFor(nonTerminal);
     }
 
     protected Set<InternalCYKTableauEntry<T, N>> computeCellWithCyk(int i, int j) {
@@ -23,36 +23,26 @@ public class CorrectCYKTableau<T extends Serializable, N extends Serializable>
         return tableau;
     }
 
-    public Set<DerivationTree<T, N>> computeDerivationTrees() {
-        if (!accepts()) return new HashSet<>();
-        return computeDerivationTrees(0, toCheck.size() - 1, grammar.getStartSymbol());
+    /**
+     * Return all derivation trees of the checked word as a shared packed parse forest, which
+     * allows counting, iterating and sampling them without enumerating all of them.
+     *
+     * @return the forest, which is empty iff the word is not accepted
+     */
+    public SharedPackedParseForest<T, N> getParseForest() {
+        return SharedPackedParseForest.of(this);
     }
 
-    private Set<DerivationTree<T, N>> computeDerivationTrees(int i, int j, N nonTerminal) {
+    /**
+     * Return all derivation trees of the checked word. Note that their number may be exponential in
+     * the length of the word for ambiguous grammars, see {@link #getParseForest()} for a compact
+     * representation.
+     *
+     * @return the set of all derivation trees
+     */
+    public Set<DerivationTree<T, N>> computeDerivationTrees() {
         Set<DerivationTree<T, N>> trees = new HashSet<>();
-
-        for (InternalCYKTableauEntry<T, N> entry : get(i, j)) {
-            if (entry.getNonTerminal().equals(nonTerminal)) {
-                ChomskyNormalformProduction<T, N> production = entry.getProduction();
-
-                production.consumeRhs(
-                        t -> {
-                            trees.add(new DerivationTree<>(nonTerminal, new DerivationTree<>(t)));
-                        },
-                        (n1, n2) -> {
-                            int k = entry.getK();
-
-                            for (DerivationTree<T, N> leftTree : computeDerivationTrees(i, k, n1)) {
-                                for (DerivationTree<T, N> rightTree :
-                                        computeDerivationTrees(k + 1, j, n2)) {
-                                    trees.add(
-                                            new DerivationTree<>(nonTerminal, leftTree, rightTree));
-                                }
-                            }
-                        });
-            }
-        }
-
+        for (DerivationTree<T, N> tree : getParseForest()) trees.add(tree);
         return trees;
     }
 
@@ -0,0 +1,260 @@
+package de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk;
+
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.DerivationTree;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * All derivation trees of a word with respect to a grammar in Chomsky normal form, represented as
+ * a shared packed parse forest (SPPF).
+ *
+ * <p>The forest consists of a symbol node for every non-terminal {@code A} and subword {@code
+ * w[i..j]} which occurs in some derivation tree, and, below it, a packed node for every entry of
+ * the CYK tableau which derives {@code w[i..j]} from {@code A}, i.e. for every production and
+ * splitting point. The packed nodes of binary productions point to the symbol nodes of the two
+ * halves, which are shared by all trees containing them. Hence, the size of the forest is
+ * polynomial in the length of the word, although the number of trees may be exponential (e.g.
+ * Catalan for {@code S -> SS | a}).
+ *
+ * <p>The trees are numbered from {@code 0} to {@link #countDerivationTrees()} {@code - 1}, such
+ * that single trees can be constructed from their number without enumerating the others. This is
+ * used by {@link #iterator()}, which creates the trees lazily, and by {@link #sample(Random)}.
+ *
+ * @param <T> The type of the terminals
+ * @param <N> The type of the non-terminals
+ */
+public class SharedPackedParseForest<T extends Serializable, N extends Serializable>
+        implements Iterable<DerivationTree<T, N>> {
+
+    private final SymbolNode<T, N> root;
+    private final int numberOfSymbolNodes;
+    private final int numberOfPackedNodes;
+    private final boolean ambiguous;
+
+    private SharedPackedParseForest(
+            SymbolNode<T, N> root,
+            int numberOfSymbolNodes,
+            int numberOfPackedNodes,
+            boolean ambiguous) {
+        this.root = root;
+        this.numberOfSymbolNodes = numberOfSymbolNodes;
+        this.numberOfPackedNodes = numberOfPackedNodes;
+        this.ambiguous = ambiguous;
+    }
+
+    /**
+     * Creates the forest of all derivation trees of the word of the given tableau. Only the
+     * entries reachable from the start symbol in the topmost cell are visited.
+     *
+     * @param tableau A correctly computed CYK tableau
+     * @param <T> The type of the terminals
+     * @param <N> The type of the non-terminals
+     * @return The forest, which is empty iff the tableau does not accept its word
+     */
+    public static <T extends Serializable, N extends Serializable>
+            SharedPackedParseForest<T, N> of(CorrectCYKTableau<T, N> tableau) {
+        Objects.requireNonNull(tableau);
+        if (!tableau.accepts()) return new SharedPackedParseForest<>(null, 0, 0, false);
+
+        int n = tableau.toCheck.size();
+        HashMap<List<Object>, SymbolNode<T, N>> nodes = new HashMap<>();
+        List<SymbolNode<T, N>> order = new ArrayList<>();
+
+        SymbolNode<T, N> root = new SymbolNode<>(tableau.grammar.getStartSymbol(), 0, n - 1);
+        nodes.put(root.key(), root);
+        order.add(root);
+
+        int numberOfPackedNodes = 0;
+        boolean ambiguous = false;
+        for (int position = 0; position < order.size(); position++) {
+            SymbolNode<T, N> node = order.get(position);
+
+            for (InternalCYKTableauEntry<T, N> entry : tableau.get(node.i, node.j)) {
+                if (!entry.getNonTerminal().equals(node.nonTerminal)) continue;
+
+                PackedNode<T, N> packed = new PackedNode<>(entry.getK());
+                entry.getProduction()
+                        .consumeRhs(
+                                t -> packed.terminal = t,
+                                (b, c) -> {
+                                    packed.left = intern(nodes, order, b, node.i, packed.k);
+                                    packed.right = intern(nodes, order, c, packed.k + 1, node.j);
+                                });
+                node.packed.add(packed);
+            }
+
+            numberOfPackedNodes += node.packed.size();
+            ambiguous |= node.packed.size() > 1;
+        }
+
+        // the children of a node span shorter subwords, so counting by length is bottom-up
+        order.sort(Comparator.comparingInt(node -> node.j - node.i));
+        for (SymbolNode<T, N> node : order) {
+            node.count = BigInteger.ZERO;
+            for (PackedNode<T, N> packed : node.packed) {
+                packed.count =
+                        packed.terminal != null
+                                ? BigInteger.ONE
+                                : packed.left.count.multiply(packed.right.count);
+                node.count = node.count.add(packed.count);
+            }
+        }
+
+        return new SharedPackedParseForest<>(root, order.size(), numberOfPackedNodes, ambiguous);
+    }
+
+    private static <T extends Serializable, N extends Serializable> SymbolNode<T, N> intern(
+            HashMap<List<Object>, SymbolNode<T, N>> nodes,
+            List<SymbolNode<T, N>> order,
+            N nonTerminal,
+            int i,
+            int j) {
+        SymbolNode<T, N> node = new SymbolNode<>(nonTerminal, i, j);
+        SymbolNode<T, N> existing = nodes.putIfAbsent(node.key(), node);
+        if (existing != null) return existing;
+
+        order.add(node);
+        return node;
+    }
+
+    /** Whether the word has no derivation tree at all */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Counts the derivation trees of the word, without constructing them.
+     *
+     * @return The number of derivation trees
+     */
+    public BigInteger countDerivationTrees() {
+        return root == null ? BigInteger.ZERO : root.count;
+    }
+
+    /**
+     * Checks whether the word has more than one derivation tree. As every node of the forest
+     * belongs to some tree, this is the case iff some symbol node has more than one packed node.
+     *
+     * @return {@code true} iff the word is derived ambiguously
+     */
+    public boolean isAmbiguous() {
+        return ambiguous;
+    }
+
+    /** The number of symbol nodes, i.e. of pairs of a non-terminal and a subword */
+    public int getNumberOfSymbolNodes() {
+        return numberOfSymbolNodes;
+    }
+
+    /** The number of packed nodes, i.e. of pairs of a production and a splitting point */
+    public int getNumberOfPackedNodes() {
+        return numberOfPackedNodes;
+    }
+
+    /**
+     * Constructs the derivation tree with the given number.
+     *
+     * @param index The number of the tree
+     * @return The derivation tree
+     * @throws IndexOutOfBoundsException if {@code index} is negative or not smaller than {@link
+     *     #countDerivationTrees()}
+     */
+    public DerivationTree<T, N> getDerivationTree(BigInteger index) {
+        if (index.signum() < 0 || index.compareTo(countDerivationTrees()) >= 0)
+            throw new IndexOutOfBoundsException("Index out of range: " + index);
+        return unrank(root, index);
+    }
+
+    /**
+     * Chooses one of the derivation trees uniformly at random.
+     *
+     * @param random The source of randomness
+     * @return A derivation tree, or {@link Optional#empty()} if the word has none
+     */
+    public Optional<DerivationTree<T, N>> sample(Random random) {
+        if (root == null) return Optional.empty();
+
+        BigInteger count = root.count;
+        BigInteger index;
+        do {
+            index = new BigInteger(count.bitLength(), random);
+        } while (index.compareTo(count) >= 0);
+        return Optional.of(unrank(root, index));
+    }
+
+    /** Iterates over all derivation trees, which are constructed one by one on demand. */
+    @Override
+    public Iterator<DerivationTree<T, N>> iterator() {
+        return new Iterator<DerivationTree<T, N>>() {
+            private BigInteger next = BigInteger.ZERO;
+
+            @Override
+            public boolean hasNext() {
+                return next.compareTo(countDerivationTrees()) < 0;
+            }
+
+            @Override
+            public DerivationTree<T, N> next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                DerivationTree<T, N> tree = unrank(root, next);
+                next = next.add(BigInteger.ONE);
+                return tree;
+            }
+        };
+    }
+
+    /* The trees of a symbol node are numbered by packed node, and those of a packed node of a
+     * binary production by (number of the left tree) * (count of the right node) + (number of the
+     * right tree) */
+    private DerivationTree<T, N> unrank(SymbolNode<T, N> node, BigInteger index) {
+        for (PackedNode<T, N> packed : node.packed) {
+            if (index.compareTo(packed.count) >= 0) {
+                index = index.subtract(packed.count);
+                continue;
+            }
+
+            if (packed.terminal != null) {
+                return new DerivationTree<>(
+                        node.nonTerminal, new DerivationTree<>(packed.terminal));
+            }
+
+            BigInteger[] split = index.divideAndRemainder(packed.right.count);
+            return new DerivationTree<>(
+                    node.nonTerminal,
+                    unrank(packed.left, split[0]),
+                    unrank(packed.right, split[1]));
+        }
+        throw new IllegalStateException("The index exceeds the number of derivation trees");
+    }
+
+    private static class SymbolNode<T extends Serializable, N extends Serializable> {
+        private final N nonTerminal;
+        private final int i;
+        private final int j;
+        private final List<PackedNode<T, N>> packed = new ArrayList<>();
+        private BigInteger count;
+
+        private SymbolNode(N nonTerminal, int i, int j) {
+            this.nonTerminal = nonTerminal;
+            this.i = i;
+            this.j = j;
+        }
+
+        private List<Object> key() {
+            return Arrays.asList(nonTerminal, i, j);
+        }
+    }
+
+    private static class PackedNode<T extends Serializable, N extends Serializable> {
+        private final int k;
+        private T terminal;
+        private SymbolNode<T, N> left;
+        private SymbolNode<T, N> right;
+        private BigInteger count;
+
+        private PackedNode(int k) {
+            this.k = k;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package de.tudortmund.cs.iltis.folalib.grammar.contextfree.earley;
+
+import de.tudortmund.cs.iltis.folalib.grammar.GrammarSymbol;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
+import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * An Earley recognizer which works on arbitrary context-free grammars, such that no conversion to
+ * Chomsky normal form is necessary.
+ *
+ * <p>Two well-known refinements of Earley's algorithm are used:
+ *
+ * <ul>
+ *   <li>Nullable non-terminals are handled as proposed by Aycock and Horspool ("Practical Earley
+ *       Parsing", 2002): when a nullable non-terminal is predicted, the dot of the predicting item
+ *       is advanced over it right away. Hence, no special treatment of completions within the
+ *       same Earley set is needed.
+ *   <li>Right recursion is handled as proposed by Leo ("A general context-free parsing algorithm
+ *       running in linear time on every LR(k) grammar without using lookahead", 1991): chains of
+ *       completions through Earley sets which contain exactly one item waiting for the completed
+ *       non-terminal, with the non-terminal being the last symbol of that item, are replaced by a
+ *       single, memoized transitive item. This makes the recognizer linear on right-recursive
+ *       LR-regular grammars, instead of quadratic.
+ * </ul>
+ *
+ * <p>The grammar is compiled to an int-indexed representation once: every position of a dot in a
+ * production (a dotted rule) is numbered densely, such that an item is a {@code long} consisting
+ * of its dotted rule and its origin.
+ *
+ * @param <T> The type of the terminals
+ */
+public final class EarleyRecognizer<T extends Serializable> implements Serializable {
+
+    private static final int END = Integer.MIN_VALUE;
+    private static final long NONE = -1;
+
+    private HashMap<T, Integer> terminalIndices;
+
+    /* For every dotted rule: the symbol after the dot (a non-terminal n >= 0, a terminal t encoded
+     * as -(t + 1) or END) and its production. The dotted rule r + 1 has the dot moved one further,
+     * unless the symbol of r is END */
+    private int[] nextSymbols;
+    private int[] productionOfRule;
+
+    /* For every production: its left-hand side and its first dotted rule */
+    private int[] lhs;
+    private int[] firstRules;
+
+    /* For every non-terminal: the first dotted rules of its productions */
+    private int[][] predictions;
+    private boolean[] nullable;
+
+    /* The augmented start production S' -> S */
+    private int startProduction;
+
+    /* For serialization */
+    @SuppressWarnings("unused")
+    private EarleyRecognizer() {}
+
+    private EarleyRecognizer(
+            HashMap<T, Integer> terminalIndices,
+            int[] nextSymbols,
+            int[] productionOfRule,
+            int[] lhs,
+            int[] firstRules,
+            int[][] predictions,
+            boolean[] nullable,
+            int startProduction) {
+        this.terminalIndices = terminalIndices;
+        this.nextSymbols = nextSymbols;
+        this.productionOfRule = productionOfRule;
+        this.lhs = lhs;
+        this.firstRules = firstRules;
+        this.predictions = predictions;
+        this.nullable = nullable;
+        this.startProduction = startProduction;
+    }
+
+    /**
+     * Creates a recognizer for the given grammar.
+     *
+     * @param grammar The context-free grammar
+     * @param <T> The type of the terminals
+     * @param <N> The type of the non-terminals
+     * @return The recognizer for {@code grammar}
+     * @throws NullPointerException if {@code grammar} is {@code null}
+     */
+    public static <T extends Serializable, N extends Serializable> EarleyRecognizer<T> compile(
+            ContextFreeGrammar<T, N, ? extends ContextFreeProduction<T, N>> grammar) {
+        Objects.requireNonNull(grammar);
+
+        HashMap<N, Integer> nonTerminalIndices = new HashMap<>();
+        for (N nonTerminal : grammar.getNonTerminals())
+            nonTerminalIndices.put(nonTerminal, nonTerminalIndices.size());
+        HashMap<T, Integer> terminalIndices = new HashMap<>();
+        for (T terminal : grammar.getTerminals())
+            terminalIndices.put(terminal, terminalIndices.size());
+
+        // the right-hand sides of all productions, with the augmented start production last
+        int augmentedStart = nonTerminalIndices.size();
+        List<Integer> lhs = new ArrayList<>();
+        List<int[]> rhs = new ArrayList<>();
+        for (ContextFreeProduction<T, N> production : grammar.getProductions()) {
+            int[] symbols = new int[production.getRhs().size()];
+            for (int i = 0; i < symbols.length; i++) {
+                GrammarSymbol<T, N> symbol = production.getRhs().get(i);
+                symbols[i] =
+                        symbol.match(
+                                t -> -(terminalIndices.get(t) + 1), nonTerminalIndices::get);
+            }
+            lhs.add(nonTerminalIndices.get(production.getLhsNonTerminal()));
+            rhs.add(symbols);
+        }
+        lhs.add(augmentedStart);
+        rhs.add(new int[] {nonTerminalIndices.get(grammar.getStartSymbol())});
+
+        int numberOfRules = 0;
+        for (int[] symbols : rhs) numberOfRules += symbols.length + 1;
+
+        int[] nextSymbols = new int[numberOfRules];
+        int[] productionOfRule = new int[numberOfRules];
+        int[] firstRules = new int[rhs.size()];
+        int[] lhsArray = new int[rhs.size()];
+        List<List<Integer>> predictions = new ArrayList<>();
+        for (int n = 0; n <= augmentedStart; n++) predictions.add(new ArrayList<>());
+
+        int rule = 0;
+        for (int p = 0; p < rhs.size(); p++) {
+            lhsArray[p] = lhs.get(p);
+            firstRules[p] = rule;
+            predictions.get(lhs.get(p)).add(rule);
+            for (int symbol : rhs.get(p)) {
+                nextSymbols[rule] = symbol;
+                productionOfRule[rule++] = p;
+            }
+            nextSymbols[rule] = END;
+            productionOfRule[rule++] = p;
+        }
+
+        int[][] predictionArrays = new int[predictions.size()][];
+        for (int n = 0; n < predictionArrays.length; n++) {
+            predictionArrays[n] = new int[predictions.get(n).size()];
+            for (int i = 0; i < predictionArrays[n].length; i++)
+                predictionArrays[n][i] = predictions.get(n).get(i);
+        }
+
+        return new EarleyRecognizer<>(
+                terminalIndices,
+                nextSymbols,
+                productionOfRule,
+                lhsArray,
+                firstRules,
+                predictionArrays,
+                computeNullable(lhsArray, rhs, augmentedStart + 1),
+                rhs.size() - 1);
+    }
+
+    private static boolean[] computeNullable(int[] lhs, List<int[]> rhs, int numberOfNonTerminals) {
+        boolean[] nullable = new boolean[numberOfNonTerminals];
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int p = 0; p < lhs.length; p++) {
+                if (nullable[lhs[p]]) continue;
+
+                boolean allNullable = true;
+                for (int symbol : rhs.get(p)) allNullable &= symbol >= 0 && nullable[symbol];
+                if (allNullable) {
+                    nullable[lhs[p]] = true;
+                    changed = true;
+                }
+            }
+        }
+        return nullable;
+    }
+
+    /**
+     * Checks whether the grammar derives the given word.
+     *
+     * @param word The word to check
+     * @return {@code true} iff {@code word} is derivable from the start symbol
+     */
+    public boolean accepts(Word<T> word) {
+        int n = word.size();
+        int[] input = new int[n];
+        for (int i = 0; i < n; i++) {
+            Integer terminal = terminalIndices.get(word.get(i));
+            if (terminal == null) return false;
+            input[i] = -(terminal + 1);
+        }
+
+        List<EarleySet> sets = new ArrayList<>();
+        for (int i = 0; i <= n; i++) sets.add(new EarleySet());
+        sets.get(0).add(item(firstRules[startProduction], 0));
+
+        for (int i = 0; i <= n; i++) {
+            EarleySet set = sets.get(i);
+            if (set.size == 0) return false;
+
+            for (int position = 0; position < set.size; position++) {
+                long item = set.items[position];
+                int rule = rule(item);
+                int origin = origin(item);
+                int symbol = nextSymbols[rule];
+
+                if (symbol == END) {
+                    complete(sets, i, lhs[productionOfRule[rule]], origin);
+                } else if (symbol < 0) {
+                    if (i < n && symbol == input[i]) sets.get(i + 1).add(item(rule + 1, origin));
+                } else {
+                    if (!set.predicted.get(symbol)) {
+                        set.predicted.set(symbol);
+                        for (int predicted : predictions[symbol]) set.add(item(predicted, i));
+                    }
+                    if (nullable[symbol]) set.add(item(rule + 1, origin));
+                }
+            }
+        }
+
+        return sets.get(n).contains(item(firstRules[startProduction] + 1, 0));
+    }
+
+    /** Completes the non-terminal {@code nonTerminal} derived from {@code origin} to {@code i} */
+    private void complete(List<EarleySet> sets, int i, int nonTerminal, int origin) {
+        EarleySet set = sets.get(i);
+
+        if (origin < i) {
+            long transitive = transitiveItem(sets, origin, nonTerminal);
+            if (transitive != NONE) {
+                set.add(transitive);
+                return;
+            }
+        }
+
+        List<Long> waiting = sets.get(origin).waiting.get(nonTerminal);
+        if (waiting == null) return;
+        for (int w = 0; w < waiting.size(); w++) {
+            long item = waiting.get(w);
+            set.add(item(rule(item) + 1, origin(item)));
+        }
+    }
+
+    /**
+     * Computes the topmost item of the deterministic reduction path of {@code nonTerminal} in the
+     * (completed) set {@code j}, or {@link #NONE} if there is none.
+     */
+    private long transitiveItem(List<EarleySet> sets, int j, int nonTerminal) {
+        // follow the path iteratively, as it may be as long as the input
+        List<Long> path = new ArrayList<>();
+        List<EarleySet> pathSets = new ArrayList<>();
+        List<Integer> pathNonTerminals = new ArrayList<>();
+
+        long result = NONE;
+        while (true) {
+            EarleySet set = sets.get(j);
+            Long memoized = set.transitive.get(nonTerminal);
+            if (memoized != null) {
+                result = memoized;
+                break;
+            }
+
+            List<Long> waiting = set.waiting.get(nonTerminal);
+            long item = waiting != null && waiting.size() == 1 ? waiting.get(0) : NONE;
+            if (item == NONE || nextSymbols[rule(item) + 1] != END) {
+                set.transitive.put(nonTerminal, NONE);
+                break;
+            }
+
+            // guards against cycles of the path within one set
+            set.transitive.put(nonTerminal, NONE);
+            path.add(item);
+            pathSets.add(set);
+            pathNonTerminals.add(nonTerminal);
+
+            j = origin(item);
+            nonTerminal = lhs[productionOfRule[rule(item)]];
+        }
+
+        for (int k = path.size() - 1; k >= 0; k--) {
+            if (result == NONE) result = item(rule(path.get(k)) + 1, origin(path.get(k)));
+            pathSets.get(k).transitive.put(pathNonTerminals.get(k), result);
+        }
+        return result;
+    }
+
+    private static long item(int rule, int origin) {
+        return ((long) rule << 32) | origin;
+    }
+
+    private static int rule(long item) {
+        return (int) (item >>> 32);
+    }
+
+    private static int origin(long item) {
+        return (int) item;
+    }
+
+    /** An Earley set, i.e. the items whose dot is at the same position of the input */
+    private class EarleySet {
+        private long[] items = new long[8];
+        private int size = 0;
+        private final HashSet<Long> contained = new HashSet<>();
+
+        /* For each non-terminal A, the items with the dot before A */
+        private final HashMap<Integer, List<Long>> waiting = new HashMap<>();
+
+        /* The memoized transitive items of Leo's optimization */
+        private final HashMap<Integer, Long> transitive = new HashMap<>();
+
+        private final BitSet predicted = new BitSet();
+
+        private void add(long item) {
+            if (!contained.add(item)) return;
+
+            if (size == items.length) items = Arrays.copyOf(items, 2 * size);
+            items[size++] = item;
+
+            int symbol = nextSymbols[rule(item)];
+            if (symbol >= 0) waiting.computeIfAbsent(symbol, k -> new ArrayList<>()).add(item);
+        }
+
+        private boolean contains(long item) {
+            return contained.contains(item);
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package de.tudortmund.cs.iltis.folalib.grammar.contextfree.ll;
+
+import de.tudortmund.cs.iltis.folalib.grammar.GrammarSymbol;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.DerivationTree;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.SetWithEpsilon;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ll.fault.LL1ConflictFault;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ll.fault.LL1ConflictFaultCollection;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ll.fault.LL1ConflictFaultReason;
+import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * The predictive parse table of a context-free grammar, which determines for a non-terminal and the
+ * next terminal of the input (the lookahead) the production to expand the non-terminal with.
+ *
+ * <p>The production {@code A -> a} is entered for every lookahead in {@code FIRST(a)} and, if
+ * {@code a} derives the empty word, for every lookahead in {@code FOLLOW(A)}, where the end of the
+ * input is a lookahead of its own. The grammar is LL(1) iff no entry receives more than one
+ * production. Otherwise, the table is still computed, but only its conflicts are of interest.
+ *
+ * <p>For LL(1) grammars, {@link #accepts(Word)} and {@link #parse(Word)} decide membership in time
+ * linear in the length of the word, using an explicit stack of int-encoded symbols.
+ *
+ * @param <T> The type of the terminals
+ * @param <N> The type of the non-terminals
+ */
+public final class LL1ParseTable<T extends Serializable, N extends Serializable>
+        implements Serializable {
+
+    private static final int NO_PRODUCTION = -1;
+
+    private HashMap<T, Integer> terminalIndices;
+    private HashMap<N, Integer> nonTerminalIndices;
+    private ArrayList<ContextFreeProduction<T, N>> productions;
+
+    /* The right-hand sides: a non-terminal n >= 0 or a terminal t encoded as -(t + 1) */
+    private int[][] rhs;
+
+    /* For every non-terminal and terminal the production to apply; the last column is the end of
+     * the input */
+    private int[][] table;
+    private int startSymbol;
+
+    private LL1ConflictFaultCollection<T, N> conflicts;
+
+    /* For serialization */
+    @SuppressWarnings("unused")
+    private LL1ParseTable() {}
+
+    private LL1ParseTable(
+            HashMap<T, Integer> terminalIndices,
+            HashMap<N, Integer> nonTerminalIndices,
+            ArrayList<ContextFreeProduction<T, N>> productions,
+            int[][] rhs,
+            int[][] table,
+            int startSymbol,
+            LL1ConflictFaultCollection<T, N> conflicts) {
+        this.terminalIndices = terminalIndices;
+        this.nonTerminalIndices = nonTerminalIndices;
+        this.productions = productions;
+        this.rhs = rhs;
+        this.table = table;
+        this.startSymbol = startSymbol;
+        this.conflicts = conflicts;
+    }
+
+    /**
+     * Computes the parse table of the given grammar, using its {@link ContextFreeGrammar#analysis()
+     * analysis}. Conflicts do not abort the computation but are collected, see {@link
+     * #getConflicts()}.
+     *
+     * @param grammar The context-free grammar
+     * @param <T> The type of the terminals
+     * @param <N> The type of the non-terminals
+     * @return The parse table of {@code grammar}
+     * @throws NullPointerException if {@code grammar} is {@code null}
+     */
+    public static <T extends Serializable, N extends Serializable> LL1ParseTable<T, N> of(
+            ContextFreeGrammar<T, N, ? extends ContextFreeProduction<T, N>> grammar) {
+        Objects.requireNonNull(grammar);
+
+        HashMap<T, Integer> terminalIndices = new HashMap<>();
+        List<T> terminals = new ArrayList<>();
+        for (T terminal : grammar.getTerminals()) {
+            terminalIndices.put(terminal, terminals.size());
+            terminals.add(terminal);
+        }
+        HashMap<N, Integer> nonTerminalIndices = new HashMap<>();
+        List<N> nonTerminals = new ArrayList<>();
+        for (N nonTerminal : grammar.getNonTerminals()) {
+            nonTerminalIndices.put(nonTerminal, nonTerminals.size());
+            nonTerminals.add(nonTerminal);
+        }
+
+        ArrayList<ContextFreeProduction<T, N>> productions =
+                new ArrayList<>(grammar.getProductions());
+        int[] lhs = new int[productions.size()];
+        int[][] rhs = new int[productions.size()][];
+        for (int p = 0; p < productions.size(); p++) {
+            ContextFreeProduction<T, N> production = productions.get(p);
+            lhs[p] = nonTerminalIndices.get(production.getLhsNonTerminal());
+            rhs[p] = new int[production.getRhs().size()];
+            for (int i = 0; i < rhs[p].length; i++) {
+                GrammarSymbol<T, N> symbol = production.getRhs().get(i);
+                rhs[p][i] =
+                        symbol.match(t -> -(terminalIndices.get(t) + 1), nonTerminalIndices::get);
+            }
+        }
+
+        Map<N, SetWithEpsilon<T>> firstSets = grammar.analysis().getFirstSets();
+        Map<N, SetWithEpsilon<T>> followSets = grammar.analysis().getFollowSets();
+
+        // for every entry, all productions predicted by it; the end of the input is the last column
+        int end = terminals.size();
+        List<List<List<Integer>>> entries = new ArrayList<>();
+        for (int n = 0; n < nonTerminals.size(); n++) {
+            List<List<Integer>> row = new ArrayList<>();
+            for (int t = 0; t <= end; t++) row.add(new ArrayList<>());
+            entries.add(row);
+        }
+        // remembers which entries were filled via FOLLOW, which turns a conflict into FIRST/FOLLOW
+        List<BitSet> byFollow = new ArrayList<>();
+        for (int n = 0; n < nonTerminals.size(); n++) byFollow.add(new BitSet());
+
+        for (int p = 0; p < productions.size(); p++) {
+            List<List<Integer>> row = entries.get(lhs[p]);
+
+            BitSet lookaheads = new BitSet();
+            boolean nullable = true;
+            for (int symbol : rhs[p]) {
+                if (symbol < 0) {
+                    lookaheads.set(-symbol - 1);
+                    nullable = false;
+                    break;
+                }
+                SetWithEpsilon<T> first = firstSets.get(nonTerminals.get(symbol));
+                for (T terminal : first) lookaheads.set(terminalIndices.get(terminal));
+                if (!first.containsEpsilon()) {
+                    nullable = false;
+                    break;
+                }
+            }
+            if (nullable) {
+                SetWithEpsilon<T> follow = followSets.get(nonTerminals.get(lhs[p]));
+                BitSet followLookaheads = new BitSet();
+                for (T terminal : follow) followLookaheads.set(terminalIndices.get(terminal));
+                if (follow.containsEpsilon()) followLookaheads.set(end);
+
+                byFollow.get(lhs[p]).or(followLookaheads);
+                lookaheads.or(followLookaheads);
+            }
+
+            for (int t = lookaheads.nextSetBit(0); t >= 0; t = lookaheads.nextSetBit(t + 1))
+                row.get(t).add(p);
+        }
+
+        int[][] table = new int[nonTerminals.size()][end + 1];
+        List<LL1ConflictFault<T, N>> faults = new ArrayList<>();
+        for (int n = 0; n < nonTerminals.size(); n++) {
+            for (int t = 0; t <= end; t++) {
+                List<Integer> predicted = entries.get(n).get(t);
+                table[n][t] = predicted.isEmpty() ? NO_PRODUCTION : predicted.get(0);
+                if (predicted.size() <= 1) continue;
+
+                List<ContextFreeProduction<T, N>> conflicting = new ArrayList<>();
+                for (int p : predicted) conflicting.add(productions.get(p));
+                faults.add(
+                        new LL1ConflictFault<>(
+                                byFollow.get(n).get(t)
+                                        ? LL1ConflictFaultReason.FIRST_FOLLOW_CONFLICT
+                                        : LL1ConflictFaultReason.FIRST_FIRST_CONFLICT,
+                                nonTerminals.get(n),
+                                t == end ? null : terminals.get(t),
+                                conflicting));
+            }
+        }
+
+        return new LL1ParseTable<>(
+                terminalIndices,
+                nonTerminalIndices,
+                productions,
+                rhs,
+                table,
+                nonTerminalIndices.get(grammar.getStartSymbol()),
+                new LL1ConflictFaultCollection<>(faults));
+    }
+
+    /**
+     * Checks a necessary condition for the given grammar to be LL(1) in a single pass over its
+     * productions: no production is directly left-recursive and no two productions of the same
+     * non-terminal start with the same terminal. Unlike {@link #of}, no FIRST or FOLLOW sets are
+     * computed, so this is a cheap way to rule out most grammars which are not LL(1).
+     *
+     * @param grammar The context-free grammar
+     * @param <T> The type of the terminals
+     * @param <N> The type of the non-terminals
+     * @return {@code false} if {@code grammar} is not LL(1), {@code true} if it may be
+     * @throws NullPointerException if {@code grammar} is {@code null}
+     */
+    public static <T extends Serializable, N extends Serializable> boolean mayBeLL1(
+            ContextFreeGrammar<T, N, ? extends ContextFreeProduction<T, N>> grammar) {
+        Objects.requireNonNull(grammar);
+
+        HashMap<N, Set<T>> leadingTerminals = new HashMap<>();
+        for (ContextFreeProduction<T, N> production : grammar.getProductions()) {
+            if (production.getRhs().size() == 0) continue;
+
+            N lhs = production.getLhsNonTerminal();
+            boolean admissible =
+                    production
+                            .getRhs()
+                            .get(0)
+                            .match(
+                                    terminal -> {
+                                        if (!leadingTerminals.containsKey(lhs))
+                                            leadingTerminals.put(lhs, new HashSet<>());
+                                        return leadingTerminals.get(lhs).add(terminal);
+                                    },
+                                    nonTerminal -> !nonTerminal.equals(lhs));
+            if (!admissible) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the grammar is LL(1), i.e. whether no entry of the table is ambiguous.
+     *
+     * @return {@code true} iff there are no conflicts
+     */
+    public boolean isLL1() {
+        return !conflicts.containsAnyFault();
+    }
+
+    /**
+     * Returns all entries of the table which contain more than one production.
+     *
+     * @return The conflicts, which are empty iff the grammar is LL(1)
+     */
+    public LL1ConflictFaultCollection<T, N> getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * Looks up the production to expand {@code nonTerminal} with if the next terminal of the input
+     * is {@code lookahead}. In case of a conflict, one of the conflicting productions is returned.
+     *
+     * @param nonTerminal The non-terminal to expand
+     * @param lookahead The next terminal of the input
+     * @return The production, or {@link Optional#empty()} if the input can not be derived
+     */
+    public Optional<ContextFreeProduction<T, N>> getProduction(N nonTerminal, T lookahead) {
+        Integer n = nonTerminalIndices.get(nonTerminal);
+        Integer t = terminalIndices.get(lookahead);
+        if (n == null || t == null) return Optional.empty();
+        return toProduction(table[n][t]);
+    }
+
+    /**
+     * Looks up the production to expand {@code nonTerminal} with at the end of the input. In case
+     * of a conflict, one of the conflicting productions is returned.
+     *
+     * @param nonTerminal The non-terminal to expand
+     * @return The production, or {@link Optional#empty()} if {@code nonTerminal} must not derive
+     *     the empty word here
+     */
+    public Optional<ContextFreeProduction<T, N>> getProductionAtEnd(N nonTerminal) {
+        Integer n = nonTerminalIndices.get(nonTerminal);
+        if (n == null) return Optional.empty();
+        return toProduction(table[n][terminalIndices.size()]);
+    }
+
+    private Optional<ContextFreeProduction<T, N>> toProduction(int production) {
+        return production == NO_PRODUCTION
+                ? Optional.empty()
+                : Optional.of(productions.get(production));
+    }
+
+    /**
+     * Checks whether the grammar derives the given word.
+     *
+     * @param word The word to check
+     * @return {@code true} iff {@code word} is derivable from the start symbol
+     * @throws IllegalStateException if the grammar is not LL(1)
+     */
+    public boolean accepts(Word<T> word) {
+        return leftmostDerivation(word) != null;
+    }
+
+    /**
+     * Computes the derivation tree of the given word. As the grammar is LL(1), there is at most
+     * one.
+     *
+     * @param word The word to parse
+     * @return The derivation tree, or {@link Optional#empty()} if {@code word} is not derivable
+     * @throws IllegalStateException if the grammar is not LL(1)
+     */
+    public Optional<DerivationTree<T, N>> parse(Word<T> word) {
+        int[] derivation = leftmostDerivation(word);
+        if (derivation == null) return Optional.empty();
+        return Optional.of(buildTree(derivation, word));
+    }
+
+    /* Runs the predictive parser and returns the productions of the leftmost derivation, or null
+     * if the word is rejected */
+    private int[] leftmostDerivation(Word<T> word) {
+        if (!isLL1())
+            throw new IllegalStateException("The grammar is not LL(1): " + conflicts.getFaults());
+
+        int n = word.size();
+        int end = terminalIndices.size();
+        int[] input = new int[n];
+        for (int i = 0; i < n; i++) {
+            Integer terminal = terminalIndices.get(word.get(i));
+            if (terminal == null) return null;
+            input[i] = terminal;
+        }
+
+        int[] derivation = new int[8];
+        int length = 0;
+        int[] stack = new int[8];
+        int top = 0;
+        stack[top++] = startSymbol;
+
+        int position = 0;
+        while (top > 0) {
+            int symbol = stack[--top];
+            int lookahead = position < n ? input[position] : end;
+
+            if (symbol < 0) {
+                if (-symbol - 1 != lookahead) return null;
+                position++;
+                continue;
+            }
+
+            int production = table[symbol][lookahead];
+            if (production == NO_PRODUCTION) return null;
+
+            if (length == derivation.length) derivation = Arrays.copyOf(derivation, 2 * length);
+            derivation[length++] = production;
+
+            int[] symbols = rhs[production];
+            if (top + symbols.length > stack.length)
+                stack = Arrays.copyOf(stack, Math.max(2 * stack.length, top + symbols.length));
+            for (int i = symbols.length - 1; i >= 0; i--) stack[top++] = symbols[i];
+        }
+
+        return position == n ? Arrays.copyOf(derivation, length) : null;
+    }
+
+    /* Builds the tree of a leftmost derivation iteratively, as it may be as deep as the word is
+     * long */
+    private DerivationTree<T, N> buildTree(int[] derivation, Word<T> word) {
+        Deque<Frame<T, N>> frames = new ArrayDeque<>();
+        frames.push(new Frame<>(derivation[0], rhs[derivation[0]].length));
+        int next = 1;
+        int position = 0;
+
+        while (true) {
+            Frame<T, N> frame = frames.peek();
+            int[] symbols = rhs[frame.production];
+
+            if (frame.filled == symbols.length) {
+                frames.pop();
+                DerivationTree<T, N> tree =
+                        new DerivationTree<>(
+                                productions.get(frame.production).getLhsNonTerminal(),
+                                frame.children);
+                if (frames.isEmpty()) return tree;
+
+                Frame<T, N> parent = frames.peek();
+                parent.children[parent.filled++] = tree;
+            } else if (symbols[frame.filled] < 0) {
+                frame.children[frame.filled++] = new DerivationTree<>(word.get(position++));
+            } else {
+                int production = derivation[next++];
+                frames.push(new Frame<>(production, rhs[production].length));
+            }
+        }
+    }
+
+    /** A node of the derivation tree whose children are being constructed */
+    private static class Frame<T extends Serializable, N extends Serializable> {
+        private final int production;
+        private final DerivationTree<T, N>[] children;
+        private int filled = 0;
+
+        @SuppressWarnings("unchecked")
+        private Frame(int production, int size) {
+            this.production = production;
+            this.children = (DerivationTree<T, N>[]) new DerivationTree[size];
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package de.tudortmund.cs.iltis.folalib.grammar.contextfree.ll.fault;
+
+import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
+import de.tudortmund.cs.iltis.utils.collections.Fault;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * A conflict in the LL(1) parse table of a grammar: for a non-terminal and a lookahead, more than
+ * one production is applicable.
+ *
+ * @param <T> The type of the terminals
+ * @param <N> The type of the non-terminals
+ */
+public class LL1ConflictFault<T extends Serializable, N extends Serializable>
+        extends Fault<LL1ConflictFaultReason> {
+    private N nonTerminal;
+    private T lookahead;
+    private ArrayList<ContextFreeProduction<T, N>> productions;
+
+    /**
+     * Creates a new conflict.
+     *
+     * @param reason The kind of the conflict
+     * @param nonTerminal The non-terminal to be expanded
+     * @param lookahead The next terminal of the input, or {@code null} for the end of the input
+     * @param productions The productions which are applicable
+     */
+    public LL1ConflictFault(
+            LL1ConflictFaultReason reason,
+            N nonTerminal,
+            T lookahead,
+            List<? extends ContextFreeProduction<T, N>> productions) {
+        super(reason);
+
+        this.nonTerminal = nonTerminal;
+        this.lookahead = lookahead;
+        this.productions = new ArrayList<>(productions);
+    }
+
+    /* For serialization */
+    @SuppressWarnings("unused")
+    private LL1ConflictFault() {}
+
+    public N getNonTerminal() {
+        return nonTerminal;
+    }
+
+    /**
+     * Gets the lookahead for which the productions conflict.
+     *
+     * @return The terminal, or {@link Optional#empty()} for the end of the input
+     */
+    public Optional<T> getLookahead() {
+        return Optional.ofNullable(lookahead);
+    }
+
+    public List<ContextFreeProduction<T, N>> getProductions() {
+        return Collections.unmodifiableList(productions);
+    }
+
+    @Override
+    protected Object clone() {
+        return new LL1ConflictFault<>(getReason(), nonTerminal, lookahead, productions);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        if (!super.equals(o)) return false;
+        LL1ConflictFault<?, ?> that = (LL1ConflictFault<?, ?>) o;
+        return Objects.equals(nonTerminal, that.nonTerminal)
+                && Objects.equals(lookahead, that.lookahead)
+                && Objects.equals(productions, that.productions);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), nonTerminal, lookahead, productions);
+    }
+
+    @Override
+    public String toString() {
+        return "LL1ConflictFault [reason = "
+                + getReason()
+                + ", nonTerminal = "
+                + nonTerminal
+                + ", lookahead = "
+                + (lookahead == null ? "end of input" : lookahead)
+                + ", productions = "
+                + productions
+                + "]";
+    }
+}
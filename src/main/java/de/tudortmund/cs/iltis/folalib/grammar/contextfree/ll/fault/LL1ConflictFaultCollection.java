@@ -0,0 +1,46 @@
+package de.tudortmund.cs.iltis.folalib.grammar.contextfree.ll.fault;
+
+import de.tudortmund.cs.iltis.utils.collections.FaultCollection;
+import java.io.Serializable;
+import java.util.List;
+
+public class LL1ConflictFaultCollection<T extends Serializable, N extends Serializable>
+        extends FaultCollection<LL1ConflictFaultReason, LL1ConflictFault<T, N>> {
+
+    /** Constructs an empty {@link LL1ConflictFaultCollection}, i.e. the grammar is LL(1) */
+    public LL1ConflictFaultCollection() {
+        super();
+    }
+
+    /**
+     * Constructs a {@link LL1ConflictFaultCollection} containing the given faults
+     *
+     * @param faults The conflicts of the LL(1) parse table
+     */
+    public LL1ConflictFaultCollection(List<LL1ConflictFault<T, N>> faults) {
+        super(faults);
+    }
+
+    /**
+     * Gets all conflicts between productions starting with the same terminal
+     *
+     * @return The list of conflicts
+     */
+    public List<LL1ConflictFault<T, N>> getFirstFirstConflicts() {
+        return getFaults(LL1ConflictFaultReason.FIRST_FIRST_CONFLICT);
+    }
+
+    /**
+     * Gets all conflicts involving a production which derives the empty word
+     *
+     * @return The list of conflicts
+     */
+    public List<LL1ConflictFault<T, N>> getFirstFollowConflicts() {
+        return getFaults(LL1ConflictFaultReason.FIRST_FOLLOW_CONFLICT);
+    }
+
+    @Override
+    public FaultCollection<LL1ConflictFaultReason, LL1ConflictFault<T, N>> clone() {
+        return new LL1ConflictFaultCollection<>(faults);
+    }
+}
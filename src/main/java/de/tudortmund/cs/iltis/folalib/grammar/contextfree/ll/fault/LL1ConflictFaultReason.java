@@ -0,0 +1,17 @@
+package de.tudortmund.cs.iltis.folalib.grammar.contextfree.ll.fault;
+
+/** Enum modelling the different reasons why a grammar is not LL(1) */
+public enum LL1ConflictFaultReason {
+    /**
+     * Two or more productions of the same non-terminal can start with the same terminal, i.e. the
+     * terminal is contained in the {@code FIRST} sets of their right-hand sides.
+     */
+    FIRST_FIRST_CONFLICT,
+
+    /**
+     * A production of a non-terminal {@code A} whose right-hand side can derive the empty word
+     * competes with another production of {@code A} for a terminal (or the end of the input) in
+     * {@code FOLLOW(A)}.
+     */
+    FIRST_FOLLOW_CONFLICT,
+}
@@ -0,0 +1,188 @@
+package de.tudortmund.cs.iltis.folalib.grammar.contextfree.lr;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Computes the LALR(1) lookaheads of the reductions of an {@link LR0Automaton} as proposed by
+ * DeRemer and Pennello ("Efficient Computation of LALR(1) Look-Ahead Sets", 1982).
+ *
+ * <p>The lookaheads are computed for the non-terminal transitions {@code (p, A)} of the automaton
+ * instead of for every item, using two relations:
+ *
+ * <ul>
+ *   <li>{@code (p, A) reads (r, C)} iff {@code p} goes to {@code r} on {@code A} and {@code C} is
+ *       nullable. The terminals which can be shifted directly after {@code (p, A)} are propagated
+ *       backwards along this relation, giving the {@code Read} sets.
+ *   <li>{@code (p, A) includes (p', B)} iff {@code B -> aAb} with a nullable {@code b} and {@code
+ *       p'} goes to {@code p} on {@code a}. The {@code Read} sets are propagated backwards along
+ *       this relation, giving the {@code Follow} sets.
+ * </ul>
+ *
+ * <p>Both propagations are done by the digraph algorithm, which handles the strongly connected
+ * components of a relation in a single pass. The lookaheads of a reduction {@code A -> w} in a
+ * state {@code q} are then the union of the {@code Follow} sets of all {@code (p, A)} such that
+ * {@code p} goes to {@code q} on {@code w}.
+ */
+final class LALR1Lookaheads {
+
+    private LALR1Lookaheads() {}
+
+    /**
+     * Computes the lookaheads of every reduction of {@code automaton}.
+     *
+     * @param automaton The LR(0) automaton
+     * @param nullable For every non-terminal, whether it is nullable
+     * @return For every state and every production in {@link LR0Automaton#reductions}, the set of
+     *     lookaheads, with the end of the input being the index after the last terminal
+     */
+    static <T extends Serializable, N extends Serializable> BitSet[][] compute(
+            LR0Automaton<T, N> automaton, boolean[] nullable) {
+        int numberOfStates = automaton.getNumberOfStates();
+        int end = automaton.terminals.size();
+
+        // number the non-terminal transitions
+        int[][] transitions = new int[numberOfStates][];
+        List<Integer> sources = new ArrayList<>();
+        List<Integer> labels = new ArrayList<>();
+        for (int p = 0; p < numberOfStates; p++) {
+            transitions[p] = new int[automaton.gotos[p].length];
+            for (int a = 0; a < transitions[p].length; a++) {
+                if (automaton.gotos[p][a] == LR0Automaton.NONE) {
+                    transitions[p][a] = LR0Automaton.NONE;
+                } else {
+                    transitions[p][a] = sources.size();
+                    sources.add(p);
+                    labels.add(a);
+                }
+            }
+        }
+        int numberOfTransitions = sources.size();
+
+        // the terminals shifted directly after a transition, and the reads relation
+        BitSet[] read = new BitSet[numberOfTransitions];
+        List<List<Integer>> reads = new ArrayList<>();
+        for (int x = 0; x < numberOfTransitions; x++) {
+            int r = automaton.gotos[sources.get(x)][labels.get(x)];
+
+            read[x] = new BitSet();
+            for (int t = 0; t < end; t++)
+                if (automaton.shifts[r][t] != LR0Automaton.NONE) read[x].set(t);
+            for (int production : automaton.reductions[r])
+                if (production == automaton.startProduction) read[x].set(end);
+
+            List<Integer> successors = new ArrayList<>();
+            for (int c = 0; c < nullable.length; c++)
+                if (nullable[c] && transitions[r][c] != LR0Automaton.NONE)
+                    successors.add(transitions[r][c]);
+            reads.add(successors);
+        }
+        digraph(reads, read);
+
+        // for every production: the smallest i such that rhs[i..] is nullable
+        int[] nullableSuffix = new int[automaton.rhs.length];
+        for (int q = 0; q < automaton.rhs.length; q++) {
+            int[] symbols = automaton.rhs[q];
+            int i = symbols.length;
+            while (i > 0 && symbols[i - 1] >= 0 && nullable[symbols[i - 1]]) i--;
+            nullableSuffix[q] = i;
+        }
+
+        // the includes and lookback relations, found by running every production from every
+        // transition of its left-hand side
+        List<List<Integer>> includes = new ArrayList<>();
+        for (int x = 0; x < numberOfTransitions; x++) includes.add(new ArrayList<>());
+        HashMap<Long, List<Integer>> lookback = new HashMap<>();
+        List<List<Integer>> productionsOf = new ArrayList<>();
+        for (int n = 0; n < transitions[0].length; n++) productionsOf.add(new ArrayList<>());
+        for (int q = 0; q < automaton.rhs.length; q++) productionsOf.get(automaton.lhs[q]).add(q);
+
+        for (int x = 0; x < numberOfTransitions; x++) {
+            for (int q : productionsOf.get(labels.get(x))) {
+                int[] symbols = automaton.rhs[q];
+                int state = sources.get(x);
+                for (int i = 0; i < symbols.length; i++) {
+                    if (symbols[i] >= 0 && i + 1 >= nullableSuffix[q])
+                        includes.get(transitions[state][symbols[i]]).add(x);
+                    state = automaton.successor(state, symbols[i]);
+                }
+                lookback.computeIfAbsent(key(state, q), k -> new ArrayList<>()).add(x);
+            }
+        }
+        // the members of a component of reads share their set, but may differ in Follow
+        BitSet[] follow = new BitSet[numberOfTransitions];
+        for (int x = 0; x < numberOfTransitions; x++) {
+            follow[x] = new BitSet();
+            follow[x].or(read[x]);
+        }
+        digraph(includes, follow);
+
+        BitSet[][] lookaheads = new BitSet[numberOfStates][];
+        for (int state = 0; state < numberOfStates; state++) {
+            int[] reductions = automaton.reductions[state];
+            lookaheads[state] = new BitSet[reductions.length];
+            for (int i = 0; i < reductions.length; i++) {
+                BitSet set = new BitSet();
+                if (reductions[i] == automaton.startProduction) set.set(end);
+                for (int x : lookback.getOrDefault(key(state, reductions[i]), new ArrayList<>()))
+                    set.or(follow[x]);
+                lookaheads[state][i] = set;
+            }
+        }
+        return lookaheads;
+    }
+
+    private static long key(int state, int production) {
+        return ((long) state << 32) | production;
+    }
+
+    /**
+     * Replaces every {@code sets[x]} by the union of the {@code sets[y]} of all {@code y}
+     * reachable from {@code x} in {@code relation}, which is traversed iteratively. All members of
+     * a strongly connected component end up sharing the same set.
+     */
+    private static void digraph(List<List<Integer>> relation, BitSet[] sets) {
+        int n = sets.length;
+        int[] depth = new int[n];
+        int[] low = new int[n];
+        int[] next = new int[n];
+        Deque<Integer> stack = new ArrayDeque<>();
+        Deque<Integer> calls = new ArrayDeque<>();
+
+        for (int start = 0; start < n; start++) {
+            if (low[start] != 0) continue;
+
+            calls.push(start);
+            stack.push(start);
+            depth[start] = low[start] = stack.size();
+            while (!calls.isEmpty()) {
+                int x = calls.peek();
+                List<Integer> successors = relation.get(x);
+
+                if (next[x] < successors.size()) {
+                    int y = successors.get(next[x]);
+                    if (low[y] == 0) {
+                        calls.push(y);
+                        stack.push(y);
+                        depth[y] = low[y] = stack.size();
+                        continue;
+                    }
+                    low[x] = Math.min(low[x], low[y]);
+                    sets[x].or(sets[y]);
+                    next[x]++;
+                    continue;
+                }
+
+                calls.pop();
+                if (low[x] == depth[x]) {
+                    int y;
+                    do {
+                        y = stack.pop();
+                        low[y] = Integer.MAX_VALUE;
+                        sets[y] = sets[x];
+                    } while (y != x);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package de.tudortmund.cs.iltis.folalib.grammar.contextfree.lr;
+
+import de.tudortmund.cs.iltis.folalib.grammar.GrammarSymbol;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
+import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * The canonical collection of LR(0) item sets of a grammar, augmented by the production {@code S'
+ * -> S}, together with its transitions.
+ *
+ * <p>Every position of a dot in a production (a dotted rule, or item) is numbered densely, such
+ * that a state is identified by the sorted list of the items of its kernel.
+ */
+final class LR0Automaton<T extends Serializable, N extends Serializable> {
+
+    static final int END = Integer.MIN_VALUE;
+    static final int NONE = -1;
+
+    final List<T> terminals = new ArrayList<>();
+    final HashMap<T, Integer> terminalIndices = new HashMap<>();
+    final List<N> nonTerminals = new ArrayList<>();
+    final ArrayList<ContextFreeProduction<T, N>> productions;
+
+    /* The productions, with the augmented start production S' -> S last: a non-terminal n >= 0 or
+     * a terminal t encoded as -(t + 1). S' is the non-terminal nonTerminals.size() */
+    final int[] lhs;
+    final int[][] rhs;
+    final int startProduction;
+
+    /* For every item: the symbol after the dot or END, and its production */
+    private final int[] nextSymbols;
+    private final int[] productionOfItem;
+    private final int[] firstItems;
+
+    /* For every state: the target on every terminal and on every non-terminal, or NONE, and the
+     * productions whose complete item it contains */
+    final int[][] shifts;
+    final int[][] gotos;
+    final int[][] reductions;
+
+    LR0Automaton(ContextFreeGrammar<T, N, ? extends ContextFreeProduction<T, N>> grammar) {
+        for (T terminal : grammar.getTerminals()) {
+            terminalIndices.put(terminal, terminals.size());
+            terminals.add(terminal);
+        }
+        HashMap<N, Integer> nonTerminalIndices = new HashMap<>();
+        for (N nonTerminal : grammar.getNonTerminals()) {
+            nonTerminalIndices.put(nonTerminal, nonTerminals.size());
+            nonTerminals.add(nonTerminal);
+        }
+
+        productions = new ArrayList<>(grammar.getProductions());
+        startProduction = productions.size();
+        lhs = new int[startProduction + 1];
+        rhs = new int[startProduction + 1][];
+        for (int p = 0; p < startProduction; p++) {
+            ContextFreeProduction<T, N> production = productions.get(p);
+            lhs[p] = nonTerminalIndices.get(production.getLhsNonTerminal());
+            rhs[p] = new int[production.getRhs().size()];
+            for (int i = 0; i < rhs[p].length; i++) {
+                GrammarSymbol<T, N> symbol = production.getRhs().get(i);
+                rhs[p][i] =
+                        symbol.match(t -> -(terminalIndices.get(t) + 1), nonTerminalIndices::get);
+            }
+        }
+        lhs[startProduction] = nonTerminals.size();
+        rhs[startProduction] = new int[] {nonTerminalIndices.get(grammar.getStartSymbol())};
+
+        int numberOfItems = 0;
+        for (int[] symbols : rhs) numberOfItems += symbols.length + 1;
+        nextSymbols = new int[numberOfItems];
+        productionOfItem = new int[numberOfItems];
+        firstItems = new int[rhs.length];
+        List<List<Integer>> predictions = new ArrayList<>();
+        for (int n = 0; n <= nonTerminals.size(); n++) predictions.add(new ArrayList<>());
+
+        int item = 0;
+        for (int p = 0; p < rhs.length; p++) {
+            firstItems[p] = item;
+            predictions.get(lhs[p]).add(item);
+            for (int symbol : rhs[p]) {
+                nextSymbols[item] = symbol;
+                productionOfItem[item++] = p;
+            }
+            nextSymbols[item] = END;
+            productionOfItem[item++] = p;
+        }
+
+        List<int[]> shifts = new ArrayList<>();
+        List<int[]> gotos = new ArrayList<>();
+        List<int[]> reductions = new ArrayList<>();
+        HashMap<List<Integer>, Integer> states = new HashMap<>();
+        List<List<Integer>> kernels = new ArrayList<>();
+
+        List<Integer> startKernel = Collections.singletonList(firstItems[startProduction]);
+        states.put(startKernel, 0);
+        kernels.add(startKernel);
+
+        for (int state = 0; state < kernels.size(); state++) {
+            int[] stateShifts = new int[terminals.size()];
+            int[] stateGotos = new int[nonTerminals.size() + 1];
+            Arrays.fill(stateShifts, NONE);
+            Arrays.fill(stateGotos, NONE);
+            List<Integer> stateReductions = new ArrayList<>();
+
+            // the kernels of the successors, by the symbol after the dot
+            LinkedHashMap<Integer, List<Integer>> successors = new LinkedHashMap<>();
+            BitSet closure = closure(kernels.get(state), predictions);
+            for (int i = closure.nextSetBit(0); i >= 0; i = closure.nextSetBit(i + 1)) {
+                int symbol = nextSymbols[i];
+                if (symbol == END) stateReductions.add(productionOfItem[i]);
+                else successors.computeIfAbsent(symbol, k -> new ArrayList<>()).add(i + 1);
+            }
+
+            for (Map.Entry<Integer, List<Integer>> successor : successors.entrySet()) {
+                Integer target = states.get(successor.getValue());
+                if (target == null) {
+                    target = kernels.size();
+                    states.put(successor.getValue(), target);
+                    kernels.add(successor.getValue());
+                }
+
+                int symbol = successor.getKey();
+                if (symbol < 0) stateShifts[-symbol - 1] = target;
+                else stateGotos[symbol] = target;
+            }
+
+            shifts.add(stateShifts);
+            gotos.add(stateGotos);
+            int[] reductionArray = new int[stateReductions.size()];
+            for (int i = 0; i < reductionArray.length; i++)
+                reductionArray[i] = stateReductions.get(i);
+            reductions.add(reductionArray);
+        }
+
+        this.shifts = shifts.toArray(new int[0][]);
+        this.gotos = gotos.toArray(new int[0][]);
+        this.reductions = reductions.toArray(new int[0][]);
+    }
+
+    private BitSet closure(List<Integer> kernel, List<List<Integer>> predictions) {
+        BitSet items = new BitSet();
+        BitSet predicted = new BitSet();
+        Deque<Integer> worklist = new ArrayDeque<>(kernel);
+        for (int item : kernel) items.set(item);
+
+        while (!worklist.isEmpty()) {
+            int symbol = nextSymbols[worklist.pop()];
+            if (symbol < 0 || predicted.get(symbol)) continue;
+
+            predicted.set(symbol);
+            for (int item : predictions.get(symbol)) {
+                if (items.get(item)) continue;
+                items.set(item);
+                worklist.push(item);
+            }
+        }
+        return items;
+    }
+
+    int getNumberOfStates() {
+        return shifts.length;
+    }
+
+    /** The target of the transition of {@code state} on the encoded {@code symbol}, or NONE */
+    int successor(int state, int symbol) {
+        return symbol < 0 ? shifts[state][-symbol - 1] : gotos[state][symbol];
+    }
+}
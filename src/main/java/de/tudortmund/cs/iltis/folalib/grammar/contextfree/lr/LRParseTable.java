@@ -0,0 +1,301 @@
+package de.tudortmund.cs.iltis.folalib.grammar.contextfree.lr;
+
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.DerivationTree;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.SetWithEpsilon;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.lr.fault.LRConflictFault;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.lr.fault.LRConflictFaultCollection;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.lr.fault.LRConflictFaultReason;
+import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * The action and goto tables of a shift-reduce parser for a context-free grammar, built on the
+ * LR(0) automaton of the grammar. Which lookaheads a reduction is entered for depends on the
+ * {@link LRParseTableType}.
+ *
+ * <p>Both tables are plain int arrays indexed by state and terminal (resp. non-terminal). An
+ * action is {@code 0} for an error, {@code s + 1} for shifting and going to state {@code s}, and
+ * {@code -(p + 1)} for reducing production {@code p}. Reducing the augmented start production
+ * {@code S' -> S} at the end of the input means accepting.
+ *
+ * <p>If some entry of the action table receives more than one action, the conflicts are collected
+ * and the table is not deterministic. Otherwise, {@link #accepts(Word)} and {@link #parse(Word)}
+ * decide membership in time linear in the length of the word.
+ *
+ * @param <T> The type of the terminals
+ * @param <N> The type of the non-terminals
+ */
+public final class LRParseTable<T extends Serializable, N extends Serializable>
+        implements Serializable {
+
+    private static final int ERROR = 0;
+
+    private LRParseTableType type;
+    private HashMap<T, Integer> terminalIndices;
+    private ArrayList<ContextFreeProduction<T, N>> productions;
+
+    /* For every production, the augmented start production last: its lhs and length */
+    private int[] lhs;
+    private int[] rhsLengths;
+    private int startProduction;
+
+    /* For every state: the action for every terminal, the last column is the end of the input,
+     * and the target for every non-terminal */
+    private int[][] actions;
+    private int[][] gotos;
+
+    private LRConflictFaultCollection<T, N> conflicts;
+
+    /* For serialization */
+    @SuppressWarnings("unused")
+    private LRParseTable() {}
+
+    private LRParseTable(
+            LRParseTableType type,
+            HashMap<T, Integer> terminalIndices,
+            ArrayList<ContextFreeProduction<T, N>> productions,
+            int[] lhs,
+            int[] rhsLengths,
+            int startProduction,
+            int[][] actions,
+            int[][] gotos,
+            LRConflictFaultCollection<T, N> conflicts) {
+        this.type = type;
+        this.terminalIndices = terminalIndices;
+        this.productions = productions;
+        this.lhs = lhs;
+        this.rhsLengths = rhsLengths;
+        this.startProduction = startProduction;
+        this.actions = actions;
+        this.gotos = gotos;
+        this.conflicts = conflicts;
+    }
+
+    /**
+     * Computes the parse table of the given grammar. Conflicts do not abort the computation but
+     * are collected, see {@link #getConflicts()}. In case of a conflict, the table prefers
+     * shifting, and reducing the production which comes first.
+     *
+     * @param grammar The context-free grammar
+     * @param type How the lookaheads of reductions are chosen
+     * @param <T> The type of the terminals
+     * @param <N> The type of the non-terminals
+     * @return The parse table of {@code grammar}
+     * @throws NullPointerException if {@code grammar} or {@code type} is {@code null}
+     */
+    public static <T extends Serializable, N extends Serializable> LRParseTable<T, N> of(
+            ContextFreeGrammar<T, N, ? extends ContextFreeProduction<T, N>> grammar,
+            LRParseTableType type) {
+        Objects.requireNonNull(grammar);
+        Objects.requireNonNull(type);
+
+        LR0Automaton<T, N> automaton = new LR0Automaton<>(grammar);
+        BitSet[][] lookaheads = computeLookaheads(grammar, automaton, type);
+
+        int end = automaton.terminals.size();
+        int numberOfStates = automaton.getNumberOfStates();
+        int[][] actions = new int[numberOfStates][end + 1];
+        List<LRConflictFault<T, N>> faults = new ArrayList<>();
+
+        for (int state = 0; state < numberOfStates; state++) {
+            int[] reductions = automaton.reductions[state];
+
+            for (int t = 0; t <= end; t++) {
+                int shift = t < end ? automaton.shifts[state][t] : LR0Automaton.NONE;
+                List<Integer> reduced = new ArrayList<>();
+                for (int i = 0; i < reductions.length; i++)
+                    if (lookaheads[state][i].get(t)) reduced.add(reductions[i]);
+
+                if (shift != LR0Automaton.NONE) actions[state][t] = shift + 1;
+                else if (!reduced.isEmpty()) actions[state][t] = -(reduced.get(0) + 1);
+
+                boolean shiftReduce = shift != LR0Automaton.NONE && !reduced.isEmpty();
+                if (!shiftReduce && reduced.size() <= 1) continue;
+
+                List<ContextFreeProduction<T, N>> conflicting = new ArrayList<>();
+                for (int p : reduced)
+                    if (p != automaton.startProduction)
+                        conflicting.add(automaton.productions.get(p));
+                faults.add(
+                        new LRConflictFault<>(
+                                shiftReduce
+                                        ? LRConflictFaultReason.SHIFT_REDUCE_CONFLICT
+                                        : LRConflictFaultReason.REDUCE_REDUCE_CONFLICT,
+                                state,
+                                t == end ? null : automaton.terminals.get(t),
+                                conflicting,
+                                reduced.contains(automaton.startProduction)));
+            }
+        }
+
+        int[] rhsLengths = new int[automaton.rhs.length];
+        for (int p = 0; p < rhsLengths.length; p++) rhsLengths[p] = automaton.rhs[p].length;
+
+        return new LRParseTable<>(
+                type,
+                automaton.terminalIndices,
+                automaton.productions,
+                automaton.lhs,
+                rhsLengths,
+                automaton.startProduction,
+                actions,
+                automaton.gotos,
+                new LRConflictFaultCollection<>(faults));
+    }
+
+    /* For every state and each of its reductions, the lookaheads to reduce on */
+    private static <T extends Serializable, N extends Serializable> BitSet[][] computeLookaheads(
+            ContextFreeGrammar<T, N, ? extends ContextFreeProduction<T, N>> grammar,
+            LR0Automaton<T, N> automaton,
+            LRParseTableType type) {
+        int end = automaton.terminals.size();
+        int numberOfNonTerminals = automaton.nonTerminals.size();
+
+        if (type == LRParseTableType.LALR1) {
+            Set<N> nullableNonTerminals = grammar.analysis().getNullableNonTerminals();
+            boolean[] nullable = new boolean[numberOfNonTerminals + 1];
+            for (int n = 0; n < numberOfNonTerminals; n++)
+                nullable[n] = nullableNonTerminals.contains(automaton.nonTerminals.get(n));
+            return LALR1Lookaheads.compute(automaton, nullable);
+        }
+
+        // for every non-terminal, the lookaheads of all of its productions
+        BitSet[] byNonTerminal = new BitSet[numberOfNonTerminals + 1];
+        Map<N, SetWithEpsilon<T>> followSets =
+                type == LRParseTableType.SLR1 ? grammar.followSets() : null;
+        for (int n = 0; n < numberOfNonTerminals; n++) {
+            byNonTerminal[n] = new BitSet();
+            if (followSets == null) {
+                byNonTerminal[n].set(0, end + 1);
+                continue;
+            }
+
+            SetWithEpsilon<T> follow = followSets.get(automaton.nonTerminals.get(n));
+            for (T terminal : follow) byNonTerminal[n].set(automaton.terminalIndices.get(terminal));
+            if (follow.containsEpsilon()) byNonTerminal[n].set(end);
+        }
+        byNonTerminal[numberOfNonTerminals] = new BitSet();
+        byNonTerminal[numberOfNonTerminals].set(end);
+
+        BitSet[][] lookaheads = new BitSet[automaton.getNumberOfStates()][];
+        for (int state = 0; state < lookaheads.length; state++) {
+            int[] reductions = automaton.reductions[state];
+            lookaheads[state] = new BitSet[reductions.length];
+            for (int i = 0; i < reductions.length; i++)
+                lookaheads[state][i] = byNonTerminal[automaton.lhs[reductions[i]]];
+        }
+        return lookaheads;
+    }
+
+    public LRParseTableType getType() {
+        return type;
+    }
+
+    /**
+     * Checks whether no entry of the action table has more than one action, i.e. whether the
+     * grammar is LR(0), SLR(1) or LALR(1), depending on {@link #getType()}.
+     *
+     * @return {@code true} iff there are no conflicts
+     */
+    public boolean isDeterministic() {
+        return !conflicts.containsAnyFault();
+    }
+
+    /**
+     * Returns all entries of the action table which have more than one action.
+     *
+     * @return The conflicts, which are empty iff the table is deterministic
+     */
+    public LRConflictFaultCollection<T, N> getConflicts() {
+        return conflicts;
+    }
+
+    /** The number of states of the underlying LR(0) automaton */
+    public int getNumberOfStates() {
+        return actions.length;
+    }
+
+    /**
+     * Checks whether the grammar derives the given word.
+     *
+     * @param word The word to check
+     * @return {@code true} iff {@code word} is derivable from the start symbol
+     * @throws IllegalStateException if the table is not deterministic
+     */
+    public boolean accepts(Word<T> word) {
+        return run(word, null);
+    }
+
+    /**
+     * Computes the derivation tree of the given word. As the table is deterministic, there is at
+     * most one.
+     *
+     * @param word The word to parse
+     * @return The derivation tree, or {@link Optional#empty()} if {@code word} is not derivable
+     * @throws IllegalStateException if the table is not deterministic
+     */
+    public Optional<DerivationTree<T, N>> parse(Word<T> word) {
+        List<DerivationTree<T, N>> trees = new ArrayList<>();
+        if (!run(word, trees)) return Optional.empty();
+        return Optional.of(trees.get(0));
+    }
+
+    /* Runs the shift-reduce parser. If trees is not null, it is used as the stack of subtrees,
+     * which holds the derivation tree of the word if it is accepted */
+    private boolean run(Word<T> word, List<DerivationTree<T, N>> trees) {
+        if (!isDeterministic())
+            throw new IllegalStateException(
+                    "The " + type + " parse table is not deterministic: " + conflicts.getFaults());
+
+        int n = word.size();
+        int end = terminalIndices.size();
+        int[] input = new int[n];
+        for (int i = 0; i < n; i++) {
+            Integer terminal = terminalIndices.get(word.get(i));
+            if (terminal == null) return false;
+            input[i] = terminal;
+        }
+
+        int[] stack = new int[8];
+        int top = 0;
+        stack[top++] = 0;
+
+        int position = 0;
+        while (true) {
+            int action = actions[stack[top - 1]][position < n ? input[position] : end];
+            if (action == ERROR) return false;
+
+            if (action > 0) {
+                if (top == stack.length) stack = Arrays.copyOf(stack, 2 * top);
+                stack[top++] = action - 1;
+                if (trees != null) trees.add(new DerivationTree<>(word.get(position)));
+                position++;
+                continue;
+            }
+
+            int production = -action - 1;
+            if (production == startProduction) return true;
+
+            int length = rhsLengths[production];
+            top -= length;
+            if (trees != null) {
+                List<DerivationTree<T, N>> children =
+                        trees.subList(trees.size() - length, trees.size());
+                @SuppressWarnings("unchecked")
+                DerivationTree<T, N>[] childArray =
+                        children.toArray((DerivationTree<T, N>[]) new DerivationTree[length]);
+                children.clear();
+                trees.add(
+                        new DerivationTree<>(
+                                productions.get(production).getLhsNonTerminal(), childArray));
+            }
+
+            if (top == stack.length) stack = Arrays.copyOf(stack, 2 * top);
+            stack[top] = gotos[stack[top - 1]][lhs[production]];
+            top++;
+        }
+    }
+}
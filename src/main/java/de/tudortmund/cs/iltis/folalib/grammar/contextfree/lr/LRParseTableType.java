@@ -0,0 +1,17 @@
+package de.tudortmund.cs.iltis.folalib.grammar.contextfree.lr;
+
+/** This enum encodes how the lookaheads of the reductions of an {@link LRParseTable} are chosen */
+public enum LRParseTableType {
+
+    /** Every production is reduced regardless of the lookahead, i.e. the grammar has to be LR(0) */
+    LR0,
+
+    /** A production {@code A -> w} is reduced if the lookahead is in {@code FOLLOW(A)} */
+    SLR1,
+
+    /**
+     * A production is reduced if the lookahead may follow it in the state of the LR(0) automaton
+     * it is reduced in, as computed by the method of DeRemer and Pennello
+     */
+    LALR1,
+}
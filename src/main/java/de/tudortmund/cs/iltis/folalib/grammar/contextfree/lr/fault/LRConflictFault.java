@@ -0,0 +1,112 @@
+package de.tudortmund.cs.iltis.folalib.grammar.contextfree.lr.fault;
+
+import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
+import de.tudortmund.cs.iltis.utils.collections.Fault;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * A conflict in an LR parse table: for a state of the LR(0) automaton and a lookahead, more than
+ * one action is possible.
+ *
+ * @param <T> The type of the terminals
+ * @param <N> The type of the non-terminals
+ */
+public class LRConflictFault<T extends Serializable, N extends Serializable>
+        extends Fault<LRConflictFaultReason> {
+    private int state;
+    private T lookahead;
+    private ArrayList<ContextFreeProduction<T, N>> productions;
+    private boolean accepting;
+
+    /**
+     * Creates a new conflict.
+     *
+     * @param reason The kind of the conflict
+     * @param state The number of the state of the LR(0) automaton
+     * @param lookahead The next terminal of the input, or {@code null} for the end of the input
+     * @param productions The productions which may be reduced
+     * @param accepting Whether accepting the input is one of the conflicting actions
+     */
+    public LRConflictFault(
+            LRConflictFaultReason reason,
+            int state,
+            T lookahead,
+            List<? extends ContextFreeProduction<T, N>> productions,
+            boolean accepting) {
+        super(reason);
+
+        this.state = state;
+        this.lookahead = lookahead;
+        this.productions = new ArrayList<>(productions);
+        this.accepting = accepting;
+    }
+
+    /* For serialization */
+    @SuppressWarnings("unused")
+    private LRConflictFault() {}
+
+    public int getState() {
+        return state;
+    }
+
+    /**
+     * Gets the lookahead for which the actions conflict.
+     *
+     * @return The terminal, or {@link Optional#empty()} for the end of the input
+     */
+    public Optional<T> getLookahead() {
+        return Optional.ofNullable(lookahead);
+    }
+
+    /**
+     * Gets the productions which may be reduced. The augmented start production is not among
+     * them, see {@link #isAccepting()}.
+     *
+     * @return The conflicting productions
+     */
+    public List<ContextFreeProduction<T, N>> getProductions() {
+        return Collections.unmodifiableList(productions);
+    }
+
+    /** Whether the input may be accepted as well, i.e. the augmented start production reduced */
+    public boolean isAccepting() {
+        return accepting;
+    }
+
+    @Override
+    protected Object clone() {
+        return new LRConflictFault<>(getReason(), state, lookahead, productions, accepting);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        if (!super.equals(o)) return false;
+        LRConflictFault<?, ?> that = (LRConflictFault<?, ?>) o;
+        return state == that.state
+                && accepting == that.accepting
+                && Objects.equals(lookahead, that.lookahead)
+                && Objects.equals(productions, that.productions);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), state, lookahead, productions, accepting);
+    }
+
+    @Override
+    public String toString() {
+        return "LRConflictFault [reason = "
+                + getReason()
+                + ", state = "
+                + state
+                + ", lookahead = "
+                + (lookahead == null ? "end of input" : lookahead)
+                + ", productions = "
+                + productions
+                + (accepting ? ", accepting" : "")
+                + "]";
+    }
+}
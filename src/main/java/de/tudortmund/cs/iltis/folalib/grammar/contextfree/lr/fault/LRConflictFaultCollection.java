@@ -0,0 +1,46 @@
+package de.tudortmund.cs.iltis.folalib.grammar.contextfree.lr.fault;
+
+import de.tudortmund.cs.iltis.utils.collections.FaultCollection;
+import java.io.Serializable;
+import java.util.List;
+
+public class LRConflictFaultCollection<T extends Serializable, N extends Serializable>
+        extends FaultCollection<LRConflictFaultReason, LRConflictFault<T, N>> {
+
+    /** Constructs an empty {@link LRConflictFaultCollection}, i.e. the table is deterministic */
+    public LRConflictFaultCollection() {
+        super();
+    }
+
+    /**
+     * Constructs a {@link LRConflictFaultCollection} containing the given faults
+     *
+     * @param faults The conflicts of the LR parse table
+     */
+    public LRConflictFaultCollection(List<LRConflictFault<T, N>> faults) {
+        super(faults);
+    }
+
+    /**
+     * Gets all conflicts between shifting and reducing
+     *
+     * @return The list of conflicts
+     */
+    public List<LRConflictFault<T, N>> getShiftReduceConflicts() {
+        return getFaults(LRConflictFaultReason.SHIFT_REDUCE_CONFLICT);
+    }
+
+    /**
+     * Gets all conflicts between reductions of different productions
+     *
+     * @return The list of conflicts
+     */
+    public List<LRConflictFault<T, N>> getReduceReduceConflicts() {
+        return getFaults(LRConflictFaultReason.REDUCE_REDUCE_CONFLICT);
+    }
+
+    @Override
+    public FaultCollection<LRConflictFaultReason, LRConflictFault<T, N>> clone() {
+        return new LRConflictFaultCollection<>(faults);
+    }
+}
@@ -0,0 +1,15 @@
+package de.tudortmund.cs.iltis.folalib.grammar.contextfree.lr.fault;
+
+/** Enum modelling the different reasons why an LR parse table is not deterministic */
+public enum LRConflictFaultReason {
+    /**
+     * In some state, the next terminal may be shifted, but some production may be reduced as well.
+     */
+    SHIFT_REDUCE_CONFLICT,
+
+    /**
+     * In some state, more than one production may be reduced for the same lookahead. Accepting the
+     * input at its end counts as a reduction of the augmented start production here.
+     */
+    REDUCE_REDUCE_CONFLICT,
+}
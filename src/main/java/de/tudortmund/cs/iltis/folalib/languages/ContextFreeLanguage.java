@@ -5,7 +5,12 @@ import de.tudortmund.cs.iltis.folalib.automata.pushdown.transformation.CFGToPDAT
 import de.tudortmund.cs.iltis.folalib.automata.pushdown.transformation.PDAToCFGTransformation;
 import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
 import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ToChomskyNormalFormTransform;
-import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.CorrectCYKTableau;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.CYKRecognizer;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.ValiantRecognizer;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.earley.EarleyRecognizer;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ll.LL1ParseTable;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.lr.LRParseTable;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.lr.LRParseTableType;
 import de.tudortmund.cs.iltis.folalib.grammar.production.ChomskyNormalformProduction;
 import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
 import de.tudortmund.cs.iltis.folalib.io.writer.cfg.JSONStyleGrammarWriter;
@@ -15,6 +20,9 @@ import de.tudortmund.cs.iltis.folalib.transform.TransformGraph;
 import de.tudortmund.cs.iltis.folalib.util.ToIntegersHomomorphism;
 import de.tudortmund.cs.iltis.utils.function.SerializableFunction;
 import java.io.Serializable;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Objects;
 
 /**
  * Represents a ContextFreeLanguage abstractly and independently of a concrete representation such
@@ -24,6 +32,15 @@ import java.io.Serializable;
  */
 public class ContextFreeLanguage<S extends Serializable> implements Language<S> {
     private TransformGraph graph;
+    private volatile ContextFreeRecognitionStrategy recognitionStrategy =
+            ContextFreeRecognitionStrategy.AUTOMATIC;
+
+    /* What AUTOMATIC resolves to, determined on the first membership check: LL1 or LALR1 for a
+     * deterministic parser, EARLEY if words are checked by a general recognizer */
+    private transient volatile ContextFreeRecognitionStrategy automaticStrategy;
+
+    /* Whether a CNF has been computed, which then stays cached */
+    private transient volatile boolean cnfKnown;
 
     /**
      * Create a new ContextFreeLanguage based on the given PDA
@@ -93,11 +110,91 @@ public class ContextFreeLanguage<S extends Serializable> implements Language<S>
         return graph.get(new Labels.CNFLabel<>());
     }
 
+    /**
+     * Return a recognizer for the CNF of this language, which is used to decide the membership of
+     * non-empty words. It is computed on first use and cached afterwards.
+     *
+     * @return the recognizer for {@link #getCNF()}
+     */
+    public CYKRecognizer<S> getCYKRecognizer() {
+        return graph.get(new Labels.CYKRecognizerLabel<>());
+    }
+
+    /**
+     * Return a recognizer for the CNF of this language based on boolean matrix multiplication,
+     * which is used to decide the membership of long words. It is computed on first use and cached
+     * afterwards.
+     *
+     * @return the recognizer for {@link #getCNF()}
+     */
+    public ValiantRecognizer<S> getValiantRecognizer() {
+        return graph.get(new Labels.ValiantRecognizerLabel<>());
+    }
+
+    /**
+     * Return an Earley recognizer for the CFG of this language, which decides membership without
+     * a conversion to Chomsky normal form. It is computed on first use and cached afterwards.
+     *
+     * @return the recognizer for {@link #getCFG()}
+     */
+    public EarleyRecognizer<S> getEarleyRecognizer() {
+        return graph.get(new Labels.EarleyRecognizerLabel<>());
+    }
+
+    /**
+     * Return the LL(1) parse table of the CFG of this language. It is computed on first use and
+     * cached afterwards. Whether the CFG is LL(1) can be checked by {@link
+     * LL1ParseTable#isLL1()}, the reasons if not by {@link LL1ParseTable#getConflicts()}.
+     *
+     * @return the parse table of {@link #getCFG()}
+     */
+    public LL1ParseTable<S, String> getLL1ParseTable() {
+        return graph.get(new Labels.LL1ParseTableLabel<>());
+    }
+
+    /**
+     * Return the LALR(1) parse table of the CFG of this language. It is computed on first use and
+     * cached afterwards. Whether the CFG is LALR(1) can be checked by {@link
+     * LRParseTable#isDeterministic()}.
+     *
+     * @return the LALR(1) parse table of {@link #getCFG()}
+     */
+    public LRParseTable<S, String> getLALR1ParseTable() {
+        return graph.get(new Labels.LALR1ParseTableLabel<>());
+    }
+
+    public ContextFreeRecognitionStrategy getRecognitionStrategy() {
+        return recognitionStrategy;
+    }
+
+    /**
+     * Set the algorithm used by {@link #contains(Word)} and {@link #containsAll(Collection)} to
+     * decide the membership of non-empty words. By default, {@link
+     * ContextFreeRecognitionStrategy#AUTOMATIC} is used.
+     *
+     * @param recognitionStrategy the algorithm to use
+     */
+    public void setRecognitionStrategy(ContextFreeRecognitionStrategy recognitionStrategy) {
+        this.recognitionStrategy = Objects.requireNonNull(recognitionStrategy);
+    }
+
     /* Initialise the internal transformation graph */
     private void setupGraph() {
         graph.registerTransform(new Labels.CFGLabel<>(), new Labels.PDALabel<>(), new CFGToPDA<>());
         graph.registerTransform(new Labels.CFGLabel<>(), new Labels.CNFLabel<>(), new CFGToCNF<>());
         graph.registerTransform(new Labels.PDALabel<>(), new Labels.CFGLabel<>(), new PDAToCFG<>());
+        graph.registerTransform(
+                new Labels.CNFLabel<>(), new Labels.CYKRecognizerLabel<>(), new CNFToCYK<>());
+        graph.registerTransform(
+                new Labels.CNFLabel<>(),
+                new Labels.ValiantRecognizerLabel<>(),
+                new CNFToValiant<>());
+        graph.registerTransform(
+                new Labels.CFGLabel<>(), new Labels.EarleyRecognizerLabel<>(), new CFGToEarley<>());
+        graph.registerTransform(
+                new Labels.CFGLabel<>(), new Labels.LL1ParseTableLabel<>(), new CFGToLL1<>());
+        graph.registerTransform(
+                new Labels.CFGLabel<>(), new Labels.LALR1ParseTableLabel<>(), new CFGToLALR1<>());
     }
 
     /* For serialization */
@@ -117,9 +214,104 @@ public class ContextFreeLanguage<S extends Serializable> implements Language<S>
     @Override
     public boolean contains(Word<S> word) {
         if (word.isEmpty()) return getCFG().containsEmptyWord();
-        ContextFreeGrammar<S, String, ChomskyNormalformProduction<S, String>> cnf =
-                (ContextFreeGrammar<S, String, ChomskyNormalformProduction<S, String>>) getCNF();
-        return CorrectCYKTableau.compute(cnf, word).accepts();
+        switch (resolveRecognitionStrategy(word)) {
+            case VALIANT:
+                return getValiantRecognizer().accepts(word);
+            case EARLEY:
+                return getEarleyRecognizer().accepts(word);
+            case LL1:
+                return getLL1ParseTable().accepts(word);
+            case LALR1:
+                return getLALR1ParseTable().accepts(word);
+            default:
+                return getCYKRecognizer().accepts(word);
+        }
+    }
+
+    /**
+     * Checks the given words using the same recognizers, which are only looked up once. Whether
+     * the empty word is contained is computed at most once as well.
+     */
+    @Override
+    public BitSet containsAll(Collection<Word<S>> words) {
+        CYKRecognizer<S> cykRecognizer = null;
+        ValiantRecognizer<S> valiantRecognizer = null;
+        EarleyRecognizer<S> earleyRecognizer = null;
+        LL1ParseTable<S, String> ll1ParseTable = null;
+        LRParseTable<S, String> lalr1ParseTable = null;
+        Boolean containsEmptyWord = null;
+
+        BitSet result = new BitSet(words.size());
+        int index = 0;
+        for (Word<S> word : words) {
+            boolean contained;
+            if (word.isEmpty()) {
+                if (containsEmptyWord == null) containsEmptyWord = getCFG().containsEmptyWord();
+                contained = containsEmptyWord;
+            } else {
+                switch (resolveRecognitionStrategy(word)) {
+                    case VALIANT:
+                        if (valiantRecognizer == null) valiantRecognizer = getValiantRecognizer();
+                        contained = valiantRecognizer.accepts(word);
+                        break;
+                    case EARLEY:
+                        if (earleyRecognizer == null) earleyRecognizer = getEarleyRecognizer();
+                        contained = earleyRecognizer.accepts(word);
+                        break;
+                    case LL1:
+                        if (ll1ParseTable == null) ll1ParseTable = getLL1ParseTable();
+                        contained = ll1ParseTable.accepts(word);
+                        break;
+                    case LALR1:
+                        if (lalr1ParseTable == null) lalr1ParseTable = getLALR1ParseTable();
+                        contained = lalr1ParseTable.accepts(word);
+                        break;
+                    default:
+                        if (cykRecognizer == null) cykRecognizer = getCYKRecognizer();
+                        contained = cykRecognizer.accepts(word);
+                }
+            }
+
+            if (contained) result.set(index);
+            index++;
+        }
+        return result;
+    }
+
+    /* Resolves AUTOMATIC to the algorithm which is used for the given word */
+    private ContextFreeRecognitionStrategy resolveRecognitionStrategy(Word<S> word) {
+        ContextFreeRecognitionStrategy strategy = recognitionStrategy;
+        if (strategy != ContextFreeRecognitionStrategy.AUTOMATIC) return strategy;
+
+        strategy = automaticStrategy;
+        if (strategy == null) {
+            strategy = resolveAutomaticStrategy();
+            automaticStrategy = strategy;
+        }
+        if (strategy != ContextFreeRecognitionStrategy.EARLEY) return strategy;
+
+        // the conversion to CNF is avoided as long as nobody else needed it
+        if (!cnfKnown) {
+            if (!graph.hasCached(new Labels.CNFLabel<>()))
+                return ContextFreeRecognitionStrategy.EARLEY;
+            cnfKnown = true;
+        }
+        if (word.size() >= ValiantRecognizer.RECOMMENDED_MINIMUM_LENGTH)
+            return ContextFreeRecognitionStrategy.VALIANT;
+        return ContextFreeRecognitionStrategy.CYK;
+    }
+
+    /* The LL(1) table is only built if the CFG passes a quick check or the table has been requested
+     * before, the LALR(1) table is never built for this purpose */
+    private ContextFreeRecognitionStrategy resolveAutomaticStrategy() {
+        boolean tryLL1 =
+                graph.hasCached(new Labels.LL1ParseTableLabel<>())
+                        || LL1ParseTable.mayBeLL1(getCFG());
+        if (tryLL1 && getLL1ParseTable().isLL1()) return ContextFreeRecognitionStrategy.LL1;
+        if (graph.hasCached(new Labels.LALR1ParseTableLabel<>())
+                && getLALR1ParseTable().isDeterministic())
+            return ContextFreeRecognitionStrategy.LALR1;
+        return ContextFreeRecognitionStrategy.EARLEY;
     }
 
     /**
@@ -191,4 +383,68 @@ public class ContextFreeLanguage<S extends Serializable> implements Language<S>
             return ToChomskyNormalFormTransform.convertToCnf(cfg, supplier);
         }
     }
+
+    public static class CNFToCYK<S extends Serializable>
+            implements SerializableFunction<
+                    ContextFreeGrammar<
+                            S, String, ? extends ChomskyNormalformProduction<S, String>>,
+                    CYKRecognizer<S>> {
+
+        @Override
+        public CYKRecognizer<S> apply(
+                ContextFreeGrammar<S, String, ? extends ChomskyNormalformProduction<S, String>>
+                        cnf) {
+            return CYKRecognizer.compile(cnf);
+        }
+    }
+
+    public static class CNFToValiant<S extends Serializable>
+            implements SerializableFunction<
+                    ContextFreeGrammar<
+                            S, String, ? extends ChomskyNormalformProduction<S, String>>,
+                    ValiantRecognizer<S>> {
+
+        @Override
+        public ValiantRecognizer<S> apply(
+                ContextFreeGrammar<S, String, ? extends ChomskyNormalformProduction<S, String>>
+                        cnf) {
+            return ValiantRecognizer.compile(cnf);
+        }
+    }
+
+    public static class CFGToEarley<S extends Serializable>
+            implements SerializableFunction<
+                    ContextFreeGrammar<S, String, ? extends ContextFreeProduction<S, String>>,
+                    EarleyRecognizer<S>> {
+
+        @Override
+        public EarleyRecognizer<S> apply(
+                ContextFreeGrammar<S, String, ? extends ContextFreeProduction<S, String>> cfg) {
+            return EarleyRecognizer.compile(cfg);
+        }
+    }
+
+    public static class CFGToLL1<S extends Serializable>
+            implements SerializableFunction<
+                    ContextFreeGrammar<S, String, ? extends ContextFreeProduction<S, String>>,
+                    LL1ParseTable<S, String>> {
+
+        @Override
+        public LL1ParseTable<S, String> apply(
+                ContextFreeGrammar<S, String, ? extends ContextFreeProduction<S, String>> cfg) {
+            return LL1ParseTable.of(cfg);
+        }
+    }
+
+    public static class CFGToLALR1<S extends Serializable>
+            implements SerializableFunction<
+                    ContextFreeGrammar<S, String, ? extends ContextFreeProduction<S, String>>,
+                    LRParseTable<S, String>> {
+
+        @Override
+        public LRParseTable<S, String> apply(
+                ContextFreeGrammar<S, String, ? extends ContextFreeProduction<S, String>> cfg) {
+            return LRParseTable.of(cfg, LRParseTableType.LALR1);
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package de.tudortmund.cs.iltis.folalib.languages;
+
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.CYKRecognizer;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.ValiantRecognizer;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.earley.EarleyRecognizer;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ll.LL1ParseTable;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.lr.LRParseTable;
+
+/** This enum encodes the algorithms a {@link ContextFreeLanguage} may use to decide membership */
+public enum ContextFreeRecognitionStrategy {
+
+    /** Every word is checked by the {@link CYKRecognizer} */
+    CYK,
+
+    /** Every word is checked by the {@link ValiantRecognizer} */
+    VALIANT,
+
+    /** Every word is checked by the {@link EarleyRecognizer}, which does not require a CNF */
+    EARLEY,
+
+    /**
+     * Every word is checked by the predictive parser of the {@link LL1ParseTable}, which requires
+     * the grammar to be LL(1)
+     */
+    LL1,
+
+    /**
+     * Every word is checked by the shift-reduce parser of the LALR(1) {@link LRParseTable}, which
+     * requires the grammar to be LALR(1)
+     */
+    LALR1,
+
+    /**
+     * If the grammar is LL(1), every word is checked by the {@link LL1ParseTable} in linear time,
+     * else if it is LALR(1), by the LALR(1) {@link LRParseTable}. The LL(1) table is only built if
+     * the grammar passes {@link LL1ParseTable#mayBeLL1} or the table has been requested before, the
+     * LALR(1) table only counts if it has been requested before. This is decided on the first
+     * membership check. Otherwise, as long as no CNF of the language has been computed, words are
+     * checked by the {@link EarleyRecognizer}. Afterwards, words shorter than {@link
+     * ValiantRecognizer#RECOMMENDED_MINIMUM_LENGTH} are checked by the {@link CYKRecognizer},
+     * longer ones by the {@link ValiantRecognizer}
+     */
+    AUTOMATIC,
+}
@@ -2,7 +2,10 @@ package de.tudortmund.cs.iltis.folalib.languages;
 
 import de.tudortmund.cs.iltis.folalib.util.NullCheck;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -104,14 +107,16 @@ public class HeuristicEquivalenceCheck implements Serializable {
 
     // PRIVATE METHODS:
 
-    /** The actual testing process */
+    /** The actual testing process, which checks all words at once using the batch membership */
     private static <S extends Serializable> HeuristicEquivalenceResult<S> testWords(
             Language<S> languageA, Language<S> languageB, Collection<Word<S>> words) {
-        for (Word<S> word : words) {
-            if (languageA.contains(word) != languageB.contains(word)) {
-                return HeuristicEquivalenceResult.disproved(word);
-            }
-        }
+        List<Word<S>> wordList = new ArrayList<>(words);
+        BitSet difference = languageA.containsAll(wordList);
+        difference.xor(languageB.containsAll(wordList));
+
+        int firstDifference = difference.nextSetBit(0);
+        if (firstDifference >= 0)
+            return HeuristicEquivalenceResult.disproved(wordList.get(firstDifference));
 
         if (languageA.getAlphabet().equals(languageB.getAlphabet()))
             return HeuristicEquivalenceResult.possible();
@@ -1,10 +1,16 @@
 package de.tudortmund.cs.iltis.folalib.languages;
 
+import de.tudortmund.cs.iltis.folalib.automata.finite.CompiledDFA;
 import de.tudortmund.cs.iltis.folalib.automata.finite.NFA;
 import de.tudortmund.cs.iltis.folalib.automata.pushdown.PDA;
 import de.tudortmund.cs.iltis.folalib.expressions.regular.RegularExpression;
 import de.tudortmund.cs.iltis.folalib.grammar.Grammar;
 import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.CYKRecognizer;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.ValiantRecognizer;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.earley.EarleyRecognizer;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ll.LL1ParseTable;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.lr.LRParseTable;
 import de.tudortmund.cs.iltis.folalib.grammar.production.ChomskyNormalformProduction;
 import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
 import de.tudortmund.cs.iltis.folalib.grammar.production.RightRegularProduction;
@@ -25,6 +31,9 @@ public final class Labels {
     public static final class DeterministicNFALabel<Symbol extends Serializable>
             extends Label<NFA<? extends Serializable, Symbol>> {}
 
+    public static final class CompiledDFALabel<Symbol extends Serializable>
+            extends Label<CompiledDFA<Symbol>> {}
+
     public static final class StandardRegularExpressionLabel<Symbol extends Serializable>
             extends Label<RegularExpression<Symbol>> {}
 
@@ -83,4 +92,19 @@ public final class Labels {
             extends Label<
                     ContextFreeGrammar<
                             Symbol, N, ? extends ChomskyNormalformProduction<Symbol, N>>> {}
+
+    public static final class CYKRecognizerLabel<Symbol extends Serializable>
+            extends Label<CYKRecognizer<Symbol>> {}
+
+    public static final class ValiantRecognizerLabel<Symbol extends Serializable>
+            extends Label<ValiantRecognizer<Symbol>> {}
+
+    public static final class EarleyRecognizerLabel<Symbol extends Serializable>
+            extends Label<EarleyRecognizer<Symbol>> {}
+
+    public static final class LL1ParseTableLabel<Symbol extends Serializable>
+            extends Label<LL1ParseTable<Symbol, String>> {}
+
+    public static final class LALR1ParseTableLabel<Symbol extends Serializable>
+            extends Label<LRParseTable<Symbol, String>> {}
 }
@@ -1,9 +1,43 @@
 package de.tudortmund.cs.iltis.folalib.languages;
 
 import java.io.Serializable;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public interface Language<S extends Serializable> extends Serializable {
     boolean contains(Word<S> word);
 
     Alphabet<S> getAlphabet();
+
+    /**
+     * Checks for each of the given words whether it is contained in this language. Languages may
+     * override this method to share work between the words, e.g. common prefixes.
+     *
+     * @param words The words to check
+     * @return A bitmap in which the {@code i}-th bit is set iff the {@code i}-th word (in iteration
+     *     order of {@code words}) is contained in this language
+     */
+    default BitSet containsAll(Collection<Word<S>> words) {
+        BitSet result = new BitSet(words.size());
+        int index = 0;
+        for (Word<S> word : words) {
+            if (contains(word)) result.set(index);
+            index++;
+        }
+        return result;
+    }
+
+    /**
+     * Checks for each of the given words whether it is contained in this language, see {@link
+     * #containsAll(Collection)}.
+     *
+     * @param words The words to check, which are consumed
+     * @return A bitmap in which the {@code i}-th bit is set iff the {@code i}-th word of {@code
+     *     words} is contained in this language
+     */
+    default BitSet containsAll(Stream<Word<S>> words) {
+        return containsAll(words.collect(Collectors.toList()));
+    }
 }
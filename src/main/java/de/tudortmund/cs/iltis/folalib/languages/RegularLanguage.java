@@ -4,7 +4,6 @@ import de.tudortmund.cs.iltis.folalib.automata.StateSupplier;
 import de.tudortmund.cs.iltis.folalib.automata.finite.*;
 import de.tudortmund.cs.iltis.folalib.automata.finite.NFA;
 import de.tudortmund.cs.iltis.folalib.automata.finite.NFABuilder;
-import de.tudortmund.cs.iltis.folalib.automata.finite.NFAExecutor;
 import de.tudortmund.cs.iltis.folalib.automata.finite.conversion.DFAMinimizationConversion;
 import de.tudortmund.cs.iltis.folalib.automata.finite.conversion.NFAOnlyReachableStatesConversion;
 import de.tudortmund.cs.iltis.folalib.automata.finite.transformation.EpsilonNFAToRegularExpressionTransformation;
@@ -19,13 +18,22 @@ import de.tudortmund.cs.iltis.folalib.languages.closure.*;
 import de.tudortmund.cs.iltis.folalib.languages.closure.algorithms.*;
 import de.tudortmund.cs.iltis.folalib.transform.MaybeGenerated;
 import de.tudortmund.cs.iltis.folalib.transform.TransformGraph;
-import de.tudortmund.cs.iltis.folalib.util.BinaryFunctions;
 import de.tudortmund.cs.iltis.utils.collections.Pair;
 import de.tudortmund.cs.iltis.utils.function.SerializableFunction;
 import java.io.Serializable;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * A regular language, which may be given by a regular expression, an NFA or by operations on other
+ * regular languages. Further representations are computed on demand and cached.
+ *
+ * <p>Regular languages are thread-safe: they may be shared and queried by multiple threads, since
+ * the cached representations are stored in a synchronized {@link TransformGraph} and the automata
+ * only use thread-safe caches, see {@link NFA}.
+ *
+ * @param <S> The type of the alphabet
+ */
 public class RegularLanguage<S extends Serializable> implements Language<S> {
     private TransformGraph graph;
 
@@ -386,6 +394,10 @@ public class RegularLanguage<S extends Serializable> implements Language<S> {
                 new Labels.EpsilonNFALabel<S>(),
                 new Labels.DeterministicNFALabel<>(),
                 new EpsilonNFAToDFATransform<>());
+        graph.registerTransform(
+                new Labels.DeterministicNFALabel<S>(),
+                new Labels.CompiledDFALabel<>(),
+                new DFAToCompiledDFATransform<>());
         graph.registerTransform(
                 new Labels.EpsilonNFALabel<>(),
                 new Labels.RegularExpressionLabel<>(),
@@ -514,22 +526,92 @@ public class RegularLanguage<S extends Serializable> implements Language<S> {
         return graph.get(new Labels.DeterministicNFALabel<>());
     }
 
+    /**
+     * Returns a compiled version of {@link #getDFA()} which supports fast membership tests. It is
+     * computed on first use and cached afterwards.
+     *
+     * @return The compiled DFA of this language
+     */
+    public CompiledDFA<S> getCompiledDFA() {
+        return graph.get(new Labels.CompiledDFALabel<>());
+    }
+
     @Override
     public boolean contains(Word<S> word) {
-        NFA<?, S> nfa = this.getNFA();
-        NFAExecutor<?, S> exec = new NFAExecutor<>(nfa, word);
-        return exec.run();
+        return getCompiledDFA().accepts(word);
+    }
+
+    /**
+     * Checks the given words using {@link CompiledDFA#acceptsAll(Collection)}, which reads common
+     * prefixes of the words only once.
+     */
+    @Override
+    public BitSet containsAll(Collection<Word<S>> words) {
+        return getCompiledDFA().acceptsAll(words);
     }
 
     public boolean isEqualTo(RegularLanguage<S> other) {
-        NFA<?, S> lhs = getDFA();
-        NFA<?, S> rhs = other.getDFA();
+        return !getCounterExample(other).isPresent();
+    }
 
-        Alphabet<S> unionAlphabet = Alphabets.unionOf(lhs.getAlphabet(), rhs.getAlphabet());
+    /**
+     * Computes a shortest word which is contained in exactly one of {@code this} and {@code
+     * other}. The equivalence check uses the compiled DFAs of both languages and does not construct
+     * the product automaton, see {@link DFAEquivalenceCheck}.
+     *
+     * @param other The language to compare with
+     * @return A shortest word of the symmetric difference or {@link Optional#empty()} if both
+     *     languages are equal
+     */
+    public Optional<Word<S>> getCounterExample(RegularLanguage<S> other) {
+        return DFAEquivalenceCheck.findCounterExample(getCompiledDFA(), other.getCompiledDFA());
+    }
 
-        return lhs.totalifyWithRegardTo(unionAlphabet)
-                .product(rhs.totalifyWithRegardTo(unionAlphabet), BinaryFunctions.XOR)
-                .isEmpty();
+    /**
+     * Checks whether {@code this} language is a subset of {@code other}. The check works on the
+     * epsilon-NFAs of both languages and does not determinize them, see {@link
+     * AntichainInclusionCheck}.
+     *
+     * @param other The potential superset
+     * @return {@code true} iff every word of {@code this} language is contained in {@code other}
+     */
+    public boolean isSubsetOf(RegularLanguage<S> other) {
+        return !getSubsetCounterExample(other).isPresent();
+    }
+
+    /**
+     * Computes a shortest word which is contained in {@code this} language, but not in {@code
+     * other}.
+     *
+     * @param other The potential superset
+     * @return A shortest word of the difference or {@link Optional#empty()} if {@code this} is a
+     *     subset of {@code other}
+     */
+    public Optional<Word<S>> getSubsetCounterExample(RegularLanguage<S> other) {
+        return AntichainInclusionCheck.findInclusionCounterExample(getNFA(), other.getNFA());
+    }
+
+    /**
+     * Checks whether {@code this} language contains all words over its alphabet. The check works on
+     * the epsilon-NFA of this language and does not determinize it, see {@link
+     * AntichainInclusionCheck}.
+     *
+     * @return {@code true} iff {@code this} language contains every word over {@link
+     *     #getAlphabet()}
+     */
+    public boolean isUniversal() {
+        return !getUniversalityCounterExample().isPresent();
+    }
+
+    /**
+     * Computes a shortest word over the alphabet of {@code this} language which is not contained
+     * in it.
+     *
+     * @return A shortest word of the complement or {@link Optional#empty()} if {@code this}
+     *     language is universal
+     */
+    public Optional<Word<S>> getUniversalityCounterExample() {
+        return AntichainInclusionCheck.findUniversalityCounterExample(getNFA());
     }
 
     public String toString() {
@@ -566,6 +648,15 @@ public class RegularLanguage<S extends Serializable> implements Language<S> {
         }
     }
 
+    public static class DFAToCompiledDFATransform<S extends Serializable>
+            implements SerializableFunction<NFA<? extends Serializable, S>, CompiledDFA<S>> {
+
+        @Override
+        public CompiledDFA<S> apply(NFA<? extends Serializable, S> dfa) {
+            return CompiledDFA.compile(dfa);
+        }
+    }
+
     public static class DFAToEpsilonNFATransform<S extends Serializable>
             implements SerializableFunction<
                     NFA<? extends Serializable, S>, NFA<? extends Serializable, S>> {
@@ -26,7 +26,7 @@ public class RegularComplementToDFA<S extends Serializable>
         builder.withInitial(dfa.getInitialStates());
         for (Serializable state : dfa.getStates()) {
             builder.withStates(state);
-            for (NFATransition<Serializable, S> transition : dfa.getTransitions().in(state)) {
+            for (NFATransition<Serializable, S> transition : dfa.getTransitionsView().in(state)) {
                 builder.withTransition(state, transition);
             }
             if (!dfa.getAcceptingStates().contains(state)) {
@@ -34,7 +34,7 @@ public class RegularReversalToEpsilonNFA<S extends Serializable>
         builder.withAccepting(dfa.getInitialStates());
         for (MaybeGenerated<Serializable, String> source : dfa.getStates()) {
             for (NFATransition<MaybeGenerated<Serializable, String>, S> transition :
-                    dfa.getTransitions().in(source)) {
+                    dfa.getTransitionsView().in(source)) {
                 MaybeGenerated<Serializable, String> target = transition.getState();
                 S symbol = transition.getSymbol();
                 builder.withTransition(target, symbol, source);
@@ -40,13 +40,13 @@ public class RegularUnionToEpsilonNFA<S extends Serializable>
         builder.withInitial(nfa2Mapped.getInitialStates());
         for (SerializablePair<? extends Serializable, String> state : nfa1Mapped.getStates()) {
             for (NFATransition<SerializablePair<? extends Serializable, String>, S> transition :
-                    nfa1Mapped.getTransitions().in(state)) {
+                    nfa1Mapped.getTransitionsView().in(state)) {
                 builder.withTransition(state, transition);
             }
         }
         for (SerializablePair<? extends Serializable, String> state : nfa2Mapped.getStates()) {
             for (NFATransition<SerializablePair<? extends Serializable, String>, S> transition :
-                    nfa2Mapped.getTransitions().in(state)) {
+                    nfa2Mapped.getTransitionsView().in(state)) {
                 builder.withTransition(state, transition);
             }
         }
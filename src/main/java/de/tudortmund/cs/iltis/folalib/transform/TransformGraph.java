@@ -8,6 +8,14 @@ import de.tudortmund.cs.iltis.utils.graph.hashgraph.HashGraph;
 import java.io.Serializable;
 import java.util.*;
 
+/**
+ * A cache of the representations of an object, e.g. of a language, together with the
+ * transformations between them. Missing representations are computed on demand along the shortest
+ * path of transformations.
+ *
+ * <p>All methods are synchronized, such that representations are only computed once even if the
+ * graph is queried by multiple threads.
+ */
 public class TransformGraph implements Serializable {
     private Map<Label<? extends Serializable>, List<Serializable>> cache;
     private Graph<
@@ -25,11 +33,11 @@ public class TransformGraph implements Serializable {
         addRepresentation(initial, initialObject);
     }
 
-    public <T extends Serializable> boolean hasCached(Label<T> kind) {
+    public synchronized <T extends Serializable> boolean hasCached(Label<T> kind) {
         return cache.containsKey(kind) && !cache.get(kind).isEmpty();
     }
 
-    public <T extends Serializable> void addRepresentation(Label<T> label, T object) {
+    public synchronized <T extends Serializable> void addRepresentation(Label<T> label, T object) {
         addRepresentation_(label, object);
     }
 
@@ -37,14 +45,14 @@ public class TransformGraph implements Serializable {
         cache.computeIfAbsent(label, k -> new ArrayList<>()).add(object);
     }
 
-    public <From extends Serializable, To extends Serializable> void registerTransform(
+    public synchronized <From extends Serializable, To extends Serializable> void registerTransform(
             Label<From> from, Label<To> to, SerializableFunction<From, To> transform) {
         if (!transformGraph.hasVertex(from)) transformGraph.addVertex(from);
         if (!transformGraph.hasVertex(to)) transformGraph.addVertex(to);
         transformGraph.addEdge(from, to, transform);
     }
 
-    public <To extends Serializable> To get(Label<To> to) {
+    public synchronized <To extends Serializable> To get(Label<To> to) {
         List<Serializable> existing = cache.get(to);
         if (existing != null && !existing.isEmpty())
             return (To) existing.get(0); // TODO: strategy for picking?
@@ -0,0 +1,45 @@
+package de.tudortmund.cs.iltis.folalib.util;
+
+import java.io.Serializable;
+import java.util.function.Function;
+
+/**
+ * A cache for values which can be recomputed from their keys at any time, such as the derived data
+ * stored by automata to speed up repeated queries.
+ *
+ * <p>Implementations have to be safe for concurrent use by multiple threads and may evict entries
+ * at any time, e.g. to bound their size. Since the cached values can be recomputed, they do not
+ * need to survive serialization. New caches are created by the {@link CacheFactory} configured in
+ * {@link Caches}.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
+public interface Cache<K, V> extends Serializable {
+
+    /**
+     * Returns the value cached for the given key. If there is none, it is computed by {@code
+     * compute} and stored.
+     *
+     * <p>The computation may be run concurrently for the same key by multiple threads, in which
+     * case all of them receive the value stored first. Therefore, {@code compute} must always
+     * return equal values for equal keys and must not have side effects.
+     *
+     * @param key The key
+     * @param compute The function computing the value of a key, which must not return {@code null}
+     * @return The value of {@code key}
+     */
+    V computeIfAbsent(K key, Function<? super K, ? extends V> compute);
+
+    /** Removes all entries from this cache. */
+    void clear();
+
+    /** The number of entries which are currently cached */
+    int size();
+
+    /** How often {@link #computeIfAbsent(Object, Function)} found a cached value */
+    long getHits();
+
+    /** How often {@link #computeIfAbsent(Object, Function)} had to compute the value */
+    long getMisses();
+}
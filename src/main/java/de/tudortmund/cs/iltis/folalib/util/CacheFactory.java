@@ -0,0 +1,19 @@
+package de.tudortmund.cs.iltis.folalib.util;
+
+/**
+ * Creates the {@link Cache}s used within this library, see {@link Caches#setFactory(CacheFactory)}.
+ */
+public interface CacheFactory {
+
+    /**
+     * Creates a new, empty cache.
+     *
+     * @param name The name of the cache, e.g. {@code "NFA.epsilonClosure"}. It identifies the
+     *     kind of data stored in the cache, such that factories may choose the size or the eviction
+     *     policy accordingly or collect the statistics of all caches of one kind.
+     * @param <K> The type of the keys
+     * @param <V> The type of the values
+     * @return The cache
+     */
+    <K, V> Cache<K, V> create(String name);
+}
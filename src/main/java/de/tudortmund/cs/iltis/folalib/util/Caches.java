@@ -0,0 +1,60 @@
+package de.tudortmund.cs.iltis.folalib.util;
+
+import java.util.Objects;
+
+/**
+ * Creates the {@link Cache}s used by automata and languages.
+ *
+ * <p>By default, every cache is an {@link LRUCache} with at most {@link #DEFAULT_MAXIMUM_SIZE}
+ * entries. Applications, e.g. servers sharing languages between threads, may install their own
+ * {@link CacheFactory} to use different bounds or eviction policies or to collect statistics. The
+ * factory should be set before the first automaton is created, as existing caches are not
+ * replaced.
+ */
+public final class Caches {
+
+    /** The maximum number of entries of the caches created by the default factory */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private static volatile CacheFactory factory = new DefaultFactory();
+
+    private Caches() {}
+
+    /**
+     * Creates a new cache using the current factory.
+     *
+     * @param name The name of the cache, see {@link CacheFactory#create(String)}
+     * @param <K> The type of the keys
+     * @param <V> The type of the values
+     * @return The cache
+     */
+    public static <K, V> Cache<K, V> create(String name) {
+        return factory.create(name);
+    }
+
+    public static CacheFactory getFactory() {
+        return factory;
+    }
+
+    /**
+     * Sets the factory used by {@link #create(String)}.
+     *
+     * @param factory The new factory
+     * @throws NullPointerException if {@code factory} is {@code null}
+     */
+    public static void setFactory(CacheFactory factory) {
+        Caches.factory = Objects.requireNonNull(factory);
+    }
+
+    /** Resets the factory used by {@link #create(String)} to the default one. */
+    public static void resetFactory() {
+        setFactory(new DefaultFactory());
+    }
+
+    private static class DefaultFactory implements CacheFactory {
+        @Override
+        public <K, V> Cache<K, V> create(String name) {
+            return new LRUCache<>(DEFAULT_MAXIMUM_SIZE);
+        }
+    }
+}
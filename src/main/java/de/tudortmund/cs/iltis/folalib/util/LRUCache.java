@@ -0,0 +1,100 @@
+package de.tudortmund.cs.iltis.folalib.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A {@link Cache} holding at most a fixed number of entries, which evicts the least recently used
+ * entry once it is full.
+ *
+ * <p>All accesses are synchronized on the cache object, but the values are computed without
+ * holding the lock, such that computations may use other caches and concurrent computations of
+ * different keys do not block each other. The entries are not serialized.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
+public class LRUCache<K, V> implements Cache<K, V> {
+
+    private int maximumSize;
+    private transient LinkedHashMap<K, V> entries;
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maximumSize The maximum number of entries, which has to be positive
+     * @throws IllegalArgumentException if {@code maximumSize} is not positive
+     */
+    public LRUCache(int maximumSize) {
+        if (maximumSize <= 0)
+            throw new IllegalArgumentException("The maximum size of a cache has to be positive");
+        this.maximumSize = maximumSize;
+    }
+
+    /* For serialization */
+    @SuppressWarnings("unused")
+    private LRUCache() {}
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> compute) {
+        synchronized (this) {
+            V value = entries().get(key);
+            if (value != null) {
+                hits++;
+                return value;
+            }
+            misses++;
+        }
+
+        V value = Objects.requireNonNull(compute.apply(key));
+
+        synchronized (this) {
+            V existing = entries().get(key);
+            if (existing != null) return existing;
+
+            entries().put(key, value);
+            return value;
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries().clear();
+    }
+
+    @Override
+    public synchronized int size() {
+        return entries().size();
+    }
+
+    @Override
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    @Override
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    private LinkedHashMap<K, V> entries() {
+        if (entries == null) {
+            entries =
+                    new LinkedHashMap<K, V>(16, 0.75f, true) {
+                        @Override
+                        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                            return size() > maximumSize;
+                        }
+                    };
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,108 @@
+package de.tudortmund.cs.iltis.folalib.automata.finite;
+
+import static org.junit.Assert.*;
+
+import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import de.tudortmund.cs.iltis.folalib.languages.RegularLanguage;
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import de.tudortmund.cs.iltis.folalib.languages.Words;
+import java.util.Optional;
+import org.junit.Test;
+
+public class AntichainInclusionCheckTest {
+
+    private final Alphabet<Character> alphabet = new Alphabet<>('a', 'b');
+
+    /** Accepts all words whose {@code n}-th last symbol is an a, with epsilon transitions. */
+    private NFA<Integer, Character> nthLastIsA(int n) {
+        NFABuilder<Integer, Character> builder =
+                new NFABuilder<Integer, Character>(alphabet)
+                        .withInitial(0)
+                        .withStates(1)
+                        .withAccepting(n + 1)
+                        .withTransition(0, 'a', 0)
+                        .withTransition(0, 'b', 0)
+                        .withEpsilonTransition(0, 1)
+                        .withTransition(1, 'a', 2);
+        for (int state = 2; state <= n; state++) {
+            builder.withStates(state);
+            builder.withTransition(state, 'a', state + 1);
+            builder.withTransition(state, 'b', state + 1);
+        }
+        return builder.withStates(n + 1).build().unwrap();
+    }
+
+    /** Accepts all words containing an a. */
+    private NFA<Integer, Character> containsA() {
+        return new NFABuilder<Integer, Character>(alphabet)
+                .withInitial(0)
+                .withStates(1)
+                .withAccepting(1)
+                .withTransition(0, 'a', 0)
+                .withTransition(0, 'b', 0)
+                .withTransition(0, 'a', 1)
+                .withTransition(1, 'a', 1)
+                .withTransition(1, 'b', 1)
+                .build()
+                .unwrap();
+    }
+
+    @Test
+    public void testInclusion() {
+        assertTrue(AntichainInclusionCheck.isSubset(nthLastIsA(3), containsA()));
+        assertTrue(AntichainInclusionCheck.isSubset(nthLastIsA(5), nthLastIsA(5)));
+
+        Optional<Word<Character>> counterExample =
+                AntichainInclusionCheck.findInclusionCounterExample(containsA(), nthLastIsA(3));
+        assertEquals(Optional.of(Words.characterWord("a")), counterExample);
+
+        counterExample =
+                AntichainInclusionCheck.findInclusionCounterExample(nthLastIsA(2), nthLastIsA(3));
+        assertTrue(counterExample.isPresent());
+        assertEquals(2, counterExample.get().size());
+        assertTrue(new NFAExecutor<>(nthLastIsA(2), counterExample.get()).run());
+        assertFalse(new NFAExecutor<>(nthLastIsA(3), counterExample.get()).run());
+    }
+
+    @Test
+    public void testUniversality() {
+        NFA<Integer, Character> universal =
+                new NFABuilder<>(containsA())
+                        .withTransition(0, 'b', 1)
+                        .withAccepting(0)
+                        .build()
+                        .unwrap();
+        assertTrue(AntichainInclusionCheck.isUniversal(universal));
+
+        assertEquals(
+                Optional.of(new Word<Character>()),
+                AntichainInclusionCheck.findUniversalityCounterExample(containsA()));
+
+        // accepts the empty word and all words starting with an a
+        NFA<Integer, Character> emptyOrStartsWithA =
+                new NFABuilder<Integer, Character>(alphabet)
+                        .withInitial(0)
+                        .withStates(1)
+                        .withAccepting(0, 1)
+                        .withTransition(0, 'a', 1)
+                        .withTransition(1, 'a', 1)
+                        .withTransition(1, 'b', 1)
+                        .build()
+                        .unwrap();
+        assertEquals(
+                Optional.of(Words.characterWord("b")),
+                AntichainInclusionCheck.findUniversalityCounterExample(emptyOrStartsWithA));
+    }
+
+    @Test
+    public void testRegularLanguage() {
+        RegularLanguage<Character> third = new RegularLanguage<>(nthLastIsA(3));
+        RegularLanguage<Character> contains = new RegularLanguage<>(containsA());
+
+        assertTrue(third.isSubsetOf(contains));
+        assertFalse(contains.isSubsetOf(third));
+        assertEquals(Optional.of(Words.characterWord("a")), contains.getSubsetCounterExample(third));
+        assertFalse(contains.isUniversal());
+        assertTrue(contains.union(contains.complement()).isUniversal());
+    }
+}
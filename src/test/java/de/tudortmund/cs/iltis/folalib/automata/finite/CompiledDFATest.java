@@ -0,0 +1,135 @@
+package de.tudortmund.cs.iltis.folalib.automata.finite;
+
+import static org.junit.Assert.*;
+
+import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import de.tudortmund.cs.iltis.folalib.languages.Alphabets;
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import de.tudortmund.cs.iltis.folalib.languages.WordGenerator;
+import de.tudortmund.cs.iltis.folalib.languages.Words;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class CompiledDFATest {
+
+    /** A partial DFA accepting all words over {a, b} with an even number of a's and no b. */
+    private static NFA<Integer, Character> evenAs() {
+        return new DFABuilder<Integer, Character>(new Alphabet<>('a', 'b'))
+                .withInitial(0)
+                .withStates(1)
+                .withAccepting(0)
+                .withTransition(0, 'a', 1)
+                .withTransition(1, 'a', 0)
+                .build()
+                .unwrap();
+    }
+
+    @Test
+    public void testAcceptsPartialDFA() {
+        CompiledDFA<Character> compiled = CompiledDFA.compile(evenAs());
+
+        assertEquals(2, compiled.getNumberOfStates());
+        assertEquals(2, compiled.getNumberOfSymbols());
+
+        assertTrue(compiled.accepts(new Word<>()));
+        assertTrue(compiled.accepts(Words.characterWord("aa")));
+        assertTrue(compiled.accepts(Words.characterWord("aaaa")));
+        assertFalse(compiled.accepts(Words.characterWord("a")));
+        assertFalse(compiled.accepts(Words.characterWord("aab")));
+        assertFalse(compiled.accepts(Words.characterWord("ba")));
+    }
+
+    @Test
+    public void testRejectsSymbolsOutsideAlphabet() {
+        CompiledDFA<Character> compiled = CompiledDFA.compile(evenAs());
+
+        assertEquals(-1, compiled.getSymbolIndex('c'));
+        assertFalse(compiled.accepts(Words.characterWord("aca")));
+        assertEquals(
+                CompiledDFA.DEAD_STATE, compiled.step(compiled.getInitialState(), (Character) 'c'));
+    }
+
+    @Test
+    public void testCompileDeterminizesNFA() {
+        NFA<Integer, Character> nfa =
+                new NFABuilder<Integer, Character>(new Alphabet<>('a', 'b'))
+                        .withInitial(0)
+                        .withStates(1)
+                        .withAccepting(2)
+                        .withTransition(0, 'a', 0)
+                        .withTransition(0, 'b', 0)
+                        .withTransition(0, 'a', 1)
+                        .withEpsilonTransition(1, 2)
+                        .build()
+                        .unwrap();
+
+        CompiledDFA<Character> compiled = CompiledDFA.compile(nfa);
+
+        for (String word : new String[] {"", "a", "b", "ab", "ba", "bba", "aab", "abba"}) {
+            assertEquals(
+                    word,
+                    new NFAExecutor<>(nfa, Words.characterWord(word)).run(),
+                    compiled.accepts(Words.characterWord(word)));
+        }
+    }
+
+    @Test
+    public void testStepByIndex() {
+        CompiledDFA<Character> compiled = CompiledDFA.compile(evenAs());
+
+        int a = compiled.getSymbolIndex('a');
+        int b = compiled.getSymbolIndex('b');
+        int state = compiled.getInitialState();
+
+        assertTrue(compiled.isAccepting(state));
+        state = compiled.step(state, a);
+        assertFalse(compiled.isAccepting(state));
+        state = compiled.step(state, a);
+        assertTrue(compiled.isAccepting(state));
+        state = compiled.step(state, b);
+        assertEquals(CompiledDFA.DEAD_STATE, state);
+        assertFalse(compiled.isAccepting(state));
+    }
+
+    @Test
+    public void testAcceptsAll() {
+        CompiledDFA<Character> compiled = CompiledDFA.compile(evenAs());
+        List<Word<Character>> words =
+                Arrays.asList(
+                        new Word<>(),
+                        Words.characterWord("a"),
+                        Words.characterWord("aa"),
+                        Words.characterWord("aab"),
+                        Words.characterWord("aaaa"),
+                        Words.characterWord("aa"),
+                        Words.characterWord("ac"));
+
+        BitSet expected = new BitSet();
+        for (int i = 0; i < words.size(); i++)
+            if (compiled.accepts(words.get(i))) expected.set(i);
+
+        assertEquals(expected, compiled.acceptsAll(words));
+        assertEquals(4, expected.cardinality());
+    }
+
+    @Test
+    public void testAcceptsAllWithMixedPrefixes() {
+        CompiledDFA<Character> compiled = CompiledDFA.compile(evenAs());
+        List<Word<Character>> words = new ArrayList<>();
+        for (String word :
+                new String[] {"aaa", "aab", "", "aaaa", "a", "ba", "", "aa", "aaaaaa", "aac", "aa"})
+            words.add(Words.characterWord(word));
+        new WordGenerator<>(Alphabets.characterAlphabet("abc"))
+                .allWordsUpToSize(5)
+                .forEach(words::add);
+        Collections.reverse(words.subList(11, words.size()));
+
+        BitSet result = compiled.acceptsAll(words);
+        for (int i = 0; i < words.size(); i++)
+            assertEquals(words.get(i).toString(), compiled.accepts(words.get(i)), result.get(i));
+    }
+}
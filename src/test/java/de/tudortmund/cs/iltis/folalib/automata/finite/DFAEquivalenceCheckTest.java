@@ -0,0 +1,118 @@
+package de.tudortmund.cs.iltis.folalib.automata.finite;
+
+import static org.junit.Assert.*;
+
+import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import de.tudortmund.cs.iltis.folalib.languages.RegularLanguage;
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import de.tudortmund.cs.iltis.folalib.languages.WordGenerator;
+import de.tudortmund.cs.iltis.folalib.languages.Words;
+import java.util.Optional;
+import org.junit.Test;
+
+public class DFAEquivalenceCheckTest {
+
+    /** Accepts all words over {a, b} whose number of a's is divisible by {@code modulus}. */
+    private static NFA<Integer, Character> countAs(int modulus) {
+        DFABuilder<Integer, Character> builder = new DFABuilder<>(new Alphabet<>('a', 'b'));
+        builder.withInitial(0).withAccepting(0);
+        for (int state = 0; state < modulus; state++) {
+            builder.withStates(state);
+            builder.withTransition(state, 'a', (state + 1) % modulus);
+            builder.withTransition(state, 'b', state);
+        }
+        return builder.build().unwrap();
+    }
+
+    /** Accepts all words over {a, b} whose {@code n}-th last symbol is an a. */
+    private static NFA<Integer, Character> nthLastIsA(int n) {
+        NFABuilder<Integer, Character> builder =
+                new NFABuilder<Integer, Character>(new Alphabet<>('a', 'b'))
+                        .withInitial(0)
+                        .withAccepting(n)
+                        .withTransition(0, 'a', 0)
+                        .withTransition(0, 'b', 0)
+                        .withTransition(0, 'a', 1);
+        for (int state = 1; state < n; state++) {
+            builder.withStates(state);
+            builder.withTransition(state, 'a', state + 1);
+            builder.withTransition(state, 'b', state + 1);
+        }
+        return builder.withStates(n).build().unwrap();
+    }
+
+    @Test
+    public void testEquivalentAutomata() {
+        // counting modulo 2 and modulo 4 with accepting states 0 and 2 is the same
+        NFA<Integer, Character> mod4 =
+                new NFABuilder<>(countAs(4)).withAccepting(2).build().unwrap();
+
+        assertTrue(
+                DFAEquivalenceCheck.areEquivalent(
+                        CompiledDFA.compile(countAs(2)), CompiledDFA.compile(mod4)));
+        assertTrue(new RegularLanguage<>(countAs(2)).isEqualTo(new RegularLanguage<>(mod4)));
+    }
+
+    @Test
+    public void testShortestCounterExample() {
+        CompiledDFA<Character> mod2 = CompiledDFA.compile(countAs(2));
+        CompiledDFA<Character> mod3 = CompiledDFA.compile(countAs(3));
+
+        Optional<Word<Character>> counterExample =
+                DFAEquivalenceCheck.findCounterExample(mod2, mod3);
+        assertTrue(counterExample.isPresent());
+        assertEquals(2, counterExample.get().size());
+        assertNotEquals(mod2.accepts(counterExample.get()), mod3.accepts(counterExample.get()));
+        assertEquals(2, shortestCounterExampleLength(mod2, mod3, 6));
+
+        CompiledDFA<Character> third = CompiledDFA.compile(nthLastIsA(3));
+        CompiledDFA<Character> fourth = CompiledDFA.compile(nthLastIsA(4));
+        counterExample = DFAEquivalenceCheck.findCounterExample(third, fourth);
+        assertTrue(counterExample.isPresent());
+        assertEquals(shortestCounterExampleLength(third, fourth, 6), counterExample.get().size());
+    }
+
+    @Test
+    public void testDifferentAlphabets() {
+        NFA<Integer, Character> onlyAs =
+                new DFABuilder<Integer, Character>(new Alphabet<>('a'))
+                        .withInitial(0)
+                        .withAccepting(0)
+                        .withTransition(0, 'a', 0)
+                        .build()
+                        .unwrap();
+        NFA<Integer, Character> withoutB =
+                new DFABuilder<Integer, Character>(new Alphabet<>('a', 'b'))
+                        .withInitial(0)
+                        .withStates(1)
+                        .withAccepting(0)
+                        .withTransition(0, 'a', 0)
+                        .withTransition(0, 'b', 1)
+                        .withTransition(1, 'a', 1)
+                        .withTransition(1, 'b', 1)
+                        .build()
+                        .unwrap();
+
+        assertTrue(
+                DFAEquivalenceCheck.areEquivalent(
+                        CompiledDFA.compile(onlyAs), CompiledDFA.compile(withoutB)));
+
+        Optional<Word<Character>> counterExample =
+                DFAEquivalenceCheck.findCounterExample(
+                        CompiledDFA.compile(onlyAs), CompiledDFA.compile(countAs(1)));
+        assertEquals(Optional.of(Words.characterWord("b")), counterExample);
+    }
+
+    private static int shortestCounterExampleLength(
+            CompiledDFA<Character> lhs, CompiledDFA<Character> rhs, int maxLength) {
+        WordGenerator<Character> generator = new WordGenerator<>(new Alphabet<>('a', 'b'));
+        for (int length = 0; length <= maxLength; length++) {
+            boolean found =
+                    generator
+                            .allWordsOfSize(length)
+                            .anyMatch(word -> lhs.accepts(word) != rhs.accepts(word));
+            if (found) return length;
+        }
+        return -1;
+    }
+}
@@ -66,6 +66,46 @@ public class DFAMinimizationConversionTest {
         assertTrue(new RegularLanguage<>(targetDfa).isEqualTo(new RegularLanguage<>(minimizedDfa)));
     }
 
+    @Test
+    public void testMinimalDFAIsKept() {
+        NFA<Integer, Character> minimal =
+                new DFABuilder<Integer, Character>(Alphabets.characterAlphabet("ab"))
+                        .withStates(0, 1, 2)
+                        .withInitial(0)
+                        .withAccepting(0)
+                        .withTransition(0, 'a', 1)
+                        .withTransition(1, 'a', 2)
+                        .withTransition(2, 'a', 0)
+                        .withTransition(0, 'b', 0)
+                        .withTransition(1, 'b', 1)
+                        .withTransition(2, 'b', 2)
+                        .build()
+                        .unwrap();
+
+        NFA<LinkedHashSet<Integer>, Character> minimizedDfa = converter.apply(minimal);
+        assertEquals(minimal.mapStates(state -> makeLinkedHashSet(state)), minimizedDfa);
+    }
+
+    @Test
+    public void testMinimizationOfCounterWithDuplicatedStates() {
+        // counts the a's modulo 3, every residue is represented by three equivalent states
+        DFABuilder<Integer, Character> builder =
+                new DFABuilder<>(Alphabets.characterAlphabet("ab"));
+        builder.withInitial(0).withAccepting(0, 3, 6);
+        for (int state = 0; state < 9; state++) {
+            builder.withStates(state);
+            builder.withTransition(state, 'a', (state + 1) % 9);
+            builder.withTransition(state, 'b', (state + 3) % 9);
+        }
+        NFA<Integer, Character> toMinimize = builder.build().unwrap();
+
+        NFA<LinkedHashSet<Integer>, Character> minimizedDfa = converter.apply(toMinimize);
+        assertEquals(3, minimizedDfa.getStates().size());
+        assertTrue(minimizedDfa.getStates().contains(makeLinkedHashSet(0, 3, 6)));
+        assertTrue(
+                new RegularLanguage<>(toMinimize).isEqualTo(new RegularLanguage<>(minimizedDfa)));
+    }
+
     private static LinkedHashSet<Integer> makeLinkedHashSet(Integer... data) {
         return new LinkedHashSet<>(Arrays.asList(data));
     }
@@ -1,8 +1,12 @@
 package de.tudortmund.cs.iltis.folalib.automata.finite;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import de.tudortmund.cs.iltis.folalib.languages.Words;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
 import org.junit.Test;
@@ -96,6 +100,34 @@ public class DeterminizationTest {
         assertEquals(expected, determinized);
     }
 
+    @Test
+    public void testDeterminizationWithMoreThan64States() {
+        // a chain of 100 states, every even state may skip its successor via an epsilon transition
+        NFABuilder<Integer, Character> builder =
+                new NFABuilder<Integer, Character>(new Alphabet<>('a', 'b'))
+                        .withInitial(0)
+                        .withAccepting(99);
+        for (int i = 0; i < 99; i++) {
+            builder.withStates(i + 1).withTransition(i, 'a', i + 1);
+            if (i % 2 == 0) builder.withEpsilonTransition(i, i + 1);
+        }
+        NFA<Integer, Character> toDeterminize = builder.build().unwrap();
+
+        NFA<LinkedHashSet<Integer>, Character> determinized = toDeterminize.determinize();
+
+        assertTrue(determinized.isDeterministic());
+        assertFalse(determinized.checkDeterminacy().hasTotalityFaults());
+        assertEquals(
+                makeLinkedHashSet(0, 1), determinized.getInitialStates().iterator().next());
+
+        for (int length = 0; length <= 100; length++) {
+            Word<Character> word = Words.replicate(Words.characterWord("a"), length);
+            assertEquals(
+                    new NFAExecutor<>(toDeterminize, word).run(),
+                    new NFAExecutor<>(determinized, word).run());
+        }
+    }
+
     private static <T> LinkedHashSet<T> makeLinkedHashSet(T... ts) {
         return new LinkedHashSet<>(Arrays.asList(ts));
     }
@@ -0,0 +1,84 @@
+package de.tudortmund.cs.iltis.folalib.automata.finite;
+
+import static org.junit.Assert.*;
+
+import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import de.tudortmund.cs.iltis.folalib.languages.WordGenerator;
+import de.tudortmund.cs.iltis.folalib.languages.Words;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class LazyDFATest {
+
+    /** Accepts all words over {a, b} whose {@code n}-th last symbol is an a. */
+    private static NFA<Integer, Character> nthLastIsA(int n) {
+        NFABuilder<Integer, Character> builder =
+                new NFABuilder<Integer, Character>(new Alphabet<>('a', 'b'))
+                        .withInitial(0)
+                        .withAccepting(n)
+                        .withTransition(0, 'a', 0)
+                        .withTransition(0, 'b', 0)
+                        .withTransition(0, 'a', 1);
+        for (int state = 1; state < n; state++) {
+            builder.withStates(state);
+            builder.withEpsilonTransition(state, state + n + 1);
+            builder.withStates(state + n + 1);
+            builder.withTransition(state + n + 1, 'a', state + 1);
+            builder.withTransition(state + n + 1, 'b', state + 1);
+        }
+        return builder.withStates(n).build().unwrap();
+    }
+
+    @Test
+    public void testStreaming() {
+        LazyDFA<Integer, Character> dfa = new LazyDFA<>(nthLastIsA(2));
+
+        assertFalse(dfa.isAccepting());
+        dfa.accept('a');
+        assertFalse(dfa.isAccepting());
+        dfa.accept('b');
+        assertTrue(dfa.isAccepting());
+        dfa.accept('b');
+        assertFalse(dfa.isAccepting());
+        assertFalse(dfa.isDead());
+
+        dfa.accept('c');
+        assertTrue(dfa.isDead());
+        assertFalse(dfa.isAccepting());
+
+        dfa.reset();
+        dfa.accept('a');
+        dfa.accept('a');
+        assertTrue(dfa.isAccepting());
+    }
+
+    @Test
+    public void testAgreesWithExecutor() {
+        NFA<Integer, Character> nfa = nthLastIsA(3);
+        LazyDFA<Integer, Character> dfa = new LazyDFA<>(nfa);
+
+        for (Word<Character> word :
+                new WordGenerator<>(nfa.getAlphabet())
+                        .allWordsUpToSize(6)
+                        .collect(Collectors.toList())) {
+            assertEquals(word.toString(), new NFAExecutor<>(nfa, word).run(), dfa.accepts(word));
+        }
+        assertTrue(dfa.getNumberOfCachedStates() <= 8);
+        assertEquals(0, dfa.getNumberOfFlushes());
+    }
+
+    @Test
+    public void testBoundedCache() {
+        NFA<Integer, Character> nfa = nthLastIsA(8);
+        LazyDFA<Integer, Character> dfa = new LazyDFA<>(nfa, 4);
+
+        Word<Character> word = Words.characterWord("abbabaaabbbabaabbbaababbbaaab");
+        for (int length = 0; length <= word.size(); length++) {
+            Word<Character> prefix = word.take(length);
+            assertEquals(new NFAExecutor<>(nfa, prefix).run(), dfa.accepts(prefix));
+            assertTrue(dfa.getNumberOfCachedStates() <= 4);
+        }
+        assertTrue(dfa.getNumberOfFlushes() > 0);
+    }
+}
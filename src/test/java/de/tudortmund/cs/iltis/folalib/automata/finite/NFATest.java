@@ -2,6 +2,7 @@ package de.tudortmund.cs.iltis.folalib.automata.finite;
 
 import static org.junit.Assert.*;
 
+import de.tudortmund.cs.iltis.folalib.automata.Configuration;
 import de.tudortmund.cs.iltis.folalib.automata.DeterminacyFaultCollection;
 import de.tudortmund.cs.iltis.folalib.automata.DeterminacyFaultReason;
 import de.tudortmund.cs.iltis.folalib.automata.finite.fault.*;
@@ -262,4 +263,20 @@ public class NFATest extends NFATestHelper {
                                                         .MULTIPLE_INITIAL_STATES)
                         .count());
     }
+
+    @Test
+    public void testApplicableTransitionsAreSharedBetweenWords() {
+        Configuration<String, Character> first =
+                new Configuration<>("0", Words.characterWord("ab"), 0);
+        Configuration<String, Character> second =
+                new Configuration<>("0", Words.characterWord("aab"), 1);
+
+        assertNotEquals(first, second);
+        assertSame(
+                evenAs.getApplicableTransitions(first), evenAs.getApplicableTransitions(second));
+        assertNotSame(
+                evenAs.getApplicableTransitions(first),
+                evenAs.getApplicableTransitions(
+                        new Configuration<>("0", Words.characterWord("ab"), 1)));
+    }
 }
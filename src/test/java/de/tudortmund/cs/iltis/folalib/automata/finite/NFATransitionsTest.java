@@ -0,0 +1,99 @@
+package de.tudortmund.cs.iltis.folalib.automata.finite;
+
+import static org.junit.Assert.*;
+
+import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import org.junit.Test;
+
+public class NFATransitionsTest {
+
+    @Test
+    public void testIndexIsMaintainedOnAddAndRemove() {
+        NFATransitions<Integer, Character> transitions = new NFATransitions<>();
+        NFATransition<Integer, Character> a1 = new NFATransition<>('a', 1);
+        NFATransition<Integer, Character> a2 = new NFATransition<>('a', 2);
+        NFATransition<Integer, Character> b1 = new NFATransition<>('b', 1);
+        NFATransition<Integer, Character> eps = new NFATransition<>(2);
+
+        transitions.addTransition(0, a1);
+        transitions.addTransition(0, a2);
+        transitions.addTransition(0, b1);
+        transitions.addTransition(0, eps);
+
+        assertEquals(new HashSet<>(Arrays.asList(a1, a2)), transitions.getTransitions(0, 'a'));
+        assertEquals(Collections.singleton(b1), transitions.getTransitions(0, 'b'));
+        assertEquals(Collections.singleton(eps), transitions.getEpsilonTransitions(0));
+        assertTrue(transitions.getTransitions(1, 'a').isEmpty());
+
+        NFATransitions<Integer, Character> removed = transitions.removeTransition(0, a1);
+        assertEquals(Collections.singleton(a2), removed.getTransitions(0, 'a'));
+        assertEquals(new HashSet<>(Arrays.asList(a1, a2)), transitions.getTransitions(0, 'a'));
+
+        transitions.clearTransitions(0, 'a');
+        assertTrue(transitions.getTransitions(0, 'a').isEmpty());
+        assertEquals(new HashSet<>(Arrays.asList(b1, eps)), transitions.in(0));
+
+        transitions.clearTransitions(0);
+        assertTrue(transitions.in(0).isEmpty());
+        assertTrue(transitions.getEpsilonTransitions(0).isEmpty());
+        assertEquals(new NFATransitions<Integer, Character>(), transitions);
+    }
+
+    @Test
+    public void testNFATransitionsAreReadOnly() {
+        NFA<Integer, Character> nfa =
+                new NFABuilder<Integer, Character>(new Alphabet<>('a'))
+                        .withInitial(0)
+                        .withStates(1)
+                        .withTransition(0, 'a', 1)
+                        .build()
+                        .unwrap();
+
+        NFATransitions<Integer, Character> transitions = nfa.getTransitionsView();
+        assertSame(transitions, nfa.getTransitionsView());
+
+        try {
+            transitions.addTransition(1, new NFATransition<>('a', 0));
+            fail("Expected the transitions of an NFA to be read-only");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            transitions.in(0).clear();
+            fail("Expected the transitions of an NFA to be read-only");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+
+        // looking up a missing state in the map of the view does not change the NFA
+        transitions.getTransitions().get(1).add(new NFATransition<>('a', 0));
+        assertTrue(nfa.getTransitions(1, 'a').isEmpty());
+        assertFalse(nfa.getTransitionsView().getTransitions().containsKey(1));
+
+        // getTransitions returns a modifiable copy
+        NFATransitions<Integer, Character> copy = nfa.getTransitions();
+        copy.addTransition(1, new NFATransition<>('a', 0));
+        assertEquals(1, copy.getTransitions(1, 'a').size());
+        assertTrue(nfa.getTransitions(1, 'a').isEmpty());
+
+        // neither does the map of a modifiable instance, whose sets are read-only as well
+        copy.getTransitions().get(2).add(new NFATransition<>('a', 0));
+        assertTrue(copy.in(2).isEmpty());
+        assertTrue(copy.getTransitions(2, 'a').isEmpty());
+        try {
+            copy.getTransitions().get(0).clear();
+            fail("Expected the transitions of a state to be read-only");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+
+        // the builder works on a copy
+        NFA<Integer, Character> extended =
+                new NFABuilder<>(nfa).withTransition(1, 'a', 0).build().unwrap();
+        assertEquals(1, extended.getTransitions(1, 'a').size());
+        assertTrue(nfa.getTransitions(1, 'a').isEmpty());
+    }
+}
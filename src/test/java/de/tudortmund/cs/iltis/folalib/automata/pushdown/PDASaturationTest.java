@@ -0,0 +1,180 @@
+package de.tudortmund.cs.iltis.folalib.automata.pushdown;
+
+import static org.junit.Assert.*;
+
+import de.tudortmund.cs.iltis.folalib.automata.pushdown.transformation.CFGToPDATransformation;
+import de.tudortmund.cs.iltis.folalib.grammar.construction.builder.ContextFreeGrammarBuilder;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.earley.EarleyRecognizer;
+import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
+import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import de.tudortmund.cs.iltis.folalib.languages.Alphabets;
+import de.tudortmund.cs.iltis.folalib.languages.WordGenerator;
+import de.tudortmund.cs.iltis.folalib.languages.Words;
+import de.tudortmund.cs.iltis.folalib.transform.MaybeGenerated;
+import org.junit.Test;
+
+public class PDASaturationTest {
+
+    /* Automaton taken from GTI lecture slides (SS18), page 337 */
+    private static PDA<String, Character, Integer> correctParentheses() {
+        Integer wildcard = null;
+        return new PDABuilder<String, Character, Integer>(Alphabets.characterAlphabet("({)}"))
+                .withStackSymbols(new Alphabet<>(0, 1, 2))
+                .withStates("q0", "q1")
+                .withInitial("q0")
+                .withInitialStackSymbol(0)
+                .withAcceptanceStrategy(PDAAcceptanceStrategy.EMPTY_STACK)
+                .withTransition(
+                        "q0", '(', PDAStackSymbol.wildcard(), "q0", new PDAStackWord<>(1, wildcard))
+                .withTransition(
+                        "q0", '{', PDAStackSymbol.wildcard(), "q0", new PDAStackWord<>(2, wildcard))
+                .withTransition("q0", ')', 1, "q0", new PDAStackWord<>())
+                .withTransition("q0", '}', 2, "q0", new PDAStackWord<>())
+                .withEpsilonTransition("q0", 0, "q1", new PDAStackWord<>())
+                .build()
+                .unwrap();
+    }
+
+    /* Automaton taken from GTI lecture slides (SS18), page 343 */
+    private static PDA<String, Character, Integer> longerPrefixThanSuffix() {
+        Integer wildcard = null;
+        return new PDABuilder<String, Character, Integer>(Alphabets.characterAlphabet("ab"))
+                .withStackSymbols(new Alphabet<>(0, 1, 2))
+                .withStates("q0", "q1")
+                .withInitial("q0")
+                .withAccepting("q1")
+                .withInitialStackSymbol(0)
+                .withAcceptanceStrategy(PDAAcceptanceStrategy.ACCEPTING_STATES)
+                .withTransition("q0", 'a', 0, "q0", new PDAStackWord<>(1, 0))
+                .withTransition("q0", 'a', 1, "q0", new PDAStackWord<>(1, 1))
+                .withTransition("q0", 'a', 2, "q0", new PDAStackWord<>(1, 2))
+                .withEpsilonTransition(
+                        "q0", PDAStackSymbol.wildcard(), "q1", new PDAStackWord<>(wildcard))
+                .withTransition("q1", 'b', 1, "q1", new PDAStackWord<>())
+                .build()
+                .unwrap();
+    }
+
+    /** An epsilon loop pushes unboundedly many 1s, which have to be popped by reading b */
+    private static PDA<String, Character, Integer> growingEpsilonLoop(
+            PDAAcceptanceStrategy strategy) {
+        return new PDABuilder<String, Character, Integer>(Alphabets.characterAlphabet("ab"))
+                .withStackSymbols(new Alphabet<>(0, 1))
+                .withStates("q0", "q1")
+                .withInitial("q0")
+                .withAccepting("q1")
+                .withInitialStackSymbol(0)
+                .withAcceptanceStrategy(strategy)
+                .withEpsilonTransition(
+                        "q0", PDAStackSymbol.wildcard(), "q0", new PDAStackWord<>(1, null))
+                .withTransition("q0", 'a', 1, "q1", new PDAStackWord<>())
+                .withTransition("q1", 'b', 1, "q1", new PDAStackWord<>())
+                .withEpsilonTransition("q1", 0, "q1", new PDAStackWord<>())
+                .build()
+                .unwrap();
+    }
+
+    /** E -> E+T | T, T -> (E) | x, whose PDA has a left-recursive epsilon loop */
+    private static ContextFreeGrammar<
+                    Character, Character, ContextFreeProduction<Character, Character>>
+            expressions() {
+        return new ContextFreeGrammarBuilder<>(
+                        new Alphabet<>('+', '(', ')', 'x'), new Alphabet<>('E', 'T'))
+                .withStartSymbol('E')
+                .withProduction('E')
+                .nt('E')
+                .t('+')
+                .nt('T')
+                .finish()
+                .withProduction('E')
+                .nt('T')
+                .finish()
+                .withProduction('T')
+                .t('(')
+                .nt('E')
+                .t(')')
+                .finish()
+                .withProduction('T')
+                .t('x')
+                .finish()
+                .build()
+                .unwrap();
+    }
+
+    @Test
+    public void testEmptyStack() {
+        PDA<String, Character, Integer> pda = correctParentheses();
+
+        assertTrue(pda.accepts(Words.characterWord("")));
+        assertTrue(pda.accepts(Words.characterWord("({()()})()")));
+        assertTrue(pda.accepts(Words.characterWord("{{()}}")));
+        assertFalse(pda.accepts(Words.characterWord("(()")));
+        assertFalse(pda.accepts(Words.characterWord("()({)}")));
+        assertFalse(pda.accepts(Words.characterWord("()[]")));
+    }
+
+    @Test
+    public void testAcceptingStates() {
+        PDA<String, Character, Integer> pda = longerPrefixThanSuffix();
+
+        assertTrue(pda.accepts(Words.characterWord("")));
+        assertTrue(pda.accepts(Words.characterWord("aaaabbb")));
+        assertTrue(pda.accepts(Words.characterWord("aaabbb")));
+        assertFalse(pda.accepts(Words.characterWord("aaabbbb")));
+        assertFalse(pda.accepts(Words.characterWord("aababbbbb")));
+        assertFalse(pda.accepts(Words.characterWord("bbbbbbb")));
+    }
+
+    @Test
+    public void testGrowingEpsilonLoop() {
+        for (PDAAcceptanceStrategy strategy : PDAAcceptanceStrategy.values()) {
+            PDASaturation<String, Character, Integer> saturation =
+                    PDASaturation.of(growingEpsilonLoop(strategy));
+
+            assertTrue(saturation.accepts(Words.characterWord("a")));
+            assertTrue(saturation.accepts(Words.characterWord("abbbbbbbbbb")));
+            assertFalse(saturation.accepts(Words.characterWord("")));
+            assertFalse(saturation.accepts(Words.characterWord("aab")));
+            assertTrue(saturation.acceptsAnyWord());
+        }
+    }
+
+    @Test
+    public void testAgreesWithGrammar() {
+        ContextFreeGrammar<Character, Character, ContextFreeProduction<Character, Character>>
+                grammar = expressions();
+        PDA<String, Character, MaybeGenerated<Character, Character>> pda =
+                new CFGToPDATransformation<Character, Character>().transform(grammar);
+        PDASaturation<String, Character, MaybeGenerated<Character, Character>> saturation =
+                PDASaturation.of(pda);
+        EarleyRecognizer<Character> earley = EarleyRecognizer.compile(grammar);
+
+        new WordGenerator<>(grammar.getTerminals())
+                .allWordsUpToSize(6)
+                .forEach(
+                        word ->
+                                assertEquals(
+                                        word.toString(),
+                                        earley.accepts(word),
+                                        saturation.accepts(word)));
+    }
+
+    @Test
+    public void testEmptyLanguage() {
+        PDA<String, Character, Integer> pda =
+                new PDABuilder<String, Character, Integer>(Alphabets.characterAlphabet("a"))
+                        .withStackSymbols(new Alphabet<>(0, 1))
+                        .withStates("q0")
+                        .withInitial("q0")
+                        .withInitialStackSymbol(0)
+                        .withAcceptanceStrategy(PDAAcceptanceStrategy.EMPTY_STACK)
+                        .withTransition("q0", 'a', 0, "q0", new PDAStackWord<>(1, 0))
+                        .withEpsilonTransition("q0", 1, "q0", new PDAStackWord<>(1, 1))
+                        .build()
+                        .unwrap();
+
+        assertFalse(PDASaturation.of(pda).acceptsAnyWord());
+        assertTrue(PDASaturation.of(correctParentheses()).acceptsAnyWord());
+    }
+}
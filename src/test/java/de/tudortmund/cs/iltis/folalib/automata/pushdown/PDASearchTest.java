@@ -0,0 +1,119 @@
+package de.tudortmund.cs.iltis.folalib.automata.pushdown;
+
+import static org.junit.Assert.*;
+
+import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import de.tudortmund.cs.iltis.folalib.languages.Alphabets;
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import de.tudortmund.cs.iltis.folalib.languages.Words;
+import java.util.List;
+import org.junit.Test;
+
+public class PDASearchTest {
+
+    /* Automaton taken from GTI lecture slides (SS18), page 337 */
+    private static PDA<String, Character, Integer> correctParentheses() {
+        Integer wildcard = null;
+        return new PDABuilder<String, Character, Integer>(Alphabets.characterAlphabet("({)}"))
+                .withStackSymbols(new Alphabet<>(0, 1, 2))
+                .withStates("q0", "q1")
+                .withInitial("q0")
+                .withInitialStackSymbol(0)
+                .withAcceptanceStrategy(PDAAcceptanceStrategy.EMPTY_STACK)
+                .withTransition(
+                        "q0", '(', PDAStackSymbol.wildcard(), "q0", new PDAStackWord<>(1, wildcard))
+                .withTransition(
+                        "q0", '{', PDAStackSymbol.wildcard(), "q0", new PDAStackWord<>(2, wildcard))
+                .withTransition("q0", ')', 1, "q0", new PDAStackWord<>())
+                .withTransition("q0", '}', 2, "q0", new PDAStackWord<>())
+                .withEpsilonTransition("q0", 0, "q1", new PDAStackWord<>())
+                .build()
+                .unwrap();
+    }
+
+    /** An epsilon loop pushes unboundedly many 1s, which have to be popped by reading b */
+    private static PDA<String, Character, Integer> growingEpsilonLoop(
+            PDAAcceptanceStrategy strategy) {
+        return new PDABuilder<String, Character, Integer>(Alphabets.characterAlphabet("ab"))
+                .withStackSymbols(new Alphabet<>(0, 1))
+                .withStates("q0", "q1")
+                .withInitial("q0")
+                .withAccepting("q1")
+                .withInitialStackSymbol(0)
+                .withAcceptanceStrategy(strategy)
+                .withEpsilonTransition(
+                        "q0", PDAStackSymbol.wildcard(), "q0", new PDAStackWord<>(1, null))
+                .withTransition("q0", 'a', 1, "q1", new PDAStackWord<>())
+                .withTransition("q1", 'b', 1, "q1", new PDAStackWord<>())
+                .withEpsilonTransition("q1", 0, "q1", new PDAStackWord<>())
+                .build()
+                .unwrap();
+    }
+
+    @Test
+    public void testAcceptingRun() {
+        PDA<String, Character, Integer> pda = correctParentheses();
+        Word<Character> word = Words.characterWord("({})");
+        PDASearchResult<String, Character, Integer> result = new PDASearch<>(pda).run(word);
+
+        assertEquals(PDASearchOutcome.ACCEPTED, result.getOutcome());
+        List<PDAConfiguration<String, Character, Integer>> run = result.getAcceptingRun().get();
+        List<PDATransition<String, Character, Integer>> transitions =
+                result.getAcceptingTransitions().get();
+
+        assertEquals(transitions.size() + 1, run.size());
+        assertTrue(pda.getAllStartConfigurations(word).contains(run.get(0)));
+        for (int i = 0; i < transitions.size(); i++) {
+            assertTrue(transitions.get(i).isApplicable(run.get(i)));
+            assertEquals(run.get(i + 1), transitions.get(i).fire(run.get(i)));
+        }
+        assertTrue(pda.isAcceptingConfiguration(run.get(run.size() - 1)));
+    }
+
+    @Test
+    public void testRejection() {
+        PDASearch<String, Character, Integer> search = new PDASearch<>(correctParentheses());
+
+        for (String word : new String[] {"(()", "()({)}", "({)}", ")("}) {
+            PDASearchResult<String, Character, Integer> result =
+                    search.run(Words.characterWord(word));
+            assertEquals(word, PDASearchOutcome.REJECTED, result.getOutcome());
+            assertFalse(result.getAcceptingRun().isPresent());
+        }
+    }
+
+    @Test
+    public void testPruningByRemainingInput() {
+        PDASearch<String, Character, Integer> emptyStack =
+                new PDASearch<>(growingEpsilonLoop(PDAAcceptanceStrategy.EMPTY_STACK));
+
+        assertTrue(emptyStack.run(Words.characterWord("abbb")).isAccepted());
+        assertEquals(
+                PDASearchOutcome.REJECTED,
+                emptyStack.run(Words.characterWord("b")).getOutcome());
+        assertEquals(
+                PDASearchOutcome.REJECTED,
+                emptyStack.run(Words.characterWord("aab")).getOutcome());
+    }
+
+    @Test
+    public void testBudgetExhaustion() {
+        PDA<String, Character, Integer> pda =
+                growingEpsilonLoop(PDAAcceptanceStrategy.ACCEPTING_STATES);
+
+        PDASearchResult<String, Character, Integer> result =
+                new PDASearch<>(pda).withMaximumConfigurations(500).run(Words.characterWord("b"));
+        assertEquals(PDASearchOutcome.BUDGET_EXHAUSTED, result.getOutcome());
+        assertEquals(500, result.getNumberOfConfigurations());
+
+        PDASearch<String, Character, Integer> bounded =
+                new PDASearch<>(pda).withMaximumStackHeight(5);
+        assertEquals(
+                PDASearchOutcome.BUDGET_EXHAUSTED,
+                bounded.run(Words.characterWord("b")).getOutcome());
+        assertTrue(bounded.run(Words.characterWord("abbb")).isAccepted());
+        assertEquals(
+                PDASearchOutcome.BUDGET_EXHAUSTED,
+                bounded.run(Words.characterWord("abbbbbb")).getOutcome());
+    }
+}
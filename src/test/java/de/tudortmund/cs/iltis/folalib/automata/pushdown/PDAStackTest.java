@@ -0,0 +1,86 @@
+package de.tudortmund.cs.iltis.folalib.automata.pushdown;
+
+import static org.junit.Assert.*;
+
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import de.tudortmund.cs.iltis.folalib.languages.Words;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import org.junit.Test;
+
+public class PDAStackTest {
+
+    @Test
+    public void testPushAndPop() {
+        PDAStack<Integer> empty = PDAStack.empty();
+        PDAStack<Integer> stack = empty.push(1).push(2);
+
+        assertTrue(empty.isEmpty());
+        assertEquals(2, stack.size());
+        assertEquals(Optional.of(2), stack.peek());
+        assertEquals(Optional.of(1), stack.pop().peek());
+        assertEquals(empty, stack.pop().pop());
+        assertEquals(Optional.empty(), empty.peek());
+        assertEquals("[2, 1]", stack.toString());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testPopEmpty() {
+        PDAStack.empty().pop();
+    }
+
+    @Test
+    public void testAgreesWithDeque() {
+        Deque<Integer> deque = new LinkedList<>();
+        deque.push(1);
+        deque.push(2);
+        deque.push(3);
+
+        PDAStack<Integer> stack = PDAStack.of(deque);
+        assertEquals(PDAStack.<Integer>empty().pushAll(Arrays.asList(3, 2, 1)), stack);
+        assertEquals(deque, stack.toDeque());
+        assertEquals(deque.toString(), stack.toString());
+    }
+
+    @Test
+    public void testEqualityOfSharedAndUnsharedStacks() {
+        PDAStack<Integer> base = PDAStack.<Integer>empty().push(1).push(2);
+        PDAStack<Integer> shared = base.push(3);
+        PDAStack<Integer> copy = PDAStack.of(Arrays.asList(3, 2, 1));
+
+        assertSame(base, shared.pop());
+        assertEquals(shared, copy);
+        assertEquals(shared.hashCode(), copy.hashCode());
+        assertNotEquals(shared, base.push(4));
+        assertNotEquals(shared, base);
+    }
+
+    @Test
+    public void testDeepStack() {
+        PDATransition<String, Character, Integer> push =
+                new PDATransition<>(
+                        "q", 'a', PDAStackSymbol.wildcard(), new PDAStackWord<>(0, null));
+
+        int n = 100000;
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < n; i++) input.append('a');
+        Word<Character> word = Words.characterWord(input.toString());
+
+        PDAConfiguration<String, Character, Integer> configuration =
+                new PDAConfiguration<>("q", word, PDAStack.<Integer>empty().push(1), 0);
+        PDAConfiguration<String, Character, Integer> other =
+                new PDAConfiguration<>("q", word, PDAStack.<Integer>empty().push(1), 0);
+        for (int i = 0; i < n; i++) {
+            configuration = push.fire(configuration);
+            other = push.fire(other);
+        }
+
+        assertEquals(n + 1, configuration.getPDAStack().size());
+        assertEquals(Optional.of(0), configuration.getTopOfStack());
+        assertEquals(configuration, other);
+        assertEquals(configuration.hashCode(), other.hashCode());
+    }
+}
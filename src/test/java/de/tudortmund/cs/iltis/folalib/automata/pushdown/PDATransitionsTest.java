@@ -0,0 +1,132 @@
+package de.tudortmund.cs.iltis.folalib.automata.pushdown;
+
+import static org.junit.Assert.*;
+
+import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import de.tudortmund.cs.iltis.folalib.languages.Alphabets;
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import de.tudortmund.cs.iltis.folalib.languages.Words;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class PDATransitionsTest {
+
+    private static PDA<String, Character, Integer> mixedStackSymbols() {
+        return new PDABuilder<String, Character, Integer>(Alphabets.characterAlphabet("ab"))
+                .withStackSymbols(new Alphabet<>(0, 1, 2))
+                .withStates("p", "q")
+                .withInitial("p")
+                .withInitialStackSymbol(0)
+                .withAcceptanceStrategy(PDAAcceptanceStrategy.EMPTY_STACK)
+                .withTransition("p", 'a', 0, "p", new PDAStackWord<>(1, 0))
+                .withTransition(
+                        "p", 'a', PDAStackSymbol.wildcard(), "p", new PDAStackWord<>(2, null))
+                .withTransition("p", 'b', PDAStackSymbol.anyOf(1, 2), "q", new PDAStackWord<>())
+                .withEpsilonTransition("p", 2, "q", new PDAStackWord<>(2))
+                .withTransition("q", 'b', 1, "q", new PDAStackWord<>())
+                .withEpsilonTransition("q", 0, "q", new PDAStackWord<>())
+                .build()
+                .unwrap();
+    }
+
+    @Test
+    public void testAgreesWithApplicability() {
+        PDA<String, Character, Integer> pda = mixedStackSymbols();
+        Word<Character> word = Words.characterWord("ab");
+
+        for (String state : pda.getStates()) {
+            for (int position = 0; position <= word.size(); position++) {
+                for (Integer top : new Integer[] {null, 0, 1, 2}) {
+                    Deque<Integer> stack = new ArrayDeque<>();
+                    if (top != null) stack.push(top);
+                    PDAConfiguration<String, Character, Integer> configuration =
+                            new PDAConfiguration<>(state, word, stack, position);
+
+                    Set<PDATransition<String, Character, Integer>> expected =
+                            pda.getTransitions().in(state).stream()
+                                    .filter(transition -> transition.isApplicable(configuration))
+                                    .collect(Collectors.toSet());
+                    assertEquals(
+                            configuration.toString(),
+                            expected,
+                            pda.getApplicableTransitions(configuration));
+                    assertEquals(
+                            configuration.toString(),
+                            expected.isEmpty(),
+                            pda.isHaltingConfiguration(configuration));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testHaltingOnlyConsidersOwnState() {
+        PDA<String, Character, Integer> pda = mixedStackSymbols();
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(1);
+
+        // Only p has a transition reading a with 1 on top of the stack
+        assertFalse(
+                pda.isHaltingConfiguration(
+                        new PDAConfiguration<>("p", Words.characterWord("a"), stack)));
+        assertTrue(
+                pda.isHaltingConfiguration(
+                        new PDAConfiguration<>("q", Words.characterWord("a"), stack)));
+    }
+
+    @Test
+    public void testAddTransitionUpdatesIndex() {
+        PDATransitions<String, Character, Integer> transitions = new PDATransitions<>();
+        PDATransition<String, Character, Integer> read =
+                new PDATransition<>("q", 'a', PDAStackSymbol.exactly(0), new PDAStackWord<>());
+        PDATransition<String, Character, Integer> epsilon =
+                new PDATransition<>("q", PDAStackSymbol.wildcard(), new PDAStackWord<>());
+
+        transitions.addTransition("p", read);
+        assertFalse(transitions.anyApplicable("p", 'b', 0));
+        transitions.addTransition("p", epsilon);
+
+        assertTrue(transitions.anyApplicable("p", 'b', 0));
+        assertEquals(2, transitions.applicable("p", 'a', 0).size());
+        assertEquals(1, transitions.applicable("p", null, 1).size());
+        assertTrue(transitions.applicable("p", 'a', null).isEmpty());
+        assertTrue(transitions.applicable("q", 'a', 0).isEmpty());
+    }
+
+    @Test
+    public void testIndexCannotGoStale() {
+        PDATransitions<String, Character, Integer> transitions = new PDATransitions<>();
+        transitions.addTransition(
+                "p",
+                new PDATransition<>("q", 'a', PDAStackSymbol.exactly(0), new PDAStackWord<>()));
+
+        Set<PDATransition<String, Character, Integer>> applicable =
+                transitions.applicable("p", 'a', 0);
+        assertSame(applicable, transitions.applicable("p", 'a', 0));
+        try {
+            applicable.clear();
+            fail("Expected the applicable transitions to be read-only");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            transitions.in("p").clear();
+            fail("Expected the transitions of a state to be read-only");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            transitions.getTransitions().get("p").clear();
+            fail("Expected the transitions of a state to be read-only");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+
+        transitions.removeTransitions("p");
+        assertTrue(transitions.in("p").isEmpty());
+        assertFalse(transitions.anyApplicable("p", 'a', 0));
+    }
+}
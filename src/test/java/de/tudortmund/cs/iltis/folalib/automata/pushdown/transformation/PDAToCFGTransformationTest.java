@@ -6,9 +6,11 @@ import de.tudortmund.cs.iltis.folalib.automata.pushdown.*;
 import de.tudortmund.cs.iltis.folalib.grammar.GrammarSymbol;
 import de.tudortmund.cs.iltis.folalib.grammar.SententialForm;
 import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.earley.EarleyRecognizer;
 import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
 import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
 import de.tudortmund.cs.iltis.folalib.languages.Alphabets;
+import de.tudortmund.cs.iltis.folalib.languages.WordGenerator;
 import java.util.Set;
 import org.junit.Test;
 
@@ -143,35 +145,80 @@ public class PDAToCFGTransformationTest extends Utils {
                         new SententialForm<>(term('b'), nonTerm(q, 1, p), nonTerm(p, 1, p)));
 
         assertEquals(pda.getAlphabet(), grammar.getTerminals()); // input alphabet must be identical
-        assertEquals(9, grammar.getNonTerminals().size());
-        assertEquals(26, grammar.getProductions().size());
+        // [p, 1, q] and [q, 1, p] are not productive, so productions containing them are skipped
+        assertEquals(7, grammar.getNonTerminals().size());
+        assertEquals(16, grammar.getProductions().size());
 
         assertContains(productions, cfp0);
         assertContains(productions, cfp1);
         assertContains(productions, cfp2);
-        assertContains(productions, cfp3);
+        assertFalse(productions.contains(cfp3));
         assertContains(productions, cfp4);
         assertContains(productions, cfp5);
         assertContains(productions, cfp6);
-        assertContains(productions, cfp7);
+        assertFalse(productions.contains(cfp7));
         assertContains(productions, cfp8);
         assertContains(productions, cfp9);
-        assertContains(productions, cfp10);
+        assertFalse(productions.contains(cfp10));
         assertContains(productions, cfp11);
-        assertContains(productions, cfp12);
-        assertContains(productions, cfp13);
+        assertFalse(productions.contains(cfp12));
+        assertFalse(productions.contains(cfp13));
         assertContains(productions, cfp14);
-        assertContains(productions, cfp15);
+        assertFalse(productions.contains(cfp15));
         assertContains(productions, cfp16);
         assertContains(productions, cfp17);
         assertContains(productions, cfp18);
-        assertContains(productions, cfp19);
+        assertFalse(productions.contains(cfp19));
         assertContains(productions, cfp20);
         assertContains(productions, cfp21);
-        assertContains(productions, cfp22);
+        assertFalse(productions.contains(cfp22));
         assertContains(productions, cfp23);
-        assertContains(productions, cfp24);
-        assertContains(productions, cfp25);
+        assertFalse(productions.contains(cfp24));
+        assertFalse(productions.contains(cfp25));
+    }
+
+    @Test
+    public void testOnlyUsefulNonTerminals() {
+        // 25 states in a ring: reading a pushes 1 and moves on, reading b pops 1 and jumps
+        PDABuilder<String, Character, Integer> ringBuilder =
+                new PDABuilder<String, Character, Integer>(inputAlphabet)
+                        .withStackSymbols(stackAlphabet)
+                        .withInitialStackSymbol(0)
+                        .withAcceptanceStrategy(PDAAcceptanceStrategy.EMPTY_STACK);
+        int n = 25;
+        for (int i = 0; i < n; i++) {
+            String state = "r" + i;
+            ringBuilder
+                    .withStates(state)
+                    .withTransition(
+                            state,
+                            'a',
+                            PDAStackSymbol.wildcard(),
+                            "r" + (i + 1) % n,
+                            new PDAStackWord<>(1, null))
+                    .withTransition(state, 'b', 1, "r" + (7 * i + 3) % n, new PDAStackWord<>());
+        }
+        PDA<String, Character, Integer> ring =
+                ringBuilder
+                        .withInitial("r0")
+                        .withEpsilonTransition("r0", 0, "r0", new PDAStackWord<>())
+                        .build()
+                        .unwrap();
+
+        ContextFreeGrammar<Character, String, ContextFreeProduction<Character, String>> grammar =
+                new PDAToCFGTransformation<String, Character, Integer>().transform(ring);
+
+        assertTrue(grammar.unreachableNonTerminals().isEmpty());
+        assertEquals(
+                grammar.getNonTerminals().toUnmodifiableSet(), grammar.generatingNonTerminals());
+
+        EarleyRecognizer<Character> earley = EarleyRecognizer.compile(grammar);
+        new WordGenerator<>(inputAlphabet)
+                .allWordsUpToSize(8)
+                .forEach(
+                        word ->
+                                assertEquals(
+                                        word.toString(), ring.accepts(word), earley.accepts(word)));
     }
 
     @Test
@@ -0,0 +1,130 @@
+package de.tudortmund.cs.iltis.folalib.grammar;
+
+import de.tudortmund.cs.iltis.folalib.grammar.construction.builder.ContextFreeGrammarBuilder;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.CYKRecognizer;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.ValiantRecognizer;
+import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import de.tudortmund.cs.iltis.folalib.languages.ContextFreeLanguage;
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the running times of {@link CYKRecognizer} and {@link ValiantRecognizer} on words of
+ * increasing length and reports the length from which on the latter stays faster. This is not a
+ * unit test: its name does not match the test includes of the surefire plugin, so run its {@link
+ * #main(String[])} method manually. {@link ValiantRecognizer#RECOMMENDED_MINIMUM_LENGTH} is based
+ * on its output.
+ *
+ * <p>The grammar is the CNF (as computed by {@link ContextFreeLanguage#getCNF()}) of a grammar for
+ * arithmetic expressions, the words are random expressions.
+ */
+public class CFGRecognitionBenchmark {
+
+    private static final int MINIMUM_REPETITIONS = 5;
+
+    /* Short words are repeated until their measurement takes at least this long */
+    private static final long MINIMUM_NANOS = 500_000_000L;
+
+    public static void main(String[] args) {
+        ContextFreeLanguage<Character> language = arithmeticExpressions();
+        CYKRecognizer<Character> cyk = language.getCYKRecognizer();
+        ValiantRecognizer<Character> valiant = language.getValiantRecognizer();
+        System.out.println("Non-terminals of the CNF: " + cyk.getNumberOfNonTerminals());
+        System.out.println("length\tCYK [ms]\tValiant [ms]");
+
+        Random random = new Random(42);
+        Word<Character> warmUp = randomExpression(random, 256);
+        for (int i = 0; i < 50; i++) {
+            cyk.accepts(warmUp);
+            valiant.accepts(warmUp);
+        }
+
+        Integer crossover = null;
+        for (int length = 16; length <= 4096; length = length * 3 / 2) {
+            Word<Character> word = randomExpression(random, length);
+            if (!cyk.accepts(word) || !valiant.accepts(word))
+                throw new AssertionError("The generated expression is rejected");
+
+            double cykTime = measure(() -> cyk.accepts(word));
+            double valiantTime = measure(() -> valiant.accepts(word));
+            System.out.printf("%d\t%.2f\t%.2f%n", word.size(), cykTime, valiantTime);
+
+            if (valiantTime >= cykTime) crossover = null;
+            else if (crossover == null) crossover = word.size();
+            if (cykTime > 1000) break;
+        }
+
+        System.out.println("Crossover: " + (crossover == null ? "not reached" : crossover));
+    }
+
+    /** E -> E+T | T, T -> T*F | F, F -> (E) | a */
+    private static ContextFreeLanguage<Character> arithmeticExpressions() {
+        ContextFreeGrammarBuilder<Character, String> builder =
+                new ContextFreeGrammarBuilder<>(
+                        new Alphabet<>('a', '+', '*', '(', ')'), new Alphabet<>("E", "T", "F"));
+        builder.withStartSymbol("E")
+                .withProduction("E")
+                .nt("E")
+                .t('+')
+                .nt("T")
+                .finish()
+                .withProduction("E")
+                .nt("T")
+                .finish()
+                .withProduction("T")
+                .nt("T")
+                .t('*')
+                .nt("F")
+                .finish()
+                .withProduction("T")
+                .nt("F")
+                .finish()
+                .withProduction("F")
+                .t('(')
+                .nt("E")
+                .t(')')
+                .finish()
+                .withProduction("F")
+                .t('a')
+                .finish();
+        return new ContextFreeLanguage<>(builder.build().unwrap());
+    }
+
+    /** A random expression of at least the given length */
+    private static Word<Character> randomExpression(Random random, int length) {
+        List<Character> symbols = new ArrayList<>();
+        appendExpression(random, length, symbols);
+        return new Word<>(symbols);
+    }
+
+    private static void appendExpression(Random random, int length, List<Character> symbols) {
+        if (length <= 1) {
+            symbols.add('a');
+        } else if (length <= 3 || random.nextInt(4) > 0) {
+            int left = 1 + random.nextInt(length - 1);
+            appendExpression(random, left, symbols);
+            symbols.add(random.nextBoolean() ? '+' : '*');
+            appendExpression(random, length - left - 1, symbols);
+        } else {
+            symbols.add('(');
+            appendExpression(random, length - 2, symbols);
+            symbols.add(')');
+        }
+    }
+
+    /** The average running time in milliseconds, after a warm-up run */
+    private static double measure(Runnable run) {
+        run.run();
+        int repetitions = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            run.run();
+            repetitions++;
+            elapsed = System.nanoTime() - start;
+        } while (repetitions < MINIMUM_REPETITIONS || elapsed < MINIMUM_NANOS);
+        return elapsed / 1e6 / repetitions;
+    }
+}
@@ -0,0 +1,92 @@
+package de.tudortmund.cs.iltis.folalib.grammar;
+
+import static org.junit.Assert.*;
+
+import de.tudortmund.cs.iltis.folalib.grammar.construction.builder.ChomskyNormalFormGrammarBuilder;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.CYKRecognizer;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.CorrectCYKTableau;
+import de.tudortmund.cs.iltis.folalib.grammar.production.ChomskyNormalformProduction;
+import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import de.tudortmund.cs.iltis.folalib.languages.WordGenerator;
+import de.tudortmund.cs.iltis.folalib.languages.Words;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Test;
+
+public class CYKRecognizerTest {
+
+    /** The grammar of {@link CYKTest#testCYK()} */
+    private static ContextFreeGrammar<
+                    Character, Character, ChomskyNormalformProduction<Character, Character>>
+            equalNumberOfZerosAndOnes() {
+        return new ChomskyNormalFormGrammarBuilder<>(
+                        new Alphabet<>('0', '1'),
+                        new Alphabet<>('S', 'T', 'N', 'E', 'A', 'B', 'C', 'D'))
+                .withStartSymbol('S')
+                .withProduction('S', 'N', 'B')
+                .withProduction('S', 'E', 'A')
+                .withProduction('T', 'N', 'B')
+                .withProduction('T', 'E', 'A')
+                .withProduction('N', '0')
+                .withProduction('E', '1')
+                .withProduction('A', '0')
+                .withProduction('B', '1')
+                .withProduction('A', 'N', 'T')
+                .withProduction('A', 'E', 'C')
+                .withProduction('B', 'E', 'T')
+                .withProduction('B', 'N', 'D')
+                .withProduction('C', 'A', 'A')
+                .withProduction('D', 'B', 'B')
+                .build()
+                .unwrap();
+    }
+
+    @Test
+    public void testAgreesWithCYKTableau() {
+        ContextFreeGrammar<Character, Character, ChomskyNormalformProduction<Character, Character>>
+                grammar = equalNumberOfZerosAndOnes();
+        CYKRecognizer<Character> recognizer = CYKRecognizer.compile(grammar);
+
+        assertTrue(recognizer.accepts(Words.characterWord("01110100")));
+        assertFalse(recognizer.accepts(Words.characterWord("0111010")));
+        assertFalse(recognizer.accepts(Words.characterWord("0121")));
+        assertFalse(recognizer.accepts(new Word<>()));
+
+        new WordGenerator<>(grammar.getTerminals())
+                .allWordsUpToSize(8)
+                .filter(word -> !word.isEmpty())
+                .forEach(
+                        word ->
+                                assertEquals(
+                                        word.toString(),
+                                        CorrectCYKTableau.compute(grammar, word).accepts(),
+                                        recognizer.accepts(word)));
+    }
+
+    @Test
+    public void testManyNonTerminals() {
+        // N0 -> N1 N69, ..., N68 -> N69 N69 and N69 -> a: N0 derives exactly a^70
+        int n = 70;
+        Alphabet<String> nonTerminals =
+                new Alphabet<>(
+                        IntStream.range(0, n)
+                                .mapToObj(i -> "N" + i)
+                                .collect(Collectors.toList()));
+        ChomskyNormalFormGrammarBuilder<Character, String> builder =
+                new ChomskyNormalFormGrammarBuilder<>(new Alphabet<>('a'), nonTerminals);
+        builder.withStartSymbol("N0").withProduction("N" + (n - 1), 'a');
+        for (int i = 0; i < n - 1; i++)
+            builder.withProduction("N" + i, "N" + (i + 1), "N" + (n - 1));
+
+        CYKRecognizer<Character> recognizer = CYKRecognizer.compile(builder.build().unwrap());
+        assertEquals(n, recognizer.getNumberOfNonTerminals());
+
+        WordGenerator<Character> generator = new WordGenerator<>(new Alphabet<>('a'));
+        for (int length = 1; length <= n + 1; length++)
+            assertEquals(
+                    length == n,
+                    recognizer.accepts(generator.allWordsOfSize(length).findFirst().get()));
+    }
+}
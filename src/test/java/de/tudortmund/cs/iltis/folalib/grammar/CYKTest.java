@@ -4,45 +4,53 @@ import static org.junit.Assert.*;
 
 import de.tudortmund.cs.iltis.folalib.grammar.construction.builder.ChomskyNormalFormGrammarBuilder;
 import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.CYKTableau;
 import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.CorrectCYKTableau;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.ExtendedCYKTableauEntry;
 import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.InternalCYKTableauEntry;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.fault.CYKEntryFault;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.fault.CYKEntryFaultCollection;
 import de.tudortmund.cs.iltis.folalib.grammar.production.ChomskyNormalformProduction;
 import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
 import de.tudortmund.cs.iltis.folalib.languages.Word;
 import de.tudortmund.cs.iltis.folalib.languages.Words;
+import de.tudortmund.cs.iltis.folalib.util.Result;
 import de.tudortmund.cs.iltis.utils.collections.Pair;
-import java.util.Arrays;
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.*;
 import org.junit.Test;
 
 public class CYKTest {
+    // This tests case is taken from Prof. Schwentick's GTI SS18 slides, chapter B11, slide 17 (with
+    // the epsilon production removed)
+    private static ContextFreeGrammar<
+                    Character, Character, ChomskyNormalformProduction<Character, Character>>
+            equalNumberOfZerosAndOnes() {
+        return new ChomskyNormalFormGrammarBuilder<>(
+                        new Alphabet<>('0', '1'),
+                        new Alphabet<>('S', 'T', 'N', 'E', 'A', 'B', 'C', 'D'))
+                .withStartSymbol('S')
+                .withProduction('S', 'N', 'B')
+                .withProduction('S', 'E', 'A')
+                .withProduction('T', 'N', 'B')
+                .withProduction('T', 'E', 'A')
+                .withProduction('N', '0')
+                .withProduction('E', '1')
+                .withProduction('A', '0')
+                .withProduction('B', '1')
+                .withProduction('A', 'N', 'T')
+                .withProduction('A', 'E', 'C')
+                .withProduction('B', 'E', 'T')
+                .withProduction('B', 'N', 'D')
+                .withProduction('C', 'A', 'A')
+                .withProduction('D', 'B', 'B')
+                .build()
+                .unwrap();
+    }
+
     @Test
     public void testCYK() {
-        // This tests case is taken from Prof. Schwentick's GTI SS18 slides, chapter B11, slide 17
-        // (with the epsilon production removed)
         ContextFreeGrammar<Character, Character, ChomskyNormalformProduction<Character, Character>>
-                grammar =
-                        new ChomskyNormalFormGrammarBuilder<>(
-                                        new Alphabet<>('0', '1'),
-                                        new Alphabet<>('S', 'T', 'N', 'E', 'A', 'B', 'C', 'D'))
-                                .withStartSymbol('S')
-                                .withProduction('S', 'N', 'B')
-                                .withProduction('S', 'E', 'A')
-                                .withProduction('T', 'N', 'B')
-                                .withProduction('T', 'E', 'A')
-                                .withProduction('N', '0')
-                                .withProduction('E', '1')
-                                .withProduction('A', '0')
-                                .withProduction('B', '1')
-                                .withProduction('A', 'N', 'T')
-                                .withProduction('A', 'E', 'C')
-                                .withProduction('B', 'E', 'T')
-                                .withProduction('B', 'N', 'D')
-                                .withProduction('C', 'A', 'A')
-                                .withProduction('D', 'B', 'B')
-                                .build()
-                                .unwrap();
+                grammar = equalNumberOfZerosAndOnes();
 
         CorrectCYKTableau<Character, Character> tableau =
                 CorrectCYKTableau.compute(grammar, Words.characterWord("01110100"));
@@ -66,6 +74,100 @@ public class CYKTest {
         assertEntry(tableau, 2, 4, makeLinkedHashSet(new Pair<>('B', 2)));
     }
 
+    @Test
+    public void testValidateAfterChange() {
+        ContextFreeGrammar<Character, Character, ChomskyNormalformProduction<Character, Character>>
+                grammar = equalNumberOfZerosAndOnes();
+        Word<Character> word = Words.characterWord("01110100");
+        CorrectCYKTableau<Character, Character> correct = CorrectCYKTableau.compute(grammar, word);
+
+        CYKTableau<Character, Character, ExtendedCYKTableauEntry<Character>> incremental =
+                new CYKTableau<>(grammar, word);
+        CYKTableau<Character, Character, ExtendedCYKTableauEntry<Character>> full =
+                new CYKTableau<>(grammar, word);
+        for (int i = 0; i < word.size(); ++i) {
+            for (int j = i; j < word.size(); ++j) {
+                for (InternalCYKTableauEntry<Character, Character> entry : correct.get(i, j)) {
+                    ExtendedCYKTableauEntry<Character> copy =
+                            new ExtendedCYKTableauEntry<>(entry.getNonTerminal(), entry.getK());
+                    incremental.add(i, j, copy);
+                    full.add(i, j, copy);
+                }
+            }
+        }
+        assertTrue(incremental.validate().match(ok -> true, err -> false));
+
+        // toggle random entries, as a student would do, and compare against complete validations
+        Random random = new Random(1);
+        for (int step = 0; step < 200; ++step) {
+            Pair<Integer, Integer> cell = toggleRandomEntry(random, word, incremental, full);
+
+            assertEquals(
+                    describe(full.validate()),
+                    describe(incremental.validateAfterChange(cell.first(), cell.second())));
+        }
+
+        // changes of other cells than the reported one are detected as well
+        for (int step = 0; step < 50; ++step) {
+            toggleRandomEntry(random, word, incremental, full);
+            Pair<Integer, Integer> cell = toggleRandomEntry(random, word, incremental, full);
+
+            assertEquals(
+                    describe(full.validate()),
+                    describe(incremental.validateAfterChange(cell.first(), cell.second())));
+        }
+    }
+
+    /* Adds or removes the same random entry in both tableaux and returns its cell */
+    @SafeVarargs
+    private static Pair<Integer, Integer> toggleRandomEntry(
+            Random random,
+            Word<Character> word,
+            CYKTableau<Character, Character, ExtendedCYKTableauEntry<Character>>... tableaux) {
+        char[] nonTerminals = {'S', 'T', 'N', 'E', 'A', 'B', 'C', 'D'};
+        int i = random.nextInt(word.size());
+        int j = i + random.nextInt(word.size() - i);
+        ExtendedCYKTableauEntry<Character> entry =
+                new ExtendedCYKTableauEntry<>(
+                        nonTerminals[random.nextInt(nonTerminals.length)],
+                        i + random.nextInt(j - i + 1));
+
+        for (CYKTableau<Character, Character, ExtendedCYKTableauEntry<Character>> tableau :
+                tableaux) {
+            if (!tableau.get(i, j).remove(entry)) tableau.add(i, j, entry);
+        }
+        return new Pair<>(i, j);
+    }
+
+    private static <E extends ExtendedCYKTableauEntry<Character>>
+            Map<Pair<Integer, Integer>, List<String>> describe(
+                    Result<
+                                    CorrectCYKTableau<Character, Character>,
+                                    Map<
+                                            Pair<Integer, Integer>,
+                                            CYKEntryFaultCollection<Character, Character, E>>>
+                            result) {
+        return result.match(
+                ok -> new HashMap<>(),
+                err -> {
+                    Map<Pair<Integer, Integer>, List<String>> description = new HashMap<>();
+                    err.forEach(
+                            (cell, faults) -> {
+                                List<String> faultDescriptions = new ArrayList<>();
+                                for (CYKEntryFault<Character, Character, E> fault :
+                                        faults.getFaults())
+                                    faultDescriptions.add(
+                                            fault.getReason()
+                                                    + " "
+                                                    + fault.getNonTerminal()
+                                                    + " "
+                                                    + fault.afterEffectOf().keySet());
+                                description.put(cell, faultDescriptions);
+                            });
+                    return description;
+                });
+    }
+
     private static <T> Set<T> makeLinkedHashSet(T... elements) {
         Set<T> result = new LinkedHashSet<>(Arrays.asList(elements));
         return result;
@@ -0,0 +1,215 @@
+package de.tudortmund.cs.iltis.folalib.grammar;
+
+import static org.junit.Assert.*;
+
+import de.tudortmund.cs.iltis.folalib.grammar.construction.builder.ContextFreeGrammarBuilder;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ChomskyNormalFormConversion;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ToChomskyNormalFormTransform;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.earley.EarleyRecognizer;
+import de.tudortmund.cs.iltis.folalib.grammar.production.ChomskyNormalformProduction;
+import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
+import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import de.tudortmund.cs.iltis.folalib.languages.Words;
+import de.tudortmund.cs.iltis.folalib.transform.ConstrainedSupplier;
+import java.util.List;
+import org.junit.Test;
+
+public class ChomskyNormalFormConversionTest {
+
+    private static final int LENGTH = 40;
+
+    /** S -> A^LENGTH, A -> a | ε, whose right-hand side has 2^LENGTH nullable subsets */
+    private static ContextFreeGrammar<Character, String, ContextFreeProduction<Character, String>>
+            longNullableRhs() {
+        String[] rhs = new String[LENGTH];
+        for (int i = 0; i < LENGTH; i++) rhs[i] = "A";
+
+        return new ContextFreeGrammarBuilder<>(new Alphabet<>('a'), new Alphabet<>("S", "A"))
+                .withStartSymbol("S")
+                .withProduction("S")
+                .nt(rhs)
+                .finish()
+                .withProduction("A")
+                .t('a')
+                .finish()
+                .withEpsProduction("A")
+                .build()
+                .unwrap();
+    }
+
+    /** S -> aS | b, B -> bB, with B unreachable */
+    private static ContextFreeGrammar<
+                    Character, Character, ContextFreeProduction<Character, Character>>
+            rightRecursive() {
+        return new ContextFreeGrammarBuilder<>(new Alphabet<>('a', 'b'), new Alphabet<>('S', 'B'))
+                .withStartSymbol('S')
+                .withProduction('S')
+                .t('a')
+                .nt('S')
+                .finish()
+                .withProduction('S')
+                .t('b')
+                .finish()
+                .withProduction('B')
+                .t('b')
+                .nt('B')
+                .finish()
+                .build()
+                .unwrap();
+    }
+
+    /** S -> aB | b, B -> bB, with B not generating */
+    private static ContextFreeGrammar<
+                    Character, Character, ContextFreeProduction<Character, Character>>
+            uselessCycle() {
+        return new ContextFreeGrammarBuilder<>(new Alphabet<>('a', 'b'), new Alphabet<>('S', 'B'))
+                .withStartSymbol('S')
+                .withProduction('S')
+                .t('a')
+                .nt('B')
+                .finish()
+                .withProduction('S')
+                .t('b')
+                .finish()
+                .withProduction('B')
+                .t('b')
+                .nt('B')
+                .finish()
+                .build()
+                .unwrap();
+    }
+
+    /** S -> A | B, A -> B | ab, B -> A | b, with A and B only reachable by unit productions */
+    private static ContextFreeGrammar<
+                    Character, Character, ContextFreeProduction<Character, Character>>
+            unitChains() {
+        return new ContextFreeGrammarBuilder<>(
+                        new Alphabet<>('a', 'b'), new Alphabet<>('S', 'A', 'B'))
+                .withStartSymbol('S')
+                .withProduction('S')
+                .nt('A')
+                .finish()
+                .withProduction('S')
+                .nt('B')
+                .finish()
+                .withProduction('A')
+                .nt('B')
+                .finish()
+                .withProduction('A')
+                .t('a')
+                .t('b')
+                .finish()
+                .withProduction('B')
+                .nt('A')
+                .finish()
+                .withProduction('B')
+                .t('b')
+                .finish()
+                .build()
+                .unwrap();
+    }
+
+    @Test
+    public void testLinearSizeForLongNullableRhs() {
+        ContextFreeGrammar<Character, String, ContextFreeProduction<Character, String>> grammar =
+                longNullableRhs();
+        ContextFreeGrammar<Character, String, ChomskyNormalformProduction<Character, String>>
+                cnf =
+                        ToChomskyNormalFormTransform.convertToCnf(
+                                grammar, ConstrainedSupplier.constrainedStringSupplier());
+
+        // instead of 2^LENGTH productions, the chain X_i -> X_{i+1} left by removing ε only gets
+        // copied quadratically often
+        assertTrue(cnf.getProductions().size() <= LENGTH * LENGTH);
+
+        EarleyRecognizer<Character> earley = EarleyRecognizer.compile(cnf);
+        StringBuilder word = new StringBuilder();
+        assertFalse(earley.accepts(Words.characterWord(word.toString())));
+        for (int i = 1; i <= LENGTH; i++) {
+            word.append('a');
+            assertTrue(earley.accepts(Words.characterWord(word.toString())));
+        }
+        word.append('a');
+        assertFalse(earley.accepts(Words.characterWord(word.toString())));
+    }
+
+    @Test
+    public void testStatistics() {
+        List<ChomskyNormalFormConversion.PhaseStatistics> statistics =
+                longNullableRhs().cnfConversion().getStatistics();
+
+        ChomskyNormalFormConversion.Phase[] phases = {
+            ChomskyNormalFormConversion.Phase.USELESS,
+            ChomskyNormalFormConversion.Phase.TERM,
+            ChomskyNormalFormConversion.Phase.BIN,
+            ChomskyNormalFormConversion.Phase.DEL,
+            ChomskyNormalFormConversion.Phase.UNIT,
+            ChomskyNormalFormConversion.Phase.USELESS
+        };
+        assertEquals(phases.length, statistics.size());
+        for (int i = 0; i < phases.length; i++) {
+            assertEquals(phases[i], statistics.get(i).getPhase());
+            assertTrue(statistics.get(i).getNanoseconds() >= 0);
+        }
+
+        // S -> A^LENGTH, A -> a, A -> ε
+        assertEquals(3, statistics.get(0).getNumberOfProductions());
+        assertEquals(LENGTH + 4, statistics.get(0).getSize());
+
+        // shortening introduces LENGTH - 2 fresh non-terminals
+        assertEquals(LENGTH, statistics.get(2).getNumberOfNonTerminals());
+        assertEquals(LENGTH + 1, statistics.get(2).getNumberOfProductions());
+
+        // removing ε adds at most two variants of every production
+        assertTrue(
+                statistics.get(3).toString(),
+                statistics.get(3).getSize() <= 3 * statistics.get(2).getSize());
+    }
+
+    @Test
+    public void testIsFinite() {
+        assertTrue(longNullableRhs().isFinite());
+        assertFalse(rightRecursive().isFinite());
+        assertTrue(uselessCycle().isFinite());
+    }
+
+    @Test
+    public void testConversionIsCached() {
+        ContextFreeGrammar<Character, Character, ContextFreeProduction<Character, Character>>
+                grammar = rightRecursive();
+
+        assertSame(grammar.cnfConversion(), grammar.cnfConversion());
+
+        // S -> aS is separated into S -> XS, X -> a
+        ContextFreeGrammar<Character, Character, ChomskyNormalformProduction<Character, Character>>
+                cnf = grammar.cnfConversion().toGrammar(() -> 'X');
+        assertEquals(3, cnf.getProductions().size());
+        assertTrue(
+                cnf.getProductions()
+                        .contains(
+                                new ChomskyNormalformProduction.TwoNonTerminalsProduction<>(
+                                        'S', 'X', 'S')));
+        assertFalse(cnf.getNonTerminals().contains('B'));
+    }
+
+    @Test
+    public void testUnitProductionsLeaveNoUselessNonTerminals() {
+        char[] fresh = {'X', 'Y'};
+        int[] next = {0};
+        ContextFreeGrammar<Character, Character, ChomskyNormalformProduction<Character, Character>>
+                cnf = unitChains().cnfConversion().toGrammar(() -> fresh[next[0]++]);
+
+        // A and B are merged, and their productions are copied to S
+        assertEquals(new Alphabet<>('S', 'X', 'Y'), cnf.getNonTerminals());
+        assertEquals(4, cnf.getProductions().size());
+        assertTrue(
+                cnf.getProductions()
+                        .contains(
+                                new ChomskyNormalformProduction.TwoNonTerminalsProduction<>(
+                                        'S', 'X', 'Y')));
+        assertTrue(
+                cnf.getProductions()
+                        .contains(new ChomskyNormalformProduction.TerminalProduction<>('S', 'b')));
+    }
+}
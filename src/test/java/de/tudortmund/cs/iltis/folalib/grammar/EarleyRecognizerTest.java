@@ -0,0 +1,182 @@
+package de.tudortmund.cs.iltis.folalib.grammar;
+
+import static org.junit.Assert.*;
+
+import de.tudortmund.cs.iltis.folalib.grammar.construction.builder.ContextFreeGrammarBuilder;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.CYKRecognizer;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.earley.EarleyRecognizer;
+import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
+import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import de.tudortmund.cs.iltis.folalib.languages.ContextFreeLanguage;
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import de.tudortmund.cs.iltis.folalib.languages.WordGenerator;
+import de.tudortmund.cs.iltis.folalib.languages.Words;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class EarleyRecognizerTest {
+
+    /** S -> (S)S | ε */
+    private static ContextFreeGrammar<Character, String, ContextFreeProduction<Character, String>>
+            balancedParentheses() {
+        ContextFreeGrammarBuilder<Character, String> builder =
+                new ContextFreeGrammarBuilder<>(new Alphabet<>('(', ')'), new Alphabet<>("S"));
+        builder.withStartSymbol("S")
+                .withProduction("S")
+                .t('(')
+                .nt("S")
+                .t(')')
+                .nt("S")
+                .finish()
+                .withEpsProduction("S");
+        return builder.build().unwrap();
+    }
+
+    /** S -> aS | b */
+    private static ContextFreeGrammar<Character, String, ContextFreeProduction<Character, String>>
+            rightRecursive() {
+        ContextFreeGrammarBuilder<Character, String> builder =
+                new ContextFreeGrammarBuilder<>(new Alphabet<>('a', 'b'), new Alphabet<>("S"));
+        builder.withStartSymbol("S")
+                .withProduction("S")
+                .t('a')
+                .nt("S")
+                .finish()
+                .withProduction("S")
+                .t('b')
+                .finish();
+        return builder.build().unwrap();
+    }
+
+    /** S -> ABc | SS, A -> a | ε, B -> b | A | ε, with nullable symbols and a unit cycle */
+    private static ContextFreeGrammar<Character, String, ContextFreeProduction<Character, String>>
+            nullableAndAmbiguous() {
+        ContextFreeGrammarBuilder<Character, String> builder =
+                new ContextFreeGrammarBuilder<>(
+                        new Alphabet<>('a', 'b', 'c'), new Alphabet<>("S", "A", "B"));
+        builder.withStartSymbol("S")
+                .withProduction("S")
+                .nt("A")
+                .nt("B")
+                .t('c')
+                .finish()
+                .withProduction("S")
+                .nt("S")
+                .nt("S")
+                .finish()
+                .withProduction("A")
+                .t('a')
+                .finish()
+                .withEpsProduction("A")
+                .withProduction("B")
+                .t('b')
+                .finish()
+                .withProduction("B")
+                .nt("A")
+                .finish()
+                .withProduction("A")
+                .nt("B")
+                .finish()
+                .withEpsProduction("B");
+        return builder.build().unwrap();
+    }
+
+    /** E -> E+T | T, T -> T*F | F, F -> (E) | x */
+    private static ContextFreeGrammar<Character, String, ContextFreeProduction<Character, String>>
+            arithmeticExpressions() {
+        ContextFreeGrammarBuilder<Character, String> builder =
+                new ContextFreeGrammarBuilder<>(
+                        new Alphabet<>('+', '*', '(', ')', 'x'), new Alphabet<>("E", "T", "F"));
+        builder.withStartSymbol("E")
+                .withProduction("E")
+                .nt("E")
+                .t('+')
+                .nt("T")
+                .finish()
+                .withProduction("E")
+                .nt("T")
+                .finish()
+                .withProduction("T")
+                .nt("T")
+                .t('*')
+                .nt("F")
+                .finish()
+                .withProduction("T")
+                .nt("F")
+                .finish()
+                .withProduction("F")
+                .t('(')
+                .nt("E")
+                .t(')')
+                .finish()
+                .withProduction("F")
+                .t('x')
+                .finish();
+        return builder.build().unwrap();
+    }
+
+    private static void assertAgreesWithCYK(
+            ContextFreeGrammar<Character, String, ContextFreeProduction<Character, String>> grammar,
+            int maximumLength) {
+        EarleyRecognizer<Character> earley = EarleyRecognizer.compile(grammar);
+        CYKRecognizer<Character> cyk =
+                CYKRecognizer.compile(new ContextFreeLanguage<>(grammar).getCNF());
+
+        assertEquals(grammar.containsEmptyWord(), earley.accepts(new Word<>()));
+        new WordGenerator<>(grammar.getTerminals())
+                .allWordsUpToSize(maximumLength)
+                .filter(word -> !word.isEmpty())
+                .forEach(
+                        word ->
+                                assertEquals(
+                                        word.toString(), cyk.accepts(word), earley.accepts(word)));
+    }
+
+    @Test
+    public void testAgreesWithCYK() {
+        assertAgreesWithCYK(balancedParentheses(), 10);
+        assertAgreesWithCYK(rightRecursive(), 8);
+        assertAgreesWithCYK(nullableAndAmbiguous(), 6);
+        assertAgreesWithCYK(arithmeticExpressions(), 6);
+    }
+
+    @Test
+    public void testExamples() {
+        EarleyRecognizer<Character> earley = EarleyRecognizer.compile(arithmeticExpressions());
+        assertTrue(earley.accepts(Words.characterWord("x+x*(x+x)*x")));
+        assertTrue(earley.accepts(Words.characterWord("((x))")));
+        assertFalse(earley.accepts(Words.characterWord("x+*x")));
+        assertFalse(earley.accepts(Words.characterWord("(x")));
+        assertFalse(earley.accepts(Words.characterWord("x-x")));
+        assertFalse(earley.accepts(new Word<>()));
+    }
+
+    @Test
+    public void testLongRightRecursion() {
+        EarleyRecognizer<Character> earley = EarleyRecognizer.compile(rightRecursive());
+
+        List<Character> symbols = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) symbols.add('a');
+        assertFalse(earley.accepts(new Word<>(symbols)));
+
+        symbols.add('b');
+        assertTrue(earley.accepts(new Word<>(symbols)));
+
+        symbols.add('b');
+        assertFalse(earley.accepts(new Word<>(symbols)));
+    }
+
+    @Test
+    public void testLanguageUsesEarleyWithoutCNF() {
+        ContextFreeLanguage<Character> language = new ContextFreeLanguage<>(balancedParentheses());
+        assertTrue(language.contains(Words.characterWord("(()())()")));
+        assertFalse(language.contains(Words.characterWord("(()()))(")));
+
+        // once the CNF is known, CYK takes over and has to give the same answers
+        language.getCNF();
+        assertTrue(language.contains(Words.characterWord("(()())()")));
+        assertFalse(language.contains(Words.characterWord("(()()))(")));
+    }
+}
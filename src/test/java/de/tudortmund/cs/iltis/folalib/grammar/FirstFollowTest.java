@@ -7,7 +7,9 @@ import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
 import de.tudortmund.cs.iltis.folalib.grammar.contextfree.SetWithEpsilon;
 import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
 import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
-import java.util.Map;
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import de.tudortmund.cs.iltis.folalib.languages.Words;
+import java.util.*;
 import org.junit.Test;
 
 public class FirstFollowTest {
@@ -93,4 +95,60 @@ public class FirstFollowTest {
         assertTrue(followSets.get('Y').contains(')'));
         assertTrue(followSets.get('Y').contains('+'));
     }
+
+    @Test
+    public void testNullableAndGenerating() {
+        assertEquals(
+                new HashSet<>(Arrays.asList('X', 'Y')),
+                testGrammar.analysis().getNullableNonTerminals());
+        assertEquals(
+                new HashSet<>(Arrays.asList('E', 'T', 'X', 'Y')),
+                testGrammar.generatingNonTerminals());
+        assertFalse(testGrammar.containsEmptyWord());
+        assertSame(testGrammar.analysis(), testGrammar.analysis());
+    }
+
+    @Test
+    public void testFirstKSets() {
+        Map<Character, Set<Word<Character>>> firstSets = testGrammar.analysis().getFirstSets(2);
+
+        assertEquals(words("((", "(i", "i*", "i"), firstSets.get('T'));
+        assertEquals(words("((", "(i", "i*", "i+", "i"), firstSets.get('E'));
+        assertEquals(words("+(", "+i", ""), firstSets.get('X'));
+        assertEquals(words("*(", "*i", ""), firstSets.get('Y'));
+
+        // as all non-terminals are generating, FIRST_1 coincides with FIRST
+        assertEquals(toWords(testGrammar.firstSets()), testGrammar.analysis().getFirstSets(1));
+    }
+
+    @Test
+    public void testFollowKSets() {
+        Map<Character, Set<Word<Character>>> followSets = testGrammar.analysis().getFollowSets(2);
+
+        assertEquals(words("", ")", "))", ")+"), followSets.get('E'));
+        assertEquals(followSets.get('E'), followSets.get('X'));
+        assertEquals(words("", ")", "))", ")+", "+(", "+i"), followSets.get('T'));
+        assertEquals(followSets.get('T'), followSets.get('Y'));
+
+        assertEquals(toWords(testGrammar.followSets()), testGrammar.analysis().getFollowSets(1));
+    }
+
+    private static Set<Word<Character>> words(String... words) {
+        Set<Word<Character>> result = new HashSet<>();
+        for (String word : words) result.add(Words.characterWord(word));
+        return result;
+    }
+
+    private static Map<Character, Set<Word<Character>>> toWords(
+            Map<Character, SetWithEpsilon<Character>> sets) {
+        Map<Character, Set<Word<Character>>> result = new HashMap<>();
+        sets.forEach(
+                (nonTerminal, set) -> {
+                    Set<Word<Character>> words = new HashSet<>();
+                    for (Character terminal : set) words.add(new Word<>(terminal));
+                    if (set.containsEpsilon()) words.add(new Word<>());
+                    result.put(nonTerminal, words);
+                });
+        return result;
+    }
 }
@@ -0,0 +1,120 @@
+package de.tudortmund.cs.iltis.folalib.grammar;
+
+import static org.junit.Assert.*;
+
+import de.tudortmund.cs.iltis.folalib.grammar.construction.builder.C0GrammarBuilder;
+import de.tudortmund.cs.iltis.folalib.grammar.production.Production;
+import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import de.tudortmund.cs.iltis.utils.collections.Pair;
+import java.util.*;
+import org.junit.Test;
+
+public class GrammarTest {
+
+    /** ABA -> aBA, BA -> C, C -> c, AB -> ε, B -> BB */
+    private static Grammar<Character, Character, Production<Character, Character>> grammar() {
+        return new C0GrammarBuilder<>(new Alphabet<>('a', 'c'), new Alphabet<>('A', 'B', 'C'))
+                .withStartSymbol('A')
+                .withProduction()
+                .lhs()
+                .nt('A', 'B', 'A')
+                .finish()
+                .rhs()
+                .t('a')
+                .nt('B', 'A')
+                .finish()
+                .finish()
+                .withProduction()
+                .lhs()
+                .nt('B', 'A')
+                .finish()
+                .rhs()
+                .nt('C')
+                .finish()
+                .finish()
+                .withProduction()
+                .lhs()
+                .nt('C')
+                .finish()
+                .rhs()
+                .t('c')
+                .finish()
+                .finish()
+                .withProduction()
+                .lhs()
+                .nt('A', 'B')
+                .finish()
+                .finish()
+                .withProduction()
+                .lhs()
+                .nt('B')
+                .finish()
+                .rhs()
+                .nt('B', 'B')
+                .finish()
+                .finish()
+                .build()
+                .unwrap();
+    }
+
+    private static SententialForm<Character, Character> form(String symbols) {
+        List<GrammarSymbol<Character, Character>> form = new ArrayList<>();
+        for (char symbol : symbols.toCharArray())
+            form.add(
+                    Character.isUpperCase(symbol)
+                            ? new GrammarSymbol.NonTerminal<>(symbol)
+                            : new GrammarSymbol.Terminal<>(symbol));
+        return new SententialForm<>(form);
+    }
+
+    /* The straightforward computation, testing every production at every position */
+    private static Set<Pair<Production<Character, Character>, Integer>> naive(
+            Grammar<Character, Character, Production<Character, Character>> grammar,
+            SententialForm<Character, Character> form) {
+        Set<Pair<Production<Character, Character>, Integer>> result = new HashSet<>();
+        for (int i = 0; i < form.size(); i++)
+            for (Production<Character, Character> production : grammar.getProductions())
+                if (production.getLhs().isPrefixOf(form.drop(i)))
+                    result.add(new Pair<>(production, i));
+        return result;
+    }
+
+    private static Production<Character, Character> production(String lhs, String rhs) {
+        return new Production<>(form(lhs), form(rhs));
+    }
+
+    @Test
+    public void testApplicableProductions() {
+        Set<Pair<Production<Character, Character>, Integer>> expected = new HashSet<>();
+        expected.add(new Pair<>(production("ABA", "aBA"), 0));
+        expected.add(new Pair<>(production("ABA", "aBA"), 2));
+        expected.add(new Pair<>(production("BA", "C"), 1));
+        expected.add(new Pair<>(production("BA", "C"), 3));
+        expected.add(new Pair<>(production("C", "c"), 5));
+        expected.add(new Pair<>(production("C", "c"), 6));
+        expected.add(new Pair<>(production("AB", ""), 0));
+        expected.add(new Pair<>(production("AB", ""), 2));
+        expected.add(new Pair<>(production("B", "BB"), 1));
+        expected.add(new Pair<>(production("B", "BB"), 3));
+
+        assertEquals(expected, grammar().getApplicableProductions(form("ABABACC")));
+        assertTrue(grammar().getApplicableProductions(form("")).isEmpty());
+        assertTrue(grammar().getApplicableProductions(form("aca")).isEmpty());
+    }
+
+    @Test
+    public void testAgreesWithNaiveComputation() {
+        Grammar<Character, Character, Production<Character, Character>> grammar = grammar();
+        Random random = new Random(42);
+        String symbols = "ABCac";
+        for (int n = 0; n < 200; n++) {
+            StringBuilder word = new StringBuilder();
+            for (int i = random.nextInt(20); i > 0; i--)
+                word.append(symbols.charAt(random.nextInt(symbols.length())));
+            SententialForm<Character, Character> form = form(word.toString());
+
+            assertEquals(
+                    word.toString(), naive(grammar, form), grammar.getApplicableProductions(form));
+        }
+    }
+}
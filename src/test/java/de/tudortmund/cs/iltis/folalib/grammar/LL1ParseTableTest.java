@@ -0,0 +1,246 @@
+package de.tudortmund.cs.iltis.folalib.grammar;
+
+import static org.junit.Assert.*;
+
+import de.tudortmund.cs.iltis.folalib.grammar.construction.builder.ContextFreeGrammarBuilder;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.DerivationTree;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.earley.EarleyRecognizer;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ll.LL1ParseTable;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ll.fault.LL1ConflictFault;
+import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
+import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import de.tudortmund.cs.iltis.folalib.languages.ContextFreeLanguage;
+import de.tudortmund.cs.iltis.folalib.languages.ContextFreeRecognitionStrategy;
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import de.tudortmund.cs.iltis.folalib.languages.WordGenerator;
+import de.tudortmund.cs.iltis.folalib.languages.Words;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Test;
+
+public class LL1ParseTableTest {
+
+    /** E -> TX, T -> (E) | iY, X -> +E | ε, Y -> *T | ε */
+    private static ContextFreeGrammar<
+                    Character, Character, ContextFreeProduction<Character, Character>>
+            expressions() {
+        return new ContextFreeGrammarBuilder<>(
+                        new Alphabet<>('(', ')', '+', 'i', '*'),
+                        new Alphabet<>('E', 'T', 'X', 'Y'))
+                .withStartSymbol('E')
+                .withProduction('E')
+                .nt('T', 'X')
+                .finish()
+                .withProduction('T')
+                .t('(')
+                .nt('E')
+                .t(')')
+                .finish()
+                .withProduction('T')
+                .t('i')
+                .nt('Y')
+                .finish()
+                .withProduction('X')
+                .t('+')
+                .nt('E')
+                .finish()
+                .withEpsProduction('X')
+                .withProduction('Y')
+                .t('*')
+                .nt('T')
+                .finish()
+                .withEpsProduction('Y')
+                .build()
+                .unwrap();
+    }
+
+    /** E -> E+T | T, T -> x */
+    private static ContextFreeGrammar<
+                    Character, Character, ContextFreeProduction<Character, Character>>
+            leftRecursive() {
+        return new ContextFreeGrammarBuilder<>(
+                        new Alphabet<>('+', 'x'), new Alphabet<>('E', 'T'))
+                .withStartSymbol('E')
+                .withProduction('E')
+                .nt('E')
+                .t('+')
+                .nt('T')
+                .finish()
+                .withProduction('E')
+                .nt('T')
+                .finish()
+                .withProduction('T')
+                .t('x')
+                .finish()
+                .build()
+                .unwrap();
+    }
+
+    /** S -> Aa, A -> a | ε */
+    private static ContextFreeGrammar<
+                    Character, Character, ContextFreeProduction<Character, Character>>
+            nullablePrefix() {
+        return new ContextFreeGrammarBuilder<>(new Alphabet<>('a'), new Alphabet<>('S', 'A'))
+                .withStartSymbol('S')
+                .withProduction('S')
+                .nt('A')
+                .t('a')
+                .finish()
+                .withProduction('A')
+                .t('a')
+                .finish()
+                .withEpsProduction('A')
+                .build()
+                .unwrap();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DerivationTree<Character, Character> epsilon(char nonTerminal) {
+        return new DerivationTree<>(
+                nonTerminal, (DerivationTree<Character, Character>[]) new DerivationTree[0]);
+    }
+
+    @Test
+    public void testAgreesWithEarley() {
+        ContextFreeGrammar<Character, Character, ContextFreeProduction<Character, Character>>
+                grammar = expressions();
+        LL1ParseTable<Character, Character> table = LL1ParseTable.of(grammar);
+        EarleyRecognizer<Character> earley = EarleyRecognizer.compile(grammar);
+
+        assertTrue(table.isLL1());
+        assertFalse(table.getConflicts().containsAnyFault());
+        new WordGenerator<>(grammar.getTerminals())
+                .allWordsUpToSize(6)
+                .forEach(
+                        word ->
+                                assertEquals(
+                                        word.toString(),
+                                        earley.accepts(word),
+                                        table.accepts(word)));
+    }
+
+    @Test
+    public void testTableEntries() {
+        LL1ParseTable<Character, Character> table = LL1ParseTable.of(expressions());
+
+        assertEquals("(", table.getProduction('T', '(').get().getRhs().get(0).toString());
+        assertTrue(table.getProduction('X', '+').isPresent());
+        assertFalse(table.getProduction('X', 'i').isPresent());
+        assertTrue(table.getProduction('X', ')').get().getRhs().isEmpty());
+        assertTrue(table.getProductionAtEnd('Y').get().getRhs().isEmpty());
+        assertFalse(table.getProductionAtEnd('T').isPresent());
+    }
+
+    @Test
+    public void testParse() {
+        LL1ParseTable<Character, Character> table = LL1ParseTable.of(expressions());
+
+        DerivationTree<Character, Character> expected =
+                new DerivationTree<>(
+                        'E',
+                        new DerivationTree<>(
+                                'T',
+                                new DerivationTree<>('i'),
+                                new DerivationTree<>(
+                                        'Y',
+                                        new DerivationTree<>('*'),
+                                        new DerivationTree<>(
+                                                'T',
+                                                new DerivationTree<>('i'),
+                                                epsilon('Y')))),
+                        new DerivationTree<>(
+                                'X',
+                                new DerivationTree<>('+'),
+                                new DerivationTree<>(
+                                        'E',
+                                        new DerivationTree<>(
+                                                'T',
+                                                new DerivationTree<>('i'),
+                                                epsilon('Y')),
+                                        epsilon('X'))));
+        assertEquals(Optional.of(expected), table.parse(Words.characterWord("i*i+i")));
+
+        assertFalse(table.parse(Words.characterWord("i*+i")).isPresent());
+        assertFalse(table.parse(Words.characterWord("(i")).isPresent());
+        assertFalse(table.parse(Words.characterWord("i)")).isPresent());
+    }
+
+    @Test
+    public void testLongWord() {
+        LL1ParseTable<Character, Character> table = LL1ParseTable.of(expressions());
+
+        StringBuilder word = new StringBuilder("i");
+        for (int i = 0; i < 20000; i++) word.append("+i");
+        assertTrue(table.accepts(Words.characterWord(word.toString())));
+        assertTrue(table.parse(Words.characterWord(word.toString())).isPresent());
+
+        word.append('+');
+        assertFalse(table.accepts(Words.characterWord(word.toString())));
+    }
+
+    @Test
+    public void testFirstFirstConflict() {
+        LL1ParseTable<Character, Character> table = LL1ParseTable.of(leftRecursive());
+
+        assertFalse(table.isLL1());
+        assertTrue(table.getConflicts().getFirstFollowConflicts().isEmpty());
+
+        List<LL1ConflictFault<Character, Character>> conflicts =
+                table.getConflicts().getFirstFirstConflicts();
+        assertEquals(1, conflicts.size());
+        assertEquals('E', (char) conflicts.get(0).getNonTerminal());
+        assertEquals(Optional.of('x'), conflicts.get(0).getLookahead());
+        assertEquals(2, conflicts.get(0).getProductions().size());
+    }
+
+    @Test
+    public void testFirstFollowConflict() {
+        LL1ParseTable<Character, Character> table = LL1ParseTable.of(nullablePrefix());
+
+        assertFalse(table.isLL1());
+        assertTrue(table.getConflicts().getFirstFirstConflicts().isEmpty());
+
+        List<LL1ConflictFault<Character, Character>> conflicts =
+                table.getConflicts().getFirstFollowConflicts();
+        assertEquals(1, conflicts.size());
+        assertEquals('A', (char) conflicts.get(0).getNonTerminal());
+        assertEquals(Optional.of('a'), conflicts.get(0).getLookahead());
+    }
+
+    @Test
+    public void testMayBeLL1() {
+        assertTrue(LL1ParseTable.mayBeLL1(expressions()));
+        assertFalse(LL1ParseTable.mayBeLL1(leftRecursive()));
+        // only a necessary condition: the FIRST/FOLLOW conflict is not detected
+        assertTrue(LL1ParseTable.mayBeLL1(nullablePrefix()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRejectsConflicts() {
+        LL1ParseTable.of(leftRecursive()).accepts(Words.characterWord("x+x"));
+    }
+
+    @Test
+    public void testLanguageUsesLL1() {
+        ContextFreeLanguage<Character> language = new ContextFreeLanguage<>(expressions());
+        assertTrue(language.getLL1ParseTable().isLL1());
+        assertTrue(language.contains(Words.characterWord("i*(i+i)")));
+        assertFalse(language.contains(Words.characterWord("i*(i+i")));
+
+        language.setRecognitionStrategy(ContextFreeRecognitionStrategy.LL1);
+        assertTrue(language.contains(Words.characterWord("i*(i+i)")));
+        assertFalse(language.contains(new Word<>()));
+
+        // the table is also built by the first membership check if it has not been requested
+        ContextFreeLanguage<Character> fresh = new ContextFreeLanguage<>(expressions());
+        assertTrue(fresh.contains(Words.characterWord("i*(i+i)")));
+        assertFalse(fresh.contains(Words.characterWord("i*(i+i")));
+
+        // grammars which are not LL(1) are still decided by the general algorithms
+        ContextFreeLanguage<Character> leftRecursive = new ContextFreeLanguage<>(leftRecursive());
+        assertFalse(leftRecursive.getLL1ParseTable().isLL1());
+        assertTrue(leftRecursive.contains(Words.characterWord("x+x+x")));
+        assertFalse(leftRecursive.contains(Words.characterWord("x+")));
+    }
+}
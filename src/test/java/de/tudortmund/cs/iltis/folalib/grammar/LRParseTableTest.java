@@ -0,0 +1,336 @@
+package de.tudortmund.cs.iltis.folalib.grammar;
+
+import static org.junit.Assert.*;
+
+import de.tudortmund.cs.iltis.folalib.grammar.construction.builder.ContextFreeGrammarBuilder;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.DerivationTree;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.earley.EarleyRecognizer;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.lr.LRParseTable;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.lr.LRParseTableType;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.lr.fault.LRConflictFault;
+import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
+import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import de.tudortmund.cs.iltis.folalib.languages.ContextFreeLanguage;
+import de.tudortmund.cs.iltis.folalib.languages.ContextFreeRecognitionStrategy;
+import de.tudortmund.cs.iltis.folalib.languages.WordGenerator;
+import de.tudortmund.cs.iltis.folalib.languages.Words;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Test;
+
+public class LRParseTableTest {
+
+    /** E -> E+T | T, T -> T*F | F, F -> (E) | x */
+    private static ContextFreeGrammar<
+                    Character, Character, ContextFreeProduction<Character, Character>>
+            arithmeticExpressions() {
+        return new ContextFreeGrammarBuilder<>(
+                        new Alphabet<>('+', '*', '(', ')', 'x'), new Alphabet<>('E', 'T', 'F'))
+                .withStartSymbol('E')
+                .withProduction('E')
+                .nt('E')
+                .t('+')
+                .nt('T')
+                .finish()
+                .withProduction('E')
+                .nt('T')
+                .finish()
+                .withProduction('T')
+                .nt('T')
+                .t('*')
+                .nt('F')
+                .finish()
+                .withProduction('T')
+                .nt('F')
+                .finish()
+                .withProduction('F')
+                .t('(')
+                .nt('E')
+                .t(')')
+                .finish()
+                .withProduction('F')
+                .t('x')
+                .finish()
+                .build()
+                .unwrap();
+    }
+
+    /** S -> L=R | R, L -> *R | x, R -> L, which is LALR(1) but not SLR(1) */
+    private static ContextFreeGrammar<
+                    Character, Character, ContextFreeProduction<Character, Character>>
+            assignments() {
+        return new ContextFreeGrammarBuilder<>(
+                        new Alphabet<>('=', '*', 'x'), new Alphabet<>('S', 'L', 'R'))
+                .withStartSymbol('S')
+                .withProduction('S')
+                .nt('L')
+                .t('=')
+                .nt('R')
+                .finish()
+                .withProduction('S')
+                .nt('R')
+                .finish()
+                .withProduction('L')
+                .t('*')
+                .nt('R')
+                .finish()
+                .withProduction('L')
+                .t('x')
+                .finish()
+                .withProduction('R')
+                .nt('L')
+                .finish()
+                .build()
+                .unwrap();
+    }
+
+    /** S -> aAd | bBd | aBe | bAe, A -> c, B -> c, which is LR(1) but not LALR(1) */
+    private static ContextFreeGrammar<
+                    Character, Character, ContextFreeProduction<Character, Character>>
+            notLALR1() {
+        return new ContextFreeGrammarBuilder<>(
+                        new Alphabet<>('a', 'b', 'c', 'd', 'e'), new Alphabet<>('S', 'A', 'B'))
+                .withStartSymbol('S')
+                .withProduction('S')
+                .t('a')
+                .nt('A')
+                .t('d')
+                .finish()
+                .withProduction('S')
+                .t('b')
+                .nt('B')
+                .t('d')
+                .finish()
+                .withProduction('S')
+                .t('a')
+                .nt('B')
+                .t('e')
+                .finish()
+                .withProduction('S')
+                .t('b')
+                .nt('A')
+                .t('e')
+                .finish()
+                .withProduction('A')
+                .t('c')
+                .finish()
+                .withProduction('B')
+                .t('c')
+                .finish()
+                .build()
+                .unwrap();
+    }
+
+    /** S -> (S)S | ε */
+    private static ContextFreeGrammar<
+                    Character, Character, ContextFreeProduction<Character, Character>>
+            balancedParentheses() {
+        return new ContextFreeGrammarBuilder<>(new Alphabet<>('(', ')'), new Alphabet<>('S'))
+                .withStartSymbol('S')
+                .withProduction('S')
+                .t('(')
+                .nt('S')
+                .t(')')
+                .nt('S')
+                .finish()
+                .withEpsProduction('S')
+                .build()
+                .unwrap();
+    }
+
+    /** S -> ABc, A -> a | ε, B -> b | ε, whose lookaheads are read through nullable B */
+    private static ContextFreeGrammar<
+                    Character, Character, ContextFreeProduction<Character, Character>>
+            nullablePrefix() {
+        return new ContextFreeGrammarBuilder<>(
+                        new Alphabet<>('a', 'b', 'c'), new Alphabet<>('S', 'A', 'B'))
+                .withStartSymbol('S')
+                .withProduction('S')
+                .nt('A', 'B')
+                .t('c')
+                .finish()
+                .withProduction('A')
+                .t('a')
+                .finish()
+                .withEpsProduction('A')
+                .withProduction('B')
+                .t('b')
+                .finish()
+                .withEpsProduction('B')
+                .build()
+                .unwrap();
+    }
+
+    /** S -> aS | b, which is LR(0) */
+    private static ContextFreeGrammar<
+                    Character, Character, ContextFreeProduction<Character, Character>>
+            rightRecursive() {
+        return new ContextFreeGrammarBuilder<>(new Alphabet<>('a', 'b'), new Alphabet<>('S'))
+                .withStartSymbol('S')
+                .withProduction('S')
+                .t('a')
+                .nt('S')
+                .finish()
+                .withProduction('S')
+                .t('b')
+                .finish()
+                .build()
+                .unwrap();
+    }
+
+    /** E -> E+E | x */
+    private static ContextFreeGrammar<
+                    Character, Character, ContextFreeProduction<Character, Character>>
+            ambiguous() {
+        return new ContextFreeGrammarBuilder<>(new Alphabet<>('+', 'x'), new Alphabet<>('E'))
+                .withStartSymbol('E')
+                .withProduction('E')
+                .nt('E')
+                .t('+')
+                .nt('E')
+                .finish()
+                .withProduction('E')
+                .t('x')
+                .finish()
+                .build()
+                .unwrap();
+    }
+
+    private static void assertAgreesWithEarley(
+            ContextFreeGrammar<Character, Character, ContextFreeProduction<Character, Character>>
+                    grammar,
+            LRParseTableType type,
+            int maximumLength) {
+        LRParseTable<Character, Character> table = LRParseTable.of(grammar, type);
+        EarleyRecognizer<Character> earley = EarleyRecognizer.compile(grammar);
+
+        assertTrue(table.isDeterministic());
+        new WordGenerator<>(grammar.getTerminals())
+                .allWordsUpToSize(maximumLength)
+                .forEach(
+                        word ->
+                                assertEquals(
+                                        word.toString(),
+                                        earley.accepts(word),
+                                        table.accepts(word)));
+    }
+
+    @Test
+    public void testAgreesWithEarley() {
+        assertAgreesWithEarley(arithmeticExpressions(), LRParseTableType.SLR1, 6);
+        assertAgreesWithEarley(arithmeticExpressions(), LRParseTableType.LALR1, 6);
+        assertAgreesWithEarley(assignments(), LRParseTableType.LALR1, 7);
+        assertAgreesWithEarley(balancedParentheses(), LRParseTableType.SLR1, 10);
+        assertAgreesWithEarley(balancedParentheses(), LRParseTableType.LALR1, 10);
+        assertAgreesWithEarley(nullablePrefix(), LRParseTableType.LALR1, 5);
+        assertAgreesWithEarley(rightRecursive(), LRParseTableType.LR0, 10);
+    }
+
+    @Test
+    public void testHierarchyOfTableTypes() {
+        LRParseTable<Character, Character> lr0 =
+                LRParseTable.of(arithmeticExpressions(), LRParseTableType.LR0);
+        assertFalse(lr0.isDeterministic());
+        assertFalse(lr0.getConflicts().getShiftReduceConflicts().isEmpty());
+        assertEquals(12, lr0.getNumberOfStates());
+
+        LRParseTable<Character, Character> slr =
+                LRParseTable.of(assignments(), LRParseTableType.SLR1);
+        assertFalse(slr.isDeterministic());
+        List<LRConflictFault<Character, Character>> conflicts =
+                slr.getConflicts().getShiftReduceConflicts();
+        assertEquals(1, conflicts.size());
+        assertEquals(Optional.of('='), conflicts.get(0).getLookahead());
+        assertEquals('R', (char) conflicts.get(0).getProductions().get(0).getLhsNonTerminal());
+
+        assertTrue(LRParseTable.of(assignments(), LRParseTableType.LALR1).isDeterministic());
+    }
+
+    @Test
+    public void testReduceReduceConflict() {
+        LRParseTable<Character, Character> lalr =
+                LRParseTable.of(notLALR1(), LRParseTableType.LALR1);
+
+        assertFalse(lalr.isDeterministic());
+        assertTrue(lalr.getConflicts().getShiftReduceConflicts().isEmpty());
+        List<LRConflictFault<Character, Character>> conflicts =
+                lalr.getConflicts().getReduceReduceConflicts();
+        assertEquals(2, conflicts.size());
+        for (LRConflictFault<Character, Character> conflict : conflicts) {
+            assertEquals(2, conflict.getProductions().size());
+            assertFalse(conflict.isAccepting());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRejectsConflicts() {
+        LRParseTable<Character, Character> table =
+                LRParseTable.of(ambiguous(), LRParseTableType.LALR1);
+        assertEquals(1, table.getConflicts().getShiftReduceConflicts().size());
+        table.accepts(Words.characterWord("x+x"));
+    }
+
+    @Test
+    public void testParse() {
+        LRParseTable<Character, Character> table =
+                LRParseTable.of(arithmeticExpressions(), LRParseTableType.LALR1);
+
+        DerivationTree<Character, Character> x =
+                new DerivationTree<>('F', new DerivationTree<>('x'));
+        DerivationTree<Character, Character> expected =
+                new DerivationTree<>(
+                        'E',
+                        new DerivationTree<>('E', new DerivationTree<>('T', x)),
+                        new DerivationTree<>('+'),
+                        new DerivationTree<>(
+                                'T',
+                                new DerivationTree<>('T', x),
+                                new DerivationTree<>('*'),
+                                x));
+        assertEquals(Optional.of(expected), table.parse(Words.characterWord("x+x*x")));
+        assertFalse(table.parse(Words.characterWord("x+*x")).isPresent());
+
+        @SuppressWarnings("unchecked")
+        DerivationTree<Character, Character> epsilon =
+                new DerivationTree<>(
+                        'S', (DerivationTree<Character, Character>[]) new DerivationTree[0]);
+        assertEquals(
+                Optional.of(
+                        new DerivationTree<>(
+                                'S',
+                                new DerivationTree<>('('),
+                                epsilon,
+                                new DerivationTree<>(')'),
+                                epsilon)),
+                LRParseTable.of(balancedParentheses(), LRParseTableType.LALR1)
+                        .parse(Words.characterWord("()")));
+    }
+
+    @Test
+    public void testLongWord() {
+        LRParseTable<Character, Character> table =
+                LRParseTable.of(arithmeticExpressions(), LRParseTableType.LALR1);
+
+        StringBuilder word = new StringBuilder("x");
+        for (int i = 0; i < 20000; i++) word.append(i % 2 == 0 ? "+x" : "*(x)");
+        assertTrue(table.accepts(Words.characterWord(word.toString())));
+        assertTrue(table.parse(Words.characterWord(word.toString())).isPresent());
+
+        word.append(')');
+        assertFalse(table.accepts(Words.characterWord(word.toString())));
+    }
+
+    @Test
+    public void testLanguageUsesLALR1() {
+        ContextFreeLanguage<Character> language = new ContextFreeLanguage<>(assignments());
+        assertFalse(language.getLL1ParseTable().isLL1());
+        assertTrue(language.getLALR1ParseTable().isDeterministic());
+        assertTrue(language.contains(Words.characterWord("**x=*x")));
+        assertFalse(language.contains(Words.characterWord("x==x")));
+
+        language.setRecognitionStrategy(ContextFreeRecognitionStrategy.LALR1);
+        assertTrue(language.contains(Words.characterWord("x=**x")));
+        assertFalse(language.contains(Words.characterWord("x=")));
+    }
+}
@@ -0,0 +1,108 @@
+package de.tudortmund.cs.iltis.folalib.grammar;
+
+import static org.junit.Assert.*;
+
+import de.tudortmund.cs.iltis.folalib.grammar.construction.builder.ChomskyNormalFormGrammarBuilder;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.DerivationTree;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.CorrectCYKTableau;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.SharedPackedParseForest;
+import de.tudortmund.cs.iltis.folalib.grammar.production.ChomskyNormalformProduction;
+import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import de.tudortmund.cs.iltis.folalib.languages.Words;
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class SharedPackedParseForestTest {
+
+    /** S -> SS | a, whose words a^n have Catalan(n - 1) derivation trees */
+    private static ContextFreeGrammar<
+                    Character, Character, ChomskyNormalformProduction<Character, Character>>
+            catalan() {
+        return new ChomskyNormalFormGrammarBuilder<>(
+                        new Alphabet<>('a', 'b'), new Alphabet<>('S'))
+                .withStartSymbol('S')
+                .withProduction('S', 'S', 'S')
+                .withProduction('S', 'a')
+                .build()
+                .unwrap();
+    }
+
+    private static BigInteger catalanNumber(int n) {
+        BigInteger result = BigInteger.ONE;
+        for (int k = 0; k < n; k++)
+            result =
+                    result.multiply(BigInteger.valueOf(2L * (2 * k + 1)))
+                            .divide(BigInteger.valueOf(k + 2));
+        return result;
+    }
+
+    private static SharedPackedParseForest<Character, Character> forest(String word) {
+        return CorrectCYKTableau.compute(catalan(), Words.characterWord(word)).getParseForest();
+    }
+
+    @Test
+    public void testCountDerivationTrees() {
+        StringBuilder word = new StringBuilder("a");
+        for (int n = 1; n <= 40; n++) {
+            assertEquals(catalanNumber(n - 1), forest(word.toString()).countDerivationTrees());
+            word.append('a');
+        }
+    }
+
+    @Test
+    public void testForestIsPolynomial() {
+        String word = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaa";
+        SharedPackedParseForest<Character, Character> forest = forest(word);
+
+        int n = word.length();
+        assertEquals(n * (n + 1) / 2, forest.getNumberOfSymbolNodes());
+        assertEquals(n + (n - 1) * n * (n + 1) / 6, forest.getNumberOfPackedNodes());
+        assertEquals(catalanNumber(n - 1), forest.countDerivationTrees());
+    }
+
+    @Test
+    public void testAmbiguity() {
+        assertFalse(forest("a").isAmbiguous());
+        assertFalse(forest("aa").isAmbiguous());
+        assertTrue(forest("aaa").isAmbiguous());
+
+        SharedPackedParseForest<Character, Character> rejected = forest("aba");
+        assertTrue(rejected.isEmpty());
+        assertFalse(rejected.isAmbiguous());
+        assertEquals(BigInteger.ZERO, rejected.countDerivationTrees());
+        assertFalse(rejected.iterator().hasNext());
+        assertFalse(rejected.sample(new Random(1)).isPresent());
+    }
+
+    @Test
+    public void testIterationAndSampling() {
+        CorrectCYKTableau<Character, Character> tableau =
+                CorrectCYKTableau.compute(catalan(), Words.characterWord("aaaaaa"));
+        SharedPackedParseForest<Character, Character> forest = tableau.getParseForest();
+
+        Set<DerivationTree<Character, Character>> trees = new HashSet<>();
+        for (DerivationTree<Character, Character> tree : forest) assertTrue(trees.add(tree));
+        assertEquals(42, trees.size());
+        assertEquals(trees, tableau.computeDerivationTrees());
+
+        Random random = new Random(1);
+        Set<DerivationTree<Character, Character>> sampled = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            DerivationTree<Character, Character> tree = forest.sample(random).get();
+            assertTrue(trees.contains(tree));
+            sampled.add(tree);
+        }
+        assertEquals(trees, sampled);
+
+        assertEquals(forest.iterator().next(), forest.getDerivationTree(BigInteger.ZERO));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutOfRange() {
+        forest("aaa").getDerivationTree(BigInteger.valueOf(2));
+    }
+}
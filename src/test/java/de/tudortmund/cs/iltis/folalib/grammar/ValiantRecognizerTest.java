@@ -0,0 +1,119 @@
+package de.tudortmund.cs.iltis.folalib.grammar;
+
+import static org.junit.Assert.*;
+
+import de.tudortmund.cs.iltis.folalib.grammar.construction.builder.ChomskyNormalFormGrammarBuilder;
+import de.tudortmund.cs.iltis.folalib.grammar.construction.builder.ContextFreeGrammarBuilder;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.CYKRecognizer;
+import de.tudortmund.cs.iltis.folalib.grammar.contextfree.cyk.ValiantRecognizer;
+import de.tudortmund.cs.iltis.folalib.grammar.production.ChomskyNormalformProduction;
+import de.tudortmund.cs.iltis.folalib.languages.Alphabet;
+import de.tudortmund.cs.iltis.folalib.languages.ContextFreeLanguage;
+import de.tudortmund.cs.iltis.folalib.languages.ContextFreeRecognitionStrategy;
+import de.tudortmund.cs.iltis.folalib.languages.Word;
+import de.tudortmund.cs.iltis.folalib.languages.WordGenerator;
+import de.tudortmund.cs.iltis.folalib.languages.Words;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class ValiantRecognizerTest {
+
+    /** Words over {0, 1} with the same number of zeros and ones, see {@link CYKTest#testCYK()} */
+    private static ContextFreeGrammar<
+                    Character, Character, ChomskyNormalformProduction<Character, Character>>
+            equalNumberOfZerosAndOnes() {
+        return new ChomskyNormalFormGrammarBuilder<>(
+                        new Alphabet<>('0', '1'),
+                        new Alphabet<>('S', 'T', 'N', 'E', 'A', 'B', 'C', 'D'))
+                .withStartSymbol('S')
+                .withProduction('S', 'N', 'B')
+                .withProduction('S', 'E', 'A')
+                .withProduction('T', 'N', 'B')
+                .withProduction('T', 'E', 'A')
+                .withProduction('N', '0')
+                .withProduction('E', '1')
+                .withProduction('A', '0')
+                .withProduction('B', '1')
+                .withProduction('A', 'N', 'T')
+                .withProduction('A', 'E', 'C')
+                .withProduction('B', 'E', 'T')
+                .withProduction('B', 'N', 'D')
+                .withProduction('C', 'A', 'A')
+                .withProduction('D', 'B', 'B')
+                .build()
+                .unwrap();
+    }
+
+    @Test
+    public void testAgreesWithCYKOnShortWords() {
+        ContextFreeGrammar<Character, Character, ChomskyNormalformProduction<Character, Character>>
+                grammar = equalNumberOfZerosAndOnes();
+        CYKRecognizer<Character> cyk = CYKRecognizer.compile(grammar);
+        ValiantRecognizer<Character> valiant = ValiantRecognizer.compile(grammar);
+
+        assertFalse(valiant.accepts(new Word<>()));
+        assertFalse(valiant.accepts(Words.characterWord("0120")));
+
+        new WordGenerator<>(grammar.getTerminals())
+                .allWordsUpToSize(10)
+                .filter(word -> !word.isEmpty())
+                .forEach(
+                        word ->
+                                assertEquals(
+                                        word.toString(), cyk.accepts(word), valiant.accepts(word)));
+    }
+
+    @Test
+    public void testAgreesWithCYKOnLongWords() {
+        ContextFreeGrammar<Character, Character, ChomskyNormalformProduction<Character, Character>>
+                grammar = equalNumberOfZerosAndOnes();
+        CYKRecognizer<Character> cyk = CYKRecognizer.compile(grammar);
+        ValiantRecognizer<Character> valiant = ValiantRecognizer.compile(grammar);
+
+        Random random = new Random(1);
+        for (int length = 60; length <= 140; length += 4) {
+            // a random permutation of equally many zeros and ones, possibly with one flipped bit
+            List<Character> symbols = new ArrayList<>();
+            for (int i = 0; i < length; i++) symbols.add(i % 2 == 0 ? '0' : '1');
+            Collections.shuffle(symbols, random);
+            if (random.nextBoolean()) symbols.set(random.nextInt(length), '0');
+
+            Word<Character> word = new Word<>(symbols);
+            assertEquals(word.toString(), cyk.accepts(word), valiant.accepts(word));
+        }
+    }
+
+    @Test
+    public void testRecognitionStrategies() {
+        ContextFreeGrammarBuilder<Character, String> builder =
+                new ContextFreeGrammarBuilder<>(new Alphabet<>('(', ')'), new Alphabet<>("S"));
+        builder.withStartSymbol("S")
+                .withProduction("S")
+                .t('(')
+                .nt("S")
+                .t(')')
+                .nt("S")
+                .finish()
+                .withEpsProduction("S");
+        ContextFreeLanguage<Character> language =
+                new ContextFreeLanguage<>(builder.build().unwrap());
+
+        List<Word<Character>> words = new ArrayList<>();
+        words.add(new Word<>());
+        words.add(Words.characterWord("(()())()"));
+        words.add(Words.characterWord("(()()))("));
+
+        for (ContextFreeRecognitionStrategy strategy : ContextFreeRecognitionStrategy.values()) {
+            language.setRecognitionStrategy(strategy);
+            assertEquals(strategy, language.getRecognitionStrategy());
+            assertTrue(language.contains(words.get(0)));
+            assertTrue(language.contains(words.get(1)));
+            assertFalse(language.contains(words.get(2)));
+            assertEquals(3, language.containsAll(words).cardinality() + 1);
+        }
+    }
+}
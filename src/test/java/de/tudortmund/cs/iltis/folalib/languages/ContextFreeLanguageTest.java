@@ -6,6 +6,9 @@ import de.tudortmund.cs.iltis.folalib.automata.pushdown.*;
 import de.tudortmund.cs.iltis.folalib.grammar.construction.builder.ContextFreeGrammarBuilder;
 import de.tudortmund.cs.iltis.folalib.grammar.contextfree.ContextFreeGrammar;
 import de.tudortmund.cs.iltis.folalib.grammar.production.ContextFreeProduction;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
 import org.junit.Test;
 
 public class ContextFreeLanguageTest extends Utils {
@@ -41,6 +44,35 @@ public class ContextFreeLanguageTest extends Utils {
         assertFalse(language.contains(Words.characterWord("bbbbbbbb")));
     }
 
+    @Test
+    public void testContainsAll() {
+        ContextFreeGrammarBuilder<Character, String> builder =
+                new ContextFreeGrammarBuilder<>(new Alphabet<>('a', 'b'), new Alphabet<>("S"));
+        builder.withStartSymbol("S")
+                .withProduction("S")
+                .t('a')
+                .nt("S")
+                .t('b')
+                .finish()
+                .withEpsProduction("S");
+        ContextFreeLanguage<Character> language =
+                new ContextFreeLanguage<>(builder.build().unwrap());
+
+        List<Word<Character>> words =
+                Arrays.asList(
+                        Words.characterWord("ab"),
+                        new Word<>(),
+                        Words.characterWord("aab"),
+                        Words.characterWord("aabb"),
+                        Words.characterWord("ba"));
+
+        BitSet expected = new BitSet();
+        expected.set(0, 2);
+        expected.set(3);
+        assertEquals(expected, language.containsAll(words));
+        assertEquals(expected, language.containsAll(words.stream()));
+    }
+
     @Test
     public void testContextFreeLanguageFromPDA() {
         Alphabet<Character> inputAlphabet = Alphabets.characterAlphabet("({)}");
@@ -0,0 +1,84 @@
+package de.tudortmund.cs.iltis.folalib.util;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class LRUCacheTest {
+
+    @Test
+    public void testHitsAndMisses() {
+        LRUCache<Integer, String> cache = new LRUCache<>(10);
+        AtomicInteger computations = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(
+                    "1",
+                    cache.computeIfAbsent(
+                            1,
+                            key -> {
+                                computations.incrementAndGet();
+                                return key.toString();
+                            }));
+        }
+
+        assertEquals(1, computations.get());
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        LRUCache<Integer, String> cache = new LRUCache<>(2);
+        cache.computeIfAbsent(1, Object::toString);
+        cache.computeIfAbsent(2, Object::toString);
+        cache.computeIfAbsent(1, Object::toString);
+        cache.computeIfAbsent(3, Object::toString);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getHits());
+
+        // 2 was evicted, 1 was not
+        cache.computeIfAbsent(1, Object::toString);
+        assertEquals(2, cache.getHits());
+        cache.computeIfAbsent(2, Object::toString);
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws InterruptedException {
+        LRUCache<Integer, Integer> cache = new LRUCache<>(50);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+
+        for (int t = 0; t < 8; t++) {
+            Thread thread =
+                    new Thread(
+                            () -> {
+                                for (int i = 0; i < 10000; i++) {
+                                    int key = i % 100;
+                                    if (cache.computeIfAbsent(key, k -> 2 * k) != 2 * key)
+                                        throw new AssertionError("Wrong value for " + key);
+                                }
+                            });
+            thread.setUncaughtExceptionHandler((th, e) -> errors.add(e));
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        assertTrue(errors.isEmpty());
+        assertEquals(80000, cache.getHits() + cache.getMisses());
+        assertTrue(cache.size() <= 50);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaximumSize() {
+        new LRUCache<>(0);
+    }
+}